@@ -0,0 +1,67 @@
+package io.quarkiverse.aesh.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkiverse.aesh.runtime.AeshCompletionIndex;
+
+/**
+ * Measures completing a command name prefix with the build-time {@link AeshCompletionIndex},
+ * against scanning every registered name as a registry does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompletionIndexBenchmark {
+
+    @Param({ "50", "500" })
+    int commandCount;
+
+    private final List<String> names = new ArrayList<>();
+    private AeshCompletionIndex index;
+
+    @Setup
+    public void setup() {
+        names.clear();
+        for (int i = 0; i < commandCount; i++) {
+            names.add("command-" + i);
+        }
+        Map<String, List<String>> commands = new HashMap<>();
+        commands.put("", names);
+        index = new AeshCompletionIndex(commands, Map.of(), Map.of());
+    }
+
+    @Benchmark
+    public List<String> indexed() {
+        return index.completeCommand("", "command-4");
+    }
+
+    @Benchmark
+    public List<String> scan() {
+        List<String> candidates = new ArrayList<>();
+        for (String name : names) {
+            if (name.startsWith("command-4")) {
+                candidates.add(name);
+            }
+        }
+        return candidates;
+    }
+}
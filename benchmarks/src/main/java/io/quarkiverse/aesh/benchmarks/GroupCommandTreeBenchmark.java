@@ -0,0 +1,161 @@
+package io.quarkiverse.aesh.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.GroupCommandDefinition;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Argument;
+import org.aesh.command.option.Option;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkiverse.aesh.runtime.AeshCdiCommandContainerBuilder;
+import io.quarkiverse.aesh.runtime.AeshCommandInjector;
+
+/**
+ * Measures {@link AeshCdiCommandContainerBuilder#create(Command)} on a group command tree
+ * three levels deep (19 commands), where every sub-command is instantiated reflectively
+ * and injected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupCommandTreeBenchmark {
+
+    private final AeshCommandInjector injector = new AeshCommandInjector();
+
+    @Benchmark
+    public Object createTree() throws Exception {
+        return new AeshCdiCommandContainerBuilder<CommandInvocation>(injector).create(new ClusterCommand());
+    }
+
+    @GroupCommandDefinition(name = "cluster", description = "Cluster tools", groupCommands = {
+            NodeCommand.class, ServiceCommand.class })
+    public static class ClusterCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @GroupCommandDefinition(name = "node", description = "Node tools", groupCommands = {
+            NodeConfigCommand.class, NodeStateCommand.class })
+    public static class NodeCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @GroupCommandDefinition(name = "service", description = "Service tools", groupCommands = {
+            ServiceConfigCommand.class, ServiceStateCommand.class })
+    public static class ServiceCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @GroupCommandDefinition(name = "config", description = "Node configuration", groupCommands = {
+            GetCommand.class, SetCommand.class, ListCommand.class })
+    public static class NodeConfigCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @GroupCommandDefinition(name = "state", description = "Node state", groupCommands = {
+            GetCommand.class, SetCommand.class, ListCommand.class })
+    public static class NodeStateCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @GroupCommandDefinition(name = "config", description = "Service configuration", groupCommands = {
+            GetCommand.class, SetCommand.class, ListCommand.class })
+    public static class ServiceConfigCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @GroupCommandDefinition(name = "state", description = "Service state", groupCommands = {
+            GetCommand.class, SetCommand.class, ListCommand.class })
+    public static class ServiceStateCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "get", description = "Get a value")
+    public static class GetCommand implements Command<CommandInvocation> {
+
+        @Argument(description = "Key", required = true)
+        String key;
+
+        @Inject
+        Object service;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "set", description = "Set a value")
+    public static class SetCommand implements Command<CommandInvocation> {
+
+        @Option(name = "key", shortName = 'k', required = true)
+        String key;
+
+        @Option(name = "value", shortName = 'v')
+        String value;
+
+        @Inject
+        Object service;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "list", description = "List values")
+    public static class ListCommand implements Command<CommandInvocation> {
+
+        @Option(name = "all", shortName = 'a', hasValue = false)
+        boolean all;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.quarkiverse.aesh.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aesh.terminal.http.HttpTtyConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkiverse.aesh.ssh.runtime.IdleTrackingConnection;
+
+/**
+ * Measures the overhead that {@link IdleTrackingConnection} adds to every keystroke of an SSH
+ * session, by delivering input to a stdin handler set directly on the connection and to one set
+ * through the idle tracking wrapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdleTrackingBenchmark {
+
+    private final int[] keystroke = { 'a' };
+
+    private HttpTtyConnection direct;
+    private HttpTtyConnection wrapped;
+    private long delivered;
+
+    @Setup
+    public void setup() {
+        direct = new BenchmarkConnection();
+        direct.setStdinHandler(codePoints -> delivered += codePoints.length);
+        wrapped = new BenchmarkConnection();
+        new IdleTrackingConnection(wrapped, () -> {
+        }).setStdinHandler(codePoints -> delivered += codePoints.length);
+    }
+
+    @Benchmark
+    public long directStdin() {
+        direct.getStdinHandler().accept(keystroke);
+        return delivered;
+    }
+
+    @Benchmark
+    public long idleTrackingStdin() {
+        wrapped.getStdinHandler().accept(keystroke);
+        return delivered;
+    }
+
+    private static final class BenchmarkConnection extends HttpTtyConnection {
+
+        @Override
+        protected void write(byte[] buffer) {
+        }
+    }
+}
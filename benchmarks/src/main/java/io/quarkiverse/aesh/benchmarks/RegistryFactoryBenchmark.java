@@ -0,0 +1,67 @@
+package io.quarkiverse.aesh.benchmarks;
+
+import static io.quarkiverse.aesh.benchmarks.Stubs.answer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.Bean;
+
+import org.aesh.command.Command;
+import org.aesh.command.invocation.CommandInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkiverse.aesh.benchmarks.CommandRegistryBenchmark.RepoCommand;
+import io.quarkiverse.aesh.benchmarks.CommandRegistryBenchmark.StatusCommand;
+import io.quarkiverse.aesh.runtime.DefaultCliCommandRegistryFactory;
+
+/**
+ * Measures {@link DefaultCliCommandRegistryFactory#create()} followed by building the
+ * registry, which is what the local console and every remote session do on startup.
+ * <p>
+ * The CDI {@link Instance} of {@code @CliCommand} beans is replaced by a fixed list of handles
+ * of command instances, so bean resolution is not part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistryFactoryBenchmark {
+
+    private DefaultCliCommandRegistryFactory factory;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        List<Instance.Handle<Command<CommandInvocation>>> handles = List.of(handle(new RepoCommand()),
+                handle(new StatusCommand()));
+        Instance<Command<CommandInvocation>> instance = Stubs.stub(Instance.class,
+                answer("handles", (name, args) -> handles));
+        factory = new DefaultCliCommandRegistryFactory(instance);
+    }
+
+    @Benchmark
+    public Object create() throws Exception {
+        return factory.create().create();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Instance.Handle<Command<CommandInvocation>> handle(Command<CommandInvocation> command) {
+        Bean<?> bean = Stubs.stub(Bean.class, answer("getBeanClass", (name, args) -> command.getClass()));
+        return Stubs.stub(Instance.Handle.class,
+                answer("get", (name, args) -> command),
+                answer("getBean", (name, args) -> bean));
+    }
+}
@@ -0,0 +1,73 @@
+package io.quarkiverse.aesh.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aesh.AeshRuntimeRunner;
+import org.aesh.command.AeshCommandRuntimeBuilder;
+import org.aesh.command.Command;
+import org.aesh.command.CommandResult;
+import org.aesh.command.CommandRuntime;
+import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
+import org.aesh.command.invocation.CommandInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkiverse.aesh.benchmarks.CommandRegistryBenchmark.RepoCommand;
+import io.quarkiverse.aesh.runtime.AeshCdiCommandContainerBuilder;
+import io.quarkiverse.aesh.runtime.AeshCommandInjector;
+
+/**
+ * Measures parsing and executing one command line in runtime mode, the way {@code AeshRunner}
+ * runs a single-command application.
+ * <p>
+ * {@code singleShot} includes building the command runtime, as a CLI process does once per
+ * invocation. {@code reusedRuntime} only parses and executes against a runtime built up front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuntimeRunnerBenchmark {
+
+    private static final String[] ARGS = { "clone", "--depth", "1", "--branch", "main",
+            "https://example.com/acme/project.git" };
+
+    private final AeshCommandInjector injector = new AeshCommandInjector();
+    private CommandRuntime<CommandInvocation> runtime;
+
+    @Setup
+    public void setup() throws Exception {
+        runtime = createRuntime(injector);
+    }
+
+    @Benchmark
+    public CommandResult singleShot() throws Exception {
+        return AeshRuntimeRunner.builder().commandRuntime(createRuntime(injector)).args(ARGS).execute();
+    }
+
+    @Benchmark
+    public CommandResult reusedRuntime() {
+        return AeshRuntimeRunner.builder().commandRuntime(runtime).args(ARGS).execute();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static CommandRuntime<CommandInvocation> createRuntime(AeshCommandInjector injector) throws Exception {
+        AeshCommandRegistryBuilder<CommandInvocation> registryBuilder = AeshCommandRegistryBuilder
+                .<CommandInvocation> builder();
+        registryBuilder.containerBuilder(new AeshCdiCommandContainerBuilder<>(injector));
+        registryBuilder.command((Command) new RepoCommand());
+        return AeshCommandRuntimeBuilder.<CommandInvocation> builder()
+                .commandRegistry(registryBuilder.create())
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package io.quarkiverse.aesh.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Creates stand-ins for the CDI, WebSocket and terminal interfaces the benchmarked classes
+ * depend on, so that they can be measured without a running Quarkus application.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Returns a proxy of {@code type} that answers the methods named in {@code answers} and
+     * returns the default value of the return type for every other method.
+     */
+    @SafeVarargs
+    static <T> T stub(Class<T> type, Map.Entry<String, BiFunction<String, Object[], Object>>... answers) {
+        Map<String, BiFunction<String, Object[], Object>> byName = Map.ofEntries(answers);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    BiFunction<String, Object[], Object> answer = byName.get(method.getName());
+                    if (answer != null) {
+                        return answer.apply(method.getName(), args);
+                    }
+                    if (method.getName().equals("toString")) {
+                        return type.getSimpleName() + " stub";
+                    }
+                    if (method.getName().equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if (method.getName().equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    return defaultValue(method.getReturnType());
+                }));
+    }
+
+    static Map.Entry<String, BiFunction<String, Object[], Object>> answer(String method,
+            BiFunction<String, Object[], Object> answer) {
+        return Map.entry(method, answer);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,157 @@
+package io.quarkiverse.aesh.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.aesh.terminal.http.HttpTtyConnection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.quarkiverse.aesh.runtime.AeshTerminalInput;
+import io.quarkiverse.aesh.websocket.runtime.AeshWebSocketBinaryProtocol;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Compares the JSON/text WebSocket terminal protocol with the binary frame protocol.
+ * <p>
+ * The output benchmarks encode 1 MB of terminal output, split into chunks of
+ * {@code chunkSize} bytes as aesh would emit them, into the frame payloads each protocol sends.
+ * The input benchmarks decode 1 KB of keystrokes, one frame per keystroke as a browser
+ * terminal sends them, and deliver them to the connection's stdin handler.
+ * <p>
+ * Bytes on the wire, including the WebSocket frame headers, do not depend on timing and are
+ * printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TerminalProtocolBenchmark {
+
+    private static final int OUTPUT_BYTES = 1024 * 1024;
+    private static final int KEYSTROKES = 1024;
+
+    @Param({ "64", "4096" })
+    int chunkSize;
+
+    private byte[][] outputChunks;
+    private String[] jsonKeystrokes;
+    private Buffer[] binaryKeystrokes;
+
+    private HttpTtyConnection jsonConnection;
+    private AeshTerminalInput binaryInput;
+    private long delivered;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        byte[] line = "2026-01-01 12:00:00 \u001b[32mINFO\u001b[0m  [io.quarkus] (main) started in 0.42s\r\n"
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] output = new byte[OUTPUT_BYTES];
+        for (int i = 0; i < OUTPUT_BYTES; i++) {
+            output[i] = line[i % line.length];
+        }
+        outputChunks = new byte[OUTPUT_BYTES / chunkSize][];
+        for (int i = 0; i < outputChunks.length; i++) {
+            outputChunks[i] = Arrays.copyOfRange(output, i * chunkSize, (i + 1) * chunkSize);
+        }
+
+        String typed = "repo clone --depth=1 https://example.com/acme/project.git\r";
+        jsonKeystrokes = new String[KEYSTROKES];
+        binaryKeystrokes = new Buffer[KEYSTROKES];
+        for (int i = 0; i < KEYSTROKES; i++) {
+            char c = typed.charAt(i % typed.length());
+            String data = c == '\r' ? "\\r" : String.valueOf(c);
+            jsonKeystrokes[i] = "{\"action\":\"read\",\"data\":\"" + data + "\"}";
+            binaryKeystrokes[i] = Buffer.buffer().appendByte(AeshWebSocketBinaryProtocol.INPUT)
+                    .appendString(String.valueOf(c), StandardCharsets.UTF_8.name());
+        }
+
+        jsonConnection = new BenchmarkConnection();
+        jsonConnection.setStdinHandler(codePoints -> delivered += codePoints.length);
+        HttpTtyConnection binaryConnection = new BenchmarkConnection();
+        binaryConnection.setStdinHandler(codePoints -> delivered += codePoints.length);
+        binaryInput = new AeshTerminalInput(binaryConnection);
+    }
+
+    @TearDown(Level.Trial)
+    public void printWireBytes() {
+        long text = 0;
+        long binary = 0;
+        for (byte[] chunk : outputChunks) {
+            text += frameSize(new String(chunk, StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8).length, false);
+            binary += frameSize(AeshWebSocketBinaryProtocol.output(chunk, chunk.length).length(), false);
+        }
+        long jsonIn = 0;
+        long binaryIn = 0;
+        for (int i = 0; i < KEYSTROKES; i++) {
+            jsonIn += frameSize(jsonKeystrokes[i].getBytes(StandardCharsets.UTF_8).length, true);
+            binaryIn += frameSize(binaryKeystrokes[i].length(), true);
+        }
+        System.out.printf("%nBytes on the wire (chunkSize=%d): output per 1 MB text=%d binary=%d,"
+                + " input per %d keystrokes json=%d binary=%d%n",
+                chunkSize, text, binary, KEYSTROKES, jsonIn, binaryIn);
+    }
+
+    @Benchmark
+    public void jsonProtocolOutput(Blackhole bh) {
+        for (byte[] chunk : outputChunks) {
+            // AeshWebSocketConnection decodes the chunk, the text frame encodes it again
+            String text = new String(chunk, StandardCharsets.UTF_8);
+            bh.consume(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Benchmark
+    public void binaryProtocolOutput(Blackhole bh) {
+        for (byte[] chunk : outputChunks) {
+            bh.consume(AeshWebSocketBinaryProtocol.output(chunk, chunk.length));
+        }
+    }
+
+    @Benchmark
+    public long jsonProtocolInput() {
+        for (String message : jsonKeystrokes) {
+            jsonConnection.writeToDecoder(message);
+        }
+        return delivered;
+    }
+
+    @Benchmark
+    public long binaryProtocolInput() {
+        for (Buffer frame : binaryKeystrokes) {
+            binaryInput.accept(AeshTerminalInput.decodeUtf8(frame.getByteBuf().nioBuffer(1, frame.length() - 1)));
+        }
+        return delivered;
+    }
+
+    /**
+     * Size of a WebSocket frame per RFC 6455: 2 header bytes, extended length for payloads
+     * of 126 bytes or more, and a 4-byte masking key on client-to-server frames.
+     */
+    private static long frameSize(int payload, boolean masked) {
+        int header = payload < 126 ? 2 : payload <= 0xFFFF ? 4 : 10;
+        return payload + header + (masked ? 4 : 0);
+    }
+
+    private static final class BenchmarkConnection extends HttpTtyConnection {
+
+        @Override
+        protected void write(byte[] buffer) {
+        }
+    }
+}
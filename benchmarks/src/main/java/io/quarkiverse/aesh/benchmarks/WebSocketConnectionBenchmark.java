@@ -0,0 +1,133 @@
+package io.quarkiverse.aesh.benchmarks;
+
+import static io.quarkiverse.aesh.benchmarks.Stubs.answer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkiverse.aesh.websocket.runtime.AeshWebSocketBinaryProtocol;
+import io.quarkiverse.aesh.websocket.runtime.AeshWebSocketConnection;
+import io.quarkiverse.aesh.websocket.runtime.AeshWebSocketRuntimeConfig;
+import io.quarkus.websockets.next.WebSocketConnection;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Measures {@link AeshWebSocketConnection} end to end, from aesh's stdout handler to the frame
+ * handed to the WebSocket, and from an incoming frame to the stdin handler.
+ * <p>
+ * The Quarkus {@link WebSocketConnection} is replaced by a stub that completes every send
+ * immediately, so the network is not part of the measurement. {@code blockingOutput} sends
+ * every chunk as its own frame, {@code coalescedOutput} goes through the output buffer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebSocketConnectionBenchmark {
+
+    private static final int CHUNKS = 256;
+    private static final int KEYSTROKES = 1024;
+
+    private Vertx vertx;
+    private AeshWebSocketConnection blocking;
+    private AeshWebSocketConnection coalesced;
+    private AeshWebSocketConnection binary;
+    private int[] chunk;
+    private String[] jsonKeystrokes;
+    private Buffer[] binaryKeystrokes;
+    private long delivered;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        vertx = Vertx.vertx();
+        WebSocketConnection ws = Stubs.stub(WebSocketConnection.class,
+                answer("id", (name, args) -> "bench"),
+                answer("isOpen", (name, args) -> true),
+                answer("sendText", (name, args) -> Uni.createFrom().voidItem()),
+                answer("sendBinary", (name, args) -> Uni.createFrom().voidItem()));
+        AeshWebSocketRuntimeConfig config = Stubs.stub(AeshWebSocketRuntimeConfig.class,
+                answer("outputFlushInterval", (name, args) -> Duration.ofMillis(5)),
+                answer("outputFlushSize", (name, args) -> 16384),
+                answer("outputMaxPendingBytes", (name, args) -> 1024L * 1024L));
+
+        blocking = new AeshWebSocketConnection(ws);
+        coalesced = new AeshWebSocketConnection(ws, vertx, config);
+        binary = new AeshWebSocketConnection(ws, vertx, config);
+        binary.enableBinaryProtocol();
+
+        Consumer<int[]> stdin = codePoints -> delivered += codePoints.length;
+        blocking.setStdinHandler(stdin);
+        binary.setStdinHandler(stdin);
+
+        chunk = "2026-01-01 12:00:00 \u001b[32mINFO\u001b[0m  [io.quarkus] (main) started in 0.42s\r\n"
+                .codePoints().toArray();
+        String typed = "repo clone --depth=1 https://example.com/acme/project.git\r";
+        jsonKeystrokes = new String[KEYSTROKES];
+        binaryKeystrokes = new Buffer[KEYSTROKES];
+        for (int i = 0; i < KEYSTROKES; i++) {
+            char c = typed.charAt(i % typed.length());
+            jsonKeystrokes[i] = "{\"action\":\"read\",\"data\":\"" + (c == '\r' ? "\\r" : String.valueOf(c)) + "\"}";
+            binaryKeystrokes[i] = Buffer.buffer().appendByte(AeshWebSocketBinaryProtocol.INPUT)
+                    .appendString(String.valueOf(c), StandardCharsets.UTF_8.name());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        blocking.close();
+        coalesced.close();
+        binary.close();
+        vertx.close().toCompletionStage().toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public void blockingOutput() {
+        Consumer<int[]> stdout = blocking.stdoutHandler();
+        for (int i = 0; i < CHUNKS; i++) {
+            stdout.accept(chunk);
+        }
+    }
+
+    @Benchmark
+    public void coalescedOutput() {
+        Consumer<int[]> stdout = coalesced.stdoutHandler();
+        for (int i = 0; i < CHUNKS; i++) {
+            stdout.accept(chunk);
+        }
+    }
+
+    @Benchmark
+    public long jsonInput() {
+        for (String message : jsonKeystrokes) {
+            blocking.writeToDecoder(message);
+        }
+        return delivered;
+    }
+
+    @Benchmark
+    public long binaryInput() {
+        for (Buffer frame : binaryKeystrokes) {
+            binary.writeBinaryFrame(frame);
+        }
+        return delivered;
+    }
+}
@@ -0,0 +1,183 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.GroupCommandDefinition;
+import org.aesh.command.completer.CompleterInvocation;
+import org.aesh.command.completer.OptionCompleter;
+import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Argument;
+import org.aesh.command.option.Option;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkus.arc.InstanceHandle;
+
+/**
+ * Measures the cost of creating the command registry of a new session, which is what
+ * every SSH or WebSocket connection pays before the first prompt is displayed.
+ * <p>
+ * {@code perSessionInjector} reproduces the historical behaviour, where each session
+ * resolved the injection metadata of every reflectively created object again.
+ * {@code sharedInjector} reuses the metadata resolved by previous sessions, as
+ * {@code DefaultCliCommandRegistryFactory} does.
+ * <p>
+ * The benchmark runs without a CDI container: the injectors resolve the {@code @Inject}
+ * fields against a stub bean, so that every sub-command and completer of the tree has an
+ * injection plan to resolve and fields to assign, as in an application. The cost of the Arc
+ * bean resolution itself is not part of the measurement.
+ * <p>
+ * The benchmark lives in the package of {@link AeshCommandInjector} to pass it that resolver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandRegistryBenchmark {
+
+    private static final Object SERVICE = new Object();
+
+    private final AeshCommandInjector sharedInjector = newInjector();
+
+    @Benchmark
+    public Object perSessionInjector() throws Exception {
+        return createRegistry(newInjector());
+    }
+
+    @Benchmark
+    public Object sharedInjector() throws Exception {
+        return createRegistry(sharedInjector);
+    }
+
+    private static AeshCommandInjector newInjector() {
+        InstanceHandle<?> handle = new InstanceHandle<Object>() {
+
+            @Override
+            public Object get() {
+                return SERVICE;
+            }
+
+            @Override
+            public boolean isAvailable() {
+                return true;
+            }
+        };
+        Supplier<InstanceHandle<?>> supplier = () -> handle;
+        return new AeshCommandInjector(type -> type == Object.class ? supplier : null);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object createRegistry(AeshCommandInjector injector) throws Exception {
+        AeshCommandRegistryBuilder<CommandInvocation> builder = AeshCommandRegistryBuilder.<CommandInvocation> builder();
+        builder.containerBuilder(new AeshCdiCommandContainerBuilder<>(injector));
+        builder.command((Command) new RepoCommand());
+        builder.command((Command) new StatusCommand());
+        return builder.create();
+    }
+
+    @GroupCommandDefinition(name = "repo", description = "Repository tools", groupCommands = {
+            CloneCommand.class, FetchCommand.class, PushCommand.class })
+    public static class RepoCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "clone", description = "Clone a repository")
+    public static class CloneCommand implements Command<CommandInvocation> {
+
+        @Option(name = "depth", shortName = 'd', defaultValue = "0")
+        int depth;
+
+        @Option(name = "branch", shortName = 'b', completer = BranchCompleter.class)
+        String branch;
+
+        @Argument(description = "Repository URL", required = true)
+        String url;
+
+        @Inject
+        Object service;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "fetch", description = "Fetch from a remote")
+    public static class FetchCommand implements Command<CommandInvocation> {
+
+        @Option(name = "all", hasValue = false)
+        boolean all;
+
+        @Option(name = "remote", completer = BranchCompleter.class)
+        String remote;
+
+        @Inject
+        Object service;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "push", description = "Push to a remote")
+    public static class PushCommand implements Command<CommandInvocation> {
+
+        @Option(name = "force", shortName = 'f', hasValue = false)
+        boolean force;
+
+        @Argument(description = "Branch", completer = BranchCompleter.class)
+        String branch;
+
+        @Inject
+        Object service;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "status", description = "Show status")
+    public static class StatusCommand implements Command<CommandInvocation> {
+
+        @Option(name = "verbose", shortName = 'v', hasValue = false)
+        boolean verbose;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    public static class BranchCompleter implements OptionCompleter<CompleterInvocation> {
+
+        @Inject
+        Object service;
+
+        @Override
+        public void complete(CompleterInvocation invocation) {
+            invocation.addCompleterValue("main");
+        }
+    }
+}
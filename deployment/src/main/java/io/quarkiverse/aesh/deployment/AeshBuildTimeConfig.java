@@ -6,6 +6,7 @@ import io.quarkus.runtime.annotations.ConfigPhase;
 import io.quarkus.runtime.annotations.ConfigRoot;
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
+import io.smallrye.config.WithName;
 
 /**
  * Build-time configuration for the Aesh extension.
@@ -38,4 +39,42 @@ public interface AeshBuildTimeConfig {
      * (useful when embedding commands in a server application).
      */
     Optional<Boolean> startConsole();
+
+    /**
+     * Whether command execution metrics are published when the micrometer extension is present.
+     * <p>
+     * When enabled, the {@code execute} method of every command is instrumented at build time.
+     */
+    @WithName("metrics.enabled")
+    @WithDefault("true")
+    boolean metricsEnabled();
+
+    /**
+     * Whether the dependencies of commands are only injected before their first execution.
+     * <p>
+     * Applies to {@code @Dependent} commands that have a no-args constructor and only use field
+     * injection, without lifecycle callbacks or interceptors, and that declare no completer,
+     * converter, validator nor activator. Their console and remote session
+     * registries are then built without creating the beans the commands inject, so that startup
+     * time and memory grow with the commands actually run.
+     * <p>
+     * Disabled by default: lazy commands are created without CDI, so a bean injected by a
+     * command is created on its first execution instead of at startup.
+     */
+    @WithName("lazy-commands.enabled")
+    @WithDefault("false")
+    boolean lazyCommandsEnabled();
+
+    /**
+     * Whether the command runtime of runtime mode is built during static init, so that a native
+     * executable has it in its image heap and goes from {@code main} to {@code execute} without
+     * parsing the command annotations.
+     * <p>
+     * The top command and the beans it injects are then created during static init: they must
+     * not read runtime configuration or open resources when created. The runtime is built at
+     * startup as usual when {@code quarkus.aesh.top-command} is set.
+     */
+    @WithName("static-init.enabled")
+    @WithDefault("false")
+    boolean staticInitEnabled();
 }
@@ -2,6 +2,7 @@ package io.quarkiverse.aesh.deployment;
 
 import java.util.List;
 
+import io.quarkiverse.aesh.runtime.AeshOptionMetadata;
 import io.quarkus.builder.item.MultiBuildItem;
 
 /**
@@ -19,10 +20,29 @@ public final class AeshCommandBuildItem extends MultiBuildItem {
     private final List<String> subCommandClassNames;
     private final boolean topCommand;
     private final boolean cliCommand;
+    private final List<String> aliases;
+    private final List<AeshOptionMetadata> options;
+    private final List<String> asyncInterfaces;
 
     public AeshCommandBuildItem(String className, String commandName, String description,
             boolean groupCommand, List<String> subCommandClassNames,
             boolean topCommand, boolean cliCommand) {
+        this(className, commandName, description, groupCommand, subCommandClassNames, topCommand, cliCommand,
+                List.of(), List.of());
+    }
+
+    public AeshCommandBuildItem(String className, String commandName, String description,
+            boolean groupCommand, List<String> subCommandClassNames,
+            boolean topCommand, boolean cliCommand,
+            List<String> aliases, List<AeshOptionMetadata> options) {
+        this(className, commandName, description, groupCommand, subCommandClassNames, topCommand, cliCommand,
+                aliases, options, List.of());
+    }
+
+    public AeshCommandBuildItem(String className, String commandName, String description,
+            boolean groupCommand, List<String> subCommandClassNames,
+            boolean topCommand, boolean cliCommand,
+            List<String> aliases, List<AeshOptionMetadata> options, List<String> asyncInterfaces) {
         this.className = className;
         this.commandName = commandName;
         this.description = description;
@@ -30,6 +50,9 @@ public final class AeshCommandBuildItem extends MultiBuildItem {
         this.subCommandClassNames = subCommandClassNames != null ? List.copyOf(subCommandClassNames) : List.of();
         this.topCommand = topCommand;
         this.cliCommand = cliCommand;
+        this.aliases = aliases != null ? List.copyOf(aliases) : List.of();
+        this.options = options != null ? List.copyOf(options) : List.of();
+        this.asyncInterfaces = asyncInterfaces != null ? List.copyOf(asyncInterfaces) : List.of();
     }
 
     public String getClassName() {
@@ -59,4 +82,29 @@ public final class AeshCommandBuildItem extends MultiBuildItem {
     public boolean isCliCommand() {
         return cliCommand;
     }
+
+    public List<String> getAliases() {
+        return aliases;
+    }
+
+    /**
+     * The options and arguments declared on the command class and its superclasses,
+     * read from the Jandex index.
+     */
+    public List<AeshOptionMetadata> getOptions() {
+        return options;
+    }
+
+    /**
+     * The asynchronous command interfaces ({@code AsyncCommand}, {@code CompletionStageCommand},
+     * {@code StreamingCommand}) implemented by the command class or its superclasses. A valid
+     * command implements at most one.
+     */
+    public List<String> getAsyncInterfaces() {
+        return asyncInterfaces;
+    }
+
+    public boolean isAsync() {
+        return !asyncInterfaces.isEmpty();
+    }
 }
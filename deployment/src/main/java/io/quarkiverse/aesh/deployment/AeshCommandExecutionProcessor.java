@@ -0,0 +1,565 @@
+package io.quarkiverse.aesh.deployment;
+
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.aesh.command.CommandException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
+import org.jboss.jandex.AnnotationValue;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.IndexView;
+import org.jboss.jandex.MethodInfo;
+import org.jboss.jandex.Type;
+
+import io.quarkiverse.aesh.runtime.AeshCommandExecution;
+import io.quarkiverse.aesh.runtime.AeshCommandTimeouts;
+import io.quarkiverse.aesh.runtime.AeshMode;
+import io.quarkiverse.aesh.runtime.AeshOptionMetadata;
+import io.quarkiverse.aesh.runtime.AeshRateLimiter;
+import io.quarkiverse.aesh.runtime.AeshRecorder;
+import io.quarkiverse.aesh.runtime.AeshRemoteSession;
+import io.quarkiverse.aesh.runtime.AeshSessionContext;
+import io.quarkiverse.aesh.runtime.CommandOutput;
+import io.quarkiverse.aesh.runtime.annotations.AeshSessionScoped;
+import io.quarkiverse.aesh.runtime.annotations.CommandTimeout;
+import io.quarkiverse.aesh.runtime.annotations.RateLimited;
+import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
+import io.quarkus.arc.deployment.ContextRegistrationPhaseBuildItem;
+import io.quarkus.arc.deployment.ContextRegistrationPhaseBuildItem.ContextConfiguratorBuildItem;
+import io.quarkus.arc.deployment.CustomScopeBuildItem;
+import io.quarkus.arc.deployment.SynthesisFinishedBuildItem;
+import io.quarkus.arc.deployment.ValidationPhaseBuildItem.ValidationErrorBuildItem;
+import io.quarkus.arc.processor.BeanInfo;
+import io.quarkus.arc.processor.BuiltinScope;
+import io.quarkus.deployment.annotations.BuildProducer;
+import io.quarkus.deployment.annotations.BuildStep;
+import io.quarkus.deployment.annotations.ExecutionTime;
+import io.quarkus.deployment.annotations.Record;
+import io.quarkus.deployment.builditem.BytecodeTransformerBuildItem;
+import io.quarkus.deployment.builditem.CombinedIndexBuildItem;
+import io.quarkus.deployment.metrics.MetricsCapabilityBuildItem;
+import io.quarkus.deployment.recording.RecorderContext;
+import io.quarkus.gizmo.AssignableResultHandle;
+import io.quarkus.gizmo.BranchResult;
+import io.quarkus.gizmo.BytecodeCreator;
+import io.quarkus.gizmo.CatchBlockCreator;
+import io.quarkus.gizmo.ClassTransformer;
+import io.quarkus.gizmo.FieldCreator;
+import io.quarkus.gizmo.FieldDescriptor;
+import io.quarkus.gizmo.MethodCreator;
+import io.quarkus.gizmo.MethodDescriptor;
+import io.quarkus.gizmo.ResultHandle;
+import io.quarkus.gizmo.TryBlock;
+
+/**
+ * Routes command executions through {@link AeshCommandExecution}, for metrics and for the rate
+ * limiting and timeouts of remote sessions.
+ * <p>
+ * The {@code execute} method declared by each command class is renamed and replaced by a method
+ * that asks {@link AeshCommandExecution} for a permit and reports the call around the original
+ * one. Asynchronous commands, whose {@code execute} is the default method of their interface,
+ * get a wrapper that calls it, and commands that inherit {@code execute} get a wrapper that
+ * calls {@code super.execute}, so that every command class reports its own name and class. The
+ * wrappers of superclasses that are commands themselves only call the method they wrap when
+ * they run within the wrapper of a subclass. The class also implements
+ * {@link AeshCommandExecution.SessionBound} with a generated field holding the
+ * {@link AeshRemoteSession} of the instance. Commands created reflectively by aesh are
+ * instrumented as well, which CDI interceptors could not do. Classes are only changed when
+ * command metrics are active, a remote transport is present, {@link CommandOutput} is injected,
+ * {@link AeshSessionScoped} beans are declared or some commands are lazy.
+ * <p>
+ * Lazy commands, whose dependencies can be injected late, also implement
+ * {@link AeshCommandExecution.DeferredInjection} with a generated flag telling whether the
+ * injection of the instance is still pending.
+ */
+class AeshCommandExecutionProcessor {
+
+    static final String RENAMED_EXECUTE = "aesh$execute";
+    static final String SESSION_FIELD = "aesh$session";
+    static final String INJECTION_PENDING_FIELD = "aesh$injectionPending";
+
+    private static final DotName COMMAND_RESULT = DotName.createSimple(CommandResult.class.getName());
+    private static final DotName RATE_LIMITED = DotName.createSimple(RateLimited.class.getName());
+    private static final DotName SESSION_SCOPED = DotName.createSimple(AeshSessionScoped.class.getName());
+    private static final DotName OBJECT = DotName.createSimple(Object.class.getName());
+    private static final DotName COMMAND_OUTPUT = DotName.createSimple(CommandOutput.class.getName());
+    private static final DotName COMMAND_DEFINITION = DotName.createSimple("org.aesh.command.CommandDefinition");
+    private static final DotName GROUP_COMMAND_DEFINITION = DotName
+            .createSimple("org.aesh.command.GroupCommandDefinition");
+    private static final DotName INJECT = DotName.createSimple("jakarta.inject.Inject");
+    private static final DotName COMMAND_TIMEOUT = DotName.createSimple(CommandTimeout.class.getName());
+    private static final DotName POST_CONSTRUCT = DotName.createSimple("jakarta.annotation.PostConstruct");
+    private static final DotName PRE_DESTROY = DotName.createSimple("jakarta.annotation.PreDestroy");
+    private static final int BRIDGE = 0x0040;
+    private static final List<String> ASYNC_EXCEPTIONS = List.of(CommandException.class.getName(),
+            InterruptedException.class.getName());
+
+    private static final MethodDescriptor PERMIT = MethodDescriptor.ofMethod(AeshCommandExecution.class, "permit",
+            boolean.class, Object.class, String.class, String.class, CommandInvocation.class);
+    private static final MethodDescriptor IS_EXECUTING = MethodDescriptor.ofMethod(AeshCommandExecution.class,
+            "isExecuting", boolean.class, Object.class);
+    private static final MethodDescriptor BEGIN = MethodDescriptor.ofMethod(AeshCommandExecution.class, "begin",
+            long.class);
+    private static final MethodDescriptor SUCCEEDED = MethodDescriptor.ofMethod(AeshCommandExecution.class,
+            "succeeded", void.class, Object.class, String.class, long.class, CommandResult.class);
+    private static final MethodDescriptor FAILED = MethodDescriptor.ofMethod(AeshCommandExecution.class, "failed",
+            void.class, Object.class, String.class, long.class);
+    private static final FieldDescriptor FAILURE = FieldDescriptor.of(CommandResult.class, "FAILURE",
+            CommandResult.class);
+
+    /**
+     * Registers the context of {@link AeshSessionScoped} beans, which finds the session of the
+     * command executing on the current thread through the instrumented {@code execute} methods.
+     */
+    @BuildStep
+    ContextConfiguratorBuildItem registerSessionContext(ContextRegistrationPhaseBuildItem contextRegistration) {
+        return new ContextConfiguratorBuildItem(contextRegistration.getContext()
+                .configure(AeshSessionScoped.class).normal().contextClass(AeshSessionContext.class));
+    }
+
+    @BuildStep
+    CustomScopeBuildItem sessionScope() {
+        return new CustomScopeBuildItem(AeshSessionScoped.class);
+    }
+
+    /**
+     * Selects the commands whose injection can be deferred to their first execution: those
+     * that have a wrappable {@code execute} method, can be created with their no-args
+     * constructor, whose CDI bean would do nothing beyond field injection, and that declare no
+     * completer, converter, validator nor activator. Those run on completion or before
+     * {@code execute}, and may read the injected fields of the command. Only console mode
+     * registers many commands up front; in runtime mode none is lazy.
+     */
+    @BuildStep
+    AeshLazyCommandsBuildItem lazyCommands(AeshBuildTimeConfig config,
+            AeshModeBuildItem mode,
+            CombinedIndexBuildItem combinedIndex,
+            SynthesisFinishedBuildItem synthesisFinished,
+            List<AeshCommandBuildItem> commands) {
+        Set<String> lazy = new HashSet<>();
+        if (config.lazyCommandsEnabled() && mode.getResolvedMode() == AeshMode.console) {
+            IndexView index = combinedIndex.getIndex();
+            Map<DotName, BeanInfo> beans = new HashMap<>();
+            for (BeanInfo bean : synthesisFinished.beanStream().classBeans()) {
+                beans.put(bean.getBeanClass(), bean);
+            }
+            for (AeshCommandBuildItem command : commands) {
+                ClassInfo classInfo = index.getClassByName(DotName.createSimple(command.getClassName()));
+                if (classInfo != null
+                        && (command.isAsync() || resolveExecute(classInfo, index) != null)
+                        && !hasCallbacks(command, classInfo, index)
+                        && canDeferInjection(classInfo, beans.get(classInfo.name()), index)) {
+                    lazy.add(command.getClassName());
+                }
+            }
+        }
+        return new AeshLazyCommandsBuildItem(lazy);
+    }
+
+    /**
+     * Declares the lazy {@code @CliCommand} classes to the registry factory, which then creates
+     * them without CDI.
+     */
+    @BuildStep
+    @Record(ExecutionTime.STATIC_INIT)
+    void registerLazyCommands(AeshRecorder recorder,
+            RecorderContext recorderContext,
+            List<AeshCommandBuildItem> commands,
+            AeshLazyCommandsBuildItem lazyCommands) {
+        for (AeshCommandBuildItem command : commands) {
+            if (command.isCliCommand() && lazyCommands.contains(command.getClassName())) {
+                recorder.registerLazyCommand(recorderContext.classProxy(command.getClassName()));
+            }
+        }
+    }
+
+    @BuildStep
+    void instrumentCommands(Optional<MetricsCapabilityBuildItem> metricsCapability,
+            AeshBuildTimeConfig config,
+            CombinedIndexBuildItem combinedIndex,
+            List<AeshCommandBuildItem> commands,
+            List<AeshRemoteTransportBuildItem> remoteTransports,
+            AeshLazyCommandsBuildItem lazyCommands,
+            BuildProducer<BytecodeTransformerBuildItem> transformers) {
+        IndexView index = combinedIndex.getIndex();
+        if (!AeshMetricsProcessor.isActive(metricsCapability, config) && remoteTransports.isEmpty()
+                && !injectsCommandOutput(index) && index.getAnnotations(SESSION_SCOPED).isEmpty()
+                && lazyCommands.getClassNames().isEmpty()) {
+            return;
+        }
+
+        for (AeshCommandBuildItem command : commands) {
+            ClassInfo classInfo = index.getClassByName(DotName.createSimple(command.getClassName()));
+            if (classInfo == null) {
+                continue;
+            }
+            if (Modifier.isAbstract(classInfo.flags()) || Modifier.isInterface(classInfo.flags())) {
+                continue;
+            }
+            MethodInfo execute = findExecute(classInfo);
+            DotName asyncInterface = execute == null ? findAsyncInterface(classInfo, command) : null;
+            List<String> exceptions;
+            if (execute != null) {
+                exceptions = exceptionNames(execute);
+            } else if (asyncInterface != null || command.isAsync()) {
+                exceptions = ASYNC_EXCEPTIONS;
+            } else {
+                // Inherited, possibly from a class outside the index, which only declares fewer
+                MethodInfo inherited = resolveExecute(classInfo, index);
+                exceptions = inherited != null ? exceptionNames(inherited) : List.of();
+            }
+            String commandName = command.getCommandName();
+            String commandClass = command.getClassName();
+            DotName defaultExecute = asyncInterface;
+            DotName superName = classInfo.superName();
+            boolean lazy = lazyCommands.contains(command.getClassName());
+            transformers.produce(new BytecodeTransformerBuildItem(command.getClassName(),
+                    (className, visitor) -> {
+                        ClassTransformer transformer = new ClassTransformer(className);
+                        MethodDescriptor wrapped = MethodDescriptor.ofMethod(className, "execute", CommandResult.class,
+                                CommandInvocation.class);
+                        if (execute != null) {
+                            MethodDescriptor original = MethodDescriptor.of(execute);
+                            transformer.modifyMethod(original).rename(RENAMED_EXECUTE);
+                            addWrapper(transformer, original, exceptions, commandName, commandClass,
+                                    MethodDescriptor.ofMethod(original.getDeclaringClass(), RENAMED_EXECUTE,
+                                            original.getReturnType(), original.getParameterTypes()),
+                                    false);
+                        } else if (defaultExecute != null) {
+                            // execute() is the default method of the asynchronous command interface
+                            addWrapper(transformer, wrapped, exceptions, commandName, commandClass,
+                                    MethodDescriptor.ofMethod(defaultExecute.toString(), "execute", CommandResult.class,
+                                            CommandInvocation.class),
+                                    true);
+                        } else {
+                            // Inherited from a superclass, or from an interface one of them implements
+                            addWrapper(transformer, wrapped, exceptions, commandName, commandClass,
+                                    MethodDescriptor.ofMethod(superName.toString(), "execute", CommandResult.class,
+                                            CommandInvocation.class),
+                                    false);
+                        }
+                        addSessionField(transformer, className);
+                        if (lazy) {
+                            addInjectionPendingField(transformer, className);
+                        }
+                        return transformer.applyTo(visitor);
+                    }));
+        }
+    }
+
+    /**
+     * Registers the rate limiter for remote sessions, with the limits of the commands
+     * annotated with {@link RateLimited}.
+     */
+    @BuildStep
+    @Record(ExecutionTime.STATIC_INIT)
+    void registerRateLimits(AeshRecorder recorder,
+            CombinedIndexBuildItem combinedIndex,
+            List<AeshCommandBuildItem> commands,
+            List<AeshRemoteTransportBuildItem> remoteTransports,
+            BuildProducer<AdditionalBeanBuildItem> additionalBeans) {
+        if (remoteTransports.isEmpty()) {
+            return;
+        }
+        additionalBeans.produce(AdditionalBeanBuildItem.unremovableOf(AeshRateLimiter.class));
+
+        IndexView index = combinedIndex.getIndex();
+        for (AeshCommandBuildItem command : commands) {
+            ClassInfo classInfo = index.getClassByName(DotName.createSimple(command.getClassName()));
+            AnnotationInstance rateLimited = findAnnotation(classInfo, RATE_LIMITED, index);
+            if (rateLimited == null) {
+                continue;
+            }
+            double permitsPerSecond = rateLimited.value("permitsPerSecond").asDouble();
+            if (permitsPerSecond <= 0) {
+                // Reported by validateRateLimits
+                continue;
+            }
+            AnnotationValue burst = rateLimited.value("burst");
+            AnnotationValue scope = rateLimited.value("scope");
+            recorder.registerRateLimit(command.getClassName(), permitsPerSecond,
+                    burst != null ? burst.asInt() : 0,
+                    scope != null ? scope.asEnum() : RateLimited.Scope.SESSION.name());
+        }
+    }
+
+    /**
+     * Validates the {@link RateLimited} annotations at build time, whether or not a remote
+     * transport is present.
+     */
+    @BuildStep
+    void validateRateLimits(CombinedIndexBuildItem combinedIndex,
+            BuildProducer<ValidationErrorBuildItem> validationErrors) {
+        List<Throwable> errors = new ArrayList<>();
+        for (AnnotationInstance rateLimited : combinedIndex.getIndex().getAnnotations(RATE_LIMITED)) {
+            double permitsPerSecond = rateLimited.value("permitsPerSecond").asDouble();
+            if (permitsPerSecond <= 0) {
+                errors.add(new IllegalStateException("@RateLimited on '" + rateLimited.target()
+                        + "' must have a positive permitsPerSecond, got " + permitsPerSecond));
+            }
+        }
+        if (!errors.isEmpty()) {
+            validationErrors.produce(new ValidationErrorBuildItem(errors));
+        }
+    }
+
+    /**
+     * Returns the annotation declared by the class or the nearest of its superclasses, so that a
+     * command extending another one keeps its limits, or {@code null}.
+     */
+    private static AnnotationInstance findAnnotation(ClassInfo classInfo, DotName annotation, IndexView index) {
+        for (ClassInfo current = classInfo; current != null
+                && !current.name().equals(OBJECT); current = current.superName() != null
+                        ? index.getClassByName(current.superName())
+                        : null) {
+            AnnotationInstance instance = current.declaredAnnotation(annotation);
+            if (instance != null) {
+                return instance;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registers the timeouts of remote sessions, with those of the commands annotated with
+     * {@link CommandTimeout}.
+     */
+    @BuildStep
+    @Record(ExecutionTime.STATIC_INIT)
+    void registerCommandTimeouts(AeshRecorder recorder,
+            CombinedIndexBuildItem combinedIndex,
+            List<AeshCommandBuildItem> commands,
+            List<AeshRemoteTransportBuildItem> remoteTransports,
+            BuildProducer<AdditionalBeanBuildItem> additionalBeans) {
+        if (remoteTransports.isEmpty()) {
+            return;
+        }
+        additionalBeans.produce(AdditionalBeanBuildItem.unremovableOf(AeshCommandTimeouts.class));
+
+        IndexView index = combinedIndex.getIndex();
+        for (AeshCommandBuildItem command : commands) {
+            ClassInfo classInfo = index.getClassByName(DotName.createSimple(command.getClassName()));
+            AnnotationInstance timeout = findAnnotation(classInfo, COMMAND_TIMEOUT, index);
+            if (timeout == null) {
+                continue;
+            }
+            AnnotationValue unit = timeout.value("unit");
+            long timeoutMs = Duration.of(timeout.value().asLong(),
+                    unit != null ? ChronoUnit.valueOf(unit.asEnum()) : ChronoUnit.SECONDS).toMillis();
+            recorder.registerCommandTimeout(command.getClassName(), Math.max(timeoutMs, 0));
+        }
+    }
+
+    /**
+     * Whether {@link CommandOutput} is injected anywhere. Injected instances find the running
+     * command through the execution hooks, unlike those created with
+     * {@link CommandOutput#of(CommandInvocation)}.
+     */
+    private static boolean injectsCommandOutput(IndexView index) {
+        for (AnnotationInstance inject : index.getAnnotations(INJECT)) {
+            AnnotationTarget target = inject.target();
+            if (target.kind() == AnnotationTarget.Kind.FIELD) {
+                if (target.asField().type().name().equals(COMMAND_OUTPUT)) {
+                    return true;
+                }
+            } else if (target.kind() == AnnotationTarget.Kind.METHOD) {
+                for (Type parameter : target.asMethod().parameterTypes()) {
+                    if (parameter.name().equals(COMMAND_OUTPUT)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the options of the command, or its command definition, name classes that aesh
+     * calls before {@code execute}: completers, converters, validators or activators.
+     */
+    private static boolean hasCallbacks(AeshCommandBuildItem command, ClassInfo classInfo, IndexView index) {
+        for (AeshOptionMetadata option : command.getOptions()) {
+            if (option.getCompleterClassName() != null || option.getConverterClassName() != null
+                    || option.getValidatorClassName() != null || option.getActivatorClassName() != null) {
+                return true;
+            }
+        }
+        AnnotationInstance definition = findAnnotation(classInfo, COMMAND_DEFINITION, index);
+        if (definition == null) {
+            definition = findAnnotation(classInfo, GROUP_COMMAND_DEFINITION, index);
+        }
+        return definition != null && (definition.value("validator") != null || definition.value("activator") != null);
+    }
+
+    /**
+     * Whether creating the class reflectively and injecting its fields later is equivalent to
+     * creating its bean: a {@code @Dependent} bean, or no bean at all, that is not intercepted
+     * nor decorated, has a no-args constructor, and declares no initializer methods nor
+     * lifecycle callbacks up the class hierarchy.
+     */
+    private static boolean canDeferInjection(ClassInfo classInfo, BeanInfo bean, IndexView index) {
+        if (bean != null && (!BuiltinScope.DEPENDENT.is(bean.getScope()) || isInterceptedOrDecorated(bean))) {
+            return false;
+        }
+        if (!classInfo.hasNoArgsConstructor() || Modifier.isAbstract(classInfo.flags())) {
+            return false;
+        }
+        for (ClassInfo current = classInfo; current != null
+                && !current.name().equals(OBJECT); current = index.getClassByName(current.superName())) {
+            for (MethodInfo method : current.methods()) {
+                if (method.hasDeclaredAnnotation(INJECT) || method.hasDeclaredAnnotation(POST_CONSTRUCT)
+                        || method.hasDeclaredAnnotation(PRE_DESTROY)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isInterceptedOrDecorated(BeanInfo bean) {
+        return bean.hasAroundInvokeInterceptors() || bean.hasLifecycleInterceptors()
+                || !bean.getBoundDecorators().isEmpty();
+    }
+
+    private static MethodInfo findExecute(ClassInfo classInfo) {
+        for (MethodInfo method : classInfo.methods()) {
+            if (method.name().equals("execute")
+                    && method.parametersCount() == 1
+                    && method.returnType().name().equals(COMMAND_RESULT)
+                    && !Modifier.isAbstract(method.flags())
+                    && !method.isSynthetic()
+                    && (method.flags() & BRIDGE) == 0) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the {@code execute} method the class declares or inherits from the superclasses in
+     * the index, or {@code null}.
+     */
+    private static MethodInfo resolveExecute(ClassInfo classInfo, IndexView index) {
+        for (ClassInfo current = classInfo; current != null
+                && !current.name().equals(OBJECT); current = current.superName() != null
+                        ? index.getClassByName(current.superName())
+                        : null) {
+            MethodInfo execute = findExecute(current);
+            if (execute != null) {
+                return execute;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> exceptionNames(MethodInfo method) {
+        return method.exceptions().stream().map(e -> e.name().toString()).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the asynchronous command interface the class implements directly, whose default
+     * {@code execute} method can then be wrapped. Interfaces implemented by a superclass are
+     * reached through {@code super.execute}.
+     */
+    private static DotName findAsyncInterface(ClassInfo classInfo, AeshCommandBuildItem command) {
+        for (String asyncInterface : command.getAsyncInterfaces()) {
+            DotName name = DotName.createSimple(asyncInterface);
+            if (classInfo.interfaceNames().contains(name)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds an {@code execute} method that calls the given one between the execution hooks:
+     * the renamed original, the default method of an asynchronous command interface, or the
+     * method of the superclass. The delegate is called with {@code invokespecial}, so that a
+     * subclass renaming its own {@code execute} does not override it.
+     */
+    private static void addWrapper(ClassTransformer transformer, MethodDescriptor execute, List<String> exceptions,
+            String commandName, String commandClass, MethodDescriptor delegate, boolean interfaceDefault) {
+        MethodCreator wrapper = transformer.addMethod(execute);
+        for (String exception : exceptions) {
+            wrapper.addException(exception);
+        }
+        // Called as super.execute from the wrapper of a subclass, which reports the execution
+        BytecodeCreator nested = wrapper.ifTrue(wrapper.invokeStaticMethod(IS_EXECUTING, wrapper.getThis()))
+                .trueBranch();
+        nested.returnValue(invokeDelegate(nested, delegate, interfaceDefault));
+
+        BranchResult permitted = wrapper.ifFalse(wrapper.invokeStaticMethod(PERMIT, wrapper.getThis(),
+                wrapper.load(commandName), wrapper.load(commandClass), wrapper.getMethodParam(0)));
+        BytecodeCreator throttled = permitted.trueBranch();
+        throttled.returnValue(throttled.readStaticField(FAILURE));
+
+        ResultHandle start = wrapper.invokeStaticMethod(BEGIN);
+        AssignableResultHandle result = wrapper.createVariable(CommandResult.class);
+        wrapper.assign(result, wrapper.loadNull());
+
+        TryBlock tryBlock = wrapper.tryBlock();
+        tryBlock.assign(result, invokeDelegate(tryBlock, delegate, interfaceDefault));
+        CatchBlockCreator catchBlock = tryBlock.addCatch(Throwable.class);
+        catchBlock.invokeStaticMethod(FAILED, catchBlock.getThis(), catchBlock.load(commandName), start);
+        catchBlock.throwException(catchBlock.getCaughtException());
+
+        wrapper.invokeStaticMethod(SUCCEEDED, wrapper.getThis(), wrapper.load(commandName), start, result);
+        wrapper.returnValue(result);
+    }
+
+    private static ResultHandle invokeDelegate(BytecodeCreator creator, MethodDescriptor delegate,
+            boolean interfaceDefault) {
+        return interfaceDefault
+                ? creator.invokeSpecialInterfaceMethod(delegate, creator.getThis(), creator.getMethodParam(0))
+                : creator.invokeSpecialMethod(delegate, creator.getThis(), creator.getMethodParam(0));
+    }
+
+    /**
+     * Implements {@link AeshCommandExecution.SessionBound} with a volatile field, as commands
+     * are bound on the thread building the registry and executed on the session thread.
+     */
+    private static void addSessionField(ClassTransformer transformer, String className) {
+        transformer.addInterface(AeshCommandExecution.SessionBound.class);
+        FieldCreator field = transformer.addField(SESSION_FIELD, AeshRemoteSession.class);
+        field.setModifiers(Modifier.PRIVATE | Modifier.VOLATILE);
+        FieldDescriptor descriptor = FieldDescriptor.of(className, SESSION_FIELD, AeshRemoteSession.class);
+
+        MethodCreator getter = transformer.addMethod("aesh$getSession", AeshRemoteSession.class);
+        getter.returnValue(getter.readInstanceField(descriptor, getter.getThis()));
+
+        MethodCreator setter = transformer.addMethod("aesh$setSession", void.class, AeshRemoteSession.class);
+        setter.writeInstanceField(descriptor, setter.getThis(), setter.getMethodParam(0));
+        setter.returnVoid();
+    }
+
+    /**
+     * Implements {@link AeshCommandExecution.DeferredInjection} with a volatile flag, set on the
+     * thread building the registry and cleared on the thread running the first execution.
+     */
+    private static void addInjectionPendingField(ClassTransformer transformer, String className) {
+        transformer.addInterface(AeshCommandExecution.DeferredInjection.class);
+        FieldCreator field = transformer.addField(INJECTION_PENDING_FIELD, boolean.class);
+        field.setModifiers(Modifier.PRIVATE | Modifier.VOLATILE);
+        FieldDescriptor descriptor = FieldDescriptor.of(className, INJECTION_PENDING_FIELD, boolean.class);
+
+        MethodCreator getter = transformer.addMethod("aesh$isInjectionPending", boolean.class);
+        getter.returnValue(getter.readInstanceField(descriptor, getter.getThis()));
+
+        MethodCreator setter = transformer.addMethod("aesh$setInjectionPending", void.class, boolean.class);
+        setter.writeInstanceField(descriptor, setter.getThis(), setter.getMethodParam(0));
+        setter.returnVoid();
+    }
+}
@@ -0,0 +1,22 @@
+package io.quarkiverse.aesh.deployment;
+
+import io.quarkiverse.aesh.runtime.AeshCompletionIndex;
+import io.quarkus.builder.item.SimpleBuildItem;
+import io.quarkus.runtime.RuntimeValue;
+
+/**
+ * Holds the {@link AeshCompletionIndex} created during static init, for the steps that expose
+ * it at runtime.
+ */
+public final class AeshCompletionIndexBuildItem extends SimpleBuildItem {
+
+    private final RuntimeValue<AeshCompletionIndex> index;
+
+    public AeshCompletionIndexBuildItem(RuntimeValue<AeshCompletionIndex> index) {
+        this.index = index;
+    }
+
+    public RuntimeValue<AeshCompletionIndex> getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,269 @@
+package io.quarkiverse.aesh.deployment;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import jakarta.enterprise.inject.Instance;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.FieldInfo;
+import org.jboss.jandex.IndexView;
+import org.jboss.jandex.Type;
+import org.jboss.logging.Logger;
+
+import io.quarkiverse.aesh.runtime.AeshFieldInjector;
+import io.quarkiverse.aesh.runtime.AeshOptionMetadata;
+import io.quarkiverse.aesh.runtime.AeshRecorder;
+import io.quarkiverse.aesh.runtime.AeshRemoteSession;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.arc.InjectableBean;
+import io.quarkus.arc.InstanceHandle;
+import io.quarkus.arc.deployment.SynthesisFinishedBuildItem;
+import io.quarkus.arc.deployment.UnremovableBeanBuildItem;
+import io.quarkus.arc.impl.Reflections;
+import io.quarkus.arc.processor.BeanInfo;
+import io.quarkus.arc.processor.BeanResolver;
+import io.quarkus.arc.processor.BuiltinScope;
+import io.quarkus.deployment.GeneratedClassGizmoAdaptor;
+import io.quarkus.deployment.annotations.BuildProducer;
+import io.quarkus.deployment.annotations.BuildStep;
+import io.quarkus.deployment.annotations.ExecutionTime;
+import io.quarkus.deployment.annotations.Record;
+import io.quarkus.deployment.builditem.ApplicationIndexBuildItem;
+import io.quarkus.deployment.builditem.CombinedIndexBuildItem;
+import io.quarkus.deployment.builditem.GeneratedClassBuildItem;
+import io.quarkus.deployment.builditem.ShutdownContextBuildItem;
+import io.quarkus.deployment.builditem.nativeimage.ReflectiveFieldBuildItem;
+import io.quarkus.deployment.recording.RecorderContext;
+import io.quarkus.gizmo.BytecodeCreator;
+import io.quarkus.gizmo.ClassCreator;
+import io.quarkus.gizmo.FieldDescriptor;
+import io.quarkus.gizmo.MethodCreator;
+import io.quarkus.gizmo.MethodDescriptor;
+import io.quarkus.gizmo.ResultHandle;
+import io.quarkus.runtime.RuntimeValue;
+
+/**
+ * Generates an {@link AeshFieldInjector} for every class that aesh instantiates reflectively
+ * and that declares {@code @Inject} fields: commands (and therefore group sub-commands) and the
+ * completers, converters, validators and activators referenced from option annotations.
+ * <p>
+ * Each injection point is resolved against the bean deployment at build time, qualifiers
+ * included. The generated code looks the resolved bean up by identifier and assigns the field
+ * directly, falling back to Arc's reflective field writer only for fields that are not
+ * accessible from the generated class (private fields, or fields declared in another package).
+ * The handles of {@code @Dependent} beans are passed to the remote session given to the injector,
+ * if any, so that the beans are destroyed when the session closes.
+ */
+class AeshInjectorProcessor {
+
+    private static final Logger LOG = Logger.getLogger(AeshInjectorProcessor.class);
+
+    static final String INJECTOR_SUFFIX = "_AeshInjector";
+
+    private static final DotName INJECT = DotName.createSimple("jakarta.inject.Inject");
+    private static final DotName QUALIFIER = DotName.createSimple("jakarta.inject.Qualifier");
+    private static final DotName NAMED = DotName.createSimple("jakarta.inject.Named");
+    private static final DotName OBJECT = DotName.createSimple(Object.class.getName());
+
+    private static final MethodDescriptor ARC_CONTAINER = MethodDescriptor.ofMethod(Arc.class, "container",
+            ArcContainer.class);
+    private static final MethodDescriptor CONTAINER_BEAN = MethodDescriptor.ofMethod(ArcContainer.class, "bean",
+            InjectableBean.class, String.class);
+    private static final MethodDescriptor CONTAINER_INSTANCE = MethodDescriptor.ofMethod(ArcContainer.class,
+            "instance", InstanceHandle.class, InjectableBean.class);
+    private static final MethodDescriptor HANDLE_GET = MethodDescriptor.ofMethod(InstanceHandle.class, "get",
+            Object.class);
+    private static final MethodDescriptor SESSION_TRACK = MethodDescriptor.ofMethod(AeshRemoteSession.class, "track",
+            void.class, Instance.Handle.class);
+    private static final MethodDescriptor WRITE_FIELD = MethodDescriptor.ofMethod(Reflections.class, "writeField",
+            void.class, Class.class, String.class, Object.class, Object.class);
+
+    /**
+     * Keeps the beans injected into the target classes. The target classes are usually not
+     * beans themselves, so Arc cannot see these injection points and would otherwise remove
+     * beans that are only used there.
+     */
+    @BuildStep
+    void unremovableInjectedBeans(List<AeshCommandBuildItem> commands,
+            CombinedIndexBuildItem combinedIndex,
+            BuildProducer<UnremovableBeanBuildItem> unremovableBeans) {
+        IndexView index = combinedIndex.getIndex();
+        Set<DotName> types = new LinkedHashSet<>();
+        for (ClassInfo target : collectTargets(commands, index)) {
+            for (FieldInfo field : collectInjectedFields(target, index)) {
+                types.add(field.type().name());
+            }
+        }
+        if (!types.isEmpty()) {
+            unremovableBeans.produce(UnremovableBeanBuildItem.beanTypes(types));
+        }
+    }
+
+    @BuildStep
+    @Record(ExecutionTime.STATIC_INIT)
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    void generateInjectors(AeshRecorder recorder,
+            RecorderContext recorderContext,
+            ShutdownContextBuildItem shutdown,
+            List<AeshCommandBuildItem> commands,
+            ApplicationIndexBuildItem applicationIndex,
+            CombinedIndexBuildItem combinedIndex,
+            SynthesisFinishedBuildItem synthesisFinished,
+            BuildProducer<GeneratedClassBuildItem> generatedClasses,
+            BuildProducer<ReflectiveFieldBuildItem> reflectiveFields,
+            BuildProducer<AeshInjectorsBuildItem> injectors) {
+        injectors.produce(new AeshInjectorsBuildItem());
+        IndexView index = combinedIndex.getIndex();
+        BeanResolver beanResolver = synthesisFinished.getBeanResolver();
+
+        recorder.clearInjectorsOnShutdown(shutdown);
+
+        for (ClassInfo target : collectTargets(commands, index)) {
+            List<FieldInfo> fields = collectInjectedFields(target, index);
+            if (fields.isEmpty()) {
+                continue;
+            }
+            boolean applicationClass = applicationIndex.getIndex().getClassByName(target.name()) != null;
+            String injectorName = target.name().toString() + INJECTOR_SUFFIX;
+
+            try (ClassCreator injector = ClassCreator.builder()
+                    .classOutput(new GeneratedClassGizmoAdaptor(generatedClasses, applicationClass))
+                    .className(injectorName)
+                    .interfaces(AeshFieldInjector.class)
+                    .build()) {
+                MethodCreator inject = injector.getMethodCreator("inject", void.class, Object.class,
+                        AeshRemoteSession.class);
+                ResultHandle instance = inject.checkCast(inject.getMethodParam(0), target.name().toString());
+                ResultHandle session = inject.getMethodParam(1);
+                ResultHandle container = inject.invokeStaticMethod(ARC_CONTAINER);
+
+                for (FieldInfo field : fields) {
+                    BeanInfo bean = resolveBean(beanResolver, field, index);
+                    if (bean == null) {
+                        continue;
+                    }
+                    ResultHandle injectableBean = inject.invokeInterfaceMethod(CONTAINER_BEAN, container,
+                            inject.load(bean.getIdentifier()));
+                    ResultHandle handle = inject.invokeInterfaceMethod(CONTAINER_INSTANCE, container, injectableBean);
+                    ResultHandle value = inject.invokeInterfaceMethod(HANDLE_GET, handle);
+                    if (BuiltinScope.DEPENDENT.is(bean.getScope())) {
+                        BytecodeCreator track = inject.ifNotNull(session).trueBranch();
+                        track.invokeVirtualMethod(SESSION_TRACK, session, handle);
+                    }
+
+                    if (isDirectlyWritable(field, target, applicationClass)) {
+                        inject.writeInstanceField(FieldDescriptor.of(field), instance,
+                                inject.checkCast(value, field.type().name().toString()));
+                    } else {
+                        inject.invokeStaticMethod(WRITE_FIELD, inject.loadClass(field.declaringClass().name().toString()),
+                                inject.load(field.name()), instance, value);
+                        reflectiveFields.produce(new ReflectiveFieldBuildItem(field));
+                    }
+                }
+                inject.returnValue(null);
+            }
+
+            recorder.registerInjector(recorderContext.classProxy(target.name().toString()),
+                    (RuntimeValue<AeshFieldInjector>) (RuntimeValue) recorderContext.newInstance(injectorName));
+        }
+    }
+
+    /**
+     * Collects the classes aesh instantiates reflectively: all discovered commands and
+     * the option service providers declared on them.
+     */
+    private Set<ClassInfo> collectTargets(List<AeshCommandBuildItem> commands, IndexView index) {
+        Set<String> classNames = new LinkedHashSet<>();
+        for (AeshCommandBuildItem cmd : commands) {
+            classNames.add(cmd.getClassName());
+            for (AeshOptionMetadata option : cmd.getOptions()) {
+                addIfPresent(classNames, option.getCompleterClassName());
+                addIfPresent(classNames, option.getConverterClassName());
+                addIfPresent(classNames, option.getValidatorClassName());
+                addIfPresent(classNames, option.getActivatorClassName());
+            }
+        }
+        Set<ClassInfo> targets = new LinkedHashSet<>();
+        for (String className : classNames) {
+            ClassInfo classInfo = index.getClassByName(DotName.createSimple(className));
+            if (classInfo != null && !Modifier.isAbstract(classInfo.flags()) && !Modifier.isInterface(classInfo.flags())) {
+                targets.add(classInfo);
+            }
+        }
+        return targets;
+    }
+
+    private void addIfPresent(Set<String> classNames, String className) {
+        if (className != null) {
+            classNames.add(className);
+        }
+    }
+
+    private List<FieldInfo> collectInjectedFields(ClassInfo target, IndexView index) {
+        List<FieldInfo> fields = new ArrayList<>();
+        ClassInfo current = target;
+        while (current != null && !current.name().equals(OBJECT)) {
+            for (FieldInfo field : current.unsortedFields()) {
+                if (field.hasAnnotation(INJECT) && !Modifier.isStatic(field.flags())
+                        && field.type().kind() != Type.Kind.PRIMITIVE) {
+                    fields.add(field);
+                }
+            }
+            DotName superName = current.superName();
+            current = superName != null ? index.getClassByName(superName) : null;
+        }
+        return fields;
+    }
+
+    private BeanInfo resolveBean(BeanResolver beanResolver, FieldInfo field, IndexView index) {
+        Set<AnnotationInstance> qualifiers = new LinkedHashSet<>();
+        for (AnnotationInstance annotation : field.annotations()) {
+            if (annotation.target().kind() == AnnotationTarget.Kind.FIELD && isQualifier(annotation.name(), index)) {
+                qualifiers.add(annotation);
+            }
+        }
+        Set<BeanInfo> beans = beanResolver.resolveBeans(field.type(), qualifiers);
+        if (beans.isEmpty()) {
+            LOG.debugf("No bean found for injection point %s.%s, the field will not be injected",
+                    field.declaringClass().name(), field.name());
+            return null;
+        }
+        try {
+            return beans.size() == 1 ? beans.iterator().next() : beanResolver.resolveAmbiguity(beans);
+        } catch (RuntimeException e) {
+            LOG.warnf("Ambiguous dependency for injection point %s.%s, the field will not be injected: %s",
+                    field.declaringClass().name(), field.name(), e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isQualifier(DotName annotationName, IndexView index) {
+        if (annotationName.equals(NAMED)) {
+            return true;
+        }
+        ClassInfo annotationClass = index.getClassByName(annotationName);
+        return annotationClass != null && annotationClass.hasDeclaredAnnotation(QUALIFIER);
+    }
+
+    /**
+     * A field can be written directly if the generated injector, which lives in the package of
+     * the target class and is loaded by the same class loader, has access to it.
+     */
+    private boolean isDirectlyWritable(FieldInfo field, ClassInfo target, boolean applicationClass) {
+        if (!applicationClass || Modifier.isPrivate(field.flags()) || Modifier.isFinal(field.flags())
+                || field.type().kind() == Type.Kind.ARRAY) {
+            return false;
+        }
+        return field.declaringClass().name().packagePrefixName() == null
+                ? target.name().packagePrefixName() == null
+                : field.declaringClass().name().packagePrefixName().equals(target.name().packagePrefixName());
+    }
+}
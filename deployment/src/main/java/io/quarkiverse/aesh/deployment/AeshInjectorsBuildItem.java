@@ -0,0 +1,12 @@
+package io.quarkiverse.aesh.deployment;
+
+import io.quarkus.builder.item.SimpleBuildItem;
+
+/**
+ * Marks that the generated field injectors have been registered during static init.
+ * <p>
+ * Consumed by steps that create commands during static init, so that those commands are
+ * injected by the generated injectors rather than by reflection.
+ */
+public final class AeshInjectorsBuildItem extends SimpleBuildItem {
+}
@@ -0,0 +1,29 @@
+package io.quarkiverse.aesh.deployment;
+
+import java.util.Set;
+
+import io.quarkus.builder.item.SimpleBuildItem;
+
+/**
+ * The command classes whose {@code @Inject} fields are populated before their first execution
+ * rather than when they are registered.
+ * <p>
+ * Those classes are instrumented with {@code AeshCommandExecution.DeferredInjection}, and the
+ * {@code @CliCommand} ones among them are created reflectively by the registry factory.
+ */
+public final class AeshLazyCommandsBuildItem extends SimpleBuildItem {
+
+    private final Set<String> classNames;
+
+    public AeshLazyCommandsBuildItem(Set<String> classNames) {
+        this.classNames = Set.copyOf(classNames);
+    }
+
+    public Set<String> getClassNames() {
+        return classNames;
+    }
+
+    public boolean contains(String className) {
+        return classNames.contains(className);
+    }
+}
@@ -0,0 +1,46 @@
+package io.quarkiverse.aesh.deployment;
+
+import java.util.Optional;
+
+import io.quarkiverse.aesh.runtime.AeshCommandExecution;
+import io.quarkiverse.aesh.runtime.metrics.AeshCommandMetrics;
+import io.quarkiverse.aesh.runtime.metrics.AeshSessionMetrics;
+import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
+import io.quarkus.arc.deployment.ExcludedTypeBuildItem;
+import io.quarkus.deployment.annotations.BuildProducer;
+import io.quarkus.deployment.annotations.BuildStep;
+import io.quarkus.deployment.metrics.MetricsCapabilityBuildItem;
+import io.quarkus.runtime.metrics.MetricsFactory;
+
+/**
+ * Publishes command executions and remote session statistics when the micrometer extension
+ * is present.
+ * <p>
+ * Command executions are reported to {@link AeshCommandExecution} by the wrappers added by
+ * {@link AeshCommandExecutionProcessor}. Without the micrometer extension, or with
+ * {@code quarkus.aesh.metrics.enabled=false}, no meter is registered and the metrics beans are
+ * excluded.
+ */
+class AeshMetricsProcessor {
+
+    static boolean isActive(Optional<MetricsCapabilityBuildItem> metricsCapability, AeshBuildTimeConfig config) {
+        return config.metricsEnabled()
+                && metricsCapability.map(capability -> capability.metricsSupported(MetricsFactory.MICROMETER))
+                        .orElse(false);
+    }
+
+    @BuildStep
+    void registerMetrics(Optional<MetricsCapabilityBuildItem> metricsCapability,
+            AeshBuildTimeConfig config,
+            BuildProducer<AdditionalBeanBuildItem> additionalBeans,
+            BuildProducer<ExcludedTypeBuildItem> excludedTypes) {
+        if (!isActive(metricsCapability, config)) {
+            // The runtime jar is indexed: keep its Micrometer beans out of applications without it
+            excludedTypes.produce(new ExcludedTypeBuildItem(AeshCommandMetrics.class.getName()));
+            excludedTypes.produce(new ExcludedTypeBuildItem(AeshSessionMetrics.class.getName()));
+            return;
+        }
+        additionalBeans.produce(AdditionalBeanBuildItem.unremovableOf(AeshCommandMetrics.class));
+        additionalBeans.produce(AdditionalBeanBuildItem.unremovableOf(AeshSessionMetrics.class));
+    }
+}
@@ -1,7 +1,9 @@
 package io.quarkiverse.aesh.deployment;
 
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -13,25 +15,33 @@ import org.jboss.jandex.AnnotationTarget;
 import org.jboss.jandex.AnnotationValue;
 import org.jboss.jandex.ClassInfo;
 import org.jboss.jandex.DotName;
+import org.jboss.jandex.FieldInfo;
 import org.jboss.jandex.IndexView;
 import org.jboss.jandex.MethodInfo;
 import org.jboss.jandex.Type;
 
+import io.quarkiverse.aesh.runtime.AeshAdmissionController;
 import io.quarkiverse.aesh.runtime.AeshCommandMetadata;
 import io.quarkiverse.aesh.runtime.AeshContext;
+import io.quarkiverse.aesh.runtime.AeshIdleSessionReaper;
 import io.quarkiverse.aesh.runtime.AeshMode;
+import io.quarkiverse.aesh.runtime.AeshOptionMetadata;
 import io.quarkiverse.aesh.runtime.AeshProducer;
 import io.quarkiverse.aesh.runtime.AeshRecorder;
 import io.quarkiverse.aesh.runtime.AeshRemoteConnectionHandler;
 import io.quarkiverse.aesh.runtime.AeshRunner;
+import io.quarkiverse.aesh.runtime.AsyncCommand;
 import io.quarkiverse.aesh.runtime.CliRunner;
+import io.quarkiverse.aesh.runtime.CompletionStageCommand;
 import io.quarkiverse.aesh.runtime.DefaultAeshRuntimeRunnerFactory;
 import io.quarkiverse.aesh.runtime.DefaultCliCommandRegistryFactory;
+import io.quarkiverse.aesh.runtime.StreamingCommand;
 import io.quarkiverse.aesh.runtime.annotations.CliCommand;
 import io.quarkiverse.aesh.runtime.annotations.TopCommand;
 import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
 import io.quarkus.arc.deployment.AnnotationsTransformerBuildItem;
 import io.quarkus.arc.deployment.AutoAddScopeBuildItem;
+import io.quarkus.arc.deployment.BeanContainerBuildItem;
 import io.quarkus.arc.deployment.BeanDefiningAnnotationBuildItem;
 import io.quarkus.arc.deployment.SyntheticBeanBuildItem;
 import io.quarkus.arc.deployment.UnremovableBeanBuildItem;
@@ -47,6 +57,7 @@ import io.quarkus.deployment.builditem.CombinedIndexBuildItem;
 import io.quarkus.deployment.builditem.FeatureBuildItem;
 import io.quarkus.deployment.builditem.ModuleEnableNativeAccessBuildItem;
 import io.quarkus.deployment.builditem.QuarkusApplicationClassBuildItem;
+import io.quarkus.deployment.recording.RecorderContext;
 import io.quarkus.gizmo.MethodDescriptor;
 import io.quarkus.runtime.annotations.QuarkusMain;
 
@@ -59,6 +70,22 @@ class AeshProcessor {
     private static final DotName CLI_COMMAND = DotName.createSimple(CliCommand.class.getName());
     private static final DotName QUARKUS_MAIN = DotName.createSimple(QuarkusMain.class.getName());
     private static final DotName PARENT_COMMAND = DotName.createSimple("org.aesh.command.option.ParentCommand");
+    private static final DotName OBJECT = DotName.createSimple(Object.class.getName());
+    private static final DotName NAMED = DotName.createSimple("jakarta.inject.Named");
+    static final List<DotName> ASYNC_COMMANDS = List.of(
+            DotName.createSimple(AsyncCommand.class.getName()),
+            DotName.createSimple(CompletionStageCommand.class.getName()),
+            DotName.createSimple(StreamingCommand.class.getName()));
+
+    /**
+     * Option and argument annotations, mapped to the kind recorded in {@link AeshOptionMetadata}.
+     */
+    private static final Map<DotName, AeshOptionMetadata.Kind> OPTION_ANNOTATIONS = Map.of(
+            DotName.createSimple("org.aesh.command.option.Option"), AeshOptionMetadata.Kind.OPTION,
+            DotName.createSimple("org.aesh.command.option.OptionList"), AeshOptionMetadata.Kind.OPTION_LIST,
+            DotName.createSimple("org.aesh.command.option.OptionGroup"), AeshOptionMetadata.Kind.OPTION_GROUP,
+            DotName.createSimple("org.aesh.command.option.Argument"), AeshOptionMetadata.Kind.ARGUMENT,
+            DotName.createSimple("org.aesh.command.option.Arguments"), AeshOptionMetadata.Kind.ARGUMENTS);
 
     @BuildStep
     FeatureBuildItem feature() {
@@ -87,13 +114,13 @@ class AeshProcessor {
         Set<DotName> discovered = new HashSet<>();
 
         // Scan application index (user code) -- all annotations
-        discoverFromIndex(appIndex, discovered, commands, false);
+        discoverFromIndex(appIndex, combIndex, discovered, commands, false);
 
         // Scan combined index (user + libraries) -- filter out org.aesh.* internal classes
-        discoverFromIndex(combIndex, discovered, commands, true);
+        discoverFromIndex(combIndex, combIndex, discovered, commands, true);
     }
 
-    private void discoverFromIndex(IndexView index, Set<DotName> discovered,
+    private void discoverFromIndex(IndexView index, IndexView combinedIndex, Set<DotName> discovered,
             BuildProducer<AeshCommandBuildItem> commands, boolean filterAeshInternal) {
         // Process @CommandDefinition classes
         for (AnnotationInstance ann : index.getAnnotations(COMMAND_DEFINITION)) {
@@ -116,7 +143,9 @@ class AeshProcessor {
 
             commands.produce(new AeshCommandBuildItem(
                     className.toString(), commandName, description,
-                    false, List.of(), hasTopCommand, hasCliCommand));
+                    false, List.of(), hasTopCommand, hasCliCommand,
+                    getAnnotationStringArrayValue(ann, "aliases"), extractOptions(classInfo, combinedIndex),
+                    extractAsyncInterfaces(classInfo, combinedIndex)));
         }
 
         // Process @GroupCommandDefinition classes
@@ -141,7 +170,9 @@ class AeshProcessor {
 
             commands.produce(new AeshCommandBuildItem(
                     className.toString(), commandName, description,
-                    true, subCommandClassNames, hasTopCommand, hasCliCommand));
+                    true, subCommandClassNames, hasTopCommand, hasCliCommand,
+                    getAnnotationStringArrayValue(ann, "aliases"), extractOptions(classInfo, combinedIndex),
+                    extractAsyncInterfaces(classInfo, combinedIndex)));
         }
 
         // Process classes that have @TopCommand or @CliCommand but no @CommandDefinition/@GroupCommandDefinition
@@ -243,6 +274,16 @@ class AeshProcessor {
             }
         }
 
+        // 5. Conflicting option names and multiple argument declarations within a command
+        for (AeshCommandBuildItem cmd : commands) {
+            validateOptions(cmd, errors);
+        }
+
+        // 6. Asynchronous commands must leave execute() to the interface
+        for (AeshCommandBuildItem cmd : commands) {
+            validateAsync(cmd, index, errors);
+        }
+
         if (!errors.isEmpty()) {
             validationErrors.produce(new ValidationErrorBuildItem(errors));
         }
@@ -415,6 +456,8 @@ class AeshProcessor {
             // for console mode -- needed by both local and remote terminals
             additionalBean.produce(AdditionalBeanBuildItem.unremovableOf(DefaultCliCommandRegistryFactory.class));
             additionalBean.produce(AdditionalBeanBuildItem.unremovableOf(AeshRemoteConnectionHandler.class));
+            additionalBean.produce(AdditionalBeanBuildItem.unremovableOf(AeshIdleSessionReaper.class));
+            additionalBean.produce(AdditionalBeanBuildItem.unremovableOf(AeshAdmissionController.class));
 
             if (startConsole) {
                 // Start local console: register CliRunner as QuarkusApplication
@@ -430,6 +473,141 @@ class AeshProcessor {
         }
     }
 
+    /**
+     * Registers the top command of runtime mode, and the commands {@code quarkus.aesh.top-command}
+     * may name, so that the runner does not look them up by qualifier or load their class at
+     * startup. With {@code quarkus.aesh.static-init.enabled}, also builds the command runtime.
+     * <p>
+     * Consumes the bean container and the generated injectors so that, when the runtime is
+     * built, the top command can be created and injected.
+     */
+    @BuildStep
+    @Record(ExecutionTime.STATIC_INIT)
+    void registerTopCommand(AeshRecorder recorder,
+            AeshModeBuildItem mode,
+            AeshBuildTimeConfig config,
+            CombinedIndexBuildItem combinedIndex,
+            RecorderContext recorderContext,
+            List<AeshCommandBuildItem> commands,
+            BeanContainerBuildItem beanContainer,
+            AeshInjectorsBuildItem injectors) {
+        if (mode.hasUserDefinedMain() || mode.getResolvedMode() != AeshMode.runtime) {
+            return;
+        }
+        AeshCommandBuildItem topCommand = findTopCommand(commands);
+        recorder.registerTopCommand(topCommand != null ? recorderContext.classProxy(topCommand.getClassName()) : null);
+
+        IndexView index = combinedIndex.getIndex();
+        for (AeshCommandBuildItem cmd : commands) {
+            Class<?> commandClass = recorderContext.classProxy(cmd.getClassName());
+            recorder.registerCommand(cmd.getClassName(), commandClass);
+            ClassInfo classInfo = index.getClassByName(DotName.createSimple(cmd.getClassName()));
+            AnnotationInstance named = classInfo != null ? classInfo.declaredAnnotation(NAMED) : null;
+            if (named != null) {
+                String name = getAnnotationStringValue(named, "value", "");
+                recorder.registerCommand(name.isEmpty() ? defaultBeanName(classInfo) : name, commandClass);
+            }
+        }
+        if (config.staticInitEnabled() && topCommand != null) {
+            recorder.prebuildRuntime();
+        }
+    }
+
+    /**
+     * Returns the name of a class annotated with {@code @Named} without a value: its simple
+     * name, decapitalized.
+     */
+    private static String defaultBeanName(ClassInfo classInfo) {
+        String simpleName = classInfo.simpleName();
+        return Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
+    }
+
+    /**
+     * Declares the session limit property of each remote transport to the
+     * {@link AeshAdmissionController}.
+     */
+    @BuildStep
+    @Record(ExecutionTime.STATIC_INIT)
+    void registerRemoteTransports(AeshRecorder recorder,
+            List<AeshRemoteTransportBuildItem> remoteTransports) {
+        for (AeshRemoteTransportBuildItem transport : remoteTransports) {
+            if (transport.getMaxSessionsProperty() != null) {
+                recorder.registerRemoteTransport(transport.getName(), transport.getMaxSessionsProperty());
+            }
+        }
+    }
+
+    /**
+     * Computes the prefix index of command and option names, and creates it during static init
+     * so that all sessions share one instance.
+     * <p>
+     * Commands that are not the sub-command of a group are top-level commands. Every way of
+     * writing the path of a command, with names or aliases, is mapped to its canonical path.
+     */
+    @BuildStep
+    @Record(ExecutionTime.STATIC_INIT)
+    AeshCompletionIndexBuildItem createCompletionIndex(AeshRecorder recorder,
+            List<AeshCommandBuildItem> commands) {
+        Map<String, AeshCommandBuildItem> byClass = new HashMap<>();
+        Set<String> subCommandClasses = new HashSet<>();
+        for (AeshCommandBuildItem cmd : commands) {
+            byClass.put(cmd.getClassName(), cmd);
+            subCommandClasses.addAll(cmd.getSubCommandClassNames());
+        }
+
+        Map<String, List<String>> names = new HashMap<>();
+        Map<String, List<String>> options = new HashMap<>();
+        Map<String, String> paths = new HashMap<>();
+        for (AeshCommandBuildItem cmd : commands) {
+            if (!subCommandClasses.contains(cmd.getClassName())) {
+                indexCommand(cmd, "", byClass, names, options, paths, new HashSet<>());
+            }
+        }
+        return new AeshCompletionIndexBuildItem(recorder.createCompletionIndex(names, options, paths));
+    }
+
+    private static void indexCommand(AeshCommandBuildItem cmd, String parentPath,
+            Map<String, AeshCommandBuildItem> byClass, Map<String, List<String>> names,
+            Map<String, List<String>> options, Map<String, String> paths, Set<String> visiting) {
+        if (!visiting.add(cmd.getClassName())) {
+            // A group nested in itself is reported by the validation
+            return;
+        }
+        String path = parentPath.isEmpty() ? cmd.getCommandName() : parentPath + ' ' + cmd.getCommandName();
+        List<String> siblings = names.computeIfAbsent(parentPath, k -> new ArrayList<>());
+        siblings.add(cmd.getCommandName());
+        siblings.addAll(cmd.getAliases());
+        String prefix = parentPath.isEmpty() ? "" : parentPath + ' ';
+        paths.put(prefix + cmd.getCommandName(), path);
+        for (String alias : cmd.getAliases()) {
+            paths.put(prefix + alias, path);
+        }
+
+        List<String> optionNames = new ArrayList<>();
+        for (AeshOptionMetadata option : cmd.getOptions()) {
+            if (option.isArgument()) {
+                continue;
+            }
+            if (option.getName() != null && !option.getName().isEmpty()) {
+                optionNames.add("--" + option.getName());
+            }
+            if (option.getShortName() != null && !option.getShortName().isEmpty()) {
+                optionNames.add("-" + option.getShortName());
+            }
+        }
+        if (!optionNames.isEmpty()) {
+            options.put(path, optionNames);
+        }
+
+        for (String subCommandClass : cmd.getSubCommandClassNames()) {
+            AeshCommandBuildItem subCommand = byClass.get(subCommandClass);
+            if (subCommand != null) {
+                indexCommand(subCommand, path, byClass, names, options, paths, visiting);
+            }
+        }
+        visiting.remove(cmd.getClassName());
+    }
+
     /**
      * Records build-time command metadata and creates a synthetic {@link AeshContext} bean
      * that is available for injection at runtime.
@@ -439,6 +617,7 @@ class AeshProcessor {
     void recordAeshMetadata(AeshRecorder recorder,
             AeshModeBuildItem mode,
             List<AeshCommandBuildItem> commands,
+            AeshCompletionIndexBuildItem completionIndex,
             BuildProducer<SyntheticBeanBuildItem> syntheticBeans) {
         List<AeshCommandMetadata> metadata = new ArrayList<>();
         for (AeshCommandBuildItem cmd : commands) {
@@ -450,12 +629,14 @@ class AeshProcessor {
             m.setSubCommandClassNames(cmd.getSubCommandClassNames());
             m.setTopCommand(cmd.isTopCommand());
             m.setCliCommand(cmd.isCliCommand());
+            m.setAliases(cmd.getAliases());
+            m.setOptions(cmd.getOptions());
             metadata.add(m);
         }
 
         syntheticBeans.produce(SyntheticBeanBuildItem.configure(AeshContext.class)
                 .setRuntimeInit()
-                .supplier(recorder.createContext(metadata, mode.getResolvedMode().name()))
+                .supplier(recorder.createContext(metadata, mode.getResolvedMode().name(), completionIndex.getIndex()))
                 .done());
     }
 
@@ -529,11 +710,9 @@ class AeshProcessor {
         }
 
         // If there is exactly one non-group @CommandDefinition, promote it to @TopCommand
-        List<AeshCommandBuildItem> regularCommands = commands.stream()
-                .filter(c -> !c.isGroupCommand())
-                .collect(Collectors.toList());
-        if (regularCommands.size() == 1) {
-            DotName className = DotName.createSimple(regularCommands.get(0).getClassName());
+        AeshCommandBuildItem topCommand = findTopCommand(commands);
+        if (topCommand != null) {
+            DotName className = DotName.createSimple(topCommand.getClassName());
             annotationsTransformer.produce(new AnnotationsTransformerBuildItem(
                     AnnotationsTransformer.appliedToClass()
                             .whenClass(c -> c.name().equals(className))
@@ -542,6 +721,22 @@ class AeshProcessor {
         }
     }
 
+    /**
+     * Returns the command annotated with {@code @TopCommand}, or else the only non-group
+     * command, or {@code null}.
+     */
+    private static AeshCommandBuildItem findTopCommand(List<AeshCommandBuildItem> commands) {
+        for (AeshCommandBuildItem cmd : commands) {
+            if (cmd.isTopCommand()) {
+                return cmd;
+            }
+        }
+        List<AeshCommandBuildItem> regularCommands = commands.stream()
+                .filter(c -> !c.isGroupCommand())
+                .collect(Collectors.toList());
+        return regularCommands.size() == 1 ? regularCommands.get(0) : null;
+    }
+
     private List<String> extractGroupSubCommands(AnnotationInstance groupAnnotation) {
         AnnotationValue groupCommandsValue = groupAnnotation.value("groupCommands");
         if (groupCommandsValue == null) {
@@ -554,6 +749,151 @@ class AeshProcessor {
         return subCommands;
     }
 
+    private void validateOptions(AeshCommandBuildItem cmd, List<Throwable> errors) {
+        Map<String, String> longNames = new HashMap<>();
+        Map<String, String> shortNames = new HashMap<>();
+        List<String> arguments = new ArrayList<>();
+        for (AeshOptionMetadata option : cmd.getOptions()) {
+            if (option.isArgument()) {
+                arguments.add(option.getFieldName());
+                continue;
+            }
+            String previous = longNames.putIfAbsent(option.getName(), option.getFieldName());
+            if (previous != null) {
+                errors.add(new IllegalStateException(
+                        "Command class '" + cmd.getClassName() + "' declares option '--" + option.getName()
+                                + "' on both fields '" + previous + "' and '" + option.getFieldName() + "'"));
+            }
+            if (option.getShortName() != null) {
+                previous = shortNames.putIfAbsent(option.getShortName(), option.getFieldName());
+                if (previous != null) {
+                    errors.add(new IllegalStateException(
+                            "Command class '" + cmd.getClassName() + "' declares short option '-"
+                                    + option.getShortName() + "' on both fields '" + previous + "' and '"
+                                    + option.getFieldName() + "'"));
+                }
+            }
+        }
+        if (arguments.size() > 1) {
+            errors.add(new IllegalStateException(
+                    "Command class '" + cmd.getClassName()
+                            + "' declares more than one @Argument or @Arguments field: " + String.join(", ", arguments)));
+        }
+    }
+
+    private void validateAsync(AeshCommandBuildItem cmd, IndexView index, List<Throwable> errors) {
+        if (!cmd.isAsync()) {
+            return;
+        }
+        if (cmd.getAsyncInterfaces().size() > 1) {
+            errors.add(new IllegalStateException(
+                    "Command class '" + cmd.getClassName() + "' implements more than one asynchronous command interface: "
+                            + String.join(", ", cmd.getAsyncInterfaces())));
+            return;
+        }
+        ClassInfo current = index.getClassByName(DotName.createSimple(cmd.getClassName()));
+        while (current != null && !current.name().equals(OBJECT)) {
+            for (MethodInfo method : current.methods()) {
+                if (method.name().equals("execute") && method.parametersCount() == 1
+                        && !method.isSynthetic() && !Modifier.isAbstract(method.flags())) {
+                    errors.add(new IllegalStateException(
+                            "Command class '" + cmd.getClassName() + "' implements " + cmd.getAsyncInterfaces().get(0)
+                                    + " but '" + current.name() + "' declares execute(), which would bypass it"));
+                    return;
+                }
+            }
+            DotName superName = current.superName();
+            current = superName != null ? index.getClassByName(superName) : null;
+        }
+    }
+
+    /**
+     * Returns the asynchronous command interfaces implemented by the given class and its
+     * superclasses.
+     */
+    private List<String> extractAsyncInterfaces(ClassInfo classInfo, IndexView index) {
+        List<String> asyncInterfaces = new ArrayList<>();
+        ClassInfo current = classInfo;
+        while (current != null && !current.name().equals(OBJECT)) {
+            for (DotName interfaceName : current.interfaceNames()) {
+                if (ASYNC_COMMANDS.contains(interfaceName) && !asyncInterfaces.contains(interfaceName.toString())) {
+                    asyncInterfaces.add(interfaceName.toString());
+                }
+            }
+            DotName superName = current.superName();
+            current = superName != null ? index.getClassByName(superName) : null;
+        }
+        return asyncInterfaces;
+    }
+
+    /**
+     * Reads the options and arguments declared on the given class and its superclasses.
+     */
+    private List<AeshOptionMetadata> extractOptions(ClassInfo classInfo, IndexView index) {
+        List<AeshOptionMetadata> options = new ArrayList<>();
+        ClassInfo current = classInfo;
+        while (current != null && !current.name().equals(OBJECT)) {
+            for (FieldInfo field : current.unsortedFields()) {
+                for (Map.Entry<DotName, AeshOptionMetadata.Kind> entry : OPTION_ANNOTATIONS.entrySet()) {
+                    AnnotationInstance annotation = field.annotation(entry.getKey());
+                    if (annotation != null) {
+                        options.add(toOptionMetadata(field, annotation, entry.getValue()));
+                    }
+                }
+            }
+            DotName superName = current.superName();
+            current = superName != null ? index.getClassByName(superName) : null;
+        }
+        return options;
+    }
+
+    private AeshOptionMetadata toOptionMetadata(FieldInfo field, AnnotationInstance annotation,
+            AeshOptionMetadata.Kind kind) {
+        AeshOptionMetadata option = new AeshOptionMetadata();
+        option.setKind(kind);
+        option.setFieldName(field.name());
+        option.setDeclaringClassName(field.declaringClass().name().toString());
+        option.setType(field.type().name().toString());
+        option.setDescription(getAnnotationStringValue(annotation, "description", ""));
+        option.setRequired(getAnnotationBooleanValue(annotation, "required", false));
+        option.setDefaultValues(getAnnotationStringArrayValue(annotation, "defaultValue"));
+        option.setCompleterClassName(getAnnotationClassValue(annotation, "completer"));
+        option.setConverterClassName(getAnnotationClassValue(annotation, "converter"));
+        option.setValidatorClassName(getAnnotationClassValue(annotation, "validator"));
+        option.setActivatorClassName(getAnnotationClassValue(annotation, "activator"));
+        if (option.isArgument()) {
+            option.setHasValue(true);
+        } else {
+            String name = getAnnotationStringValue(annotation, "name", "");
+            option.setName(name.isEmpty() ? field.name() : name);
+            AnnotationValue shortName = annotation.value("shortName");
+            if (shortName != null && shortName.asChar() != '\u0000') {
+                option.setShortName(String.valueOf(shortName.asChar()));
+            }
+            // aesh treats boolean options as flags regardless of hasValue
+            DotName type = field.type().name();
+            boolean flag = type.equals(DotName.createSimple("boolean"))
+                    || type.equals(DotName.createSimple(Boolean.class.getName()));
+            option.setHasValue(!flag && getAnnotationBooleanValue(annotation, "hasValue", true));
+        }
+        return option;
+    }
+
+    private List<String> getAnnotationStringArrayValue(AnnotationInstance annotation, String name) {
+        AnnotationValue value = annotation.value(name);
+        return value != null ? List.of(value.asStringArray()) : List.of();
+    }
+
+    private boolean getAnnotationBooleanValue(AnnotationInstance annotation, String name, boolean defaultValue) {
+        AnnotationValue value = annotation.value(name);
+        return value != null ? value.asBoolean() : defaultValue;
+    }
+
+    private String getAnnotationClassValue(AnnotationInstance annotation, String name) {
+        AnnotationValue value = annotation.value(name);
+        return value != null ? value.asClass().name().toString() : null;
+    }
+
     private String getAnnotationStringValue(AnnotationInstance annotation, String name, String defaultValue) {
         AnnotationValue value = annotation.value(name);
         return value != null ? value.asString() : defaultValue;
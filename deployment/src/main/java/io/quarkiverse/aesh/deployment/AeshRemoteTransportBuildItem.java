@@ -9,13 +9,23 @@ import io.quarkus.builder.item.MultiBuildItem;
  * {@code AeshWebSocketProcessor}) to signal that CLI access is available over a
  * remote channel. When present, the core {@link AeshProcessor} will skip starting
  * the local console by default.
+ * <p>
+ * A transport that limits its number of sessions names the configuration property holding
+ * the limit, so that the shared {@code AeshAdmissionController} can enforce it together
+ * with the global limit and queue sessions over it.
  */
 public final class AeshRemoteTransportBuildItem extends MultiBuildItem {
 
     private final String name;
+    private final String maxSessionsProperty;
 
     public AeshRemoteTransportBuildItem(String name) {
+        this(name, null);
+    }
+
+    public AeshRemoteTransportBuildItem(String name, String maxSessionsProperty) {
         this.name = name;
+        this.maxSessionsProperty = maxSessionsProperty;
     }
 
     /**
@@ -24,4 +34,12 @@ public final class AeshRemoteTransportBuildItem extends MultiBuildItem {
     public String getName() {
         return name;
     }
+
+    /**
+     * The configuration property holding the maximum number of sessions of this transport,
+     * e.g. "quarkus.aesh.ssh.max-connections", or {@code null} if it is not limited.
+     */
+    public String getMaxSessionsProperty() {
+        return maxSessionsProperty;
+    }
 }
@@ -6,6 +6,7 @@ import java.util.stream.Collectors;
 import io.quarkiverse.aesh.deployment.AeshCommandBuildItem;
 import io.quarkiverse.aesh.deployment.AeshModeBuildItem;
 import io.quarkiverse.aesh.deployment.AeshRemoteTransportBuildItem;
+import io.quarkiverse.aesh.runtime.AeshOptionMetadata;
 import io.quarkiverse.aesh.runtime.devui.AeshJsonRPCService;
 import io.quarkus.deployment.IsLocalDevelopment;
 import io.quarkus.deployment.annotations.BuildProducer;
@@ -44,6 +45,11 @@ public class AeshDevUIProcessor {
                     if (cmd.getSubCommandClassNames() != null && !cmd.getSubCommandClassNames().isEmpty()) {
                         map.put("subCommands", cmd.getSubCommandClassNames());
                     }
+                    if (!cmd.getOptions().isEmpty()) {
+                        map.put("options", cmd.getOptions().stream()
+                                .map(AeshDevUIProcessor::describeOption)
+                                .collect(Collectors.toList()));
+                    }
                     return map;
                 })
                 .collect(Collectors.toList()));
@@ -77,6 +83,20 @@ public class AeshDevUIProcessor {
         cardPages.produce(pageBuildItem);
     }
 
+    private static String describeOption(AeshOptionMetadata option) {
+        if (option.isArgument()) {
+            return "<" + option.getFieldName() + ">" + (option.isRequired() ? " (required)" : "");
+        }
+        StringBuilder sb = new StringBuilder("--").append(option.getName());
+        if (option.getShortName() != null) {
+            sb.append(", -").append(option.getShortName());
+        }
+        if (option.isRequired()) {
+            sb.append(" (required)");
+        }
+        return sb.toString();
+    }
+
     @BuildStep(onlyIf = IsLocalDevelopment.class)
     JsonRPCProvidersBuildItem rpcProvider() {
         return new JsonRPCProvidersBuildItem(AeshJsonRPCService.class);
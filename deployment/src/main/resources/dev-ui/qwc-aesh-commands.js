@@ -114,6 +114,12 @@ export class QwcAeshCommands extends LitElement {
                     ${columnBodyRenderer(this._typeRenderer, [])}
                     resizable>
                 </vaadin-grid-column>
+                <vaadin-grid-column
+                    auto-width
+                    header="Options"
+                    ${columnBodyRenderer(this._optionsRenderer, [])}
+                    resizable>
+                </vaadin-grid-column>
                 <vaadin-grid-column
                     auto-width
                     header="Class"
@@ -144,6 +150,16 @@ export class QwcAeshCommands extends LitElement {
         return html`${tags}`;
     }
 
+    _optionsRenderer(cmd) {
+        if (cmd.options && cmd.options.length > 0) {
+            return html`
+                <div class="sub-commands">
+                    ${cmd.options.map(opt => html`<div><code>${opt}</code></div>`)}
+                </div>`;
+        }
+        return html``;
+    }
+
     _classRenderer(cmd) {
         return html`<code>${cmd.className}</code>`;
     }
@@ -55,6 +55,9 @@ export class QwcAeshSessions extends LitElement {
         .status-stopped {
             color: var(--lumo-error-text-color);
         }
+        .session-grid {
+            max-height: 300px;
+        }
         .event-log-header {
             font-size: 16px;
             font-weight: bold;
@@ -73,12 +76,14 @@ export class QwcAeshSessions extends LitElement {
 
     static properties = {
         _transports: { state: true },
+        _sessions: { state: true },
         _eventLog: { state: true }
     };
 
     constructor() {
         super();
         this._transports = [];
+        this._sessions = [];
         this._eventLog = [];
     }
 
@@ -97,11 +102,18 @@ export class QwcAeshSessions extends LitElement {
         if (this._eventStream) {
             this._eventStream.cancel();
         }
+        clearInterval(this._refreshTimer);
+    }
+
+    firstUpdated() {
+        // Traffic counters change without session events, so poll while the page is open
+        this._refreshTimer = setInterval(() => this._loadSessionInfo(), 2000);
     }
 
     _loadSessionInfo() {
         this.jsonRpc.getSessionInfo().then(jsonResponse => {
             this._transports = jsonResponse.result.transports || [];
+            this._sessions = jsonResponse.result.sessions || [];
             if (!this._eventLog.length && jsonResponse.result.eventLog) {
                 this._eventLog = jsonResponse.result.eventLog;
             }
@@ -111,6 +123,7 @@ export class QwcAeshSessions extends LitElement {
     render() {
         return html`
             ${this._renderTransportCards()}
+            ${this._renderSessions()}
             <span class="event-log-header">Session Event Log</span>
             ${this._renderEventLog()}
         `;
@@ -147,10 +160,49 @@ export class QwcAeshSessions extends LitElement {
                     <span class="stat-label">Max Sessions</span>
                     <span class="stat-value">${maxText}</span>
                 </div>
+                ${transport.bytesIn === undefined ? '' : html`
+                    <div class="transport-stat">
+                        <span class="stat-label">Bytes In / Out</span>
+                        <span class="stat-value">${transport.bytesIn} / ${transport.bytesOut}</span>
+                    </div>
+                    <div class="transport-stat">
+                        <span class="stat-label">Frames In / Out</span>
+                        <span class="stat-value">${transport.framesIn} / ${transport.framesOut}</span>
+                    </div>
+                    <div class="transport-stat">
+                        <span class="stat-label">Queued Bytes</span>
+                        <span class="stat-value">${transport.queueDepth}</span>
+                    </div>
+                    <div class="transport-stat">
+                        <span class="stat-label">Echo Latency (mean / max)</span>
+                        <span class="stat-value">${transport.echoMeanMs} ms / ${transport.echoMaxMs} ms</span>
+                    </div>
+                `}
             </div>
         `;
     }
 
+    _renderSessions() {
+        if (!this._sessions.length) {
+            return html``;
+        }
+        return html`
+            <span class="event-log-header">Open Sessions</span>
+            <vaadin-grid .items="${this._sessions}" class="session-grid" theme="no-border compact">
+                <vaadin-grid-column auto-width header="Session ID" path="sessionId" resizable></vaadin-grid-column>
+                <vaadin-grid-column auto-width header="Transport" path="transport" resizable></vaadin-grid-column>
+                <vaadin-grid-column auto-width header="Opened" path="openedAt" resizable></vaadin-grid-column>
+                <vaadin-grid-column auto-width header="Bytes In" path="bytesIn" resizable></vaadin-grid-column>
+                <vaadin-grid-column auto-width header="Bytes Out" path="bytesOut" resizable></vaadin-grid-column>
+                <vaadin-grid-column auto-width header="Frames In" path="framesIn" resizable></vaadin-grid-column>
+                <vaadin-grid-column auto-width header="Frames Out" path="framesOut" resizable></vaadin-grid-column>
+                <vaadin-grid-column auto-width header="Queued Bytes" path="queueDepth" resizable></vaadin-grid-column>
+                <vaadin-grid-column auto-width header="Echo Mean (ms)" path="echoMeanMs" resizable></vaadin-grid-column>
+                <vaadin-grid-column auto-width header="Echo Max (ms)" path="echoMaxMs" resizable></vaadin-grid-column>
+            </vaadin-grid>
+        `;
+    }
+
     _renderEventLog() {
         if (!this._eventLog.length) {
             return html`<span style="color: var(--lumo-contrast-50pct)">No session events yet.</span>`;
@@ -2,9 +2,16 @@ import { LitElement, html, css } from 'lit';
 import '@vaadin/button';
 import '@vaadin/icon';
 
+// Opcodes of the binary terminal protocol (see AeshWebSocketBinaryProtocol)
+const BINARY_ACCEPT = 0x00;
+const BINARY_INPUT = 0x01;
+const BINARY_RESIZE = 0x02;
+const BINARY_OUTPUT = 0x03;
+
 /**
  * Dev UI page providing an embedded xterm.js terminal connected via WebSocket.
- * Uses the same JSON protocol as the standalone index.html (init, read, resize actions).
+ * Uses the same JSON protocol as the standalone index.html (init, read, resize actions),
+ * and switches to the compact binary protocol when the server accepts it.
  *
  * Uses createRenderRoot() { return this; } to avoid Shadow DOM complications with xterm.js CSS.
  */
@@ -27,6 +34,8 @@ export class QwcAeshTerminal extends LitElement {
         this._term = null;
         this._fitAddon = null;
         this._socket = null;
+        this._binary = false;
+        this._encoder = new TextEncoder();
         this._resizeHandler = null;
         this._resizeObserver = null;
     }
@@ -170,6 +179,8 @@ export class QwcAeshTerminal extends LitElement {
         const wsUrl = `${wsProtocol}//${wsHost}${wsPath}`;
 
         this._socket = new WebSocket(wsUrl);
+        this._socket.binaryType = 'arraybuffer';
+        this._binary = false;
 
         this._socket.onopen = () => {
             this._connecting = false;
@@ -238,32 +249,62 @@ export class QwcAeshTerminal extends LitElement {
                 features: ['UNICODE'],
                 cols: this._term.cols,
                 rows: this._term.rows,
-                userAgent: navigator.userAgent
+                userAgent: navigator.userAgent,
+                binary: true
             }));
         });
 
-        // Receive terminal output
+        // Receive terminal output: text frames (JSON protocol) or opcode-prefixed binary frames
         this._socket.onmessage = (event) => {
-            if (event.type === 'message' && this._term) {
+            if (event.type !== 'message' || !this._term) {
+                return;
+            }
+            if (typeof event.data === 'string') {
                 this._term.write(event.data);
+                return;
+            }
+            const frame = new Uint8Array(event.data);
+            if (frame.length === 0) {
+                return;
+            }
+            if (frame[0] === BINARY_ACCEPT) {
+                this._binary = true;
+            } else if (frame[0] === BINARY_OUTPUT) {
+                this._term.write(frame.subarray(1));
             }
         };
 
         // Send user input
         this._term.onData((data) => {
             if (this._socket && this._socket.readyState === WebSocket.OPEN) {
-                this._socket.send(JSON.stringify({ action: 'read', data: data }));
+                if (this._binary) {
+                    const payload = this._encoder.encode(data);
+                    const frame = new Uint8Array(payload.length + 1);
+                    frame[0] = BINARY_INPUT;
+                    frame.set(payload, 1);
+                    this._socket.send(frame);
+                } else {
+                    this._socket.send(JSON.stringify({ action: 'read', data: data }));
+                }
             }
         });
 
         // Send resize events
         this._term.onResize((size) => {
             if (this._socket && this._socket.readyState === WebSocket.OPEN) {
-                this._socket.send(JSON.stringify({
-                    action: 'resize',
-                    cols: size.cols,
-                    rows: size.rows
-                }));
+                if (this._binary) {
+                    const frame = new DataView(new ArrayBuffer(5));
+                    frame.setUint8(0, BINARY_RESIZE);
+                    frame.setUint16(1, size.cols);
+                    frame.setUint16(3, size.rows);
+                    this._socket.send(frame.buffer);
+                } else {
+                    this._socket.send(JSON.stringify({
+                        action: 'resize',
+                        cols: size.cols,
+                        rows: size.rows
+                    }));
+                }
             }
         });
 
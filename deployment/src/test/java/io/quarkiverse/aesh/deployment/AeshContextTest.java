@@ -7,6 +7,7 @@ import org.aesh.command.CommandDefinition;
 import org.aesh.command.CommandResult;
 import org.aesh.command.GroupCommandDefinition;
 import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Argument;
 import org.aesh.command.option.Option;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 
 import io.quarkiverse.aesh.runtime.AeshContext;
 import io.quarkiverse.aesh.runtime.AeshMode;
+import io.quarkiverse.aesh.runtime.AeshOptionMetadata;
 import io.quarkiverse.aesh.runtime.annotations.CliCommand;
 import io.quarkus.test.QuarkusUnitTest;
 
@@ -72,6 +74,32 @@ public class AeshContextTest {
         Assertions.assertThat(statusCmd.get().isGroupCommand()).isFalse();
     }
 
+    @Test
+    public void testOptionMetadata() {
+        var cloneCmd = aeshContext.getCommands().stream()
+                .filter(c -> "clone".equals(c.getCommandName()))
+                .findFirst();
+        Assertions.assertThat(cloneCmd).isPresent();
+        Assertions.assertThat(cloneCmd.get().getOptions())
+                .extracting(AeshOptionMetadata::getFieldName)
+                .containsExactlyInAnyOrder("url", "depth", "directory");
+
+        AeshOptionMetadata depth = cloneCmd.get().getOptions().stream()
+                .filter(o -> "depth".equals(o.getFieldName()))
+                .findFirst().orElseThrow();
+        Assertions.assertThat(depth.getKind()).isEqualTo(AeshOptionMetadata.Kind.OPTION);
+        Assertions.assertThat(depth.getName()).isEqualTo("depth");
+        Assertions.assertThat(depth.getShortName()).isEqualTo("d");
+        Assertions.assertThat(depth.getDefaultValues()).containsExactly("1");
+        Assertions.assertThat(depth.getType()).isEqualTo("int");
+
+        AeshOptionMetadata directory = cloneCmd.get().getOptions().stream()
+                .filter(o -> "directory".equals(o.getFieldName()))
+                .findFirst().orElseThrow();
+        Assertions.assertThat(directory.isArgument()).isTrue();
+        Assertions.assertThat(directory.getName()).isNull();
+    }
+
     @GroupCommandDefinition(name = "git", description = "Git-like commands", groupCommands = { CloneCommand.class })
     @CliCommand
     public static class GitCommand implements Command<CommandInvocation> {
@@ -86,6 +114,12 @@ public class AeshContextTest {
         @Option(name = "url")
         private String url;
 
+        @Option(name = "depth", shortName = 'd', defaultValue = "1")
+        private int depth;
+
+        @Argument(description = "Target directory")
+        private String directory;
+
         @Override
         public CommandResult execute(CommandInvocation invocation) {
             return CommandResult.SUCCESS;
@@ -0,0 +1,88 @@
+package io.quarkiverse.aesh.deployment;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.quarkiverse.aesh.runtime.AeshIdleSessionReaper;
+
+/**
+ * Tests that {@link AeshIdleSessionReaper} closes idle sessions, keeps active sessions open
+ * by rescheduling them, and ignores cancelled sessions.
+ * <p>
+ * Each test waits, for a bounded time, for an idle session to be closed. The reaper visits
+ * deadlines in order, so the other sessions have been checked by then.
+ */
+public class AeshIdleSessionReaperTest {
+
+    private static final long TIMEOUT_MS = 500;
+
+    private AeshIdleSessionReaper reaper;
+
+    @BeforeEach
+    void createReaper() {
+        reaper = new AeshIdleSessionReaper();
+    }
+
+    @AfterEach
+    void shutdownReaper() {
+        reaper.shutdown();
+    }
+
+    @Test
+    public void testIdleSessionIsClosedAfterTimeout() throws Exception {
+        long start = System.currentTimeMillis();
+        AtomicLong closedAt = new AtomicLong();
+        CountDownLatch closed = new CountDownLatch(1);
+        reaper.track(() -> start, TIMEOUT_MS, () -> {
+            closedAt.set(System.currentTimeMillis());
+            closed.countDown();
+        });
+
+        Assertions.assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(closedAt.get() - start)
+                .as("An idle session must not be closed before its timeout")
+                .isGreaterThanOrEqualTo(TIMEOUT_MS);
+    }
+
+    @Test
+    public void testActiveSessionStaysOpen() throws Exception {
+        AtomicBoolean activeClosed = new AtomicBoolean();
+        // Reports input at every check
+        AeshIdleSessionReaper.Handle active = reaper.track(System::currentTimeMillis, TIMEOUT_MS,
+                () -> activeClosed.set(true));
+
+        // Closed after the active session has been checked at least once
+        awaitIdleSessionClosed(2 * TIMEOUT_MS);
+
+        Assertions.assertThat(activeClosed.get())
+                .as("A session with recent activity must stay open")
+                .isFalse();
+        active.cancel();
+    }
+
+    @Test
+    public void testCancelledSessionIsNotClosed() throws Exception {
+        AtomicBoolean cancelledClosed = new AtomicBoolean();
+        reaper.track(() -> 0L, 100, () -> cancelledClosed.set(true)).cancel();
+
+        awaitIdleSessionClosed(TIMEOUT_MS);
+
+        Assertions.assertThat(cancelledClosed.get())
+                .as("A cancelled session must not be closed")
+                .isFalse();
+    }
+
+    private void awaitIdleSessionClosed(long timeoutMs) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        CountDownLatch closed = new CountDownLatch(1);
+        reaper.track(() -> start, timeoutMs, closed::countDown);
+        Assertions.assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,149 @@
+package io.quarkiverse.aesh.deployment;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+
+import org.aesh.command.AeshCommandRuntimeBuilder;
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.CommandRuntime;
+import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.AeshRemoteSession;
+import io.quarkiverse.aesh.runtime.CliCommandRegistryFactory;
+import io.quarkiverse.aesh.runtime.annotations.AeshSessionScoped;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.arc.Arc;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that an {@link AeshSessionScoped} bean is shared by the commands of a session, not
+ * between sessions, and destroyed when its session closes.
+ */
+public class AeshSessionScopedTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(ConnectCommand.class, QueryCommand.class, UserConnection.class))
+            .overrideConfigKey("quarkus.aesh.start-console", "false");
+
+    @Inject
+    CliCommandRegistryFactory registryFactory;
+
+    @BeforeEach
+    void reset() {
+        UserConnection.USED.clear();
+    }
+
+    @Test
+    public void testInstanceIsSharedWithinSession() throws Exception {
+        AeshRemoteSession first = new AeshRemoteSession("test", null);
+        AeshRemoteSession second = new AeshRemoteSession("test", null);
+        int created = UserConnection.CREATED.get();
+        int destroyed = UserConnection.DESTROYED.get();
+
+        execute(registryFactory.create(first), "connect", "query");
+        execute(registryFactory.create(second), "query");
+
+        Assertions.assertThat(UserConnection.CREATED.get() - created).isEqualTo(2);
+        Assertions.assertThat(UserConnection.USED).hasSize(3);
+        Assertions.assertThat(UserConnection.USED.get(1))
+                .as("Commands of the same session share the instance")
+                .isEqualTo(UserConnection.USED.get(0));
+        Assertions.assertThat(UserConnection.USED.get(2))
+                .as("Each session has its own instance")
+                .isNotEqualTo(UserConnection.USED.get(0));
+
+        first.destroyBeans();
+        Assertions.assertThat(UserConnection.DESTROYED.get() - destroyed).isEqualTo(1);
+        second.destroyBeans();
+        Assertions.assertThat(UserConnection.DESTROYED.get() - destroyed).isEqualTo(2);
+    }
+
+    @Test
+    public void testLocalCommandsShareOneSession() throws Exception {
+        execute(registryFactory.create(), "connect");
+        execute(registryFactory.create(), "query");
+
+        Assertions.assertThat(UserConnection.USED).hasSize(2);
+        Assertions.assertThat(UserConnection.USED.get(1)).isEqualTo(UserConnection.USED.get(0));
+    }
+
+    @Test
+    public void testContextIsOnlyActiveWhileCommandsExecute() {
+        Assertions.assertThat(Arc.container().getActiveContext(AeshSessionScoped.class)).isNull();
+    }
+
+    private static void execute(AeshCommandRegistryBuilder<CommandInvocation> registry, String... commands)
+            throws Exception {
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.<CommandInvocation> builder()
+                .commandRegistry(registry.create())
+                .build();
+        for (String command : commands) {
+            runtime.executeCommand(command);
+        }
+    }
+
+    @CommandDefinition(name = "connect", description = "Opens the connection")
+    @CliCommand
+    public static class ConnectCommand implements Command<CommandInvocation> {
+
+        @Inject
+        UserConnection connection;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            connection.use();
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "query", description = "Runs a query")
+    @CliCommand
+    public static class QueryCommand implements Command<CommandInvocation> {
+
+        @Inject
+        UserConnection connection;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            connection.use();
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @AeshSessionScoped
+    public static class UserConnection {
+
+        static final AtomicInteger CREATED = new AtomicInteger();
+        static final AtomicInteger DESTROYED = new AtomicInteger();
+        static final List<Integer> USED = new CopyOnWriteArrayList<>();
+
+        private int number;
+
+        @PostConstruct
+        void open() {
+            number = CREATED.incrementAndGet();
+        }
+
+        public void use() {
+            USED.add(number);
+        }
+
+        @PreDestroy
+        void close() {
+            DESTROYED.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package io.quarkiverse.aesh.deployment;
+
+import jakarta.enterprise.inject.spi.DeploymentException;
+
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.AsyncCommand;
+import io.quarkus.test.QuarkusUnitTest;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Tests that an {@link AsyncCommand} that also declares {@code execute} is rejected at build
+ * time, since its {@code executeAsync} method would never be called.
+ */
+public class AsyncCommandExecuteOverrideValidationTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+            .setExpectedException(DeploymentException.class)
+            .withApplicationRoot(jar -> jar.addClasses(FetchCommand.class));
+
+    @Test
+    public void test() {
+        // Should not reach here -- deployment must fail because execute() bypasses executeAsync()
+    }
+
+    @CommandDefinition(name = "fetch", description = "Fetches something")
+    public static class FetchCommand implements AsyncCommand<CommandInvocation> {
+
+        @Override
+        public Uni<CommandResult> executeAsync(CommandInvocation invocation) {
+            return Uni.createFrom().item(CommandResult.SUCCESS);
+        }
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.quarkiverse.aesh.deployment;
+
+import java.util.stream.IntStream;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.CommandOutput;
+import io.quarkus.test.QuarkusProdModeTest;
+
+/**
+ * Tests that an injected {@link CommandOutput} prints every line of a large stream, in order.
+ */
+public class CommandOutputTest {
+
+    @RegisterExtension
+    static final QuarkusProdModeTest config = new QuarkusProdModeTest()
+            .withApplicationRoot(jar -> jar.addClasses(DumpCommand.class))
+            .setApplicationName("command-output-app")
+            .setApplicationVersion("0.1-SNAPSHOT")
+            .setExpectExit(true)
+            .setRun(true);
+
+    @Test
+    public void testAllLinesArePrinted() {
+        Assertions.assertThat(config.getStartupConsoleOutput())
+                .containsSubsequence("row 1", "row 2", "row 19999", "row 20000", "printed 20000 rows");
+        Assertions.assertThat(config.getExitCode()).isZero();
+    }
+
+    @CommandDefinition(name = "dump", description = "Dumps many rows")
+    public static class DumpCommand implements Command<CommandInvocation> {
+
+        @Inject
+        CommandOutput output;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) throws InterruptedException {
+            long printed = output.print(IntStream.rangeClosed(1, 20_000).mapToObj(i -> "row " + i));
+            invocation.println("printed " + printed + " rows");
+            return CommandResult.SUCCESS;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.quarkiverse.aesh.deployment;
+
+import java.util.List;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.GroupCommandDefinition;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Argument;
+import org.aesh.command.option.Option;
+import org.aesh.command.registry.CommandRegistry;
+import org.aesh.parser.LineParser;
+import org.aesh.parser.ParsedLine;
+import org.aesh.readline.completion.CompleteOperation;
+import org.aesh.readline.completion.CompleteOperationImpl;
+import org.aesh.terminal.formatting.TerminalString;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.AeshCompletionIndex;
+import io.quarkiverse.aesh.runtime.AeshContext;
+import io.quarkiverse.aesh.runtime.AeshIndexedCommandRegistry;
+import io.quarkiverse.aesh.runtime.CliCommandRegistryFactory;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests the prefix index of command and option names built at build time.
+ */
+public class CompletionIndexTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(
+                    RemoteCommand.class,
+                    RemoteAddCommand.class,
+                    RemoveCommand.class,
+                    RebaseCommand.class))
+            .overrideConfigKey("quarkus.aesh.start-console", "false");
+
+    @Inject
+    AeshContext aeshContext;
+
+    @Inject
+    CliCommandRegistryFactory registryFactory;
+
+    @Test
+    public void testTopLevelCommands() {
+        AeshCompletionIndex index = aeshContext.getCompletionIndex();
+        Assertions.assertThat(index.completeCommand("", "re")).containsExactly("rebase", "remote", "remove");
+        Assertions.assertThat(index.completeCommand("", "remo")).containsExactly("remote", "remove");
+        Assertions.assertThat(index.completeCommand("", "x")).isEmpty();
+        Assertions.assertThat(index.complete("")).containsExactly("rebase", "remote", "remove", "rm");
+    }
+
+    @Test
+    public void testSubCommandsAndAliases() {
+        AeshCompletionIndex index = aeshContext.getCompletionIndex();
+        Assertions.assertThat(index.resolve("rm")).isEqualTo("remove");
+        Assertions.assertThat(index.complete("remote ")).containsExactly("a", "add");
+        Assertions.assertThat(index.complete("remote a")).containsExactly("a", "add");
+        Assertions.assertThat(index.resolve("remote a")).isEqualTo("remote add");
+    }
+
+    @Test
+    public void testOptions() {
+        AeshCompletionIndex index = aeshContext.getCompletionIndex();
+        Assertions.assertThat(index.complete("remote add --")).containsExactly("--fetch", "--name");
+        Assertions.assertThat(index.complete("remote a --name origin -")).containsExactly("--fetch", "--name", "-f");
+        Assertions.assertThat(index.complete("rebase --i")).containsExactly("--interactive");
+        Assertions.assertThat(index.complete("--")).isEmpty();
+    }
+
+    @Test
+    public void testRegistryCompletesCommandNamesLikeAesh() throws Exception {
+        CommandRegistry<CommandInvocation> registry = registryFactory.create().create();
+        CommandRegistry<CommandInvocation> indexed = AeshIndexedCommandRegistry.of(registryFactory.create().create(),
+                aeshContext.getCompletionIndex());
+        Assertions.assertThat(indexed).isInstanceOf(AeshIndexedCommandRegistry.class);
+
+        for (String line : List.of("", "re", "remo", "rm", "x", "remote ")) {
+            Assertions.assertThat(complete(indexed, line)).as(line)
+                    .containsExactlyInAnyOrderElementsOf(complete(registry, line));
+        }
+        Assertions.assertThat(complete(indexed, "re")).containsExactlyInAnyOrder("rebase", "remote", "remove");
+        // Aliases are not completed, as in aesh
+        Assertions.assertThat(complete(indexed, "rm")).isEmpty();
+    }
+
+    private static List<String> complete(CommandRegistry<CommandInvocation> registry, String line) {
+        CompleteOperation operation = new CompleteOperationImpl(line, line.length());
+        ParsedLine parsedLine = new LineParser().input(line).cursor(line.length()).parse();
+        registry.completeCommandName(operation, parsedLine);
+        return operation.getCompletionCandidates().stream().map(TerminalString::getCharacters).toList();
+    }
+
+    @GroupCommandDefinition(name = "remote", description = "Manage remotes", groupCommands = { RemoteAddCommand.class })
+    @CliCommand
+    public static class RemoteCommand implements Command<CommandInvocation> {
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "add", aliases = { "a" }, description = "Add a remote")
+    public static class RemoteAddCommand implements Command<CommandInvocation> {
+        @Option(name = "name")
+        private String name;
+
+        @Option(name = "fetch", shortName = 'f', hasValue = false)
+        private boolean fetch;
+
+        @Argument(description = "Remote URL")
+        private String url;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "remove", aliases = { "rm" }, description = "Remove files")
+    @CliCommand
+    public static class RemoveCommand implements Command<CommandInvocation> {
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "rebase", description = "Rebase commits")
+    @CliCommand
+    public static class RebaseCommand implements Command<CommandInvocation> {
+        @Option(name = "interactive", shortName = 'i', hasValue = false)
+        private boolean interactive;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package io.quarkiverse.aesh.deployment;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+
+import org.aesh.AeshRuntimeRunner;
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Option;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.AeshRuntimeRunnerFactory;
+import io.quarkiverse.aesh.runtime.annotations.AeshSessionScoped;
+import io.quarkiverse.aesh.runtime.daemon.AeshDaemonLauncher;
+import io.quarkiverse.aesh.runtime.daemon.AeshDaemonProtocol;
+import io.quarkiverse.aesh.runtime.daemon.AeshDaemonServer;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the daemon executes the invocations forwarded over its socket with the arguments,
+ * environment and standard streams of the launcher, that neither a stalled client nor a command
+ * waiting for its input holds up the other invocations, that concurrent invocations do not share
+ * their session scoped beans, and that the daemon stops when idle.
+ */
+public class DaemonModeTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(GreetCommand.class, InvocationState.class))
+            .overrideConfigKey("quarkus.aesh.mode", "runtime");
+
+    @Inject
+    AeshRuntimeRunner runner;
+
+    @Inject
+    AeshRuntimeRunnerFactory runnerFactory;
+
+    @Test
+    public void testInvocationsAreForwarded() throws Exception {
+        Path socket = Files.createTempDirectory("aesh-daemon").resolve("test.sock");
+        AeshDaemonServer server = new AeshDaemonServer(runner, runnerFactory::create, socket, Duration.ZERO);
+        CompletableFuture<Integer> daemon = start(server);
+        try {
+            waitForSocket(socket);
+
+            Result first = invoke(socket, List.of("--name=daemon"), "");
+            Assertions.assertThat(first.status).isZero();
+            Assertions.assertThat(first.stdout).contains("Hello daemon from /work");
+
+            Result second = invoke(socket, List.of("--name=again", "--read"), "piped input\n");
+            Assertions.assertThat(second.status).isZero();
+            Assertions.assertThat(second.stdout).contains("Hello again from /work").contains("Read: piped input");
+
+            Result invalid = invoke(socket, List.of("--unknown"), "");
+            Assertions.assertThat(invalid.status).isEqualTo(1);
+            Assertions.assertThat(invalid.stdout + invalid.stderr).isNotBlank();
+        } finally {
+            server.close();
+        }
+        Assertions.assertThat(daemon.get(10, TimeUnit.SECONDS)).isZero();
+        Assertions.assertThat(socket).doesNotExist();
+    }
+
+    @Test
+    public void testInvocationsDoNotWaitForEachOther() throws Exception {
+        Path socket = Files.createTempDirectory("aesh-daemon").resolve("concurrent.sock");
+        AeshDaemonServer server = new AeshDaemonServer(runner, runnerFactory::create, socket, Duration.ZERO);
+        CompletableFuture<Integer> daemon = start(server);
+        try (SocketChannel stalled = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            waitForSocket(socket);
+            // Connects without ever sending an invocation
+            stalled.connect(UnixDomainSocketAddress.of(socket));
+
+            PipedOutputStream input = new PipedOutputStream();
+            PipedInputStream stdin = new PipedInputStream(input);
+            CompletableFuture<Result> reader = CompletableFuture
+                    .supplyAsync(() -> invokeUnchecked(socket, List.of("--name=reader", "--read"), stdin));
+            Assertions.assertThat(GreetCommand.READING.await(10, TimeUnit.SECONDS)).isTrue();
+            int destroyed = InvocationState.DESTROYED.get();
+
+            Result other = CompletableFuture
+                    .supplyAsync(() -> invokeUnchecked(socket, List.of("--name=other"), InputStream.nullInputStream()))
+                    .get(5, TimeUnit.SECONDS);
+            Assertions.assertThat(other.status).isZero();
+            Assertions.assertThat(other.stdout).contains("Hello other from /work").doesNotContain("reader");
+            Assertions.assertThat(reader).as("The reader still waits for its input").isNotDone();
+            Assertions.assertThat(stateOf(other.stdout)).isNotEqualTo(GreetCommand.readerState);
+            Assertions.assertThat(InvocationState.DESTROYED.get() - destroyed)
+                    .as("The session scoped bean of an invocation is destroyed when it completes, "
+                            + "even while another one runs")
+                    .isEqualTo(1);
+
+            input.write("late input\n".getBytes(StandardCharsets.UTF_8));
+            input.close();
+            Result read = reader.get(10, TimeUnit.SECONDS);
+            Assertions.assertThat(read.status).isZero();
+            Assertions.assertThat(read.stdout).contains("Hello reader from /work").contains("Read: late input")
+                    .doesNotContain("other");
+            Assertions.assertThat(InvocationState.DESTROYED.get() - destroyed).isEqualTo(2);
+        } finally {
+            server.close();
+        }
+        Assertions.assertThat(daemon.get(10, TimeUnit.SECONDS)).isZero();
+    }
+
+    @Test
+    public void testDaemonStopsWhenIdle() throws Exception {
+        Path socket = Files.createTempDirectory("aesh-daemon").resolve("idle.sock");
+        AeshDaemonServer server = new AeshDaemonServer(runner, runnerFactory::create, socket, Duration.ofMillis(500));
+        Assertions.assertThat(server.run()).isZero();
+        Assertions.assertThat(socket).doesNotExist();
+    }
+
+    private static CompletableFuture<Integer> start(AeshDaemonServer server) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return server.run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private static Result invoke(Path socket, List<String> args, String stdin) throws IOException {
+        return invoke(socket, args, new ByteArrayInputStream(stdin.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Result invokeUnchecked(Path socket, List<String> args, InputStream stdin) {
+        try {
+            return invoke(socket, args, stdin);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Result invoke(Path socket, List<String> args, InputStream stdin) throws IOException {
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.connect(UnixDomainSocketAddress.of(socket));
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        AeshDaemonProtocol.Request request = new AeshDaemonProtocol.Request(args, Map.of("GREETING", "Hello"),
+                Path.of("/work"));
+        int status = AeshDaemonLauncher.invoke(channel, request, stdin, stdout, stderr);
+        return new Result(status, stdout.toString(StandardCharsets.UTF_8), stderr.toString(StandardCharsets.UTF_8));
+    }
+
+    private static int stateOf(String stdout) {
+        int start = stdout.indexOf("State ") + "State ".length();
+        return Integer.parseInt(stdout.substring(start, stdout.indexOf('\n', start)).trim());
+    }
+
+    private static void waitForSocket(Path socket) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!Files.exists(socket) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static final class Result {
+
+        final int status;
+        final String stdout;
+        final String stderr;
+
+        Result(int status, String stdout, String stderr) {
+            this.status = status;
+            this.stdout = stdout;
+            this.stderr = stderr;
+        }
+    }
+
+    @CommandDefinition(name = "greet", description = "Greets")
+    public static class GreetCommand implements Command<CommandInvocation> {
+
+        static final CountDownLatch READING = new CountDownLatch(1);
+        static volatile int readerState;
+
+        @Inject
+        InvocationState state;
+
+        @Option(name = "name", defaultValue = "world")
+        String name;
+
+        @Option(name = "read", hasValue = false)
+        boolean read;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) throws InterruptedException {
+            AeshDaemonProtocol.Request request = AeshDaemonServer.currentRequest();
+            invocation.println(request.getEnvironment().get("GREETING") + " " + name + " from "
+                    + request.getWorkingDirectory());
+            invocation.println("State " + state.id());
+            if (read) {
+                readerState = state.id();
+                READING.countDown();
+                try {
+                    byte[] input = System.in.readAllBytes();
+                    invocation.println("Read: " + new String(input, StandardCharsets.UTF_8).trim());
+                } catch (IOException e) {
+                    return CommandResult.FAILURE;
+                }
+            }
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @AeshSessionScoped
+    public static class InvocationState {
+
+        static final AtomicInteger CREATED = new AtomicInteger();
+        static final AtomicInteger DESTROYED = new AtomicInteger();
+
+        private int id;
+
+        @PostConstruct
+        void init() {
+            id = CREATED.incrementAndGet();
+        }
+
+        int id() {
+            return id;
+        }
+
+        @PreDestroy
+        void destroy() {
+            DESTROYED.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.quarkiverse.aesh.deployment;
+
+import jakarta.enterprise.inject.spi.DeploymentException;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Option;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that conflicting option names are detected at build time.
+ * A field inherited from a superclass declaring the same short name as a field
+ * of the command class should cause a deployment failure.
+ */
+public class DuplicateOptionNameValidationTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+            .setExpectedException(DeploymentException.class)
+            .withApplicationRoot(jar -> jar.addClasses(BaseCommand.class, DeployCommand.class));
+
+    @Test
+    public void test() {
+        // Should not reach here -- deployment must fail due to the duplicate short option "-v"
+    }
+
+    public abstract static class BaseCommand implements Command<CommandInvocation> {
+
+        @Option(name = "verbose", shortName = 'v', hasValue = false)
+        boolean verbose;
+    }
+
+    @CommandDefinition(name = "deploy", description = "Deploy the application")
+    public static class DeployCommand extends BaseCommand {
+
+        @Option(name = "version", shortName = 'v')
+        String version;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.quarkiverse.aesh.deployment;
+
+import java.util.List;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.completer.CompleterInvocation;
+import org.aesh.command.completer.OptionCompleter;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Option;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.CliCommandRegistryFactory;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that a command whose option has a completer is not lazy: its {@code @Inject} fields are
+ * populated when the registry is built, so the completer can read them before the command
+ * ever runs.
+ */
+public class LazyCommandCompleterTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(DeployCommand.class, EnvironmentCompleter.class,
+                    EnvironmentService.class))
+            .overrideConfigKey("quarkus.aesh.start-console", "false")
+            .overrideConfigKey("quarkus.aesh.lazy-commands.enabled", "true");
+
+    @Inject
+    CliCommandRegistryFactory registryFactory;
+
+    @Test
+    public void testCommandWithCompleterIsInjectedOnRegistration() throws Exception {
+        DeployCommand deploy = (DeployCommand) registryFactory.create().create()
+                .getCommand("deploy", "deploy").getParser().getCommand();
+
+        Assertions.assertThat(deploy.environments)
+                .as("A completer may read the injected fields of its command before it runs")
+                .isNotNull();
+        Assertions.assertThat(deploy.environments.names()).containsExactly("dev", "prod");
+    }
+
+    @CommandDefinition(name = "deploy", description = "Deploys to an environment")
+    @CliCommand
+    public static class DeployCommand implements Command<CommandInvocation> {
+
+        @Inject
+        EnvironmentService environments;
+
+        @Option(name = "env", completer = EnvironmentCompleter.class)
+        String env;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    public static class EnvironmentCompleter implements OptionCompleter<CompleterInvocation> {
+
+        @Override
+        public void complete(CompleterInvocation invocation) {
+            DeployCommand command = (DeployCommand) invocation.getCommand();
+            for (String name : command.environments.names()) {
+                if (name.startsWith(invocation.getGivenCompleteValue())) {
+                    invocation.addCompleterValue(name);
+                }
+            }
+        }
+    }
+
+    @ApplicationScoped
+    public static class EnvironmentService {
+
+        List<String> names() {
+            return List.of("dev", "prod");
+        }
+    }
+}
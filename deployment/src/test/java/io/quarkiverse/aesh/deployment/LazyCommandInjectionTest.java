@@ -0,0 +1,94 @@
+package io.quarkiverse.aesh.deployment;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.aesh.command.AeshCommandRuntimeBuilder;
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.CommandRuntime;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.CliCommandRegistryFactory;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that building the console registry does not create the beans injected by lazy
+ * commands, and that they are injected before the first execution.
+ */
+public class LazyCommandInjectionTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(ReportCommand.class, PingCommand.class, ReportService.class))
+            .overrideConfigKey("quarkus.aesh.start-console", "false")
+            .overrideConfigKey("quarkus.aesh.lazy-commands.enabled", "true");
+
+    @Inject
+    CliCommandRegistryFactory registryFactory;
+
+    @Test
+    public void testDependenciesAreInjectedOnFirstExecution() throws Exception {
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.<CommandInvocation> builder()
+                .commandRegistry(registryFactory.create().create())
+                .build();
+        Assertions.assertThat(ReportService.CREATED.get())
+                .as("Registering the commands must not create the injected beans")
+                .isZero();
+
+        runtime.executeCommand("ping");
+        Assertions.assertThat(ReportService.CREATED.get()).isZero();
+
+        runtime.executeCommand("report");
+        runtime.executeCommand("report");
+        Assertions.assertThat(ReportService.CREATED.get()).isEqualTo(1);
+        Assertions.assertThat(ReportCommand.REPORTS.get()).isEqualTo(2);
+    }
+
+    @CommandDefinition(name = "report", description = "Builds a report")
+    @CliCommand
+    public static class ReportCommand implements Command<CommandInvocation> {
+
+        static final AtomicInteger REPORTS = new AtomicInteger();
+
+        @Inject
+        ReportService reportService;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            reportService.report();
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "ping", description = "Does nothing")
+    @CliCommand
+    public static class PingCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @Singleton
+    public static class ReportService {
+
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        public ReportService() {
+            CREATED.incrementAndGet();
+        }
+
+        void report() {
+            ReportCommand.REPORTS.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.quarkiverse.aesh.deployment;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.GroupCommandDefinition;
+import org.aesh.command.completer.CompleterInvocation;
+import org.aesh.command.completer.OptionCompleter;
+import org.aesh.command.container.CommandContainer;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Option;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.AeshCdiCommandContainerBuilder;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the build-time generated injectors honour qualifiers on the injection points
+ * of sub-commands and completers, and that private fields are injected as well.
+ */
+public class QualifiedInjectionTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(
+                    GreetGroupCommand.class,
+                    HelloCommand.class,
+                    Greeter.class,
+                    FormalGreeter.class,
+                    CasualGreeter.class,
+                    GreeterCompleter.class));
+
+    @Test
+    public void testQualifiedInjection() throws Exception {
+        CommandContainer<CommandInvocation> container = new AeshCdiCommandContainerBuilder<CommandInvocation>()
+                .create(GreetGroupCommand.class);
+
+        HelloCommand hello = (HelloCommand) container.getParser().getChildParser("hello").getCommand();
+        Assertions.assertThat(hello.formal).isNotNull();
+        Assertions.assertThat(hello.formal.greet("Alice")).isEqualTo("Good day, Alice");
+        Assertions.assertThat(hello.casual()).isNotNull();
+        Assertions.assertThat(hello.casual().greet("Bob")).isEqualTo("Hey Bob");
+
+        GreeterCompleter completer = (GreeterCompleter) container.getParser().getChildParser("hello")
+                .getProcessedCommand().getOptions().stream()
+                .filter(option -> "style".equals(option.name()))
+                .findFirst().orElseThrow().completer();
+        Assertions.assertThat(completer.casual).isNotNull();
+        Assertions.assertThat(completer.casual.greet("Carol")).isEqualTo("Hey Carol");
+    }
+
+    @GroupCommandDefinition(name = "greet", description = "Greetings", groupCommands = { HelloCommand.class })
+    @CliCommand
+    public static class GreetGroupCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("greet: use a sub-command");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "hello", description = "Say hello")
+    public static class HelloCommand implements Command<CommandInvocation> {
+
+        @Option(description = "Greeting style", completer = GreeterCompleter.class)
+        private String style;
+
+        @Inject
+        @Named("formal")
+        Greeter formal;
+
+        @Inject
+        @Named("casual")
+        private Greeter casual;
+
+        Greeter casual() {
+            return casual;
+        }
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            Greeter greeter = "casual".equals(style) ? casual : formal;
+            invocation.println(greeter.greet("World"));
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    public interface Greeter {
+
+        String greet(String name);
+    }
+
+    @ApplicationScoped
+    @Named("formal")
+    public static class FormalGreeter implements Greeter {
+
+        @Override
+        public String greet(String name) {
+            return "Good day, " + name;
+        }
+    }
+
+    @ApplicationScoped
+    @Named("casual")
+    public static class CasualGreeter implements Greeter {
+
+        @Override
+        public String greet(String name) {
+            return "Hey " + name;
+        }
+    }
+
+    @Dependent
+    public static class GreeterCompleter implements OptionCompleter<CompleterInvocation> {
+
+        @Inject
+        @Named("casual")
+        Greeter casual;
+
+        @Override
+        public void complete(CompleterInvocation invocation) {
+            invocation.addCompleterValue("formal");
+            invocation.addCompleterValue("casual");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package io.quarkiverse.aesh.deployment;
+
+import jakarta.enterprise.inject.spi.DeploymentException;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.annotations.RateLimited;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that a {@code @RateLimited} command without a positive {@code permitsPerSecond} is
+ * reported as a deployment problem at build time.
+ */
+public class RateLimitedValidationTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest test = new QuarkusUnitTest()
+            .setExpectedException(DeploymentException.class)
+            .withApplicationRoot(jar -> jar.addClasses(NeverCommand.class));
+
+    @Test
+    public void test() {
+        // Should not reach here -- deployment must fail due to permitsPerSecond = 0
+    }
+
+    @CommandDefinition(name = "never", description = "Cannot be limited to zero")
+    @RateLimited(permitsPerSecond = 0)
+    public static class NeverCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+}
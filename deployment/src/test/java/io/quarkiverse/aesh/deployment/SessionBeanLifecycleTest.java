@@ -0,0 +1,183 @@
+package io.quarkiverse.aesh.deployment;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+
+import org.aesh.command.AeshCommandRuntimeBuilder;
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.CommandRuntime;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.AeshRemoteSession;
+import io.quarkiverse.aesh.runtime.CliCommandRegistryFactory;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the {@code @Dependent} beans created for a remote session are destroyed when the
+ * session closes, including over many sessions.
+ * <p>
+ * A soak test checking that opening and closing sessions does not grow the heap only runs when
+ * its number of cycles is set, e.g. {@code -Daesh.soak.cycles=100000}.
+ */
+public class SessionBeanLifecycleTest {
+
+    private static final String SOAK_CYCLES_PROPERTY = "aesh.soak.cycles";
+    private static final int CHURN_CYCLES = 300;
+    private static final long MAX_HEAP_GROWTH_BYTES = 16 * 1024 * 1024;
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(StatusCommand.class, ReportCommand.class, SessionResource.class))
+            .overrideConfigKey("quarkus.aesh.start-console", "false")
+            .overrideConfigKey("quarkus.aesh.lazy-commands.enabled", "true");
+
+    @Inject
+    CliCommandRegistryFactory registryFactory;
+
+    @Test
+    public void testBeansAreDestroyedWhenSessionCloses() throws Exception {
+        int created = SessionResource.CREATED.get();
+        int destroyed = SessionResource.DESTROYED.get();
+        int commandsDestroyed = StatusCommand.DESTROYED.get();
+
+        AeshRemoteSession session = new AeshRemoteSession("test", null);
+        CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.<CommandInvocation> builder()
+                .commandRegistry(registryFactory.create(session).create())
+                .build();
+        runtime.executeCommand("report");
+
+        Assertions.assertThat(SessionResource.CREATED.get() - created)
+                .as("The status command and the lazily injected report command each get a resource")
+                .isEqualTo(2);
+        Assertions.assertThat(session.getTrackedBeanCount()).isEqualTo(2);
+        Assertions.assertThat(SessionResource.DESTROYED.get()).isEqualTo(destroyed);
+
+        session.destroyBeans();
+        Assertions.assertThat(session.getTrackedBeanCount()).isZero();
+        Assertions.assertThat(StatusCommand.DESTROYED.get() - commandsDestroyed).isEqualTo(1);
+        Assertions.assertThat(SessionResource.DESTROYED.get() - destroyed).isEqualTo(2);
+
+        // Closing a session again is a no-op
+        session.destroyBeans();
+        Assertions.assertThat(SessionResource.DESTROYED.get() - destroyed).isEqualTo(2);
+    }
+
+    @Test
+    public void testBeansAreDestroyedUnderSessionChurn() throws Exception {
+        int created = SessionResource.CREATED.get();
+        int destroyed = SessionResource.DESTROYED.get();
+        int commandsDestroyed = StatusCommand.DESTROYED.get();
+
+        for (int i = 0; i < CHURN_CYCLES; i++) {
+            AeshRemoteSession session = openAndClose();
+            Assertions.assertThat(session.getTrackedBeanCount()).isZero();
+        }
+
+        Assertions.assertThat(StatusCommand.DESTROYED.get() - commandsDestroyed)
+                .as("The command instance of every session must be destroyed")
+                .isEqualTo(CHURN_CYCLES);
+        Assertions.assertThat(SessionResource.CREATED.get() - created).isEqualTo(CHURN_CYCLES);
+        Assertions.assertThat(SessionResource.DESTROYED.get() - destroyed)
+                .as("Every resource created by a session must be destroyed with it")
+                .isEqualTo(CHURN_CYCLES);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = SOAK_CYCLES_PROPERTY, matches = "\\d+")
+    public void testHeapIsFlatUnderSessionChurn() throws Exception {
+        int cycles = Integer.getInteger(SOAK_CYCLES_PROPERTY);
+        for (int i = 0; i < Math.min(cycles, 5_000); i++) {
+            openAndClose();
+        }
+        long baseline = usedHeap();
+        int created = SessionResource.CREATED.get();
+        int destroyed = SessionResource.DESTROYED.get();
+
+        for (int i = 0; i < cycles; i++) {
+            openAndClose();
+        }
+        long growth = usedHeap() - baseline;
+
+        Assertions.assertThat(SessionResource.DESTROYED.get() - destroyed)
+                .as("Every resource created by a session must be destroyed with it")
+                .isEqualTo(SessionResource.CREATED.get() - created);
+        Assertions.assertThat(growth)
+                .as("Heap growth after %d session open/close cycles", cycles)
+                .isLessThan(MAX_HEAP_GROWTH_BYTES);
+    }
+
+    private AeshRemoteSession openAndClose() throws Exception {
+        AeshRemoteSession session = new AeshRemoteSession("test", null);
+        registryFactory.create(session).create();
+        session.destroyBeans();
+        return session;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @CommandDefinition(name = "status", description = "Shows the status")
+    @CliCommand
+    public static class StatusCommand implements Command<CommandInvocation> {
+
+        static final AtomicInteger DESTROYED = new AtomicInteger();
+
+        @Inject
+        SessionResource resource;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+
+        @PreDestroy
+        void destroy() {
+            DESTROYED.incrementAndGet();
+        }
+    }
+
+    @CommandDefinition(name = "report", description = "Builds a report")
+    @CliCommand
+    public static class ReportCommand implements Command<CommandInvocation> {
+
+        @Inject
+        SessionResource resource;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @Dependent
+    public static class SessionResource {
+
+        static final AtomicInteger CREATED = new AtomicInteger();
+        static final AtomicInteger DESTROYED = new AtomicInteger();
+
+        public SessionResource() {
+            CREATED.incrementAndGet();
+        }
+
+        @PreDestroy
+        void close() {
+            DESTROYED.incrementAndGet();
+        }
+    }
+}
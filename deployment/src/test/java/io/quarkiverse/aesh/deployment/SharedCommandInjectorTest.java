@@ -0,0 +1,123 @@
+package io.quarkiverse.aesh.deployment;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.GroupCommandDefinition;
+import org.aesh.command.completer.CompleterInvocation;
+import org.aesh.command.completer.OptionCompleter;
+import org.aesh.command.container.CommandContainer;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Argument;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.AeshCdiCommandContainerBuilder;
+import io.quarkiverse.aesh.runtime.AeshCommandInjector;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that a single {@link AeshCommandInjector} can be shared by the container builders
+ * of several sessions: the injection metadata is resolved once per class, and not at all for
+ * the classes that have a generated injector, while every session still gets its own, fully
+ * injected, command instances.
+ */
+public class SharedCommandInjectorTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(
+                    ProjectCommand.class,
+                    BuildCommand.class,
+                    ProjectService.class,
+                    ModuleCompleter.class));
+
+    @Test
+    public void testInjectorIsSharedAcrossSessions() throws Exception {
+        AeshCommandInjector injector = new AeshCommandInjector();
+
+        CommandContainer<CommandInvocation> first = new AeshCdiCommandContainerBuilder<CommandInvocation>(injector)
+                .create(ProjectCommand.class);
+        int resolvedClasses = injector.size();
+        CommandContainer<CommandInvocation> second = new AeshCdiCommandContainerBuilder<CommandInvocation>(injector)
+                .create(ProjectCommand.class);
+
+        // BuildCommand and ModuleCompleter are instantiated by aesh and known at build time:
+        // their generated injectors are used, so no reflective plan is resolved for them
+        Assertions.assertThat(resolvedClasses)
+                .as("Classes known at build time should be injected by their generated injector")
+                .isZero();
+        Assertions.assertThat(injector.size())
+                .as("A second session should not resolve any additional injection metadata")
+                .isEqualTo(resolvedClasses);
+
+        BuildCommand firstBuild = (BuildCommand) first.getParser().getChildParser("build").getCommand();
+        BuildCommand secondBuild = (BuildCommand) second.getParser().getChildParser("build").getCommand();
+        Assertions.assertThat(firstBuild).isNotSameAs(secondBuild);
+        Assertions.assertThat(firstBuild.projectService).isNotNull();
+        Assertions.assertThat(secondBuild.projectService).isNotNull();
+
+        ModuleCompleter firstCompleter = (ModuleCompleter) first.getParser().getChildParser("build")
+                .getProcessedCommand().getArgument().completer();
+        ModuleCompleter secondCompleter = (ModuleCompleter) second.getParser().getChildParser("build")
+                .getProcessedCommand().getArgument().completer();
+        Assertions.assertThat(firstCompleter).isNotSameAs(secondCompleter);
+        Assertions.assertThat(firstCompleter.projectService).isNotNull();
+        Assertions.assertThat(secondCompleter.projectService).isNotNull();
+    }
+
+    @GroupCommandDefinition(name = "project", description = "Project tools", groupCommands = { BuildCommand.class })
+    @CliCommand
+    public static class ProjectCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("project: use a sub-command");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "build", description = "Build a module")
+    public static class BuildCommand implements Command<CommandInvocation> {
+
+        @Argument(description = "Module name", completer = ModuleCompleter.class)
+        private String module;
+
+        @Inject
+        ProjectService projectService;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("Building " + module);
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @ApplicationScoped
+    public static class ProjectService {
+
+        public String[] modules() {
+            return new String[] { "core", "web" };
+        }
+    }
+
+    @Dependent
+    public static class ModuleCompleter implements OptionCompleter<CompleterInvocation> {
+
+        @Inject
+        ProjectService projectService;
+
+        @Override
+        public void complete(CompleterInvocation invocation) {
+            for (String module : projectService.modules()) {
+                invocation.addCompleterValue(module);
+            }
+        }
+    }
+}
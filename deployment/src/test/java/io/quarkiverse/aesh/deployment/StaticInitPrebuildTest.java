@@ -0,0 +1,72 @@
+package io.quarkiverse.aesh.deployment;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.annotations.TopCommand;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.test.QuarkusProdModeTest;
+
+/**
+ * Tests that {@code quarkus.aesh.static-init.enabled} builds the command runtime during static
+ * init: the top command that runs is the instance created before the application started, and
+ * no other instance is created at startup.
+ */
+public class StaticInitPrebuildTest {
+
+    @RegisterExtension
+    static final QuarkusProdModeTest config = new QuarkusProdModeTest()
+            .withApplicationRoot(jar -> jar.addClasses(PrebuiltCommand.class, StartupObserver.class))
+            .setApplicationName("static-init-app")
+            .setApplicationVersion("0.1-SNAPSHOT")
+            .overrideConfigKey("quarkus.aesh.static-init.enabled", "true")
+            .setExpectExit(true)
+            .setRun(true);
+
+    @Test
+    public void testRuntimeIsPrebuilt() {
+        Assertions.assertThat(config.getStartupConsoleOutput())
+                .contains("created before startup: true")
+                .contains("instances: 1");
+        Assertions.assertThat(config.getExitCode()).isZero();
+    }
+
+    @CommandDefinition(name = "prebuilt", description = "Reports when it was created")
+    @TopCommand
+    public static class PrebuiltCommand implements Command<CommandInvocation> {
+
+        static int instances;
+
+        private final boolean createdBeforeStartup;
+
+        public PrebuiltCommand() {
+            instances++;
+            createdBeforeStartup = !StartupObserver.started;
+        }
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("created before startup: " + createdBeforeStartup);
+            invocation.println("instances: " + instances);
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @ApplicationScoped
+    public static class StartupObserver {
+
+        static volatile boolean started;
+
+        void onStart(@Observes StartupEvent event) {
+            started = true;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.quarkiverse.aesh.deployment;
+
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.StreamingCommand;
+import io.quarkus.test.QuarkusProdModeTest;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+
+/**
+ * Tests that the lines of a {@link StreamingCommand} are printed in order, including when they
+ * are emitted from another thread.
+ */
+public class StreamingCommandTest {
+
+    @RegisterExtension
+    static final QuarkusProdModeTest config = new QuarkusProdModeTest()
+            .withApplicationRoot(jar -> jar.addClasses(CountCommand.class))
+            .setApplicationName("streaming-app")
+            .setApplicationVersion("0.1-SNAPSHOT")
+            .setExpectExit(true)
+            .setRun(true);
+
+    @Test
+    public void testLinesArePrintedInOrder() {
+        Assertions.assertThat(config.getStartupConsoleOutput())
+                .containsSubsequence("row 1", "row 2", "row 3", "row 40");
+        Assertions.assertThat(config.getExitCode()).isZero();
+    }
+
+    @CommandDefinition(name = "count", description = "Streams rows")
+    public static class CountCommand implements StreamingCommand<CommandInvocation> {
+
+        @Override
+        public Multi<String> stream(CommandInvocation invocation) {
+            // More rows than are prefetched, emitted off the command thread
+            return Multi.createFrom().range(1, 41)
+                    .emitOn(Infrastructure.getDefaultExecutor())
+                    .map(i -> "row " + i);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package io.quarkiverse.aesh.deployment;
+
+import jakarta.inject.Named;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkus.test.QuarkusProdModeTest;
+
+/**
+ * Tests that {@code quarkus.aesh.top-command} selects the entry point among several commands
+ * by its {@code @Named} bean name, using the commands registered at build time.
+ */
+public class TopCommandConfigTest {
+
+    @RegisterExtension
+    static final QuarkusProdModeTest config = new QuarkusProdModeTest()
+            .withApplicationRoot(jar -> jar.addClasses(FirstCommand.class, SecondCommand.class))
+            .setApplicationName("top-cmd-config-app")
+            .setApplicationVersion("0.1-SNAPSHOT")
+            .overrideConfigKey("quarkus.aesh.mode", "runtime")
+            .overrideConfigKey("quarkus.aesh.top-command", "second")
+            .setExpectExit(true)
+            .setRun(true);
+
+    @Test
+    public void testConfiguredTopCommandIsExecuted() {
+        Assertions.assertThat(config.getStartupConsoleOutput())
+                .contains("Second!")
+                .doesNotContain("First!");
+        Assertions.assertThat(config.getExitCode()).isZero();
+    }
+
+    @CommandDefinition(name = "first", description = "The first command")
+    @Named("first")
+    public static class FirstCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("First!");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "second", description = "The second command")
+    @Named("second")
+    public static class SecondCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("Second!");
+            return CommandResult.SUCCESS;
+        }
+    }
+}
@@ -6,7 +6,10 @@ import org.aesh.command.CommandResult;
 import org.aesh.command.invocation.CommandInvocation;
 import org.aesh.command.option.Option;
 
+import io.quarkiverse.aesh.runtime.annotations.TopCommand;
+
 @CommandDefinition(name = "hello", description = "Greets someone")
+@TopCommand
 public class HelloCommand implements Command<CommandInvocation> {
 
     @Option(shortName = 'n', name = "name", description = "Name to greet", defaultValue = "World")
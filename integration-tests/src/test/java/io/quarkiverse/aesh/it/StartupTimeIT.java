@@ -0,0 +1,29 @@
+package io.quarkiverse.aesh.it;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the time-to-first-output of the native binary built from this module, whose top
+ * command is {@link HelloCommand}.
+ * <p>
+ * Run with {@code mvn verify -Dnative -Dstartup-benchmark}, adding {@code -Dquarkus.aesh.static-init.enabled=true} to
+ * snapshot the command runtime into the image heap.
+ */
+public class StartupTimeIT {
+
+    @Test
+    public void testTimeToFirstOutput() throws Exception {
+        String imagePath = System.getProperty("native.image.path");
+        Assumptions.assumeTrue(imagePath != null && Files.isExecutable(Path.of(imagePath)),
+                "Native image not built");
+
+        long[] times = StartupTimer.measure("native mode", List.of(imagePath, "--name=Aesh"), "Hello Aesh!");
+        Assertions.assertThat(times).isNotEmpty();
+    }
+}
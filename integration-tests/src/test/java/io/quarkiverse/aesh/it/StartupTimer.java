@@ -0,0 +1,70 @@
+package io.quarkiverse.aesh.it;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time-to-first-output of a packaged CLI: the time from launching the process to
+ * reading the first line of its output that contains an expected text.
+ * <p>
+ * The measurements only run with the {@code startup-benchmark} profile, e.g.
+ * {@code mvn verify -Dstartup-benchmark}. The number of runs can be set with
+ * {@code -Daesh.startup.runs}.
+ */
+class StartupTimer {
+
+    static final String RUNS_PROPERTY = "aesh.startup.runs";
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Launches {@code command} once to warm up the file system cache, then measures it.
+     *
+     * @return the times of the measured runs in milliseconds, sorted
+     */
+    static long[] measure(String name, List<String> command, String expectedOutput) throws Exception {
+        int runs = Integer.getInteger(RUNS_PROPERTY, 5);
+        run(command, expectedOutput);
+        long[] times = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            times[i] = run(command, expectedOutput);
+        }
+        Arrays.sort(times);
+        System.out.printf("Time-to-first-output of %s over %d runs: min %dms, median %dms, max %dms%n",
+                name, runs, times[0], times[runs / 2], times[runs - 1]);
+        return times;
+    }
+
+    private static long run(List<String> command, String expectedOutput) throws Exception {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long elapsed = -1;
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (elapsed < 0 && line.contains(expectedOutput)) {
+                    elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+                output.add(line);
+            }
+        } finally {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+        if (elapsed < 0 || process.exitValue() != 0) {
+            throw new IOException("Unexpected output of " + command + " (exit code " + process.exitValue() + "): "
+                    + String.join("\n", output));
+        }
+        return elapsed;
+    }
+}
@@ -0,0 +1,42 @@
+package io.quarkiverse.aesh.it;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkus.test.ProdBuildResults;
+import io.quarkus.test.ProdModeTestResults;
+import io.quarkus.test.QuarkusProdModeTest;
+
+/**
+ * Measures the time-to-first-output of a single-command application in JVM mode, with the
+ * command runtime built at startup.
+ *
+ * @see TestStartupTimeStaticInit
+ */
+public class TestStartupTime {
+
+    @RegisterExtension
+    static final QuarkusProdModeTest config = new QuarkusProdModeTest()
+            .withApplicationRoot((jar) -> jar.addClasses(HelloCommand.class))
+            .setApplicationName("startup-app").setApplicationVersion("0.1-SNAPSHOT")
+            .setRun(false);
+
+    @ProdBuildResults
+    ProdModeTestResults results;
+
+    @Test
+    public void testTimeToFirstOutput() throws Exception {
+        long[] times = StartupTimer.measure("JVM mode", command(results), "Hello Aesh!");
+        Assertions.assertThat(times).isNotEmpty();
+    }
+
+    static List<String> command(ProdModeTestResults results) {
+        Path jar = results.getResults().get(0).getPath();
+        return List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", jar.toString(), "--name=Aesh");
+    }
+}
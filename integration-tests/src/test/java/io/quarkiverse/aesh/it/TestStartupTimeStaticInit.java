@@ -0,0 +1,35 @@
+package io.quarkiverse.aesh.it;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkus.test.ProdBuildResults;
+import io.quarkus.test.ProdModeTestResults;
+import io.quarkus.test.QuarkusProdModeTest;
+
+/**
+ * Measures the time-to-first-output of a single-command application in JVM mode, with the
+ * command runtime built during static init.
+ *
+ * @see TestStartupTime
+ */
+public class TestStartupTimeStaticInit {
+
+    @RegisterExtension
+    static final QuarkusProdModeTest config = new QuarkusProdModeTest()
+            .withApplicationRoot((jar) -> jar.addClasses(HelloCommand.class))
+            .setApplicationName("startup-static-init-app").setApplicationVersion("0.1-SNAPSHOT")
+            .overrideConfigKey("quarkus.aesh.static-init.enabled", "true")
+            .setRun(false);
+
+    @ProdBuildResults
+    ProdModeTestResults results;
+
+    @Test
+    public void testTimeToFirstOutput() throws Exception {
+        long[] times = StartupTimer.measure("JVM mode with static init", TestStartupTime.command(results),
+                "Hello Aesh!");
+        Assertions.assertThat(times).isNotEmpty();
+    }
+}
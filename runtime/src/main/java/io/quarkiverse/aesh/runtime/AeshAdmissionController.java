@@ -0,0 +1,385 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+/**
+ * Decides which remote sessions may start, shared by all transports.
+ * <p>
+ * A session needs a slot under both the global cap ({@code quarkus.aesh.sessions.max}) and the
+ * cap of its transport, read from the property the transport declared with its
+ * {@code AeshRemoteTransportBuildItem}. When no slot is free, the session waits in a bounded
+ * queue ({@code quarkus.aesh.sessions.queue-size}) for at most
+ * {@code quarkus.aesh.sessions.queue-timeout}. Released slots are handed to the waiting sessions
+ * in arrival order, skipping those whose transport is still at its cap.
+ * <p>
+ * Transports call {@link #admit(String, Callback)} when a client connects, release the
+ * {@link Slot} when the session ends, and cancel the {@link Ticket} if the client leaves while
+ * waiting. Callbacks are never invoked while holding the internal lock.
+ */
+@ApplicationScoped
+public class AeshAdmissionController {
+
+    private static final Logger LOG = Logger.getLogger(AeshAdmissionController.class);
+
+    /**
+     * Rejection reason when the wait queue is full, or queuing is disabled.
+     */
+    public static final String QUEUE_FULL = "queue-full";
+
+    /**
+     * Rejection reason when no slot became free within the queue timeout.
+     */
+    public static final String TIMEOUT = "timeout";
+
+    /**
+     * Properties holding the session cap of each transport, registered at static init.
+     */
+    private static final Map<String, String> TRANSPORT_LIMIT_PROPERTIES = new ConcurrentHashMap<>();
+
+    /**
+     * Receives the outcome of an admission request.
+     */
+    public interface Callback {
+
+        /**
+         * The session may start. The slot must be released when the session ends.
+         */
+        void admitted(Slot slot);
+
+        /**
+         * The session is waiting at the given position of the queue, starting at 1.
+         * Invoked when the session is queued and whenever its position changes.
+         */
+        default void waiting(int position) {
+        }
+
+        /**
+         * The session may not start.
+         *
+         * @param reason {@link #QUEUE_FULL} or {@link #TIMEOUT}
+         */
+        void rejected(String reason);
+    }
+
+    /**
+     * A session slot held by a running session.
+     */
+    public interface Slot {
+
+        /**
+         * Releases the slot. Releasing more than once has no effect.
+         */
+        void release();
+    }
+
+    /**
+     * An admission request.
+     */
+    public interface Ticket {
+
+        /**
+         * Withdraws the request if it is still waiting. Has no effect once the session was
+         * admitted or rejected.
+         */
+        void cancel();
+    }
+
+    @Inject
+    CliConfig config;
+
+    @Inject
+    AeshIdleSessionReaper reaper;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+    private final Map<String, TransportState> transports = new HashMap<>();
+    private int active;
+
+    private final LongAdder admittedAfterWait = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedTimeout = new LongAdder();
+
+    /**
+     * Declares the configuration property that holds the session cap of a transport.
+     */
+    public static void registerTransport(String transport, String maxSessionsProperty) {
+        TRANSPORT_LIMIT_PROPERTIES.put(transport, maxSessionsProperty);
+    }
+
+    /**
+     * Requests a slot for a new session of the given transport. The callback is invoked
+     * before this method returns if the session is admitted or rejected immediately.
+     */
+    public Ticket admit(String transport, Callback callback) {
+        List<Runnable> notifications = new ArrayList<>(1);
+        Waiter waiter = null;
+        lock.lock();
+        try {
+            TransportState state = transports.computeIfAbsent(transport, this::newTransportState);
+            if (hasCapacity(state)) {
+                // Waiting sessions are handed slots as soon as they are free, so a free slot
+                // means no earlier session could take it
+                SlotImpl slot = take(state);
+                notifications.add(() -> callback.admitted(slot));
+            } else if (queue.size() >= config.sessions().queueSize()) {
+                rejectedQueueFull.increment();
+                notifications.add(() -> callback.rejected(QUEUE_FULL));
+            } else {
+                waiter = new Waiter(state, callback);
+                queue.addLast(waiter);
+                waiter.position = queue.size();
+                int position = waiter.position;
+                notifications.add(() -> callback.waiting(position));
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (waiter != null) {
+            // If the waiter is admitted before its handle is set, the timeout finds it gone
+            Waiter queued = waiter;
+            waiter.timeoutHandle = reaper.track(() -> queued.enqueuedAtMs, config.sessions().queueTimeout().toMillis(),
+                    () -> timeout(queued));
+        }
+        run(notifications);
+        return waiter != null ? waiter : NO_TICKET;
+    }
+
+    private TransportState newTransportState(String transport) {
+        int max = 0;
+        String property = TRANSPORT_LIMIT_PROPERTIES.get(transport);
+        if (property != null) {
+            max = ConfigProvider.getConfig().getOptionalValue(property, Integer.class).orElse(0);
+        }
+        return new TransportState(max);
+    }
+
+    private boolean hasCapacity(TransportState state) {
+        int globalMax = config.sessions().max().orElse(0);
+        return (globalMax <= 0 || active < globalMax) && (state.max <= 0 || state.active < state.max);
+    }
+
+    private SlotImpl take(TransportState state) {
+        active++;
+        state.active++;
+        return new SlotImpl(state);
+    }
+
+    private void release(TransportState state) {
+        List<Runnable> notifications = new ArrayList<>();
+        lock.lock();
+        try {
+            active--;
+            state.active--;
+            dispatch(notifications);
+        } finally {
+            lock.unlock();
+        }
+        run(notifications);
+    }
+
+    private void timeout(Waiter waiter) {
+        List<Runnable> notifications = new ArrayList<>();
+        lock.lock();
+        try {
+            if (!queue.remove(waiter)) {
+                return;
+            }
+            rejectedTimeout.increment();
+            notifications.add(() -> waiter.callback.rejected(TIMEOUT));
+            updatePositions(notifications);
+        } finally {
+            lock.unlock();
+        }
+        run(notifications);
+    }
+
+    private void cancel(Waiter waiter) {
+        List<Runnable> notifications = new ArrayList<>();
+        lock.lock();
+        try {
+            if (!queue.remove(waiter)) {
+                return;
+            }
+            updatePositions(notifications);
+        } finally {
+            lock.unlock();
+        }
+        waiter.timeoutHandle.cancel();
+        run(notifications);
+    }
+
+    /**
+     * Hands free slots to waiting sessions in arrival order. Must hold the lock.
+     */
+    private void dispatch(List<Runnable> notifications) {
+        boolean admittedAny = false;
+        for (Iterator<Waiter> it = queue.iterator(); it.hasNext();) {
+            Waiter waiter = it.next();
+            if (hasCapacity(waiter.state)) {
+                it.remove();
+                waiter.timeoutHandle.cancel();
+                SlotImpl slot = take(waiter.state);
+                admittedAfterWait.increment();
+                totalWaitNanos.add(System.nanoTime() - waiter.enqueuedAtNanos);
+                notifications.add(() -> waiter.callback.admitted(slot));
+                admittedAny = true;
+            }
+        }
+        if (admittedAny) {
+            updatePositions(notifications);
+        }
+    }
+
+    /**
+     * Notifies waiting sessions whose position changed. Must hold the lock.
+     */
+    private void updatePositions(List<Runnable> notifications) {
+        int position = 0;
+        for (Waiter waiter : queue) {
+            position++;
+            if (waiter.position != position) {
+                waiter.position = position;
+                int current = position;
+                notifications.add(() -> waiter.callback.waiting(current));
+            }
+        }
+    }
+
+    private static void run(List<Runnable> notifications) {
+        for (Runnable notification : notifications) {
+            try {
+                notification.run();
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to notify a remote session of its admission state", e);
+            }
+        }
+    }
+
+    /**
+     * Number of running sessions over all transports.
+     */
+    public int getActiveSessions() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of running sessions of the given transport.
+     */
+    public int getActiveSessions(String transport) {
+        lock.lock();
+        try {
+            TransportState state = transports.get(transport);
+            return state != null ? state.active : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of sessions waiting for a slot.
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of sessions admitted after waiting in the queue.
+     */
+    public long getAdmittedAfterWait() {
+        return admittedAfterWait.sum();
+    }
+
+    /**
+     * Total time, in nanoseconds, that admitted sessions spent in the queue.
+     */
+    public long getTotalWaitNanos() {
+        return totalWaitNanos.sum();
+    }
+
+    public long getRejectedQueueFull() {
+        return rejectedQueueFull.sum();
+    }
+
+    public long getRejectedTimeout() {
+        return rejectedTimeout.sum();
+    }
+
+    private static final Ticket NO_TICKET = () -> {
+    };
+
+    private static final class TransportState {
+
+        final int max;
+        int active;
+
+        TransportState(int max) {
+            this.max = max;
+        }
+    }
+
+    private final class Waiter implements Ticket {
+
+        final TransportState state;
+        final Callback callback;
+        final long enqueuedAtMs = System.currentTimeMillis();
+        final long enqueuedAtNanos = System.nanoTime();
+        // Guarded by lock
+        int position;
+        volatile AeshIdleSessionReaper.Handle timeoutHandle = () -> {
+        };
+
+        Waiter(TransportState state, Callback callback) {
+            this.state = state;
+            this.callback = callback;
+        }
+
+        @Override
+        public void cancel() {
+            AeshAdmissionController.this.cancel(this);
+        }
+    }
+
+    private final class SlotImpl implements Slot {
+
+        private final TransportState state;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        SlotImpl(TransportState state) {
+            this.state = state;
+        }
+
+        @Override
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                AeshAdmissionController.this.release(state);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+import org.aesh.command.CommandException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Runs {@link AsyncCommand}, {@link CompletionStageCommand} and {@link StreamingCommand}
+ * executions on the thread aesh calls {@code execute} on.
+ * <p>
+ * aesh expects {@code execute} to return the result, so that thread waits for it. The waits
+ * are interruptible and cancel the asynchronous work when interrupted, which lets Ctrl-C and
+ * command timeouts stop asynchronous commands like blocking ones.
+ */
+final class AeshAsyncExecution {
+
+    private AeshAsyncExecution() {
+    }
+
+    static CommandResult await(Uni<CommandResult> result) throws CommandException, InterruptedException {
+        if (result == null) {
+            return CommandResult.SUCCESS;
+        }
+        return await(result.subscribeAsCompletionStage());
+    }
+
+    static CommandResult await(CompletionStage<CommandResult> result) throws CommandException, InterruptedException {
+        if (result == null) {
+            return CommandResult.SUCCESS;
+        }
+        CompletableFuture<CommandResult> future = result.toCompletableFuture();
+        try {
+            CommandResult value = future.get();
+            return value != null ? value : CommandResult.SUCCESS;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    static CommandResult print(Multi<String> lines, CommandInvocation invocation)
+            throws CommandException, InterruptedException {
+        if (lines != null) {
+            CommandOutput.of(invocation).print(lines);
+        }
+        return CommandResult.SUCCESS;
+    }
+
+    static CommandException rethrow(Throwable cause) throws CommandException {
+        if (cause instanceof CommandException) {
+            throw (CommandException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new CommandException(cause.getMessage(), cause);
+    }
+}
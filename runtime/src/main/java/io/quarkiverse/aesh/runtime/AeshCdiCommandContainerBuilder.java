@@ -1,10 +1,7 @@
 package io.quarkiverse.aesh.runtime;
 
-import java.lang.reflect.Field;
 import java.util.List;
 
-import jakarta.inject.Inject;
-
 import org.aesh.command.Command;
 import org.aesh.command.container.CommandContainer;
 import org.aesh.command.impl.container.AeshCommandContainerBuilder;
@@ -26,32 +23,65 @@ import io.quarkus.arc.InstanceHandle;
  * <p>
  * Sub-commands in {@code @GroupCommandDefinition} are created by Aesh via reflection.
  * After the command tree is built, this builder injects CDI dependencies into those
- * sub-command instances so that {@code @Inject} fields are populated.
+ * sub-command instances so that {@code @Inject} fields are populated. When the injection of the
+ * group command itself was deferred, sub-commands whose class supports
+ * {@link AeshCommandExecution.DeferredInjection} are only injected before their first execution
+ * as well.
  * <p>
  * Aesh also creates service providers (completers, validators, converters, activators)
  * via reflection. This builder injects CDI dependencies into those instances as well.
+ * <p>
+ * Field injection is delegated to an {@link AeshCommandInjector}, which caches the
+ * resolved injection points per class. Builders created for successive sessions should
+ * share the same injector so that this resolution only happens once.
+ * <p>
+ * When a remote session is given, every command instance of the tree is bound to it, so that
+ * {@link AeshCommandExecution} can report which transport a command ran on, apply the rate
+ * limits of the session and its principal, and interrupt the command on Ctrl-C or timeout.
+ * The {@code @Dependent} beans created for the tree are tracked by the session, which destroys
+ * them when it closes.
  *
  * @param <CI> the command invocation type
  */
 public class AeshCdiCommandContainerBuilder<CI extends CommandInvocation>
         extends AeshCommandContainerBuilder<CI> {
 
+    private static final String AESH_PACKAGE = "org.aesh.";
+
+    private final AeshCommandInjector injector;
+    private final AeshRemoteSession session;
+
+    public AeshCdiCommandContainerBuilder() {
+        this(new AeshCommandInjector());
+    }
+
+    public AeshCdiCommandContainerBuilder(AeshCommandInjector injector) {
+        this(injector, null);
+    }
+
+    public AeshCdiCommandContainerBuilder(AeshCommandInjector injector, AeshRemoteSession session) {
+        this.injector = injector;
+        this.session = session;
+    }
+
     @Override
     public CommandContainer<CI> create(Class<? extends Command> commandClass) throws CommandLineParserException {
         Class<? extends Command> actualClass = getBeanClass(commandClass);
         Command<CI> commandInstance = createCommandInstance(actualClass);
         CommandContainer<CI> container = super.create(commandInstance);
-        injectCdiIntoCommandTree(container.getParser());
+        bindSession(commandInstance);
+        injectCdiIntoCommandTree(container.getParser(), false);
         return container;
     }
 
     @Override
     public CommandContainer<CI> create(Command command) throws CommandLineParserException {
         CommandContainer<CI> container = super.create(command);
+        bindSession(command);
         // After Aesh builds the command tree (including sub-commands via reflection),
         // walk the tree and inject CDI dependencies into sub-command instances
         // and into service providers (completers, validators, converters, activators)
-        injectCdiIntoCommandTree(container.getParser());
+        injectCdiIntoCommandTree(container.getParser(), AeshCommandExecution.isInjectionPending(command));
         return container;
     }
 
@@ -59,7 +89,7 @@ public class AeshCdiCommandContainerBuilder<CI extends CommandInvocation>
      * Recursively walks the command parser tree and injects CDI beans into
      * sub-command instances and option service providers.
      */
-    private void injectCdiIntoCommandTree(CommandLineParser<CI> parser) {
+    private void injectCdiIntoCommandTree(CommandLineParser<CI> parser, boolean deferred) {
         // Inject CDI into service providers on this command's options
         injectCdiIntoOptionProviders(parser.getProcessedCommand());
 
@@ -70,10 +100,13 @@ public class AeshCdiCommandContainerBuilder<CI extends CommandInvocation>
         for (CommandLineParser<CI> child : children) {
             Command<CI> command = child.getCommand();
             if (command != null) {
-                injectFields(command);
+                if (!deferred || !AeshCommandExecution.deferInjection(command)) {
+                    injectFields(command);
+                }
+                bindSession(command);
             }
             // Recurse into child commands
-            injectCdiIntoCommandTree(child);
+            injectCdiIntoCommandTree(child, deferred);
         }
     }
 
@@ -110,27 +143,20 @@ public class AeshCdiCommandContainerBuilder<CI extends CommandInvocation>
 
     /**
      * Injects CDI bean instances into fields annotated with {@code @Inject}.
+     * <p>
+     * The defaults aesh assigns to options without a provider ({@code NullValidator},
+     * {@code StringConverter}, ...) have nothing to inject and are skipped.
      */
     private void injectFields(Object instance) {
-        Class<?> clazz = instance.getClass();
-        while (clazz != null && clazz != Object.class) {
-            for (Field field : clazz.getDeclaredFields()) {
-                if (field.isAnnotationPresent(Inject.class)) {
-                    InstanceHandle<?> handle = Arc.container().instance(field.getType());
-                    if (handle.isAvailable()) {
-                        try {
-                            field.setAccessible(true);
-                            field.set(instance, handle.get());
-                        } catch (IllegalAccessException e) {
-                            throw new RuntimeException(
-                                    "Failed to inject CDI bean into field " + field.getName()
-                                            + " of " + instance.getClass().getName(),
-                                    e);
-                        }
-                    }
-                }
-            }
-            clazz = clazz.getSuperclass();
+        if (instance.getClass().getName().startsWith(AESH_PACKAGE)) {
+            return;
+        }
+        injector.inject(instance, session);
+    }
+
+    private void bindSession(Command<?> command) {
+        if (session != null) {
+            AeshCommandExecution.bindSession(command, session);
         }
     }
 
@@ -150,7 +176,11 @@ public class AeshCdiCommandContainerBuilder<CI extends CommandInvocation>
         try {
             InstanceHandle<? extends Command> instance = Arc.container().instance(commandClass);
             if (instance.isAvailable()) {
-                return (T) instance.get();
+                T command = (T) instance.get();
+                if (session != null) {
+                    session.track(instance);
+                }
+                return command;
             }
         } catch (Exception e) {
             // Fall through to reflection-based instantiation
@@ -0,0 +1,362 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+import org.aesh.command.CommandNotFoundException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.impl.parser.CommandLineParser;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.registry.CommandRegistry;
+
+/**
+ * Reports command executions to an optional {@link Listener} and applies the optional
+ * {@link AeshRateLimiter} and {@link AeshCommandTimeouts} to remote sessions.
+ * <p>
+ * When command metrics are enabled, remote transports are present, a command injects
+ * {@link CommandOutput} or session scoped beans are declared, the {@code execute} method of
+ * every command class is wrapped at build time so that it calls {@link #permit} and
+ * {@link #begin()} before and {@link #succeeded} or {@link #failed} after the original method.
+ * The wrapped classes also implement {@link SessionBound}, through which the command instances
+ * of a remote session are bound to their {@link AeshRemoteSession} when the session's command
+ * registry is built. The hooks read the session from a field of the command, so the execution
+ * path takes no lock. The invocations and sessions of the commands running on each thread are
+ * kept in thread locals, for {@link CommandOutput} and {@link AeshSessionContext}.
+ * <p>
+ * Command classes whose dependencies can be injected late also implement
+ * {@link DeferredInjection}. Instances of those classes that are created reflectively rather
+ * than by CDI are only injected by {@link #permit} before their first execution, so that the
+ * beans of commands that are never run are never created.
+ * <p>
+ * Commands that were not bound, such as those of the local console or of runtime mode, are
+ * reported as {@value #LOCAL} and are never rate limited nor timed out.
+ */
+public final class AeshCommandExecution {
+
+    /**
+     * Transport reported for commands that do not run in a remote session.
+     */
+    public static final String LOCAL = "local";
+
+    /**
+     * Receives command executions.
+     */
+    public interface Listener {
+
+        /**
+         * Invoked after a command has returned or thrown.
+         *
+         * @param command the command name
+         * @param transport the transport of the session, e.g. {@code "ssh"}
+         * @param durationNanos the duration of the {@code execute} method
+         * @param success whether the command returned {@link CommandResult#SUCCESS} or {@code null}
+         */
+        void executed(String command, String transport, long durationNanos, boolean success);
+
+        /**
+         * Invoked when a command line could not be parsed into a command.
+         *
+         * @param transport the transport of the session
+         */
+        void parseFailed(String transport);
+
+        /**
+         * Invoked when a command was not executed because a rate limit was exceeded.
+         *
+         * @param command the command name
+         * @param transport the transport of the session
+         * @param scope {@code "session"} or {@code "principal"}, the limit that was exceeded
+         */
+        default void throttled(String command, String transport, String scope) {
+        }
+
+        /**
+         * Invoked when a command was interrupted because it exceeded its timeout.
+         *
+         * @param command the command name
+         * @param transport the transport of the session
+         */
+        default void timedOut(String command, String transport) {
+        }
+    }
+
+    /**
+     * Implemented by wrapped command classes to hold the session they belong to.
+     */
+    public interface SessionBound {
+
+        AeshRemoteSession aesh$getSession();
+
+        void aesh$setSession(AeshRemoteSession session);
+    }
+
+    /**
+     * Implemented by wrapped command classes whose {@code @Inject} fields may be populated right
+     * before the first execution.
+     */
+    public interface DeferredInjection {
+
+        boolean aesh$isInjectionPending();
+
+        void aesh$setInjectionPending(boolean pending);
+    }
+
+    // Shared by all sessions, so that the reflective injection plans are resolved once per class
+    private static final AeshCommandInjector INJECTOR = new AeshCommandInjector();
+
+    // Invocations of the commands running on each thread, innermost first
+    private static final ThreadLocal<ArrayDeque<CommandInvocation>> INVOCATIONS = ThreadLocal
+            .withInitial(ArrayDeque::new);
+
+    // Wrapped commands running on each thread, innermost first
+    private static final ThreadLocal<ArrayDeque<Object>> COMMANDS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    // Sessions of the commands running on each thread, innermost first, for AeshSessionContext
+    private static final ThreadLocal<ArrayDeque<AeshRemoteSession>> SESSIONS = ThreadLocal
+            .withInitial(ArrayDeque::new);
+
+    private static volatile Listener listener;
+    private static volatile AeshRateLimiter rateLimiter;
+    private static volatile AeshCommandTimeouts timeouts;
+
+    private AeshCommandExecution() {
+    }
+
+    public static void setListener(Listener newListener) {
+        listener = newListener;
+    }
+
+    static void setRateLimiter(AeshRateLimiter newRateLimiter) {
+        rateLimiter = newRateLimiter;
+    }
+
+    static void setTimeouts(AeshCommandTimeouts newTimeouts) {
+        timeouts = newTimeouts;
+    }
+
+    public static boolean isEnabled() {
+        return listener != null;
+    }
+
+    /**
+     * Records the session a command instance belongs to. Has no effect on commands that were
+     * not wrapped.
+     */
+    static void bindSession(Object command, AeshRemoteSession session) {
+        if (command instanceof SessionBound) {
+            ((SessionBound) command).aesh$setSession(session);
+        }
+    }
+
+    /**
+     * Binds the command instances of a registry, sub-commands included, to another session, so
+     * that a registry built once can execute the requests of successive sessions, one at a time.
+     * The injections deferred to the first execution are done first, with the session the
+     * registry was built for, which keeps tracking the beans they create.
+     */
+    public static <CI extends CommandInvocation> void rebindSession(CommandRegistry<CI> registry,
+            AeshRemoteSession session) {
+        for (String name : registry.getAllCommandNames()) {
+            try {
+                rebindSession(registry.getCommand(name, "").getParser(), session);
+            } catch (CommandNotFoundException e) {
+                // Removed since the names were listed
+            }
+        }
+    }
+
+    private static <CI extends CommandInvocation> void rebindSession(CommandLineParser<CI> parser,
+            AeshRemoteSession session) {
+        Object command = parser.getCommand();
+        if (command instanceof DeferredInjection) {
+            injectIfPending((DeferredInjection) command);
+        }
+        bindSession(command, session);
+        List<CommandLineParser<CI>> children = parser.getAllChildParsers();
+        if (children != null) {
+            for (CommandLineParser<CI> child : children) {
+                rebindSession(child, session);
+            }
+        }
+    }
+
+    /**
+     * Defers the injection of a command instance created reflectively to its first execution.
+     *
+     * @return {@code false} if the command class does not support it, in which case the caller
+     *         must inject the instance itself
+     */
+    static boolean deferInjection(Object command) {
+        if (command instanceof DeferredInjection) {
+            ((DeferredInjection) command).aesh$setInjectionPending(true);
+            return true;
+        }
+        return false;
+    }
+
+    static boolean isInjectionPending(Object command) {
+        return command instanceof DeferredInjection && ((DeferredInjection) command).aesh$isInjectionPending();
+    }
+
+    private static void injectIfPending(DeferredInjection command) {
+        if (command.aesh$isInjectionPending()) {
+            // Commands execute other commands, possibly of another session sharing the instance
+            synchronized (command) {
+                if (command.aesh$isInjectionPending()) {
+                    INJECTOR.inject(command, sessionOf(command));
+                    command.aesh$setInjectionPending(false);
+                }
+            }
+        }
+    }
+
+    private static AeshRemoteSession sessionOf(Object command) {
+        return command instanceof SessionBound ? ((SessionBound) command).aesh$getSession() : null;
+    }
+
+    /**
+     * Returns the invocation of the innermost wrapped command running on the current thread, or
+     * {@code null}.
+     */
+    static CommandInvocation currentInvocation() {
+        return INVOCATIONS.get().peek();
+    }
+
+    /**
+     * Returns the session of the innermost wrapped command running on the current thread,
+     * {@link AeshSessionContext#localSession()} if it is not bound to a remote session, or
+     * {@code null} if no command is running.
+     */
+    static AeshRemoteSession currentSession() {
+        return SESSIONS.get().peek();
+    }
+
+    /**
+     * Called by wrapped commands before executing. Injects the command first if its injection
+     * was deferred. When a rate limit is exceeded, tells the user and returns {@code false}; the
+     * command must then return {@link CommandResult#FAILURE} without executing. Otherwise the
+     * execution is tracked by its session until {@link #succeeded} or {@link #failed} is called.
+     */
+    public static boolean permit(Object command, String name, String commandClass, CommandInvocation invocation) {
+        if (command instanceof DeferredInjection) {
+            injectIfPending((DeferredInjection) command);
+        }
+        AeshRemoteSession session = sessionOf(command);
+        if (session != null && !enter(session, name, commandClass, invocation)) {
+            return false;
+        }
+        COMMANDS.get().push(command);
+        INVOCATIONS.get().push(invocation);
+        SESSIONS.get().push(session != null ? session : AeshSessionContext.localSession());
+        return true;
+    }
+
+    /**
+     * Tells whether the given command is the innermost wrapped command running on the current
+     * thread. The wrapper of a command class that is extended by another command then only calls
+     * the method it wraps, so that the execution is reported once, under the name and class of
+     * the subclass.
+     */
+    public static boolean isExecuting(Object command) {
+        return COMMANDS.get().peek() == command;
+    }
+
+    private static boolean enter(AeshRemoteSession session, String name, String commandClass,
+            CommandInvocation invocation) {
+        AeshRateLimiter limiter = rateLimiter;
+        if (limiter != null) {
+            String exceeded = limiter.tryAcquire(session, commandClass);
+            if (exceeded != null) {
+                invocation.println(limiter.message());
+                Listener current = listener;
+                if (current != null) {
+                    current.throttled(name, session.getTransport(), exceeded);
+                }
+                return false;
+            }
+        }
+        AeshRemoteSession.Execution execution = session.enter(name, invocation);
+        AeshCommandTimeouts currentTimeouts = timeouts;
+        if (currentTimeouts != null) {
+            currentTimeouts.watch(session, execution, commandClass);
+        }
+        return true;
+    }
+
+    /**
+     * Called by wrapped commands before executing.
+     *
+     * @return the start time, or {@code 0} if executions are not reported
+     */
+    public static long begin() {
+        return listener == null ? 0L : System.nanoTime();
+    }
+
+    /**
+     * Called by wrapped commands after {@code execute} returned.
+     */
+    public static void succeeded(Object command, String name, long start, CommandResult result) {
+        report(exit(command), name, start, result == null || result == CommandResult.SUCCESS);
+    }
+
+    /**
+     * Called by wrapped commands after {@code execute} threw.
+     */
+    public static void failed(Object command, String name, long start) {
+        report(exit(command), name, start, false);
+    }
+
+    /**
+     * Reports a command line that could not be parsed.
+     */
+    public static void parseFailed(String transport) {
+        Listener current = listener;
+        if (current != null) {
+            current.parseFailed(transport);
+        }
+    }
+
+    private static AeshRemoteSession exit(Object command) {
+        COMMANDS.get().poll();
+        INVOCATIONS.get().poll();
+        SESSIONS.get().poll();
+        AeshRemoteSession session = sessionOf(command);
+        if (session == null) {
+            return null;
+        }
+        AeshRemoteSession.Execution execution = session.exit();
+        if (execution == null) {
+            return session;
+        }
+        AeshIdleSessionReaper.Handle watchdog = execution.watchdog;
+        if (watchdog != null) {
+            watchdog.cancel();
+        }
+        if (execution.interrupted) {
+            // Clear the interrupt, in case the command ignored it, before the next read at the prompt
+            Thread.interrupted();
+        }
+        if (execution.timedOut) {
+            try {
+                execution.invocation.println("Command '" + execution.name + "' timed out after "
+                        + AeshCommandTimeouts.format(execution.timeoutMs) + ".");
+            } catch (RuntimeException e) {
+                // The session may already be closed
+            }
+            Listener current = listener;
+            if (current != null) {
+                current.timedOut(execution.name, session.getTransport());
+            }
+        }
+        return session;
+    }
+
+    private static void report(AeshRemoteSession session, String name, long start, boolean success) {
+        Listener current = listener;
+        if (current == null || start == 0L) {
+            return;
+        }
+        long duration = System.nanoTime() - start;
+        current.executed(name, session != null ? session.getTransport() : LOCAL, duration, success);
+    }
+}
@@ -0,0 +1,159 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import jakarta.inject.Inject;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.arc.InstanceHandle;
+
+/**
+ * Populates {@code @Inject} fields of objects that aesh instantiates via reflection
+ * (sub-commands, completers, validators, converters, activators).
+ * <p>
+ * Classes known at build time are handled by an {@link AeshFieldInjector} generated by the
+ * deployment processor and registered in a lookup table keyed by class. Those injectors
+ * assign fields directly and honour qualifiers.
+ * <p>
+ * Other classes fall back to reflection: the class hierarchy walk, the {@code setAccessible}
+ * calls and the CDI bean resolution (by raw field type) are performed once per class and
+ * cached. An injector instance is meant to be shared by every command registry created by
+ * the same factory, so that opening a new remote session only has to create the instances
+ * and assign the fields.
+ * <p>
+ * When a remote session is given, the handles of the {@code @Dependent} beans created for the
+ * injected fields are tracked by the session, which destroys them when it closes.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class AeshCommandInjector {
+
+    private static final InjectionPoint[] NO_INJECTION_POINTS = new InjectionPoint[0];
+
+    private static final Map<Class<?>, AeshFieldInjector> GENERATED_INJECTORS = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, InjectionPoint[]> plans = new ConcurrentHashMap<>();
+    private final Function<Class<?>, Supplier<? extends InstanceHandle<?>>> resolver;
+
+    public AeshCommandInjector() {
+        this(AeshCommandInjector::resolveBean);
+    }
+
+    /**
+     * Creates an injector that resolves the bean of each injected field with the given function
+     * instead of the Arc container, e.g. to measure injection outside of an application.
+     *
+     * @param resolver returns the supplier of the bean of a field type, or {@code null} if there
+     *        is none
+     */
+    AeshCommandInjector(Function<Class<?>, Supplier<? extends InstanceHandle<?>>> resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Registers the build-time generated injector for the given class.
+     * <p>
+     * Called by {@link AeshRecorder} during static initialization.
+     */
+    static void registerGeneratedInjector(Class<?> type, AeshFieldInjector injector) {
+        GENERATED_INJECTORS.put(type, injector);
+    }
+
+    static void clearGeneratedInjectors() {
+        GENERATED_INJECTORS.clear();
+    }
+
+    /**
+     * Injects CDI bean instances into the fields of the given object annotated with {@code @Inject}.
+     *
+     * @param instance the object to inject into
+     */
+    public void inject(Object instance) {
+        inject(instance, null);
+    }
+
+    /**
+     * Injects CDI bean instances into the fields of the given object annotated with {@code @Inject},
+     * binding the {@code @Dependent} ones to a remote session.
+     *
+     * @param instance the object to inject into
+     * @param session the session that destroys the created beans when it closes, or {@code null}
+     */
+    public void inject(Object instance, AeshRemoteSession session) {
+        AeshFieldInjector generated = GENERATED_INJECTORS.get(instance.getClass());
+        if (generated != null) {
+            generated.inject(instance, session);
+            return;
+        }
+        for (InjectionPoint injectionPoint : plans.computeIfAbsent(instance.getClass(), this::createPlan)) {
+            injectionPoint.inject(instance, session);
+        }
+    }
+
+    /**
+     * Returns the number of classes for which a reflective injection plan has been resolved.
+     */
+    public int size() {
+        return plans.size();
+    }
+
+    private static Supplier<? extends InstanceHandle<?>> resolveBean(Class<?> type) {
+        ArcContainer container = Arc.container();
+        return container != null ? container.beanInstanceSupplier(type) : null;
+    }
+
+    private InjectionPoint[] createPlan(Class<?> type) {
+        List<InjectionPoint> injectionPoints = new ArrayList<>();
+        Class<?> clazz = type;
+        while (clazz != null && clazz != Object.class) {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (!field.isAnnotationPresent(Inject.class)) {
+                    continue;
+                }
+                Supplier<? extends InstanceHandle<?>> supplier = resolver.apply(field.getType());
+                if (supplier != null) {
+                    field.setAccessible(true);
+                    injectionPoints.add(new InjectionPoint(field, supplier));
+                }
+            }
+            clazz = clazz.getSuperclass();
+        }
+        return injectionPoints.isEmpty() ? NO_INJECTION_POINTS : injectionPoints.toArray(NO_INJECTION_POINTS);
+    }
+
+    private static final class InjectionPoint {
+
+        private final Field field;
+        private final Supplier<? extends InstanceHandle<?>> supplier;
+
+        InjectionPoint(Field field, Supplier<? extends InstanceHandle<?>> supplier) {
+            this.field = field;
+            this.supplier = supplier;
+        }
+
+        void inject(Object instance, AeshRemoteSession session) {
+            InstanceHandle<?> handle = supplier.get();
+            if (!handle.isAvailable()) {
+                return;
+            }
+            if (session != null) {
+                session.track(handle);
+            }
+            try {
+                field.set(instance, handle.get());
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(
+                        "Failed to inject CDI bean into field " + field.getName()
+                                + " of " + instance.getClass().getName(),
+                        e);
+            }
+        }
+    }
+}
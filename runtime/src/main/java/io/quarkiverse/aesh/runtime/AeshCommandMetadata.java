@@ -20,6 +20,8 @@ public class AeshCommandMetadata {
     private List<String> subCommandClassNames;
     private boolean topCommand;
     private boolean cliCommand;
+    private List<String> aliases;
+    private List<AeshOptionMetadata> options;
 
     public AeshCommandMetadata() {
     }
@@ -79,4 +81,24 @@ public class AeshCommandMetadata {
     public void setCliCommand(boolean cliCommand) {
         this.cliCommand = cliCommand;
     }
+
+    public List<String> getAliases() {
+        return aliases;
+    }
+
+    public void setAliases(List<String> aliases) {
+        this.aliases = aliases;
+    }
+
+    /**
+     * The options and arguments declared by the command class and its superclasses,
+     * in declaration order.
+     */
+    public List<AeshOptionMetadata> getOptions() {
+        return options;
+    }
+
+    public void setOptions(List<AeshOptionMetadata> options) {
+        this.options = options;
+    }
 }
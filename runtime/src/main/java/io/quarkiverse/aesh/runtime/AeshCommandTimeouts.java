@@ -0,0 +1,106 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import org.jboss.logging.Logger;
+
+import io.quarkiverse.aesh.runtime.annotations.CommandTimeout;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Bounds how long commands may run in remote sessions.
+ * <p>
+ * The default timeout comes from {@code quarkus.aesh.command-timeout}; commands annotated with
+ * {@link CommandTimeout} have their own. When a command runs past its timeout, its thread is
+ * interrupted. If it still has not returned {@link #GRACE_PERIOD_MS} later, the session is
+ * closed, which releases its connection, its admission slot and, for transports whose session
+ * thread runs the command, lets the transport's executor reclaim the thread once the command
+ * eventually returns.
+ * <p>
+ * Deadlines are tracked by the shared {@link AeshIdleSessionReaper}, so a running command costs
+ * one entry in its timing wheel. The bean is installed into {@link AeshCommandExecution} at
+ * startup only if a timeout is configured.
+ */
+@ApplicationScoped
+public class AeshCommandTimeouts {
+
+    private static final Logger LOG = Logger.getLogger(AeshCommandTimeouts.class);
+
+    static final long GRACE_PERIOD_MS = 5000;
+
+    /**
+     * Timeouts of {@link CommandTimeout} commands by class name, registered at static init.
+     */
+    private static final Map<String, Long> COMMAND_TIMEOUTS = new ConcurrentHashMap<>();
+
+    @Inject
+    CliConfig config;
+
+    @Inject
+    AeshIdleSessionReaper reaper;
+
+    private volatile long defaultTimeoutMs;
+
+    /**
+     * Declares the timeout of a {@link CommandTimeout} command class.
+     */
+    public static void registerCommandTimeout(String commandClass, long timeoutMs) {
+        COMMAND_TIMEOUTS.put(commandClass, timeoutMs);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        defaultTimeoutMs = config.commandTimeout().map(Duration::toMillis).orElse(0L);
+        if (defaultTimeoutMs > 0 || !COMMAND_TIMEOUTS.isEmpty()) {
+            AeshCommandExecution.setTimeouts(this);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        AeshCommandExecution.setTimeouts(null);
+        COMMAND_TIMEOUTS.clear();
+    }
+
+    /**
+     * Starts the watchdog of an execution, if its command has a timeout.
+     */
+    void watch(AeshRemoteSession session, AeshRemoteSession.Execution execution, String commandClass) {
+        Long commandTimeout = COMMAND_TIMEOUTS.get(commandClass);
+        long timeoutMs = commandTimeout != null ? commandTimeout : defaultTimeoutMs;
+        if (timeoutMs <= 0) {
+            return;
+        }
+        execution.timeoutMs = timeoutMs;
+        execution.watchdog = reaper.track(() -> execution.startMs, timeoutMs, () -> expire(session, execution));
+    }
+
+    private void expire(AeshRemoteSession session, AeshRemoteSession.Execution execution) {
+        if (!session.timeOut(execution)) {
+            return;
+        }
+        LOG.warnf("Interrupted command '%s' in %s session: timeout of %dms exceeded", execution.name,
+                session.getTransport(), execution.timeoutMs);
+        long interruptedAt = System.currentTimeMillis();
+        reaper.track(() -> interruptedAt, GRACE_PERIOD_MS, () -> {
+            if (!execution.finished) {
+                LOG.warnf("Closing %s session: command '%s' did not stop after being interrupted",
+                        session.getTransport(), execution.name);
+                session.close();
+            }
+        });
+    }
+
+    static String format(long timeoutMs) {
+        if (timeoutMs % 60_000 == 0) {
+            return timeoutMs / 60_000 + "m";
+        }
+        return timeoutMs % 1000 == 0 ? timeoutMs / 1000 + "s" : timeoutMs + "ms";
+    }
+}
@@ -0,0 +1,117 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable prefix index of the names of the discovered commands: top-level command names
+ * and aliases, the names and aliases of group sub-commands, and the long ({@code --name}) and
+ * short ({@code -n}) names of the options of each command.
+ * <p>
+ * The index is computed at build time and created during static init, so a native executable
+ * has it in its image heap, and a single instance is shared by every session. Each scope (the
+ * top level, a group command, the options of a command) is a sorted array, so completing a
+ * prefix is a binary search followed by a scan of the matching candidates only.
+ * <p>
+ * Commands are identified by their path: the names of the group commands leading to them and
+ * their own name, separated by single spaces, e.g. {@code "git remote add"}.
+ *
+ * @see AeshContext#getCompletionIndex()
+ */
+public final class AeshCompletionIndex {
+
+    private static final String[] NONE = new String[0];
+
+    private final Map<String, String[]> commands;
+    private final Map<String, String[]> options;
+    private final Map<String, String> paths;
+
+    /**
+     * @param commands the command names and aliases by parent command path, {@code ""} for the
+     *        top level
+     * @param options the option names, with their leading dashes, by command path
+     * @param paths the path of each command by every way of writing it, aliases included
+     */
+    public AeshCompletionIndex(Map<String, List<String>> commands, Map<String, List<String>> options,
+            Map<String, String> paths) {
+        this.commands = sortedArrays(commands);
+        this.options = sortedArrays(options);
+        this.paths = Map.copyOf(paths);
+    }
+
+    /**
+     * Returns the sub-command names and aliases of a group command that start with a prefix,
+     * in lexicographic order.
+     *
+     * @param parentPath the path of the group command, or {@code ""} for top-level commands
+     */
+    public List<String> completeCommand(String parentPath, String prefix) {
+        return range(commands.getOrDefault(parentPath, NONE), prefix);
+    }
+
+    /**
+     * Returns the option names of a command that start with a prefix, in lexicographic order.
+     * Long names start with {@code --} and short names with {@code -}.
+     */
+    public List<String> completeOption(String commandPath, String prefix) {
+        return range(options.getOrDefault(commandPath, NONE), prefix);
+    }
+
+    /**
+     * Returns the path of the command a sequence of names and aliases leads to, or {@code null}.
+     */
+    public String resolve(String path) {
+        return paths.get(path);
+    }
+
+    /**
+     * Completes the last word of a command line with command or option names.
+     * <p>
+     * The preceding words are resolved to a command path, skipping options and the words that
+     * are not command names. Only names are completed: option values and arguments are left
+     * to the completers of the command.
+     *
+     * @return the candidates, or an empty list
+     */
+    public List<String> complete(String line) {
+        String[] words = line.stripLeading().split("\\s+", -1);
+        String path = "";
+        for (int i = 0; i < words.length - 1; i++) {
+            if (words[i].startsWith("-")) {
+                continue;
+            }
+            String resolved = paths.get(path.isEmpty() ? words[i] : path + ' ' + words[i]);
+            if (resolved != null) {
+                path = resolved;
+            }
+        }
+        String prefix = words[words.length - 1];
+        if (prefix.startsWith("-")) {
+            return path.isEmpty() ? List.of() : completeOption(path, prefix);
+        }
+        return completeCommand(path, prefix);
+    }
+
+    private static List<String> range(String[] sorted, String prefix) {
+        int from = Arrays.binarySearch(sorted, prefix);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        int to = from;
+        while (to < sorted.length && sorted[to].startsWith(prefix)) {
+            to++;
+        }
+        return from == to ? List.of() : Collections.unmodifiableList(Arrays.asList(sorted).subList(from, to));
+    }
+
+    private static Map<String, String[]> sortedArrays(Map<String, List<String>> names) {
+        Map<String, String[]> result = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : names.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().stream().distinct().sorted().toArray(String[]::new));
+        }
+        return Map.copyOf(result);
+    }
+}
@@ -22,4 +22,9 @@ public interface AeshContext {
      * the mode is resolved during build time.
      */
     AeshMode getMode();
+
+    /**
+     * Returns the prefix index of command and option names, shared by all sessions.
+     */
+    AeshCompletionIndex getCompletionIndex();
 }
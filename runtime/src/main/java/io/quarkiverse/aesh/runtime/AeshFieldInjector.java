@@ -0,0 +1,31 @@
+package io.quarkiverse.aesh.runtime;
+
+/**
+ * Populates the {@code @Inject} fields of an object created by aesh.
+ * <p>
+ * Implementations are generated at build time for every command, sub-command and option
+ * service provider (completer, validator, converter, activator) declaring injection points.
+ * The beans, including their qualifiers, are resolved during the build.
+ *
+ * @see AeshCommandInjector
+ */
+public interface AeshFieldInjector {
+
+    /**
+     * Injects the resolved beans into the given instance.
+     *
+     * @param instance an instance of the class this injector was generated for
+     */
+    default void inject(Object instance) {
+        inject(instance, null);
+    }
+
+    /**
+     * Injects the resolved beans into the given instance, binding the {@code @Dependent} ones
+     * to a remote session.
+     *
+     * @param instance an instance of the class this injector was generated for
+     * @param session the session that destroys the created beans when it closes, or {@code null}
+     */
+    void inject(Object instance, AeshRemoteSession session);
+}
@@ -0,0 +1,192 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Closes idle remote sessions of all transports from a single timer thread.
+ * <p>
+ * Sessions are kept in a hashed timing wheel, bucketed by the time at which they would
+ * expire if no further input arrived. Recording activity costs the transport nothing more
+ * than updating its own timestamp: when a bucket comes due, each of its sessions is checked
+ * against its current timestamp and either closed or moved to the bucket of its new deadline.
+ * A tick therefore only visits sessions whose deadline has passed, instead of every session.
+ * <p>
+ * The timer thread is started with the first tracked session. Expiry is accurate to one tick.
+ */
+@ApplicationScoped
+public class AeshIdleSessionReaper {
+
+    private static final Logger LOG = Logger.getLogger(AeshIdleSessionReaper.class);
+
+    static final long DEFAULT_TICK_MS = 250;
+    static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /**
+     * Handle of a tracked session.
+     */
+    public interface Handle {
+
+        /**
+         * Stops tracking the session. Must be called when the session is closed.
+         */
+        void cancel();
+    }
+
+    private final long tickMs;
+    private final Queue<Entry>[] wheel;
+    private final ConcurrentLinkedQueue<Entry> registrations = new ConcurrentLinkedQueue<>();
+
+    private volatile ScheduledExecutorService timer;
+    private long startMs;
+    // The next tick to process
+    private long tick;
+
+    public AeshIdleSessionReaper() {
+        this(DEFAULT_TICK_MS, DEFAULT_WHEEL_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    AeshIdleSessionReaper(long tickMs, int wheelSize) {
+        this.tickMs = tickMs;
+        this.wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Starts tracking a session.
+     *
+     * @param lastActivityMs returns the time of the last input of the session, in milliseconds
+     *        since the epoch; read only when the session's deadline is reached
+     * @param timeoutMs the idle timeout of the session
+     * @param onIdle invoked once, from the timer thread, when the session has been idle for
+     *        longer than the timeout
+     * @return the handle to cancel tracking with
+     */
+    public Handle track(LongSupplier lastActivityMs, long timeoutMs, Runnable onIdle) {
+        Entry entry = new Entry(lastActivityMs, timeoutMs, onIdle);
+        registrations.add(entry);
+        ensureStarted();
+        return entry;
+    }
+
+    private void ensureStarted() {
+        if (timer != null) {
+            return;
+        }
+        synchronized (this) {
+            if (timer != null) {
+                return;
+            }
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "aesh-idle-reaper");
+                t.setDaemon(true);
+                return t;
+            });
+            startMs = System.currentTimeMillis();
+            executor.scheduleAtFixedRate(this::onTick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+            timer = executor;
+        }
+    }
+
+    // Only ever runs on the timer thread, which owns the wheel
+    private void onTick() {
+        try {
+            long now = System.currentTimeMillis();
+            long currentTick = (now - startMs) / tickMs;
+            // Catch up on ticks missed because of a late timer, one bucket at a time
+            while (tick <= currentTick) {
+                expire(wheel[(int) (tick % wheel.length)], tick, now);
+                tick++;
+            }
+            Entry registration;
+            while ((registration = registrations.poll()) != null) {
+                if (!registration.cancelled) {
+                    schedule(registration, registration.lastActivity.getAsLong() + registration.timeoutMs, tick - 1);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to check idle sessions", e);
+        }
+    }
+
+    private void expire(Queue<Entry> bucket, long currentTick, long now) {
+        for (int i = bucket.size(); i > 0; i--) {
+            Entry entry = bucket.poll();
+            if (entry.cancelled) {
+                continue;
+            }
+            if (entry.remainingRounds > 0) {
+                entry.remainingRounds--;
+                bucket.add(entry);
+                continue;
+            }
+            long deadline = entry.lastActivity.getAsLong() + entry.timeoutMs;
+            if (deadline <= now) {
+                entry.cancelled = true;
+                try {
+                    entry.onIdle.run();
+                } catch (RuntimeException e) {
+                    LOG.warn("Failed to close idle session", e);
+                }
+            } else {
+                schedule(entry, deadline, currentTick);
+            }
+        }
+    }
+
+    /**
+     * Places an entry in the bucket of its deadline. The entry will be visited on every turn of
+     * the wheel after {@code processedTick}, so it waits for the number of turns it is early.
+     */
+    private void schedule(Entry entry, long deadlineMs, long processedTick) {
+        // Round up so that a session is never closed early
+        long deadlineTick = Math.max(processedTick + 1, (deadlineMs - startMs + tickMs - 1) / tickMs);
+        long ticksAway = deadlineTick - processedTick;
+        entry.remainingRounds = (ticksAway - 1) / wheel.length;
+        wheel[(int) (deadlineTick % wheel.length)].add(entry);
+    }
+
+    /**
+     * Stops the timer thread. Sessions tracked so far are no longer closed when idle.
+     */
+    @PreDestroy
+    public void shutdown() {
+        ScheduledExecutorService executor = timer;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class Entry implements Handle {
+
+        final LongSupplier lastActivity;
+        final long timeoutMs;
+        final Runnable onIdle;
+        volatile boolean cancelled;
+        long remainingRounds;
+
+        Entry(LongSupplier lastActivity, long timeoutMs, Runnable onIdle) {
+            this.lastActivity = lastActivity;
+            this.timeoutMs = timeoutMs;
+            this.onIdle = onIdle;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
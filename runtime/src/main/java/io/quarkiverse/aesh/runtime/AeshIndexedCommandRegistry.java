@@ -0,0 +1,175 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandNotFoundException;
+import org.aesh.command.container.CommandContainer;
+import org.aesh.command.impl.internal.ParsedCommand;
+import org.aesh.command.impl.internal.ProcessedCommand;
+import org.aesh.command.impl.parser.CommandLineParser;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.registry.CommandRegistry;
+import org.aesh.command.registry.CommandRegistryException;
+import org.aesh.command.registry.MutableCommandRegistry;
+import org.aesh.parser.ParsedLine;
+import org.aesh.readline.completion.CompleteOperation;
+
+/**
+ * A {@link MutableCommandRegistry} that completes command names with the build-time
+ * {@link AeshCompletionIndex} and delegates everything else to the registry aesh built.
+ * <p>
+ * aesh completes the first word of a line by scanning every registered command. This registry
+ * looks the prefix up in the index instead, and only resolves the matching commands to check
+ * their activator. Commands that are not in the index, such as the alias, export and exit
+ * commands aesh adds to the console, are tracked separately and still completed.
+ * <p>
+ * Sub-command and option names are completed by the parser of the command, which aesh does not
+ * expose through the registry, so they are left to aesh.
+ */
+public final class AeshIndexedCommandRegistry<CI extends CommandInvocation> implements MutableCommandRegistry<CI> {
+
+    private final MutableCommandRegistry<CI> delegate;
+    private final AeshCompletionIndex index;
+    private final Set<String> indexed;
+    private volatile Set<String> unindexed;
+
+    /**
+     * Wraps a registry created by aesh, which is mutable unless a custom registry builder is used.
+     * A registry that is not mutable is returned as is.
+     */
+    @SuppressWarnings("unchecked")
+    public static <CI extends CommandInvocation> CommandRegistry<CI> of(CommandRegistry<CI> registry,
+            AeshCompletionIndex index) {
+        if (registry instanceof MutableCommandRegistry) {
+            return new AeshIndexedCommandRegistry<>((MutableCommandRegistry<CI>) registry, index);
+        }
+        return registry;
+    }
+
+    private AeshIndexedCommandRegistry(MutableCommandRegistry<CI> delegate, AeshCompletionIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+        this.indexed = Set.copyOf(index.completeCommand("", ""));
+        updateUnindexed();
+    }
+
+    @Override
+    public void completeCommandName(CompleteOperation completeOperation, ParsedLine parsedLine) {
+        if (parsedLine.words().isEmpty()) {
+            delegate.completeCommandName(completeOperation, parsedLine);
+            return;
+        }
+        String prefix = parsedLine.selectedWord().word();
+        for (String name : index.completeCommand("", prefix)) {
+            complete(completeOperation, parsedLine, name);
+        }
+        for (String name : unindexed) {
+            if (name.startsWith(prefix)) {
+                complete(completeOperation, parsedLine, name);
+            }
+        }
+    }
+
+    /**
+     * Adds a command name as a candidate the way aesh does, if it is registered under that name
+     * (aliases are not completed) and activated.
+     */
+    private void complete(CompleteOperation completeOperation, ParsedLine parsedLine, String name) {
+        CommandContainer<CI> container;
+        try {
+            container = delegate.getCommand(name, "");
+        } catch (CommandNotFoundException e) {
+            // An alias, or a command this registry does not have
+            return;
+        }
+        ProcessedCommand<?, CI> command = container.getParser().getProcessedCommand();
+        if (!command.name().equals(name) || !command.getActivator().isActivated(new ParsedCommand(command))) {
+            return;
+        }
+        completeOperation.addCompletionCandidate(name);
+        completeOperation.setOffset(completeOperation.getCursor() - parsedLine.selectedWord().word().length());
+        if (parsedLine.selectedIndex() < parsedLine.size() - 1) {
+            completeOperation.doAppendSeparator(false);
+        }
+    }
+
+    private void updateUnindexed() {
+        Set<String> names = new HashSet<>(delegate.getAllCommandNames());
+        names.removeAll(indexed);
+        unindexed = Set.copyOf(names);
+    }
+
+    @Override
+    public void addCommand(CommandContainer<CI> container) {
+        delegate.addCommand(container);
+        updateUnindexed();
+    }
+
+    @Override
+    public void addCommand(Command command) throws CommandRegistryException {
+        delegate.addCommand(command);
+        updateUnindexed();
+    }
+
+    @Override
+    public void addCommand(Class<? extends Command> command) throws CommandRegistryException {
+        delegate.addCommand(command);
+        updateUnindexed();
+    }
+
+    @Override
+    public void addAllCommands(List<Command> commands) throws CommandRegistryException {
+        delegate.addAllCommands(commands);
+        updateUnindexed();
+    }
+
+    @Override
+    public void addAllCommandContainers(List<CommandContainer<CI>> containers) {
+        delegate.addAllCommandContainers(containers);
+        updateUnindexed();
+    }
+
+    @Override
+    public void removeCommand(String name) {
+        delegate.removeCommand(name);
+        updateUnindexed();
+    }
+
+    @Override
+    public CommandContainer<CI> getCommand(String name, String line) throws CommandNotFoundException {
+        return delegate.getCommand(name, line);
+    }
+
+    @Override
+    public List<CommandLineParser<CI>> getChildCommandParsers(String parent) throws CommandNotFoundException {
+        return delegate.getChildCommandParsers(parent);
+    }
+
+    @Override
+    public CommandContainer<CI> getCommandByAlias(String alias) throws CommandNotFoundException {
+        return delegate.getCommandByAlias(alias);
+    }
+
+    @Override
+    public Set<String> getAllCommandNames() {
+        return delegate.getAllCommandNames();
+    }
+
+    @Override
+    public boolean contains(String commandName) {
+        return delegate.contains(commandName);
+    }
+
+    @Override
+    public void addRegistrationListener(CommandRegistrationListener listener) {
+        delegate.addRegistrationListener(listener);
+    }
+
+    @Override
+    public void removeRegistrationListener(CommandRegistrationListener listener) {
+        delegate.removeRegistrationListener(listener);
+    }
+}
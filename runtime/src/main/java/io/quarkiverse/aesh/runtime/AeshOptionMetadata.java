@@ -0,0 +1,183 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.List;
+
+/**
+ * Mutable metadata describing an option or argument of a discovered aesh command.
+ * <p>
+ * The metadata is read from the {@code @Option}, {@code @OptionList}, {@code @OptionGroup},
+ * {@code @Argument} and {@code @Arguments} annotations at build time, so it can be used at
+ * runtime without reflecting on the command class.
+ * <p>
+ * This class is mutable so that it can be serialized by the Quarkus recorder mechanism.
+ *
+ * @see AeshCommandMetadata#getOptions()
+ */
+public class AeshOptionMetadata {
+
+    /**
+     * The annotation an option was declared with.
+     */
+    public enum Kind {
+        OPTION,
+        OPTION_LIST,
+        OPTION_GROUP,
+        ARGUMENT,
+        ARGUMENTS
+    }
+
+    private Kind kind;
+    private String fieldName;
+    private String declaringClassName;
+    private String type;
+    private String name;
+    private String shortName;
+    private String description;
+    private boolean required;
+    private boolean hasValue;
+    private List<String> defaultValues;
+    private String completerClassName;
+    private String converterClassName;
+    private String validatorClassName;
+    private String activatorClassName;
+
+    public AeshOptionMetadata() {
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public void setKind(Kind kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Returns {@code true} for {@code @Argument} and {@code @Arguments} declarations.
+     */
+    public boolean isArgument() {
+        return kind == Kind.ARGUMENT || kind == Kind.ARGUMENTS;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public void setFieldName(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String getDeclaringClassName() {
+        return declaringClassName;
+    }
+
+    public void setDeclaringClassName(String declaringClassName) {
+        this.declaringClassName = declaringClassName;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * The long option name, or {@code null} for arguments.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * The short option name, or {@code null} if none was declared.
+     */
+    public String getShortName() {
+        return shortName;
+    }
+
+    public void setShortName(String shortName) {
+        this.shortName = shortName;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    public void setRequired(boolean required) {
+        this.required = required;
+    }
+
+    public boolean isHasValue() {
+        return hasValue;
+    }
+
+    public void setHasValue(boolean hasValue) {
+        this.hasValue = hasValue;
+    }
+
+    public List<String> getDefaultValues() {
+        return defaultValues;
+    }
+
+    public void setDefaultValues(List<String> defaultValues) {
+        this.defaultValues = defaultValues;
+    }
+
+    /**
+     * The completer declared on the annotation, or {@code null} if the aesh default is used.
+     */
+    public String getCompleterClassName() {
+        return completerClassName;
+    }
+
+    public void setCompleterClassName(String completerClassName) {
+        this.completerClassName = completerClassName;
+    }
+
+    /**
+     * The converter declared on the annotation, or {@code null} if the aesh default is used.
+     */
+    public String getConverterClassName() {
+        return converterClassName;
+    }
+
+    public void setConverterClassName(String converterClassName) {
+        this.converterClassName = converterClassName;
+    }
+
+    /**
+     * The validator declared on the annotation, or {@code null} if the aesh default is used.
+     */
+    public String getValidatorClassName() {
+        return validatorClassName;
+    }
+
+    public void setValidatorClassName(String validatorClassName) {
+        this.validatorClassName = validatorClassName;
+    }
+
+    /**
+     * The activator declared on the annotation, or {@code null} if the aesh default is used.
+     */
+    public String getActivatorClassName() {
+        return activatorClassName;
+    }
+
+    public void setActivatorClassName(String activatorClassName) {
+        this.activatorClassName = activatorClassName;
+    }
+}
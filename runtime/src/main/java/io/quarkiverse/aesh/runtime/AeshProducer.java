@@ -1,6 +1,7 @@
 package io.quarkiverse.aesh.runtime;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Dependent;
 import jakarta.enterprise.inject.Instance;
 import jakarta.enterprise.inject.Produces;
 import jakarta.inject.Singleton;
@@ -29,4 +30,15 @@ public class AeshProducer {
         throw new IllegalStateException(
                 "No AeshRuntimeRunnerFactory available. Make sure you have a command annotated with @TopCommand.");
     }
+
+    /**
+     * Produces a CommandOutput printing to the command running on the calling thread.
+     *
+     * @return a CommandOutput that resolves its invocation when printing
+     */
+    @Produces
+    @Dependent
+    public CommandOutput commandOutput() {
+        return new CommandOutput(null, false);
+    }
 }
@@ -0,0 +1,203 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import io.quarkiverse.aesh.runtime.annotations.RateLimited;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Limits command executions in remote sessions with token buckets, per session and per
+ * authenticated principal.
+ * <p>
+ * The global limits come from {@code quarkus.aesh.rate-limit.*}; commands annotated with
+ * {@link RateLimited} have their own limit in addition. The limiter is installed into
+ * {@link AeshCommandExecution} at startup only if a limit is configured, so that otherwise the
+ * execution path only reads a volatile field.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} updated with compare-and-set, so executions in
+ * different sessions of the same principal never block each other.
+ */
+@ApplicationScoped
+public class AeshRateLimiter {
+
+    /**
+     * Scope reported when the session limit was exceeded.
+     */
+    public static final String SESSION = "session";
+
+    /**
+     * Scope reported when the principal limit was exceeded.
+     */
+    public static final String PRINCIPAL = "principal";
+
+    // Key of the bucket shared by all commands of a session or principal
+    private static final String ALL_COMMANDS = "";
+
+    /**
+     * Limits of {@link RateLimited} commands by class name, registered at static init.
+     */
+    private static final Map<String, Limit> COMMAND_LIMITS = new ConcurrentHashMap<>();
+
+    @Inject
+    CliConfig config;
+
+    private final Map<String, Bucket> principalBuckets = new ConcurrentHashMap<>();
+    private volatile Limit sessionLimit;
+    private volatile Limit principalLimit;
+
+    /**
+     * Declares the limit of a {@link RateLimited} command class.
+     */
+    public static void registerCommandLimit(String commandClass, double permitsPerSecond, int burst,
+            RateLimited.Scope scope) {
+        COMMAND_LIMITS.put(commandClass, new Limit(permitsPerSecond, burst, scope == RateLimited.Scope.PRINCIPAL));
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        CliConfig.RateLimitConfig rateLimit = config.rateLimit();
+        sessionLimit = Limit.of(rateLimit.session().permitsPerSecond(), rateLimit.session().burst(), false);
+        principalLimit = Limit.of(rateLimit.principal().permitsPerSecond(), rateLimit.principal().burst(), true);
+        if (sessionLimit != null || principalLimit != null || !COMMAND_LIMITS.isEmpty()) {
+            AeshCommandExecution.setRateLimiter(this);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        AeshCommandExecution.setRateLimiter(null);
+        // Registered again at static init, so that a restarted application (e.g. in dev mode)
+        // does not keep the limits of removed annotations
+        COMMAND_LIMITS.clear();
+    }
+
+    String message() {
+        return config.rateLimit().message();
+    }
+
+    /**
+     * Takes a token from every bucket that applies to an execution, or from none of them: when
+     * a bucket is empty, the tokens already taken from the others are given back, so that a
+     * rejected execution does not use up the quota of the limits it did not exceed.
+     *
+     * @return {@code null} if the command may run, otherwise {@link #SESSION} or
+     *         {@link #PRINCIPAL} depending on which limit was exceeded
+     */
+    String tryAcquire(AeshRemoteSession session, String commandClass) {
+        long now = System.nanoTime();
+        Bucket commandBucket = null;
+        Limit commandLimit = COMMAND_LIMITS.get(commandClass);
+        if (commandLimit != null) {
+            boolean perPrincipal = commandLimit.perPrincipal && session.getPrincipal() != null;
+            commandBucket = perPrincipal
+                    ? bucket(principalBuckets, session.getPrincipal() + '\0' + commandClass, commandLimit)
+                    : bucket(session.buckets, commandClass, commandLimit);
+            if (!commandBucket.tryAcquire(now)) {
+                return perPrincipal ? PRINCIPAL : SESSION;
+            }
+        }
+        Bucket sessionBucket = null;
+        Limit limit = sessionLimit;
+        if (limit != null) {
+            sessionBucket = bucket(session.buckets, ALL_COMMANDS, limit);
+            if (!sessionBucket.tryAcquire(now)) {
+                release(commandBucket);
+                return SESSION;
+            }
+        }
+        limit = principalLimit;
+        if (limit != null && session.getPrincipal() != null
+                && !bucket(principalBuckets, session.getPrincipal(), limit).tryAcquire(now)) {
+            release(commandBucket);
+            release(sessionBucket);
+            return PRINCIPAL;
+        }
+        return null;
+    }
+
+    private static void release(Bucket bucket) {
+        if (bucket != null) {
+            bucket.release();
+        }
+    }
+
+    private static Bucket bucket(Map<String, Bucket> buckets, String key, Limit limit) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(limit));
+        }
+        return bucket;
+    }
+
+    private static final class Limit {
+
+        final long intervalNanos;
+        final long burstNanos;
+        final boolean perPrincipal;
+
+        Limit(double permitsPerSecond, int burst, boolean perPrincipal) {
+            if (permitsPerSecond <= 0) {
+                throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+            }
+            int effectiveBurst = burst > 0 ? burst : Math.max(1, (int) Math.ceil(permitsPerSecond));
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+            this.burstNanos = intervalNanos * effectiveBurst;
+            this.perPrincipal = perPrincipal;
+        }
+
+        static Limit of(OptionalDouble permitsPerSecond, OptionalInt burst, boolean perPrincipal) {
+            if (permitsPerSecond.isEmpty()) {
+                return null;
+            }
+            return new Limit(permitsPerSecond.getAsDouble(), burst.orElse(0), perPrincipal);
+        }
+    }
+
+    /**
+     * A token bucket kept as the time at which it will be full again. Taking a token pushes that
+     * time one interval further; the bucket is empty when it would move more than a burst ahead
+     * of now.
+     */
+    static final class Bucket {
+
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final AtomicLong fullAt;
+
+        Bucket(Limit limit) {
+            this.intervalNanos = limit.intervalNanos;
+            this.burstNanos = limit.burstNanos;
+            this.fullAt = new AtomicLong(System.nanoTime());
+        }
+
+        boolean tryAcquire(long now) {
+            for (;;) {
+                long current = fullAt.get();
+                long next = (current - now > 0 ? current : now) + intervalNanos;
+                if (next - now > burstNanos) {
+                    return false;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Gives back a token taken by {@link #tryAcquire(long)}. The bucket may then be full
+         * before now, which is the same as being full now.
+         */
+        void release() {
+            fullAt.addAndGet(-intervalNanos);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package io.quarkiverse.aesh.runtime;
 
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
+import io.quarkiverse.aesh.runtime.annotations.RateLimited;
+import io.quarkus.runtime.RuntimeValue;
+import io.quarkus.runtime.ShutdownContext;
 import io.quarkus.runtime.annotations.Recorder;
 
 /**
@@ -20,9 +24,11 @@ public class AeshRecorder {
      *
      * @param commands list of mutable command metadata (mutable for recorder serialization)
      * @param modeName the resolved mode name ("console" or "runtime")
+     * @param completionIndex the index created by {@link #createCompletionIndex}
      * @return supplier that creates an immutable AeshContext at runtime
      */
-    public Supplier<Object> createContext(List<AeshCommandMetadata> commands, String modeName) {
+    public Supplier<Object> createContext(List<AeshCommandMetadata> commands, String modeName,
+            RuntimeValue<AeshCompletionIndex> completionIndex) {
         List<AeshCommandMetadata> immutableCommands = List.copyOf(commands);
         AeshMode mode = AeshMode.valueOf(modeName);
 
@@ -39,8 +45,134 @@ public class AeshRecorder {
                     public AeshMode getMode() {
                         return mode;
                     }
+
+                    @Override
+                    public AeshCompletionIndex getCompletionIndex() {
+                        return completionIndex.getValue();
+                    }
                 };
             }
         };
     }
+
+    /**
+     * Creates the prefix index of command and option names during static init.
+     * <p>
+     * Called at build time by {@code AeshProcessor.createCompletionIndex()}.
+     *
+     * @param commands the command names and aliases by parent command path
+     * @param options the option names by command path
+     * @param paths the command paths by every way of writing them
+     */
+    public RuntimeValue<AeshCompletionIndex> createCompletionIndex(Map<String, List<String>> commands,
+            Map<String, List<String>> options, Map<String, String> paths) {
+        return new RuntimeValue<>(new AeshCompletionIndex(commands, options, paths));
+    }
+
+    /**
+     * Registers a build-time generated {@link AeshFieldInjector} for the given class.
+     * <p>
+     * Called at build time by {@code AeshInjectorProcessor.generateInjectors()}.
+     *
+     * @param type the class the injector was generated for
+     * @param injector the generated injector instance
+     */
+    public void registerInjector(Class<?> type, RuntimeValue<AeshFieldInjector> injector) {
+        AeshCommandInjector.registerGeneratedInjector(type, injector.getValue());
+    }
+
+    /**
+     * Drops the generated injectors when the application stops, so that a restarted
+     * application (e.g. in dev mode) does not keep references to the previous classes.
+     *
+     * @param shutdown the shutdown context
+     */
+    public void clearInjectorsOnShutdown(ShutdownContext shutdown) {
+        shutdown.addShutdownTask(AeshCommandInjector::clearGeneratedInjectors);
+    }
+
+    /**
+     * Declares the configuration property holding the session limit of a remote transport.
+     * <p>
+     * Called at build time by {@code AeshProcessor.registerRemoteTransports()}.
+     *
+     * @param transport the transport name
+     * @param maxSessionsProperty the name of the property
+     */
+    public void registerRemoteTransport(String transport, String maxSessionsProperty) {
+        AeshAdmissionController.registerTransport(transport, maxSessionsProperty);
+    }
+
+    /**
+     * Declares the limit of a command annotated with
+     * {@link io.quarkiverse.aesh.runtime.annotations.RateLimited}.
+     * <p>
+     * Called at build time by {@code AeshCommandExecutionProcessor.registerRateLimits()}.
+     *
+     * @param commandClass the command class name
+     * @param permitsPerSecond the sustained rate
+     * @param burst the burst size, or 0 for the default
+     * @param scopeName the name of the {@link io.quarkiverse.aesh.runtime.annotations.RateLimited.Scope}
+     */
+    public void registerRateLimit(String commandClass, double permitsPerSecond, int burst, String scopeName) {
+        AeshRateLimiter.registerCommandLimit(commandClass, permitsPerSecond, burst,
+                RateLimited.Scope.valueOf(scopeName));
+    }
+
+    /**
+     * Declares the timeout of a command annotated with
+     * {@link io.quarkiverse.aesh.runtime.annotations.CommandTimeout}.
+     * <p>
+     * Called at build time by {@code AeshCommandExecutionProcessor.registerCommandTimeouts()}.
+     *
+     * @param commandClass the command class name
+     * @param timeoutMs the timeout in milliseconds, or 0 for no timeout
+     */
+    public void registerCommandTimeout(String commandClass, long timeoutMs) {
+        AeshCommandTimeouts.registerCommandTimeout(commandClass, timeoutMs);
+    }
+
+    /**
+     * Declares the top command resolved at build time for runtime mode.
+     * <p>
+     * Called at build time by {@code AeshProcessor.registerTopCommand()}, before the commands
+     * are declared with {@link #registerCommand(String, Class)}.
+     *
+     * @param commandClass the top command class, or {@code null} if none could be chosen
+     */
+    public void registerTopCommand(Class<?> commandClass) {
+        DefaultAeshRuntimeRunnerFactory.registerTopCommand(commandClass);
+    }
+
+    /**
+     * Declares a command class under a name {@code quarkus.aesh.top-command} may refer to.
+     *
+     * @param name the bean name or the fully qualified class name
+     * @param commandClass the command class
+     */
+    public void registerCommand(String name, Class<?> commandClass) {
+        DefaultAeshRuntimeRunnerFactory.registerCommand(name, commandClass);
+    }
+
+    /**
+     * Declares a {@code @CliCommand} class whose instances are created reflectively and
+     * injected before their first execution.
+     * <p>
+     * Called at build time by {@code AeshCommandExecutionProcessor.registerLazyCommands()}.
+     *
+     * @param commandClass the command class
+     */
+    public void registerLazyCommand(Class<?> commandClass) {
+        DefaultCliCommandRegistryFactory.registerLazyCommand(commandClass);
+    }
+
+    /**
+     * Builds the command runtime of the top command during static init.
+     * <p>
+     * Called at build time by {@code AeshProcessor.registerTopCommand()} when
+     * {@code quarkus.aesh.static-init.enabled} is set, after the top command was registered.
+     */
+    public void prebuildRuntime() {
+        DefaultAeshRuntimeRunnerFactory.prebuild();
+    }
 }
@@ -42,6 +42,9 @@ public class AeshRemoteConnectionHandler {
     @Inject
     Instance<CliSettings> customizers;
 
+    @Inject
+    AeshContext context;
+
     @Inject
     @SessionOpened
     Event<AeshSessionEvent> openedEvent;
@@ -80,9 +83,30 @@ public class AeshRemoteConnectionHandler {
      * @param connection the remote terminal connection (SSH, WebSocket, etc.)
      * @param transport the transport type ({@code "ssh"}, {@code "websocket"}, etc.)
      */
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public void handle(Connection connection, String transport) {
+        handle(connection, new AeshRemoteSession(transport, null));
+    }
+
+    /**
+     * Set up aesh command processing for a remote session.
+     * <p>
+     * The session carries the transport and the authenticated principal, which is used to
+     * share rate limits between the sessions of the same user. Its connection is set to the
+     * given one, so that a command that does not stop after timing out can close it.
+     * <p>
+     * The {@code @Dependent} beans created for the session are destroyed when the close handler
+     * of the connection fires. Transports whose close handler may be replaced should also call
+     * {@link AeshRemoteSession#destroyBeans()} from their own close path.
+     *
+     * @param connection the remote terminal connection (SSH, WebSocket, etc.)
+     * @param session the remote session
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void handle(Connection connection, AeshRemoteSession session) {
+        String transport = session.getTransport();
+        session.connection = connection;
         String sessionId = UUID.randomUUID().toString();
+        session.id = sessionId;
         fireOpenedEvent(sessionId, transport);
 
         // Use AtomicBoolean to ensure the closed event fires exactly once,
@@ -97,15 +121,22 @@ public class AeshRemoteConnectionHandler {
             if (closedEventFired.compareAndSet(false, true)) {
                 fireClosedEvent(sessionId, transport);
             }
+            session.destroyBeans();
             if (existingCloseHandler != null) {
                 existingCloseHandler.accept(v);
             }
         });
 
         try {
-            var registryBuilder = registryFactory.create();
+            var registryBuilder = registryFactory.create(session);
+            if (config.addExitCommand()) {
+                registryBuilder.command(AeshConsoleRunner.ExitCommand.class);
+            }
 
             var settingsBuilder = SettingsBuilder.builder()
+                    .commandRegistry(AeshIndexedCommandRegistry.of(registryBuilder.create(),
+                            context.getCompletionIndex()))
+                    .connection(connection)
                     .enableAlias(config.enableAlias())
                     .enableExport(config.enableExport())
                     .enableMan(config.enableMan())
@@ -118,20 +149,16 @@ public class AeshRemoteConnectionHandler {
 
             var settings = settingsBuilder.build();
 
+            // The registry and the connection are in the settings, which the runner then uses as is
             AeshConsoleRunner runner = AeshConsoleRunner.builder()
-                    .commandRegistryBuilder(registryBuilder)
                     .settings(settings)
-                    .connection(connection)
                     .prompt(config.prompt());
 
-            if (config.addExitCommand()) {
-                runner.addExitCommand();
-            }
-
             runner.start();
         } catch (Exception e) {
             LOG.error("Error handling remote connection", e);
             connection.close();
+            session.destroyBeans();
         } finally {
             // For blocking connections (WebSocket), fire the event when
             // the method returns. For SSH this fires immediately but the
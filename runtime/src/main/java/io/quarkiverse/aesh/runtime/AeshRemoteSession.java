@@ -0,0 +1,263 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.Instance;
+
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.terminal.Connection;
+import org.aesh.terminal.tty.Signal;
+import org.jboss.logging.Logger;
+
+/**
+ * A remote terminal session, as seen by the commands running in it.
+ * <p>
+ * Created by the transport for each connection and passed to
+ * {@link AeshRemoteConnectionHandler#handle(Connection, AeshRemoteSession)}. Every command
+ * instance of the session's registry is bound to it, which lets {@link AeshCommandExecution}
+ * report the transport, apply the rate limits of the session and its principal, and track the
+ * running command so that it can be interrupted on Ctrl-C or when it times out.
+ * <p>
+ * Transports should pass the signal handlers set on their connection through
+ * {@link #interceptSignals(Consumer)}, so that Ctrl-C interrupts the running command.
+ * <p>
+ * The {@code @Dependent} beans created for the session, its command instances and the
+ * dependent beans injected into them, are {@link #track(Instance.Handle) tracked} and destroyed
+ * by {@link #destroyBeans()} when the session closes. Transports should call it from their
+ * close path; it is idempotent. The instances of
+ * {@link io.quarkiverse.aesh.runtime.annotations.AeshSessionScoped} beans are stored in the
+ * session and destroyed with them.
+ */
+public final class AeshRemoteSession {
+
+    private static final Logger LOG = Logger.getLogger(AeshRemoteSession.class);
+
+    private final String transport;
+    private final String principal;
+
+    // Token buckets of the session, by command class, created on first use
+    final Map<String, AeshRateLimiter.Bucket> buckets = new ConcurrentHashMap<>();
+    volatile Connection connection;
+    // Guards the execution stack, so that an execution is never interrupted once it has exited
+    private final Object executionLock = new Object();
+    private volatile Execution current;
+    private final Queue<Instance.Handle<?>> beans = new ConcurrentLinkedQueue<>();
+    // Instances of the session scoped beans, by bean identifier
+    final Map<String, AeshSessionContext.ContextInstance<?>> scopedInstances = new ConcurrentHashMap<>();
+    volatile String id;
+    private volatile boolean closed;
+
+    /**
+     * @param transport the transport type ({@code "ssh"}, {@code "websocket"}, etc.)
+     * @param principal the name of the authenticated principal, or {@code null}
+     */
+    public AeshRemoteSession(String transport, String principal) {
+        this.transport = transport;
+        this.principal = principal;
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    /**
+     * Returns the identifier of the session, as reported by {@link AeshSessionEvent}, or
+     * {@code null} if the session has not been handled by {@link AeshRemoteConnectionHandler}.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the name of the authenticated principal, or {@code null} if the session is not
+     * authenticated or the transport does not know the principal.
+     */
+    public String getPrincipal() {
+        return principal;
+    }
+
+    /**
+     * Interrupts the thread of the command running in this session, if any. Commands are
+     * expected to stop when interrupted, e.g. by letting an {@link InterruptedException}
+     * propagate.
+     *
+     * @return whether a command was running
+     */
+    public boolean interrupt() {
+        synchronized (executionLock) {
+            Execution execution = current;
+            if (execution == null) {
+                return false;
+            }
+            interrupt(execution);
+            return true;
+        }
+    }
+
+    /**
+     * Interrupts the thread of the given execution because it timed out, unless it has already
+     * returned.
+     *
+     * @return whether the execution was still running
+     */
+    boolean timeOut(Execution execution) {
+        synchronized (executionLock) {
+            if (execution.finished || !isRunning(execution)) {
+                return false;
+            }
+            execution.timedOut = true;
+            interrupt(execution);
+            return true;
+        }
+    }
+
+    private static void interrupt(Execution execution) {
+        // Recorded so that exit() clears the interrupt the command did not consume
+        execution.interrupted = true;
+        execution.thread.interrupt();
+    }
+
+    /**
+     * Wraps a signal handler set on the session's connection so that {@link Signal#INT}
+     * (Ctrl-C) also interrupts the running command.
+     */
+    public Consumer<Signal> interceptSignals(Consumer<Signal> handler) {
+        if (handler == null) {
+            return null;
+        }
+        return signal -> {
+            if (signal == Signal.INT) {
+                interrupt();
+            }
+            handler.accept(signal);
+        };
+    }
+
+    /**
+     * Binds a bean instance to the lifecycle of the session, so that it is destroyed when the
+     * session closes. Handles of beans that are not {@code @Dependent} are ignored, as their
+     * instances are shared with other sessions.
+     *
+     * @param handle the handle the instance was obtained from
+     */
+    public void track(Instance.Handle<?> handle) {
+        if (handle.getBean().getScope() != Dependent.class) {
+            return;
+        }
+        beans.add(handle);
+        if (closed) {
+            // The session closed while its registry was being built
+            destroyBeans();
+        }
+    }
+
+    /**
+     * Destroys the {@code @Dependent} and session scoped beans created for the session. If a command is still
+     * running, e.g. because the connection was closed while it was executing, they are destroyed
+     * when it returns.
+     */
+    public void destroyBeans() {
+        closed = true;
+        if (current == null) {
+            releaseBeans();
+        }
+    }
+
+    /**
+     * Returns the number of bean instances bound to the session that have not been destroyed.
+     */
+    public int getTrackedBeanCount() {
+        return beans.size();
+    }
+
+    private void releaseBeans() {
+        Instance.Handle<?> handle;
+        while ((handle = beans.poll()) != null) {
+            try {
+                handle.destroy();
+            } catch (RuntimeException e) {
+                LOG.debugf(e, "Failed to destroy bean %s of %s session", handle.getBean(), transport);
+            }
+        }
+        AeshSessionContext.destroy(this);
+    }
+
+    /**
+     * Closes the session's connection.
+     */
+    void close() {
+        Connection c = connection;
+        if (c != null) {
+            c.close();
+        }
+    }
+
+    Execution enter(String name, CommandInvocation invocation) {
+        synchronized (executionLock) {
+            Execution execution = new Execution(name, invocation, current);
+            current = execution;
+            return execution;
+        }
+    }
+
+    /**
+     * Pops the current execution. Once this returns, the execution is no longer interrupted, so
+     * its {@link Execution#interrupted} flag is final.
+     */
+    Execution exit() {
+        Execution execution;
+        boolean release;
+        synchronized (executionLock) {
+            execution = current;
+            if (execution == null) {
+                return null;
+            }
+            execution.finished = true;
+            current = execution.previous;
+            release = current == null && closed;
+        }
+        if (release) {
+            releaseBeans();
+        }
+        return execution;
+    }
+
+    private boolean isRunning(Execution execution) {
+        for (Execution e = current; e != null; e = e.previous) {
+            if (e == execution) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A command running in the session. Commands may execute other commands, so executions
+     * form a stack.
+     */
+    static final class Execution {
+
+        final String name;
+        final CommandInvocation invocation;
+        final Execution previous;
+        final Thread thread = Thread.currentThread();
+        final long startMs = System.currentTimeMillis();
+        volatile AeshIdleSessionReaper.Handle watchdog;
+        volatile long timeoutMs;
+        volatile boolean timedOut;
+        // Whether the thread was interrupted for this execution, by Ctrl-C or its timeout
+        volatile boolean interrupted;
+        volatile boolean finished;
+
+        Execution(String name, CommandInvocation invocation, Execution previous) {
+            this.name = name;
+            this.invocation = invocation;
+            this.previous = previous;
+        }
+    }
+}
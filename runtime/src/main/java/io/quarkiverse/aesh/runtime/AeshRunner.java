@@ -1,35 +1,84 @@
 package io.quarkiverse.aesh.runtime;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 import jakarta.enterprise.context.Dependent;
 
 import org.aesh.AeshRuntimeRunner;
+import org.aesh.command.CommandNotFoundException;
 import org.aesh.command.CommandResult;
+import org.aesh.command.parser.CommandLineParserException;
+import org.aesh.command.validator.OptionValidatorException;
 
+import io.quarkiverse.aesh.runtime.daemon.AeshDaemonLauncher;
+import io.quarkiverse.aesh.runtime.daemon.AeshDaemonServer;
 import io.quarkus.runtime.QuarkusApplication;
 
+/**
+ * Quarkus application runner of runtime mode: executes the command line the application was
+ * started with. When {@code quarkus.aesh.daemon.enabled} is set, the application instead stays
+ * up as an {@link AeshDaemonServer} that executes the command lines forwarded by the launcher.
+ */
 @Dependent
 public class AeshRunner implements QuarkusApplication {
 
     private final AeshRuntimeRunner commandRunner;
+    private final AeshRuntimeRunnerFactory runnerFactory;
+    private final CliConfig configuration;
 
-    public AeshRunner(AeshRuntimeRunner commandRunner) {
+    public AeshRunner(AeshRuntimeRunner commandRunner, AeshRuntimeRunnerFactory runnerFactory,
+            CliConfig configuration) {
         this.commandRunner = commandRunner;
+        this.runnerFactory = runnerFactory;
+        this.configuration = configuration;
     }
 
     @Override
     public int run(String... args) throws Exception {
+        CliConfig.DaemonConfig daemon = configuration.daemon();
+        if (daemon.enabled()) {
+            return new AeshDaemonServer(commandRunner, runnerFactory::create, daemonSocketPath(daemon),
+                    daemon.idleTimeout()).run();
+        }
+        return execute(commandRunner, args);
+    }
+
+    private static Path daemonSocketPath(CliConfig.DaemonConfig daemon) throws IOException {
+        if (daemon.socketPath().isPresent()) {
+            return Path.of(daemon.socketPath().get());
+        }
+        try {
+            return AeshDaemonLauncher.defaultSocketPath();
+        } catch (IOException e) {
+            throw new IOException("Unable to use the default aesh daemon socket, set quarkus.aesh.daemon.socket-path: "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Executes a command line with the runner, reporting errors on {@code System.err}. The
+     * command line runs in a session of its own, whose session scoped beans are destroyed when it
+     * returns, so that the command lines a daemon executes concurrently do not share them.
+     *
+     * @return the exit status: 0 if the command succeeded, 1 otherwise
+     */
+    public static int execute(AeshRuntimeRunner commandRunner, String... args) {
+        AeshRemoteSession session = AeshSessionContext.openInvocation();
         try {
             commandRunner.args(args);
             CommandResult result = commandRunner.execute();
-            if (result == null || result == CommandResult.SUCCESS) {
-                return 0;
-            } else {
-                return 1;
-            }
+            // aesh reports an unknown command or an invalid command line itself, and returns null
+            return result == CommandResult.SUCCESS ? 0 : 1;
         } catch (Exception e) {
+            if (e instanceof CommandLineParserException || e instanceof OptionValidatorException
+                    || e instanceof CommandNotFoundException) {
+                AeshCommandExecution.parseFailed(AeshCommandExecution.LOCAL);
+            }
             System.err.println("Error: " + e.getMessage());
             return 1;
         } finally {
+            AeshSessionContext.closeInvocation(session);
             System.out.flush();
             System.err.flush();
         }
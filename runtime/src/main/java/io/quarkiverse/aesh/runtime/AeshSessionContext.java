@@ -0,0 +1,164 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.lang.annotation.Annotation;
+import java.util.HashMap;
+import java.util.Map;
+
+import jakarta.enterprise.context.ContextNotActiveException;
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+
+import org.jboss.logging.Logger;
+
+import io.quarkiverse.aesh.runtime.annotations.AeshSessionScoped;
+import io.quarkus.arc.InjectableBean;
+import io.quarkus.arc.InjectableContext;
+
+/**
+ * The context of {@link AeshSessionScoped} beans.
+ * <p>
+ * Instances are stored in the {@link AeshRemoteSession} of the command executing on the current
+ * thread, and destroyed with the other beans of the session by
+ * {@link AeshRemoteSession#destroyBeans()} when it closes. In runtime mode, each command line
+ * executed by {@link AeshRunner#execute}, including those forwarded to a daemon, gets a session of
+ * its own, destroyed when the command line returns. The commands of the local console share
+ * {@link #LOCAL_SESSION}, whose instances are destroyed when the console exits.
+ */
+public class AeshSessionContext implements InjectableContext {
+
+    private static final Logger LOG = Logger.getLogger(AeshSessionContext.class);
+
+    /**
+     * The session of the commands that do not run in a remote session.
+     */
+    static final AeshRemoteSession LOCAL_SESSION = new AeshRemoteSession(AeshCommandExecution.LOCAL, null);
+
+    // Session of the command line executed in runtime mode by the current thread
+    private static final ThreadLocal<AeshRemoteSession> INVOCATION_SESSION = new ThreadLocal<>();
+
+    @Override
+    public Class<? extends Annotation> getScope() {
+        return AeshSessionScoped.class;
+    }
+
+    @Override
+    public boolean isActive() {
+        return AeshCommandExecution.currentSession() != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Contextual<T> contextual, CreationalContext<T> creationalContext) {
+        Map<String, ContextInstance<?>> instances = currentSession().scopedInstances;
+        String id = ((InjectableBean<T>) contextual).getIdentifier();
+        ContextInstance<?> instance = instances.get(id);
+        if (instance == null && creationalContext != null) {
+            // Not computeIfAbsent: creating the bean may create other session scoped beans
+            synchronized (instances) {
+                instance = instances.get(id);
+                if (instance == null) {
+                    instance = new ContextInstance<>((InjectableBean<T>) contextual,
+                            contextual.create(creationalContext), creationalContext);
+                    instances.put(id, instance);
+                }
+            }
+        }
+        return instance != null ? (T) instance.value : null;
+    }
+
+    @Override
+    public <T> T get(Contextual<T> contextual) {
+        return get(contextual, null);
+    }
+
+    @Override
+    public void destroy(Contextual<?> contextual) {
+        ContextInstance<?> instance = currentSession().scopedInstances
+                .remove(((InjectableBean<?>) contextual).getIdentifier());
+        if (instance != null) {
+            instance.destroy();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        destroy(currentSession());
+    }
+
+    @Override
+    public ContextState getState() {
+        Map<InjectableBean<?>, Object> instances = new HashMap<>();
+        for (ContextInstance<?> instance : currentSession().scopedInstances.values()) {
+            instances.put(instance.bean, instance.value);
+        }
+        return () -> instances;
+    }
+
+    /**
+     * Destroys the session scoped instances of a session.
+     */
+    static void destroy(AeshRemoteSession session) {
+        for (String id : session.scopedInstances.keySet()) {
+            ContextInstance<?> instance = session.scopedInstances.remove(id);
+            if (instance != null) {
+                instance.destroy();
+            }
+        }
+    }
+
+    /**
+     * Returns the session of the commands that are not bound to a remote session: the session of
+     * the command line executed by the current thread, or {@link #LOCAL_SESSION}.
+     */
+    static AeshRemoteSession localSession() {
+        AeshRemoteSession session = INVOCATION_SESSION.get();
+        return session != null ? session : LOCAL_SESSION;
+    }
+
+    /**
+     * Opens the session of a command line executed by the current thread in runtime mode.
+     */
+    static AeshRemoteSession openInvocation() {
+        AeshRemoteSession session = new AeshRemoteSession(AeshCommandExecution.LOCAL, null);
+        INVOCATION_SESSION.set(session);
+        return session;
+    }
+
+    /**
+     * Closes the session of the command line executed by the current thread, destroying its
+     * beans.
+     */
+    static void closeInvocation(AeshRemoteSession session) {
+        INVOCATION_SESSION.remove();
+        session.destroyBeans();
+    }
+
+    private static AeshRemoteSession currentSession() {
+        AeshRemoteSession session = AeshCommandExecution.currentSession();
+        if (session == null) {
+            throw new ContextNotActiveException("No aesh command is executing on the current thread");
+        }
+        return session;
+    }
+
+    static final class ContextInstance<T> {
+
+        final InjectableBean<T> bean;
+        final T value;
+        final CreationalContext<T> creationalContext;
+
+        ContextInstance(InjectableBean<T> bean, T value, CreationalContext<T> creationalContext) {
+            this.bean = bean;
+            this.value = value;
+            this.creationalContext = creationalContext;
+        }
+
+        void destroy() {
+            try {
+                bean.destroy(value, creationalContext);
+            } catch (RuntimeException e) {
+                LOG.debugf(e, "Failed to destroy session scoped bean %s", bean);
+            }
+        }
+    }
+}
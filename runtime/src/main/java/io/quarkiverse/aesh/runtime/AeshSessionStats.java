@@ -0,0 +1,148 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Traffic statistics of a single remote session.
+ * <p>
+ * Transports call {@link #inputReceived(int)} for every frame received from the client and
+ * {@link #outputWritten()} / {@link #frameSent(int)} for the output of the session. The echo
+ * latency is the time from the arrival of input to the first output written after it, which is
+ * what a user perceives as the responsiveness of the terminal.
+ * <p>
+ * Created by {@link AeshTransportStats#open(String)}.
+ */
+public final class AeshSessionStats {
+
+    private static final LongSupplier NO_QUEUE = () -> 0L;
+
+    private final String sessionId;
+    private final String transport;
+    private final Instant openedAt = Instant.now();
+
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+    private final AtomicLong framesIn = new AtomicLong();
+    private final AtomicLong framesOut = new AtomicLong();
+    private final AtomicLong echoCount = new AtomicLong();
+    private final AtomicLong echoTotalNanos = new AtomicLong();
+    private final AtomicLong echoMaxNanos = new AtomicLong();
+
+    // Arrival time of input that has not produced output yet, or 0
+    private volatile long pendingInputNanos;
+    private volatile LongSupplier queueDepth = NO_QUEUE;
+
+    AeshSessionStats(String sessionId, String transport) {
+        this.sessionId = sessionId;
+        this.transport = transport;
+    }
+
+    /**
+     * Records a frame of client input of the given size.
+     */
+    public void inputReceived(int bytes) {
+        framesIn.incrementAndGet();
+        bytesIn.addAndGet(bytes);
+        if (pendingInputNanos == 0L) {
+            pendingInputNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Records that the session wrote output, before the transport framed it.
+     * Completes the echo latency measurement of pending input.
+     */
+    public void outputWritten() {
+        long pending = pendingInputNanos;
+        if (pending != 0L) {
+            pendingInputNanos = 0L;
+            long latency = System.nanoTime() - pending;
+            echoCount.incrementAndGet();
+            echoTotalNanos.addAndGet(latency);
+            echoMaxNanos.accumulateAndGet(latency, Math::max);
+        }
+    }
+
+    /**
+     * Records a frame of the given size sent to the client.
+     */
+    public void frameSent(int bytes) {
+        framesOut.incrementAndGet();
+        bytesOut.addAndGet(bytes);
+    }
+
+    /**
+     * Sets the source of {@link #getQueueDepth()}, for transports that queue output.
+     */
+    public void setQueueDepth(LongSupplier queueDepth) {
+        this.queueDepth = queueDepth != null ? queueDepth : NO_QUEUE;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    public Instant getOpenedAt() {
+        return openedAt;
+    }
+
+    public long getBytesIn() {
+        return bytesIn.get();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.get();
+    }
+
+    public long getFramesIn() {
+        return framesIn.get();
+    }
+
+    public long getFramesOut() {
+        return framesOut.get();
+    }
+
+    /**
+     * Bytes of output waiting to be sent to the client.
+     */
+    public long getQueueDepth() {
+        return queueDepth.getAsLong();
+    }
+
+    public long getEchoCount() {
+        return echoCount.get();
+    }
+
+    long getEchoTotalNanos() {
+        return echoTotalNanos.get();
+    }
+
+    /**
+     * Mean echo latency in nanoseconds, or {@code 0} if no input has been echoed yet.
+     */
+    public long getEchoMeanNanos() {
+        long count = echoCount.get();
+        return count == 0 ? 0L : echoTotalNanos.get() / count;
+    }
+
+    public long getEchoMaxNanos() {
+        return echoMaxNanos.get();
+    }
+
+    /**
+     * Returns the number of bytes of the UTF-8 encoding of the given code points.
+     */
+    public static int utf8Length(int[] codePoints) {
+        int length = 0;
+        for (int cp : codePoints) {
+            length += cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,119 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.function.Consumer;
+
+import org.aesh.terminal.Connection;
+import org.aesh.terminal.EventDecoder;
+import org.aesh.terminal.tty.Signal;
+
+/**
+ * Delivers raw terminal input to the handlers of a {@link Connection}.
+ * <p>
+ * Transports that receive keystrokes as plain UTF-8 bytes, rather than through the JSON
+ * protocol of {@code HttpTtyConnection} or an SSH channel, use this class to feed them to
+ * aesh. Control keys are handled as on the JSON path: the input goes through the same
+ * {@link EventDecoder}, with the control characters of {@code HttpTtyConnection}, which turns
+ * {@code Ctrl-C}, {@code Ctrl-Z} and {@code Ctrl-D} into signals for the signal handler and
+ * passes everything else to the stdin handler. Input that arrives before the console has
+ * installed its stdin handler is queued and delivered by {@link #drain()}.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class AeshTerminalInput {
+
+    private static final int VINTR = 3;
+    private static final int VSUSP = 26;
+    private static final int VEOF = 4;
+    private static final int REPLACEMENT = 0xFFFD;
+
+    private final Connection connection;
+    private final EventDecoder decoder = new EventDecoder(VINTR, VSUSP, VEOF);
+    private final Queue<int[]> pending = new ArrayDeque<>();
+
+    public AeshTerminalInput(Connection connection) {
+        this.connection = connection;
+        decoder.setInputHandler(codePoints -> connection.getStdinHandler().accept(codePoints));
+        decoder.setSignalHandler(this::signal);
+    }
+
+    /**
+     * Decodes UTF-8 encoded input into code points, reading the bytes in place. Malformed and
+     * truncated sequences are replaced with {@code U+FFFD}.
+     */
+    public static int[] decodeUtf8(ByteBuffer bytes) {
+        // A code point never takes fewer bytes than one
+        int[] codePoints = new int[bytes.remaining()];
+        int count = 0;
+        int position = bytes.position();
+        int limit = bytes.limit();
+        while (position < limit) {
+            int b = bytes.get(position++) & 0xFF;
+            if (b < 0x80) {
+                codePoints[count++] = b;
+                continue;
+            }
+            int extra;
+            int codePoint;
+            int min;
+            if (b >= 0xC2 && b <= 0xDF) {
+                extra = 1;
+                codePoint = b & 0x1F;
+                min = 0x80;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                extra = 2;
+                codePoint = b & 0x0F;
+                min = 0x800;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                extra = 3;
+                codePoint = b & 0x07;
+                min = 0x10000;
+            } else {
+                codePoints[count++] = REPLACEMENT;
+                continue;
+            }
+            int i = 0;
+            while (i < extra && position < limit && (bytes.get(position) & 0xC0) == 0x80) {
+                codePoint = (codePoint << 6) | (bytes.get(position++) & 0x3F);
+                i++;
+            }
+            boolean valid = i == extra && codePoint >= min && codePoint <= 0x10FFFF
+                    && (codePoint < 0xD800 || codePoint > 0xDFFF);
+            codePoints[count++] = valid ? codePoint : REPLACEMENT;
+        }
+        return count == codePoints.length ? codePoints : Arrays.copyOf(codePoints, count);
+    }
+
+    /**
+     * Delivers the given code points, or queues them until a stdin handler is installed.
+     */
+    public synchronized void accept(int[] codePoints) {
+        if (codePoints.length == 0) {
+            return;
+        }
+        if (connection.getStdinHandler() == null || !pending.isEmpty()) {
+            pending.add(codePoints);
+            return;
+        }
+        decoder.accept(codePoints);
+    }
+
+    /**
+     * Delivers queued input. Call this once the stdin handler has been installed.
+     */
+    public synchronized void drain() {
+        while (!pending.isEmpty() && connection.getStdinHandler() != null) {
+            decoder.accept(pending.poll());
+        }
+    }
+
+    private void signal(Signal signal) {
+        Consumer<Signal> handler = connection.getSignalHandler();
+        if (handler != null) {
+            handler.accept(signal);
+        }
+    }
+}
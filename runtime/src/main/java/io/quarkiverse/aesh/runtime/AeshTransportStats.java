@@ -0,0 +1,133 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Traffic statistics of a remote transport: its open sessions, and totals that include the
+ * sessions already closed.
+ * <p>
+ * Sessions update their own counters only; the totals of closed sessions are folded in when
+ * they are {@linkplain #close(AeshSessionStats) closed}, and the totals of open sessions are
+ * summed when read.
+ */
+public final class AeshTransportStats {
+
+    private final String transport;
+    private final ConcurrentHashMap<String, AeshSessionStats> sessions = new ConcurrentHashMap<>();
+
+    private final LongAdder closedBytesIn = new LongAdder();
+    private final LongAdder closedBytesOut = new LongAdder();
+    private final LongAdder closedFramesIn = new LongAdder();
+    private final LongAdder closedFramesOut = new LongAdder();
+    private final LongAdder closedEchoCount = new LongAdder();
+    private final LongAdder closedEchoTotalNanos = new LongAdder();
+    private final AtomicLong closedEchoMaxNanos = new AtomicLong();
+
+    public AeshTransportStats(String transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Starts collecting statistics for a new session.
+     */
+    public AeshSessionStats open(String sessionId) {
+        AeshSessionStats stats = new AeshSessionStats(sessionId, transport);
+        sessions.put(sessionId, stats);
+        return stats;
+    }
+
+    /**
+     * Removes a session from the open sessions, keeping its traffic in the totals.
+     * Closing a session more than once has no effect.
+     */
+    public void close(AeshSessionStats stats) {
+        if (stats != null && sessions.remove(stats.getSessionId(), stats)) {
+            closedBytesIn.add(stats.getBytesIn());
+            closedBytesOut.add(stats.getBytesOut());
+            closedFramesIn.add(stats.getFramesIn());
+            closedFramesOut.add(stats.getFramesOut());
+            closedEchoCount.add(stats.getEchoCount());
+            closedEchoTotalNanos.add(stats.getEchoTotalNanos());
+            closedEchoMaxNanos.accumulateAndGet(stats.getEchoMaxNanos(), Math::max);
+        }
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    /**
+     * Statistics of the open sessions.
+     */
+    public Collection<AeshSessionStats> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    public long getBytesIn() {
+        long total = closedBytesIn.sum();
+        for (AeshSessionStats s : sessions.values()) {
+            total += s.getBytesIn();
+        }
+        return total;
+    }
+
+    public long getBytesOut() {
+        long total = closedBytesOut.sum();
+        for (AeshSessionStats s : sessions.values()) {
+            total += s.getBytesOut();
+        }
+        return total;
+    }
+
+    public long getFramesIn() {
+        long total = closedFramesIn.sum();
+        for (AeshSessionStats s : sessions.values()) {
+            total += s.getFramesIn();
+        }
+        return total;
+    }
+
+    public long getFramesOut() {
+        long total = closedFramesOut.sum();
+        for (AeshSessionStats s : sessions.values()) {
+            total += s.getFramesOut();
+        }
+        return total;
+    }
+
+    /**
+     * Bytes of output waiting to be sent, over all open sessions.
+     */
+    public long getQueueDepth() {
+        long total = 0;
+        for (AeshSessionStats s : sessions.values()) {
+            total += s.getQueueDepth();
+        }
+        return total;
+    }
+
+    /**
+     * Mean echo latency in nanoseconds over all sessions, or {@code 0} if nothing was echoed.
+     */
+    public long getEchoMeanNanos() {
+        long count = closedEchoCount.sum();
+        long totalNanos = closedEchoTotalNanos.sum();
+        for (AeshSessionStats s : sessions.values()) {
+            count += s.getEchoCount();
+            totalNanos += s.getEchoTotalNanos();
+        }
+        return count == 0 ? 0L : totalNanos / count;
+    }
+
+    public long getEchoMaxNanos() {
+        long max = closedEchoMaxNanos.get();
+        for (AeshSessionStats s : sessions.values()) {
+            max = Math.max(max, s.getEchoMaxNanos());
+        }
+        return max;
+    }
+}
@@ -0,0 +1,60 @@
+package io.quarkiverse.aesh.runtime;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * A command whose execution completes asynchronously with a {@link Uni}.
+ * <p>
+ * Implement {@link #executeAsync(CommandInvocation)} instead of {@code execute}: the I/O the
+ * command waits on, such as a reactive database query or HTTP call, can then run on the event
+ * loop instead of blocking a worker thread. aesh still runs commands one at a time per session,
+ * so the prompt only comes back once the {@code Uni} completes. A {@code null} item counts as
+ * {@link CommandResult#SUCCESS}.
+ * <p>
+ * When the command is interrupted, by Ctrl-C or a command timeout, the subscription to the
+ * {@code Uni} is cancelled.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * &#64;CommandDefinition(name = "orders", description = "Count the pending orders")
+ * public class OrdersCommand implements AsyncCommand&lt;CommandInvocation&gt; {
+ *
+ *     &#64;Inject
+ *     OrderRepository orders;
+ *
+ *     &#64;Override
+ *     public Uni&lt;CommandResult&gt; executeAsync(CommandInvocation invocation) {
+ *         return orders.countPending()
+ *                 .invoke(count -&gt; invocation.println(count + " pending orders"))
+ *                 .replaceWith(CommandResult.SUCCESS);
+ *     }
+ * }
+ * </pre>
+ *
+ * @param <CI> the command invocation type
+ */
+public interface AsyncCommand<CI extends CommandInvocation> extends Command<CI> {
+
+    /**
+     * Starts the command.
+     *
+     * @param invocation the command invocation
+     * @return the result of the command
+     */
+    Uni<CommandResult> executeAsync(CI invocation) throws CommandException;
+
+    /**
+     * Subscribes to {@link #executeAsync(CommandInvocation)} and waits for its result. Not meant
+     * to be overridden.
+     */
+    @Override
+    default CommandResult execute(CI invocation) throws CommandException, InterruptedException {
+        return AeshAsyncExecution.await(executeAsync(invocation));
+    }
+}
@@ -15,4 +15,15 @@ public interface CliCommandRegistryFactory {
      * @return an AeshCommandRegistryBuilder with all commands registered
      */
     AeshCommandRegistryBuilder<CommandInvocation> create();
+
+    /**
+     * Create an AeshCommandRegistryBuilder for a remote session. The command instances of the
+     * registry should be bound to the session, which the default implementation does.
+     *
+     * @param session the remote session
+     * @return an AeshCommandRegistryBuilder with all commands registered
+     */
+    default AeshCommandRegistryBuilder<CommandInvocation> create(AeshRemoteSession session) {
+        return create();
+    }
 }
@@ -1,6 +1,9 @@
 package io.quarkiverse.aesh.runtime;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
 
 import io.quarkus.runtime.annotations.ConfigPhase;
 import io.quarkus.runtime.annotations.ConfigRoot;
@@ -88,12 +91,35 @@ public interface CliConfig {
     @WithDefault("false")
     boolean logging();
 
+    /**
+     * Maximum time a command may run in a remote session before its thread is interrupted.
+     * Commands annotated with {@code @CommandTimeout} use their own timeout instead. If the
+     * command still has not returned a few seconds after being interrupted, the session is
+     * closed. When not set, commands run without a time limit.
+     */
+    Optional<Duration> commandTimeout();
+
+    /**
+     * Admission control of remote sessions, shared by all transports.
+     */
+    SessionsConfig sessions();
+
+    /**
+     * Rate limiting of command executions in remote sessions.
+     */
+    RateLimitConfig rateLimit();
+
     /**
      * Sub-command mode configuration.
      * Sub-command mode allows users to enter an interactive context for group commands.
      */
     SubCommandModeConfig subCommandMode();
 
+    /**
+     * Daemon mode of runtime mode applications.
+     */
+    DaemonConfig daemon();
+
     /**
      * Configuration for sub-command mode.
      */
@@ -149,4 +175,107 @@ public interface CliConfig {
         @WithDefault("true")
         boolean showArgumentInPrompt();
     }
+
+    /**
+     * Configuration for daemon mode.
+     * <p>
+     * In daemon mode, a runtime mode application does not execute the command line it was
+     * started with. It stays up and executes the command lines forwarded over a Unix domain
+     * socket by {@code io.quarkiverse.aesh.runtime.daemon.AeshDaemonLauncher}, which starts the
+     * daemon when it is not running.
+     */
+    interface DaemonConfig {
+
+        /**
+         * Whether the application runs as a daemon. Usually set by the launcher when it starts
+         * the daemon, rather than in {@code application.properties}.
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * Path of the Unix domain socket the daemon listens on. The socket is only accessible
+         * to the user running the daemon. Defaults to the socket the launcher uses: a file named
+         * after the application jar in {@code XDG_RUNTIME_DIR}, or else in the
+         * {@code aesh-<user>} directory of the temporary directory, which only the user can
+         * access.
+         */
+        Optional<String> socketPath();
+
+        /**
+         * Time without invocations after which the daemon stops. When 0, the daemon runs until it
+         * is stopped.
+         */
+        @WithDefault("10m")
+        Duration idleTimeout();
+    }
+
+    /**
+     * Configuration for the admission of remote sessions.
+     */
+    interface SessionsConfig {
+
+        /**
+         * Maximum number of concurrent remote sessions over all transports.
+         * Each transport may also have its own limit, e.g. {@code quarkus.aesh.ssh.max-connections}.
+         * When not set, only the per-transport limits apply.
+         */
+        OptionalInt max();
+
+        /**
+         * Maximum number of sessions that wait for a free slot when a limit is reached.
+         * Waiting sessions are admitted in arrival order. When 0, sessions over a limit are
+         * rejected immediately.
+         */
+        @WithDefault("0")
+        int queueSize();
+
+        /**
+         * Maximum time a session waits for a free slot before it is rejected.
+         */
+        @WithDefault("30s")
+        Duration queueTimeout();
+    }
+
+    /**
+     * Configuration for rate limiting command executions in remote sessions.
+     * Commands annotated with {@link io.quarkiverse.aesh.runtime.annotations.RateLimited} are
+     * limited in addition to these limits.
+     */
+    interface RateLimitConfig {
+
+        /**
+         * Message shown when a command is not executed because a rate limit was exceeded.
+         */
+        @WithDefault("Command not executed: rate limit exceeded, try again later.")
+        String message();
+
+        /**
+         * Limit of each remote session, over all its commands.
+         */
+        LimitConfig session();
+
+        /**
+         * Limit of each authenticated principal, over all commands of all its sessions.
+         */
+        LimitConfig principal();
+    }
+
+    /**
+     * A token bucket limit.
+     */
+    interface LimitConfig {
+
+        /**
+         * Sustained number of command executions allowed per second.
+         * When not set, there is no limit.
+         */
+        OptionalDouble permitsPerSecond();
+
+        /**
+         * Number of command executions allowed at once.
+         * When not set, defaults to {@code permits-per-second} rounded up.
+         */
+        OptionalInt burst();
+    }
 }
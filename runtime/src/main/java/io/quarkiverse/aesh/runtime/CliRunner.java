@@ -19,21 +19,28 @@ public class CliRunner implements QuarkusApplication {
     private final CliCommandRegistryFactory registryFactory;
     private final CliConfig configuration;
     private final Instance<CliSettings> customizers;
+    private final AeshContext context;
 
     public CliRunner(CliCommandRegistryFactory registryFactory,
             CliConfig configuration,
-            Instance<CliSettings> customizers) {
+            Instance<CliSettings> customizers,
+            AeshContext context) {
         this.registryFactory = registryFactory;
         this.configuration = configuration;
         this.customizers = customizers;
+        this.context = context;
     }
 
     @Override
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public int run(String... args) throws Exception {
         try {
-            // Build the command registry builder
+            // Build the command registry, completing command names with the build-time index
             var registryBuilder = registryFactory.create();
+            if (configuration.addExitCommand()) {
+                registryBuilder.command(AeshConsoleRunner.ExitCommand.class);
+            }
+            var registry = AeshIndexedCommandRegistry.of(registryBuilder.create(), context.getCompletionIndex());
 
             // Configure sub-command mode settings
             var subCommandModeConfig = configuration.subCommandMode();
@@ -48,8 +55,8 @@ public class CliRunner implements QuarkusApplication {
                     .showArgumentInPrompt(subCommandModeConfig.showArgumentInPrompt())
                     .build();
 
-            // Build settings WITHOUT command registry - we'll add commands via the runner
             var settingsBuilder = SettingsBuilder.builder()
+                    .commandRegistry(registry)
                     .enableAlias(configuration.enableAlias())
                     .enableExport(configuration.enableExport())
                     .enableMan(configuration.enableMan())
@@ -70,21 +77,19 @@ public class CliRunner implements QuarkusApplication {
 
             var settings = settingsBuilder.build();
 
-            // Use commandRegistryBuilder() method on runner (NOT settings.commandRegistry())
+            // The commands are in the settings: the runner must not be given a registry builder too
             AeshConsoleRunner runner = AeshConsoleRunner.builder()
-                    .commandRegistryBuilder(registryBuilder)
                     .settings(settings)
                     .prompt(configuration.prompt());
 
-            if (configuration.addExitCommand()) {
-                runner.addExitCommand();
-            }
-
             runner.start();
             return 0;
         } catch (Exception e) {
             System.err.println("Error starting console: " + e.getMessage());
             return 1;
+        } finally {
+            // The local console is a single session
+            AeshSessionContext.destroy(AeshSessionContext.LOCAL_SESSION);
         }
     }
 }
@@ -0,0 +1,267 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+
+import org.aesh.command.CommandException;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.terminal.KeyAction;
+import org.aesh.terminal.tty.Size;
+import org.aesh.terminal.utils.Config;
+
+/**
+ * Prints large outputs, such as table dumps, with constant memory per session.
+ * <p>
+ * Lines are pulled from a {@link Flow.Publisher} or a {@link Stream} and written in chunks of up
+ * to {@value #CHUNK_SIZE} characters rather than one write per line. A chunk is also written as
+ * soon as the source has no line ready, so slow sources are not delayed. Writes block while the
+ * transport's output buffer is full (see {@code quarkus.aesh.websocket.output.max-pending-bytes};
+ * SSH blocks on the channel window), and the next lines are only requested once the previous
+ * ones have been written, so a slow client pauses the producer instead of filling memory.
+ * <p>
+ * Inject it into a command, or create one for an invocation with {@link #of(CommandInvocation)}:
+ *
+ * <pre>
+ * &#64;Inject
+ * CommandOutput output;
+ *
+ * &#64;Override
+ * public CommandResult execute(CommandInvocation invocation) throws CommandException, InterruptedException {
+ *     output.paged().print(orders.streamAll().map(Order::format));
+ *     return CommandResult.SUCCESS;
+ * }
+ * </pre>
+ *
+ * An injected instance prints to the command running on the calling thread, so it must be used
+ * from within {@code execute}. Printing stops with an {@link InterruptedException} on Ctrl-C or
+ * when the command times out.
+ */
+public final class CommandOutput {
+
+    static final int CHUNK_SIZE = 8192;
+
+    // Number of lines requested from a publisher ahead of the terminal
+    static final int PREFETCH = 64;
+
+    static final String MORE = "--More-- (space: next page, enter: next line, q: quit)";
+    private static final String ERASE_LINE = "\r\u001B[K";
+
+    private final CommandInvocation invocation;
+    private final boolean paged;
+
+    CommandOutput(CommandInvocation invocation, boolean paged) {
+        this.invocation = invocation;
+        this.paged = paged;
+    }
+
+    /**
+     * Returns an output printing to the given invocation.
+     */
+    public static CommandOutput of(CommandInvocation invocation) {
+        return new CommandOutput(invocation, false);
+    }
+
+    /**
+     * Returns an output that stops after each screen of lines and waits for a key, like
+     * {@code more}. Paging is skipped when the terminal height is unknown.
+     */
+    public CommandOutput paged() {
+        return new CommandOutput(invocation, true);
+    }
+
+    /**
+     * Prints each line of the publisher, then returns once it completes.
+     *
+     * @return the number of lines printed, which is lower than the number of lines published if
+     *         the user quit the pager
+     * @throws CommandException if the publisher failed with a checked exception
+     * @throws InterruptedException if the command was interrupted; the subscription is cancelled
+     */
+    public long print(Flow.Publisher<String> lines) throws CommandException, InterruptedException {
+        Sink sink = new Sink(resolve(), paged);
+        LineSubscriber subscriber = new LineSubscriber();
+        lines.subscribe(subscriber);
+        try {
+            for (;;) {
+                Object next = subscriber.queue.poll();
+                if (next == null) {
+                    // Nothing ready: write what is pending before waiting
+                    sink.flush();
+                    next = subscriber.queue.take();
+                }
+                if (next == LineSubscriber.COMPLETED) {
+                    break;
+                }
+                if (next instanceof Failure) {
+                    throw AeshAsyncExecution.rethrow(((Failure) next).cause);
+                }
+                if (!sink.line((String) next)) {
+                    break;
+                }
+                subscriber.request();
+            }
+        } finally {
+            // No-op once the publisher has completed or failed
+            subscriber.cancel();
+            sink.flush();
+        }
+        return sink.lines;
+    }
+
+    /**
+     * Prints each line of the stream. The stream is consumed lazily but not closed.
+     *
+     * @return the number of lines printed, which is lower than the number of lines in the
+     *         stream if the user quit the pager
+     * @throws InterruptedException if the command was interrupted
+     */
+    public long print(Stream<String> lines) throws InterruptedException {
+        Sink sink = new Sink(resolve(), paged);
+        try {
+            Iterator<String> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                if (!sink.line(iterator.next())) {
+                    break;
+                }
+            }
+        } finally {
+            sink.flush();
+        }
+        return sink.lines;
+    }
+
+    private CommandInvocation resolve() {
+        CommandInvocation target = invocation != null ? invocation : AeshCommandExecution.currentInvocation();
+        if (target == null) {
+            throw new IllegalStateException("No command is running on this thread; an injected CommandOutput "
+                    + "must be used from execute(), otherwise use CommandOutput.of(invocation)");
+        }
+        return target;
+    }
+
+    /**
+     * Accumulates lines into chunks and pages them.
+     */
+    private static final class Sink {
+
+        final CommandInvocation invocation;
+        final StringBuilder chunk = new StringBuilder();
+        final int pageSize;
+        long lines;
+        int onPage;
+
+        Sink(CommandInvocation invocation, boolean paged) {
+            this.invocation = invocation;
+            this.pageSize = paged ? pageSize(invocation) : 0;
+        }
+
+        private static int pageSize(CommandInvocation invocation) {
+            Size size = invocation.getShell().size();
+            return size != null && size.getHeight() > 1 ? size.getHeight() - 1 : 0;
+        }
+
+        /**
+         * @return {@code false} if the user quit the pager
+         */
+        boolean line(String line) throws InterruptedException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException();
+            }
+            chunk.append(line).append(Config.getLineSeparator());
+            lines++;
+            if (pageSize > 0 && ++onPage >= pageSize) {
+                flush();
+                return more();
+            }
+            if (chunk.length() >= CHUNK_SIZE) {
+                flush();
+            }
+            return true;
+        }
+
+        void flush() {
+            if (chunk.length() > 0) {
+                invocation.print(chunk.toString());
+                chunk.setLength(0);
+            }
+        }
+
+        private boolean more() throws InterruptedException {
+            invocation.print(MORE);
+            KeyAction key = invocation.input();
+            invocation.print(ERASE_LINE);
+            int c = key != null && key.length() > 0 ? key.getCodePointAt(0) : 'q';
+            if (c == 'q' || c == 'Q') {
+                return false;
+            }
+            // Enter shows one more line, any other key a full page
+            onPage = c == '\r' || c == '\n' ? pageSize - 1 : 0;
+            return true;
+        }
+    }
+
+    private static final class Failure {
+
+        final Throwable cause;
+
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+
+    /**
+     * Hands the lines over to the command thread through a queue bounded by {@link #PREFETCH},
+     * requesting one more line for each line printed.
+     */
+    private static final class LineSubscriber implements Flow.Subscriber<String> {
+
+        static final Object COMPLETED = new Object();
+
+        final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            subscription = s;
+            if (cancelled) {
+                s.cancel();
+            } else {
+                s.request(PREFETCH);
+            }
+        }
+
+        @Override
+        public void onNext(String item) {
+            queue.add(item != null ? item : "");
+        }
+
+        @Override
+        public void onError(Throwable failure) {
+            queue.add(new Failure(failure));
+        }
+
+        @Override
+        public void onComplete() {
+            queue.add(COMPLETED);
+        }
+
+        void request() {
+            Flow.Subscription s = subscription;
+            if (s != null) {
+                s.request(1);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.quarkiverse.aesh.runtime;
+
+import java.util.concurrent.CompletionStage;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+
+/**
+ * A command whose execution completes asynchronously with a {@link CompletionStage}.
+ * <p>
+ * The counterpart of {@link AsyncCommand} for APIs based on {@link CompletionStage}. A
+ * {@code null} result counts as {@link CommandResult#SUCCESS}. When the command is interrupted,
+ * by Ctrl-C or a command timeout, the stage is cancelled if it supports it.
+ *
+ * @param <CI> the command invocation type
+ */
+public interface CompletionStageCommand<CI extends CommandInvocation> extends Command<CI> {
+
+    /**
+     * Starts the command.
+     *
+     * @param invocation the command invocation
+     * @return the result of the command
+     */
+    CompletionStage<CommandResult> executeAsync(CI invocation) throws CommandException;
+
+    /**
+     * Waits for the stage returned by {@link #executeAsync(CommandInvocation)}. Not meant to be
+     * overridden.
+     */
+    @Override
+    default CommandResult execute(CI invocation) throws CommandException, InterruptedException {
+        return AeshAsyncExecution.await(executeAsync(invocation));
+    }
+}
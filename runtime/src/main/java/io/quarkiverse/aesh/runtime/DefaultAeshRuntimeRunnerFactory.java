@@ -1,8 +1,11 @@
 package io.quarkiverse.aesh.runtime;
 
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Instance;
-import jakarta.enterprise.inject.literal.NamedLiteral;
 
 import org.aesh.AeshRuntimeRunner;
 import org.aesh.command.AeshCommandRuntimeBuilder;
@@ -13,14 +16,36 @@ import org.aesh.command.invocation.CommandInvocation;
 
 import io.quarkiverse.aesh.runtime.annotations.TopCommand;
 import io.quarkus.arc.Arc;
+import io.quarkus.arc.InstanceHandle;
 
 /**
  * Default implementation of AeshRuntimeRunnerFactory that resolves the top command from CDI.
  * Uses {@link AeshCdiCommandContainerBuilder} to ensure CDI injection works in sub-commands.
+ * <p>
+ * The top command class and the classes {@code quarkus.aesh.top-command} may name are resolved
+ * at build time and registered at static init, so that starting a command only looks up the
+ * bean of a known class, without qualifier matching or class loading. With
+ * {@code quarkus.aesh.static-init.enabled}, the command runtime of the top command is also
+ * built during static init by {@link #prebuild()}, and only wrapped in a runner at startup.
  */
 @ApplicationScoped
 public class DefaultAeshRuntimeRunnerFactory implements AeshRuntimeRunnerFactory {
 
+    /**
+     * The command class chosen at build time, or {@code null} if there is none.
+     */
+    private static volatile Class<?> defaultTopCommand;
+
+    /**
+     * Command classes by bean name and class name, registered at static init.
+     */
+    private static final Map<String, Class<?>> COMMANDS = new ConcurrentHashMap<>();
+
+    /**
+     * The runtime of the default top command built during static init, or {@code null}.
+     */
+    private static volatile CommandRuntime<CommandInvocation> prebuiltRuntime;
+
     private final Instance<Object> topCommand;
     private final CliConfig configuration;
 
@@ -30,60 +55,105 @@ public class DefaultAeshRuntimeRunnerFactory implements AeshRuntimeRunnerFactory
         this.configuration = configuration;
     }
 
+    /**
+     * Declares the top command chosen at build time and forgets previously registered commands.
+     */
+    static void registerTopCommand(Class<?> commandClass) {
+        COMMANDS.clear();
+        defaultTopCommand = commandClass;
+        prebuiltRuntime = null;
+    }
+
+    /**
+     * Declares a command that {@code quarkus.aesh.top-command} may name.
+     */
+    static void registerCommand(String name, Class<?> commandClass) {
+        COMMANDS.put(name, commandClass);
+    }
+
+    /**
+     * Builds the command runtime of the top command chosen at build time. Called during static
+     * init, after the CDI container has started.
+     */
+    static void prebuild() {
+        Class<?> commandClass = defaultTopCommand;
+        if (commandClass != null) {
+            prebuiltRuntime = buildRuntime(asCommand(lookup(commandClass)));
+        }
+    }
+
     @Override
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public AeshRuntimeRunner create() {
+        CommandRuntime<CommandInvocation> runtime = prebuiltRuntime;
+        if (runtime != null && configuration.topCommand().isEmpty()) {
+            // Used once: a second runner gets fresh command instances
+            prebuiltRuntime = null;
+            return AeshRuntimeRunner.builder().commandRuntime(runtime);
+        }
         Command<?> commandInstance = resolveTopCommand();
         if (commandInstance != null) {
-            // Build a command registry with the CDI-aware container builder
-            // so that sub-commands in @GroupCommandDefinition get CDI injection
-            AeshCommandRegistryBuilder<CommandInvocation> registryBuilder = AeshCommandRegistryBuilder
-                    .<CommandInvocation> builder();
-            registryBuilder.containerBuilder(new AeshCdiCommandContainerBuilder<>());
-            try {
-                registryBuilder.command((Command) commandInstance);
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to register command: " + commandInstance.getClass().getName(), e);
-            }
-
-            CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.<CommandInvocation> builder()
-                    .commandRegistry(registryBuilder.create())
-                    .build();
-
-            return AeshRuntimeRunner.builder().commandRuntime(runtime);
+            return AeshRuntimeRunner.builder().commandRuntime(buildRuntime(commandInstance));
         }
         throw new IllegalStateException(
                 "Unable to find top command. Please annotate a command class with @TopCommand or set quarkus.aesh.top-command property.");
     }
 
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static CommandRuntime<CommandInvocation> buildRuntime(Command<?> commandInstance) {
+        // Build a command registry with the CDI-aware container builder
+        // so that sub-commands in @GroupCommandDefinition get CDI injection
+        AeshCommandRegistryBuilder<CommandInvocation> registryBuilder = AeshCommandRegistryBuilder
+                .<CommandInvocation> builder();
+        registryBuilder.containerBuilder(new AeshCdiCommandContainerBuilder<>());
+        try {
+            registryBuilder.command((Command) commandInstance);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to register command: " + commandInstance.getClass().getName(), e);
+        }
+
+        return AeshCommandRuntimeBuilder.<CommandInvocation> builder()
+                .commandRegistry(registryBuilder.create())
+                .build();
+    }
+
     private Command<?> resolveTopCommand() {
         if (configuration.topCommand().isPresent()) {
             String topCommandName = configuration.topCommand().get();
-            Instance<Object> namedBean = topCommand.select(NamedLiteral.of(topCommandName));
-            if (namedBean.isResolvable()) {
-                return asCommand(namedBean.get());
-            }
-            try {
-                Class<?> commandClass = Thread.currentThread().getContextClassLoader().loadClass(topCommandName);
-                if (!Command.class.isAssignableFrom(commandClass)) {
-                    throw new IllegalStateException(
-                            "Top command must implement org.aesh.command.Command interface: " + topCommandName);
-                }
-                return (Command<?>) Arc.container().instance(commandClass).get();
-            } catch (IllegalStateException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new IllegalStateException("Unable to find or load top command: " + topCommandName, e);
+            Class<?> commandClass = COMMANDS.get(topCommandName);
+            if (commandClass == null) {
+                throw new IllegalStateException("Unable to find top command: " + topCommandName
+                        + ". Known commands: " + String.join(", ", new TreeMap<>(COMMANDS).keySet()));
             }
+            return asCommand(lookup(commandClass));
         }
+        Class<?> commandClass = defaultTopCommand;
+        if (commandClass != null) {
+            return asCommand(lookup(commandClass));
+        }
+        // Not registered at build time, e.g. a @TopCommand bean declared by a producer
         if (topCommand.isResolvable()) {
             return asCommand(topCommand.get());
         }
         return null;
     }
 
-    private Command<?> asCommand(Object bean) {
+    /**
+     * Returns the bean of a registered command class. Beans annotated with {@link TopCommand}
+     * only have that qualifier, so they are selected with it; other commands have the default
+     * qualifier.
+     */
+    private static Object lookup(Class<?> commandClass) {
+        InstanceHandle<?> bean = Arc.container().instance(commandClass, TopCommand.Literal.INSTANCE);
+        if (!bean.isAvailable()) {
+            bean = Arc.container().instance(commandClass);
+        }
+        if (!bean.isAvailable()) {
+            throw new IllegalStateException("Unable to find the bean of top command: " + commandClass.getName());
+        }
+        return bean.get();
+    }
+
+    private static Command<?> asCommand(Object bean) {
         if (!(bean instanceof Command)) {
             throw new IllegalStateException(
                     "Top command must implement org.aesh.command.Command interface: " + bean.getClass().getName());
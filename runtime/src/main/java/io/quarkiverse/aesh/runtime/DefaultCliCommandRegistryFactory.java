@@ -1,44 +1,103 @@
 package io.quarkiverse.aesh.runtime;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Instance;
 
 import org.aesh.command.Command;
 import org.aesh.command.impl.registry.AeshCommandRegistryBuilder;
 import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.util.ReflectionUtil;
 
 import io.quarkiverse.aesh.runtime.annotations.CliCommand;
 
 /**
  * Default implementation of CliCommandRegistryFactory that resolves commands from CDI.
  * It collects all beans annotated with @CliCommand and registers them in the command registry.
+ * <p>
+ * A registry is created for the local console and for every remote session. The CDI injection
+ * metadata of the classes aesh instantiates reflectively is resolved once and shared by all of
+ * them, so only the per-session command instances are created on each call.
+ * <p>
+ * Commands registered as lazy at build time are not created by CDI: aesh only needs an instance
+ * to read the command annotations, so they are instantiated reflectively and their
+ * {@code @Inject} fields are populated before their first execution. Registering a shell of
+ * many commands then does not create the beans of the commands that are never run.
+ * <p>
+ * The command instances created for a remote session are tracked by it, and destroyed with
+ * their {@code @Dependent} dependencies when the session closes.
  */
 @ApplicationScoped
 public class DefaultCliCommandRegistryFactory implements CliCommandRegistryFactory {
 
+    /**
+     * Command classes whose injection is deferred, registered at static init.
+     */
+    private static final Set<Class<?>> LAZY_COMMANDS = ConcurrentHashMap.newKeySet();
+
     private final Instance<Command<CommandInvocation>> commands;
+    private final AeshCommandInjector injector = new AeshCommandInjector();
 
     public DefaultCliCommandRegistryFactory(@CliCommand Instance<Command<CommandInvocation>> commands) {
         this.commands = commands;
     }
 
+    /**
+     * Declares a command class whose instances may be created reflectively and injected before
+     * their first execution.
+     */
+    static void registerLazyCommand(Class<?> commandClass) {
+        LAZY_COMMANDS.add(commandClass);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Registered again at static init
+        LAZY_COMMANDS.clear();
+    }
+
     @Override
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public AeshCommandRegistryBuilder<CommandInvocation> create() {
+        return create((AeshRemoteSession) null);
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public AeshCommandRegistryBuilder<CommandInvocation> create(AeshRemoteSession session) {
         AeshCommandRegistryBuilder<CommandInvocation> builder = AeshCommandRegistryBuilder.<CommandInvocation> builder();
-        builder.containerBuilder(new AeshCdiCommandContainerBuilder<>());
+        builder.containerBuilder(new AeshCdiCommandContainerBuilder<>(injector, session));
 
-        for (Command<CommandInvocation> command : commands) {
+        for (Instance.Handle<Command<CommandInvocation>> handle : commands.handles()) {
+            Class<?> beanClass = handle.getBean().getBeanClass();
             try {
                 // Register command instances directly to ensure CDI injection is available
-                builder.command(command);
+                builder.command(createCommand(handle, beanClass, session));
             } catch (Exception e) {
                 throw new RuntimeException(
-                        "Failed to register command: " + command.getClass().getName() + ": " + e.getMessage(),
+                        "Failed to register command: " + beanClass.getName() + ": " + e.getMessage(),
                         e);
             }
         }
 
         return builder;
     }
+
+    @SuppressWarnings("unchecked")
+    private static Command<CommandInvocation> createCommand(Instance.Handle<Command<CommandInvocation>> handle,
+            Class<?> beanClass, AeshRemoteSession session) {
+        if (LAZY_COMMANDS.contains(beanClass)) {
+            Command<CommandInvocation> command = (Command<CommandInvocation>) ReflectionUtil.newInstance(beanClass);
+            if (AeshCommandExecution.deferInjection(command)) {
+                return command;
+            }
+        }
+        Command<CommandInvocation> command = handle.get();
+        if (session != null) {
+            session.track(handle);
+        }
+        return command;
+    }
 }
@@ -0,0 +1,56 @@
+package io.quarkiverse.aesh.runtime;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+
+import io.smallrye.mutiny.Multi;
+
+/**
+ * A command whose output is a {@link Multi} of lines, printed as they arrive.
+ * <p>
+ * Each item is printed on its own line as soon as it is emitted, so long-running reports show
+ * their first rows right away. Lines are written through {@link CommandOutput}: they are
+ * requested a few at a time and written in chunks, so a fast source is slowed down to the speed
+ * of the terminal instead of being buffered. The command succeeds when the
+ * {@code Multi} completes and fails with its failure. When the command is interrupted, by
+ * Ctrl-C or a command timeout, the subscription is cancelled.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * &#64;CommandDefinition(name = "tail", description = "Follow the audit log")
+ * public class TailCommand implements StreamingCommand&lt;CommandInvocation&gt; {
+ *
+ *     &#64;Inject
+ *     AuditLog log;
+ *
+ *     &#64;Override
+ *     public Multi&lt;String&gt; stream(CommandInvocation invocation) {
+ *         return log.follow().map(AuditEntry::format);
+ *     }
+ * }
+ * </pre>
+ *
+ * @param <CI> the command invocation type
+ */
+public interface StreamingCommand<CI extends CommandInvocation> extends Command<CI> {
+
+    /**
+     * Starts the command.
+     *
+     * @param invocation the command invocation
+     * @return the lines to print
+     */
+    Multi<String> stream(CI invocation) throws CommandException;
+
+    /**
+     * Prints the lines of {@link #stream(CommandInvocation)} until it completes. Not meant to
+     * be overridden.
+     */
+    @Override
+    default CommandResult execute(CI invocation) throws CommandException, InterruptedException {
+        return AeshAsyncExecution.print(stream(invocation), invocation);
+    }
+}
@@ -28,4 +28,12 @@ public interface TransportSessionInfo {
      * Whether this transport is currently running and accepting connections.
      */
     boolean isRunning();
+
+    /**
+     * Traffic statistics of this transport and its open sessions, or {@code null} if the
+     * transport does not collect them.
+     */
+    default AeshTransportStats getStats() {
+        return null;
+    }
 }
@@ -0,0 +1,43 @@
+package io.quarkiverse.aesh.runtime.annotations;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import jakarta.enterprise.context.NormalScope;
+
+/**
+ * Scopes a bean to a terminal session: one instance is created per SSH or WebSocket session,
+ * shared by every command of the session, and destroyed when the session closes. The local
+ * console counts as a single session.
+ * <p>
+ * This suits state that is expensive to create and specific to a user, such as a database
+ * connection or an authentication token: it is neither shared between sessions, which would
+ * require locking, nor re-created for every command instance.
+ * <p>
+ * The context is active on the thread of a command while it executes. Using a session scoped
+ * bean anywhere else, e.g. from a completer or from a thread started by the command, throws
+ * {@link jakarta.enterprise.context.ContextNotActiveException}.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * &#64;AeshSessionScoped
+ * public class UserConnection {
+ *     // ...
+ * }
+ * </pre>
+ */
+@NormalScope
+@Inherited
+@Target({ TYPE, METHOD, FIELD })
+@Retention(RUNTIME)
+@Documented
+public @interface AeshSessionScoped {
+}
@@ -0,0 +1,46 @@
+package io.quarkiverse.aesh.runtime.annotations;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Limits how long a command may run in remote sessions, overriding
+ * {@code quarkus.aesh.command-timeout}.
+ * <p>
+ * When the timeout is exceeded, the thread running the command is interrupted, as it is when
+ * the user presses Ctrl-C. A command that does not stop within a few seconds of being
+ * interrupted has its session closed. Commands of the local console are never timed out.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * &#64;CommandDefinition(name = "export", description = "Export the database")
+ * &#64;CommandTimeout(value = 10, unit = ChronoUnit.MINUTES)
+ * public class ExportCommand implements Command&lt;CommandInvocation&gt; {
+ *     // ...
+ * }
+ * </pre>
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+@Documented
+@Inherited
+public @interface CommandTimeout {
+
+    /**
+     * The timeout, in {@link #unit()}. When 0 or negative, the command is never timed out,
+     * even if {@code quarkus.aesh.command-timeout} is set.
+     */
+    long value();
+
+    /**
+     * The unit of {@link #value()}.
+     */
+    ChronoUnit unit() default ChronoUnit.SECONDS;
+}
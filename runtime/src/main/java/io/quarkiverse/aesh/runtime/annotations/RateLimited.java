@@ -0,0 +1,70 @@
+package io.quarkiverse.aesh.runtime.annotations;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Limits how often a command may be executed in remote sessions. Commands extending an
+ * annotated command share its limit unless they declare their own.
+ * <p>
+ * The limit is a token bucket: up to {@link #burst()} executions are allowed at once, and the
+ * bucket refills at {@link #permitsPerSecond()}. Executions over the limit are not run; the
+ * user is shown {@code quarkus.aesh.rate-limit.message} instead and the command fails.
+ * The limit applies in addition to the global limits configured with
+ * {@code quarkus.aesh.rate-limit.*}. Commands of the local console are never limited.
+ * <p>
+ * Example usage:
+ *
+ * <pre>
+ * &#64;CommandDefinition(name = "reindex", description = "Rebuild the search index")
+ * &#64;RateLimited(permitsPerSecond = 0.1, burst = 1, scope = RateLimited.Scope.PRINCIPAL)
+ * public class ReindexCommand implements Command&lt;CommandInvocation&gt; {
+ *     // ...
+ * }
+ * </pre>
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+@Documented
+@Inherited
+public @interface RateLimited {
+
+    /**
+     * Sustained number of executions allowed per second. May be below 1, e.g. {@code 0.5} for
+     * one execution every two seconds.
+     */
+    double permitsPerSecond();
+
+    /**
+     * Number of executions allowed at once. When 0, defaults to {@code permitsPerSecond}
+     * rounded up, and at least 1.
+     */
+    int burst() default 0;
+
+    /**
+     * Who shares the limit.
+     */
+    Scope scope() default Scope.SESSION;
+
+    /**
+     * Who shares a rate limit.
+     */
+    enum Scope {
+
+        /**
+         * Each remote session has its own limit.
+         */
+        SESSION,
+
+        /**
+         * All sessions of the same authenticated principal share the limit. Sessions without
+         * a principal are limited individually.
+         */
+        PRINCIPAL
+    }
+}
@@ -9,6 +9,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+import jakarta.enterprise.util.AnnotationLiteral;
 import jakarta.inject.Qualifier;
 
 /**
@@ -19,4 +20,14 @@ import jakarta.inject.Qualifier;
 @Target({ FIELD, PARAMETER, TYPE, METHOD })
 @Retention(RetentionPolicy.RUNTIME)
 public @interface TopCommand {
+
+    /**
+     * Supports inline instantiation of the {@link TopCommand} qualifier.
+     */
+    final class Literal extends AnnotationLiteral<TopCommand> implements TopCommand {
+
+        public static final Literal INSTANCE = new Literal();
+
+        private static final long serialVersionUID = 1L;
+    }
 }
@@ -0,0 +1,334 @@
+package io.quarkiverse.aesh.runtime.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.URISyntaxException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import jdk.net.ExtendedSocketOptions;
+import jdk.net.UnixDomainPrincipal;
+
+/**
+ * The client of daemon mode: forwards its arguments, environment, working directory and
+ * standard streams to the {@link AeshDaemonServer} of the application, and exits with the exit
+ * status of the command. When no daemon is listening, it starts one in the background first.
+ * <p>
+ * The launcher only depends on the JDK and is meant to be run with the extension's runtime jar
+ * as its only class path entry, or compiled to a native executable, so that it starts far faster
+ * than the application:
+ *
+ * <pre>
+ * java -cp quarkus-app/lib/main/io.quarkiverse.aesh.quarkus-aesh-&lt;version&gt;.jar \
+ *     io.quarkiverse.aesh.runtime.daemon.AeshDaemonLauncher &lt;arguments&gt;
+ * </pre>
+ *
+ * It is configured with system properties, or the corresponding environment variables:
+ * <ul>
+ * <li>{@code aesh.daemon.socket} ({@code AESH_DAEMON_SOCKET}): the path of the socket. Defaults
+ * to {@link #defaultSocketPath()}.</li>
+ * <li>{@code aesh.daemon.jar} ({@code AESH_DAEMON_JAR}): the application jar the daemon is
+ * started from. Defaults to the {@code quarkus-run.jar} of the fast-jar this launcher belongs
+ * to, or to the uber-jar containing it.</li>
+ * <li>{@code aesh.daemon.java-options} ({@code AESH_DAEMON_JAVA_OPTIONS}): JVM options of the
+ * daemon, separated by spaces.</li>
+ * </ul>
+ * The daemon is started with {@code quarkus.aesh.daemon.enabled} and the socket path of the
+ * launcher, and writes its own output to the socket path followed by {@code .log}.
+ * <p>
+ * Before sending the invocation, which includes the environment of the launcher, the launcher
+ * checks that the daemon runs as the same user, on platforms that report the credentials of the
+ * peer.
+ */
+public final class AeshDaemonLauncher {
+
+    static final long START_TIMEOUT_MS = 60_000;
+    private static final long CONNECT_RETRY_MS = 20;
+    private static final Set<PosixFilePermission> GROUP_AND_OTHERS = EnumSet.of(
+            PosixFilePermission.GROUP_READ, PosixFilePermission.GROUP_WRITE, PosixFilePermission.GROUP_EXECUTE,
+            PosixFilePermission.OTHERS_READ, PosixFilePermission.OTHERS_WRITE, PosixFilePermission.OTHERS_EXECUTE);
+
+    private AeshDaemonLauncher() {
+    }
+
+    public static void main(String[] args) {
+        int status;
+        try {
+            Path socket = socketPath();
+            SocketChannel channel = tryConnect(socket);
+            if (channel == null) {
+                channel = startDaemon(socket);
+            }
+            AeshDaemonProtocol.Request request = new AeshDaemonProtocol.Request(Arrays.asList(args), System.getenv(),
+                    Path.of(System.getProperty("user.dir")));
+            status = invoke(channel, request, System.in, System.out, System.err);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            status = 1;
+        }
+        System.exit(status);
+    }
+
+    /**
+     * Forwards an invocation to the daemon connected to the channel, copying its output until
+     * the command completes, and closes the channel.
+     *
+     * @return the exit status of the command
+     * @throws IOException if the daemon runs as another user, or the connection failed
+     */
+    public static int invoke(SocketChannel channel, AeshDaemonProtocol.Request request, InputStream stdin,
+            OutputStream stdout, OutputStream stderr) throws IOException {
+        try (channel) {
+            checkPeer(channel);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(AeshDaemonProtocol.inputOf(channel)));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(AeshDaemonProtocol.outputOf(channel)));
+            request.writeTo(out);
+            out.flush();
+
+            Thread pump = new Thread(() -> pumpInput(stdin, out), "aesh-daemon-stdin");
+            pump.setDaemon(true);
+            pump.start();
+
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    throw new IOException("The aesh daemon closed the connection before the command completed");
+                }
+                byte[] payload = AeshDaemonProtocol.readPayload(in);
+                switch (type) {
+                    case AeshDaemonProtocol.STDOUT:
+                        stdout.write(payload);
+                        stdout.flush();
+                        break;
+                    case AeshDaemonProtocol.STDERR:
+                        stderr.write(payload);
+                        stderr.flush();
+                        break;
+                    case AeshDaemonProtocol.EXIT:
+                        return new DataInputStream(new ByteArrayInputStream(payload)).readInt();
+                    default:
+                        throw new IOException("Unexpected frame type '" + (char) type + "'");
+                }
+            }
+        }
+    }
+
+    /**
+     * Connects to the daemon listening on a socket.
+     *
+     * @return the connected channel, or {@code null} if no daemon is listening
+     */
+    static SocketChannel tryConnect(Path socket) {
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            return channel;
+        } catch (IOException e) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Nothing to release
+                }
+            }
+            return null;
+        }
+    }
+
+    private static SocketChannel startDaemon(Path socket) throws IOException {
+        Path jar = applicationJar();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String javaOptions = setting("aesh.daemon.java-options", "AESH_DAEMON_JAVA_OPTIONS");
+        if (javaOptions != null && !javaOptions.isBlank()) {
+            command.addAll(Arrays.asList(javaOptions.trim().split("\\s+")));
+        }
+        command.add("-Dquarkus.aesh.daemon.enabled=true");
+        command.add("-Dquarkus.aesh.daemon.socket-path=" + socket);
+        command.add("-jar");
+        command.add(jar.toString());
+
+        File log = new File(socket + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log))
+                .start();
+        process.getOutputStream().close();
+
+        long deadline = System.currentTimeMillis() + START_TIMEOUT_MS;
+        while (true) {
+            SocketChannel channel = tryConnect(socket);
+            if (channel != null) {
+                return channel;
+            }
+            if (!process.isAlive()) {
+                throw new IOException("The aesh daemon exited with status " + process.exitValue() + ", see " + log);
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IOException("The aesh daemon did not start within " + START_TIMEOUT_MS + "ms, see " + log);
+            }
+            try {
+                Thread.sleep(CONNECT_RETRY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while starting the aesh daemon");
+            }
+        }
+    }
+
+    private static void pumpInput(InputStream stdin, DataOutputStream out) {
+        byte[] buffer = new byte[8192];
+        try {
+            int count;
+            while ((count = stdin.read(buffer)) != -1) {
+                synchronized (out) {
+                    AeshDaemonProtocol.writeFrame(out, AeshDaemonProtocol.STDIN, buffer, count);
+                    out.flush();
+                }
+            }
+            synchronized (out) {
+                AeshDaemonProtocol.writeFrame(out, AeshDaemonProtocol.STDIN_END, buffer, 0);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The command completed without reading all of its input
+        }
+    }
+
+    /**
+     * Refuses to talk to a daemon running as another user, which could have bound the socket
+     * path first to collect the arguments and environment of the invocations.
+     */
+    private static void checkPeer(SocketChannel channel) throws IOException {
+        UnixDomainPrincipal peer;
+        try {
+            peer = channel.getOption(ExtendedSocketOptions.SO_PEERCRED);
+        } catch (UnsupportedOperationException e) {
+            // The socket is still in a directory only accessible to the user
+            return;
+        }
+        String user = System.getProperty("user.name");
+        if (!peer.user().getName().equals(user)) {
+            throw new IOException("The aesh daemon socket is served by user " + peer.user().getName()
+                    + " instead of " + user + ", refusing to forward the invocation");
+        }
+    }
+
+    static Path socketPath() throws IOException {
+        String socket = setting("aesh.daemon.socket", "AESH_DAEMON_SOCKET");
+        if (socket != null) {
+            return Path.of(socket);
+        }
+        return defaultSocketPath();
+    }
+
+    /**
+     * Returns the socket the launcher and the daemon use when none is configured: a file named
+     * after the application jar in the runtime directory of the user ({@code XDG_RUNTIME_DIR}),
+     * or else in the {@code aesh-<user>} directory of the temporary directory, which is created
+     * only accessible to the user.
+     *
+     * @throws IOException if the application jar cannot be located, or the directory is
+     *         accessible to other users
+     */
+    public static Path defaultSocketPath() throws IOException {
+        String name = "aesh-" + Integer.toHexString(applicationJar().toAbsolutePath().toString().hashCode()) + ".sock";
+        return socketDirectory().resolve(name);
+    }
+
+    private static Path socketDirectory() throws IOException {
+        String runtimeDirectory = System.getenv("XDG_RUNTIME_DIR");
+        if (runtimeDirectory != null && !runtimeDirectory.isEmpty() && Files.isDirectory(Path.of(runtimeDirectory))) {
+            return checkPrivate(Path.of(runtimeDirectory));
+        }
+        Path directory = Path.of(System.getProperty("java.io.tmpdir"), "aesh-" + System.getProperty("user.name"));
+        try {
+            Files.createDirectory(directory,
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+        } catch (FileAlreadyExistsException e) {
+            // Created by an earlier invocation, or by another user: checked below
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system
+            Files.createDirectories(directory);
+            return directory;
+        }
+        return checkPrivate(directory);
+    }
+
+    private static Path checkPrivate(Path directory) throws IOException {
+        PosixFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(directory, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (UnsupportedOperationException e) {
+            return directory;
+        }
+        String user = System.getProperty("user.name");
+        if (!attributes.isDirectory() || !attributes.owner().getName().equals(user)
+                || !Collections.disjoint(attributes.permissions(), GROUP_AND_OTHERS)) {
+            throw new IOException(directory + " is not a directory only accessible to " + user
+                    + ", set aesh.daemon.socket to a socket in a private directory");
+        }
+        return directory;
+    }
+
+    private static Path applicationJar() throws IOException {
+        String jar = setting("aesh.daemon.jar", "AESH_DAEMON_JAR");
+        if (jar != null) {
+            return Path.of(jar);
+        }
+        CodeSource codeSource = AeshDaemonLauncher.class.getProtectionDomain().getCodeSource();
+        if (codeSource == null) {
+            throw new IOException("Unable to locate the application jar, set aesh.daemon.jar");
+        }
+        Path location;
+        try {
+            location = Path.of(codeSource.getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Unable to locate the application jar, set aesh.daemon.jar", e);
+        }
+        // Fast-jar layout: quarkus-app/lib/main/<this jar> next to quarkus-app/quarkus-run.jar
+        Path libDirectory = location.getParent();
+        if (libDirectory != null && libDirectory.getParent() != null && libDirectory.getParent().getParent() != null) {
+            Path runJar = libDirectory.getParent().getParent().resolve("quarkus-run.jar");
+            if (Files.isRegularFile(runJar)) {
+                return runJar;
+            }
+        }
+        if (Files.isRegularFile(location) && location.toString().endsWith(".jar")) {
+            // Uber-jar
+            return location;
+        }
+        throw new IOException("Unable to locate the application jar, set aesh.daemon.jar");
+    }
+
+    private static String setting(String property, String environmentVariable) {
+        String value = System.getProperty(property);
+        return value != null ? value : System.getenv(environmentVariable);
+    }
+}
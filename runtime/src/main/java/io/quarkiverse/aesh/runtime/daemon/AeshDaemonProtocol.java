@@ -0,0 +1,326 @@
+package io.quarkiverse.aesh.runtime.daemon;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The protocol spoken over the Unix domain socket between {@link AeshDaemonLauncher} and
+ * {@link AeshDaemonServer}.
+ * <p>
+ * Each connection carries one invocation. The launcher first sends a {@link #REQUEST} frame
+ * with the arguments, the environment and the working directory, then the bytes of its standard
+ * input as {@link #STDIN} frames, ended by an empty {@link #STDIN_END} frame. The daemon sends
+ * the output of the command as {@link #STDOUT} and {@link #STDERR} frames, and finally an
+ * {@link #EXIT} frame with the exit status.
+ * <p>
+ * A frame is a type byte followed by the length of its payload, as a 4 byte integer, and the
+ * payload. Strings are encoded as their UTF-8 length followed by their UTF-8 bytes.
+ * <p>
+ * This class, like the launcher, only depends on the JDK, so that the launcher can run with
+ * nothing but this jar on its class path.
+ */
+public final class AeshDaemonProtocol {
+
+    public static final byte REQUEST = 'Q';
+    public static final byte STDIN = 'I';
+    public static final byte STDIN_END = 'N';
+    public static final byte STDOUT = 'O';
+    public static final byte STDERR = 'E';
+    public static final byte EXIT = 'X';
+
+    /**
+     * Largest payload accepted in a frame, to reject a peer that does not speak the protocol.
+     */
+    static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    private AeshDaemonProtocol() {
+    }
+
+    /**
+     * An invocation forwarded by the launcher.
+     */
+    public static final class Request {
+
+        private final List<String> arguments;
+        private final Map<String, String> environment;
+        private final Path workingDirectory;
+
+        public Request(List<String> arguments, Map<String, String> environment, Path workingDirectory) {
+            this.arguments = List.copyOf(arguments);
+            this.environment = Map.copyOf(environment);
+            this.workingDirectory = workingDirectory;
+        }
+
+        public List<String> getArguments() {
+            return arguments;
+        }
+
+        /**
+         * Returns the environment variables of the launcher.
+         */
+        public Map<String, String> getEnvironment() {
+            return environment;
+        }
+
+        /**
+         * Returns the working directory of the launcher.
+         */
+        public Path getWorkingDirectory() {
+            return workingDirectory;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream payload = new DataOutputStream(bytes);
+            writeString(payload, workingDirectory.toString());
+            payload.writeInt(arguments.size());
+            for (String argument : arguments) {
+                writeString(payload, argument);
+            }
+            payload.writeInt(environment.size());
+            for (Map.Entry<String, String> variable : environment.entrySet()) {
+                writeString(payload, variable.getKey());
+                writeString(payload, variable.getValue());
+            }
+            payload.flush();
+            writeFrame(out, REQUEST, bytes.toByteArray(), bytes.size());
+        }
+
+        static Request readFrom(DataInputStream in) throws IOException {
+            byte[] payload = readFrame(in, REQUEST);
+            DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+            Path workingDirectory = Path.of(readString(data));
+            int argumentCount = data.readInt();
+            String[] arguments = new String[argumentCount];
+            for (int i = 0; i < argumentCount; i++) {
+                arguments[i] = readString(data);
+            }
+            int variableCount = data.readInt();
+            Map<String, String> environment = new LinkedHashMap<>();
+            for (int i = 0; i < variableCount; i++) {
+                environment.put(readString(data), readString(data));
+            }
+            return new Request(List.of(arguments), environment, workingDirectory);
+        }
+    }
+
+    /**
+     * Returns an input stream reading from a connected socket channel.
+     * <p>
+     * Unlike {@link java.nio.channels.Channels#newInputStream}, a read blocked on the stream does
+     * not prevent another thread from writing to the channel.
+     */
+    static InputStream inputOf(SocketChannel channel) {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+                int count;
+                do {
+                    count = channel.read(ByteBuffer.wrap(b, off, len));
+                } while (count == 0);
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Returns an output stream writing to a connected socket channel.
+     *
+     * @see #inputOf(SocketChannel)
+     */
+    static OutputStream outputOf(SocketChannel channel) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        };
+    }
+
+    static void writeFrame(DataOutputStream out, byte type, byte[] payload, int length) throws IOException {
+        out.writeByte(type);
+        out.writeInt(length);
+        out.write(payload, 0, length);
+    }
+
+    static void writeExit(DataOutputStream out, int status) throws IOException {
+        out.writeByte(EXIT);
+        out.writeInt(4);
+        out.writeInt(status);
+        out.flush();
+    }
+
+    /**
+     * Reads a frame of the expected type and returns its payload.
+     */
+    static byte[] readFrame(DataInputStream in, byte expectedType) throws IOException {
+        byte type = in.readByte();
+        if (type != expectedType) {
+            throw new IOException("Unexpected frame type '" + (char) type + "', expected '" + (char) expectedType + "'");
+        }
+        return readPayload(in);
+    }
+
+    static byte[] readPayload(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_LENGTH) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return payload;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_LENGTH) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * An output stream sending what is written to it as frames of a type.
+     */
+    static final class FrameOutputStream extends OutputStream {
+
+        private final DataOutputStream out;
+        private final byte type;
+
+        FrameOutputStream(DataOutputStream out, byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            // Both output streams of the daemon share the socket
+            synchronized (out) {
+                out.writeByte(type);
+                out.writeInt(len);
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (out) {
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * An input stream reading the {@link #STDIN} frames of the launcher, until {@link #STDIN_END}.
+     * Frames are only read when the command reads its input.
+     */
+    static final class FrameInputStream extends InputStream {
+
+        private final DataInputStream in;
+        private byte[] frame = new byte[0];
+        private int position;
+        private boolean ended;
+
+        FrameInputStream(DataInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return frame[position++] & 0xff;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(len, frame.length - position);
+            System.arraycopy(frame, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public synchronized int available() {
+            return frame.length - position;
+        }
+
+        private boolean fill() throws IOException {
+            while (position == frame.length) {
+                if (ended) {
+                    return false;
+                }
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    ended = true;
+                    return false;
+                }
+                byte[] payload = readPayload(in);
+                if (type == STDIN_END) {
+                    ended = true;
+                } else if (type == STDIN) {
+                    frame = payload;
+                    position = 0;
+                } else {
+                    throw new IOException("Unexpected frame type '" + (char) type + "'");
+                }
+            }
+            return true;
+        }
+    }
+}
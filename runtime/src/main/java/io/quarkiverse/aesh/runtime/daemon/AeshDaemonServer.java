@@ -0,0 +1,284 @@
+package io.quarkiverse.aesh.runtime.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.aesh.AeshRuntimeRunner;
+import org.jboss.logging.Logger;
+
+import io.quarkiverse.aesh.runtime.AeshRunner;
+import jdk.net.ExtendedSocketOptions;
+import jdk.net.UnixDomainPrincipal;
+
+/**
+ * Keeps a runtime mode application up and executes the command lines forwarded by
+ * {@link AeshDaemonLauncher} over a Unix domain socket, so that each invocation reuses the
+ * started application, its warm command runtimes and its JIT-compiled code instead of booting a
+ * JVM.
+ * <p>
+ * Each invocation is executed on its own thread, by a runner that no other invocation uses at
+ * the same time, so that a command waiting for its input does not hold up the others. A client
+ * must send its request within {@value #REQUEST_TIMEOUT_MS}ms of connecting. While the daemon
+ * runs, {@code System.in}, {@code System.out} and {@code System.err} are redirected to the
+ * launcher of the invocation the calling thread executes, and its arguments, environment and
+ * working directory are available from {@link #currentRequest()}. The JVM's own environment and
+ * working directory cannot change, so commands that depend on them should read them from the
+ * request.
+ * <p>
+ * The socket file is only readable and writable by its owner, and on platforms that report the
+ * credentials of the peer, connections from other users are refused. The daemon stops after
+ * the configured idle timeout, and removes its socket file.
+ */
+public final class AeshDaemonServer implements Closeable {
+
+    static final long REQUEST_TIMEOUT_MS = 10_000;
+
+    private static final Logger LOG = Logger.getLogger(AeshDaemonServer.class);
+
+    private final Supplier<AeshRuntimeRunner> runnerFactory;
+    private final Queue<AeshRuntimeRunner> idleRunners = new ConcurrentLinkedQueue<>();
+    private final Path socketPath;
+    private final long idleTimeoutMs;
+    private final Set<Thread> invocations = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger invocationCount = new AtomicInteger();
+    private volatile long lastInvocation;
+    private volatile ServerSocketChannel server;
+    private volatile Selector selector;
+    private volatile ScheduledExecutorService requestTimeouts;
+    private volatile boolean closed;
+
+    /**
+     * @param runner the runner executing the forwarded command lines, reused by the invocations
+     *        that do not run concurrently with another one
+     * @param runnerFactory creates the additional runners of concurrent invocations
+     * @param socketPath the path of the socket to listen on
+     * @param idleTimeout the time without invocations after which the daemon stops, or zero
+     */
+    public AeshDaemonServer(AeshRuntimeRunner runner, Supplier<AeshRuntimeRunner> runnerFactory, Path socketPath,
+            Duration idleTimeout) {
+        this.idleRunners.add(runner);
+        this.runnerFactory = runnerFactory;
+        this.socketPath = socketPath;
+        this.idleTimeoutMs = idleTimeout.toMillis();
+    }
+
+    /**
+     * Returns the invocation executed by the calling thread, or by the command that started it,
+     * or {@code null} if the application does not run as a daemon or the thread does not
+     * execute an invocation.
+     */
+    public static AeshDaemonProtocol.Request currentRequest() {
+        AeshDaemonStreams.Invocation invocation = AeshDaemonStreams.current();
+        return invocation != null ? invocation.request : null;
+    }
+
+    /**
+     * Listens on the socket and executes invocations until the idle timeout expires or the
+     * server is closed, then waits for the invocations being executed.
+     *
+     * @return the exit status of the daemon
+     */
+    public int run() throws IOException {
+        bind();
+        LOG.infof("Aesh daemon listening on %s", socketPath);
+        AeshDaemonStreams streams = AeshDaemonStreams.install();
+        requestTimeouts = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "aesh-daemon-request-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (Selector s = Selector.open()) {
+            selector = s;
+            server.configureBlocking(false);
+            server.register(s, SelectionKey.OP_ACCEPT);
+            lastInvocation = System.currentTimeMillis();
+            while (!closed) {
+                long timeout = 0;
+                if (idleTimeoutMs > 0) {
+                    timeout = idleTimeoutMs;
+                    if (invocations.isEmpty()) {
+                        timeout = lastInvocation + idleTimeoutMs - System.currentTimeMillis();
+                        if (timeout <= 0) {
+                            LOG.infof("Stopping idle aesh daemon (timeout: %dms)", idleTimeoutMs);
+                            break;
+                        }
+                    }
+                }
+                s.select(timeout);
+                s.selectedKeys().clear();
+                SocketChannel client;
+                while (!closed && (client = server.accept()) != null) {
+                    start(client);
+                }
+            }
+        } finally {
+            close();
+            awaitInvocations();
+            requestTimeouts.shutdownNow();
+            streams.restore();
+        }
+        return 0;
+    }
+
+    /**
+     * Stops listening and removes the socket file. The invocations being executed complete.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Selector s = selector;
+        if (s != null) {
+            s.wakeup();
+        }
+        ServerSocketChannel channel = server;
+        if (channel != null) {
+            try {
+                channel.close();
+                Files.deleteIfExists(socketPath);
+            } catch (IOException e) {
+                LOG.debugf(e, "Failed to close the aesh daemon socket %s", socketPath);
+            }
+        }
+    }
+
+    private void bind() throws IOException {
+        if (Files.exists(socketPath)) {
+            SocketChannel probe = AeshDaemonLauncher.tryConnect(socketPath);
+            if (probe != null) {
+                probe.close();
+                throw new IOException("Another aesh daemon is listening on " + socketPath);
+            }
+            // Left behind by a daemon that did not stop cleanly
+            Files.delete(socketPath);
+        }
+        Path parent = socketPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.bind(UnixDomainSocketAddress.of(socketPath));
+        server = channel;
+        try {
+            Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system: the peer credentials are still checked where supported
+        }
+    }
+
+    private void start(SocketChannel client) {
+        Thread thread = new Thread(() -> serve(client), "aesh-daemon-invocation-" + invocationCount.incrementAndGet());
+        thread.setDaemon(true);
+        invocations.add(thread);
+        thread.start();
+    }
+
+    private void awaitInvocations() {
+        for (Thread thread : invocations) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void serve(SocketChannel client) {
+        try (client) {
+            client.configureBlocking(true);
+            if (!isSameUser(client)) {
+                LOG.warnf("Refused aesh daemon connection from another user on %s", socketPath);
+                return;
+            }
+            DataInputStream in = new DataInputStream(new BufferedInputStream(AeshDaemonProtocol.inputOf(client)));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(AeshDaemonProtocol.outputOf(client)));
+            AeshDaemonProtocol.Request request = readRequest(client, in);
+            int status = execute(request, in, out);
+            synchronized (out) {
+                AeshDaemonProtocol.writeExit(out, status);
+            }
+        } catch (IOException e) {
+            LOG.debugf(e, "Aesh daemon invocation failed");
+        } finally {
+            lastInvocation = System.currentTimeMillis();
+            invocations.remove(Thread.currentThread());
+            Selector s = selector;
+            if (s != null) {
+                // Restarts the idle timeout
+                s.wakeup();
+            }
+        }
+    }
+
+    private AeshDaemonProtocol.Request readRequest(SocketChannel client, DataInputStream in) throws IOException {
+        // A client that connects and never sends its request must not keep a thread forever
+        ScheduledFuture<?> timeout = requestTimeouts.schedule(() -> {
+            try {
+                client.close();
+            } catch (IOException e) {
+                // Nothing to release
+            }
+        }, REQUEST_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        try {
+            return AeshDaemonProtocol.Request.readFrom(in);
+        } finally {
+            timeout.cancel(false);
+        }
+    }
+
+    private int execute(AeshDaemonProtocol.Request request, DataInputStream in, DataOutputStream out) {
+        PrintStream stdout = new PrintStream(new AeshDaemonProtocol.FrameOutputStream(out, AeshDaemonProtocol.STDOUT),
+                true);
+        PrintStream stderr = new PrintStream(new AeshDaemonProtocol.FrameOutputStream(out, AeshDaemonProtocol.STDERR),
+                true);
+        AeshDaemonStreams.Invocation invocation = new AeshDaemonStreams.Invocation(request,
+                new AeshDaemonProtocol.FrameInputStream(in), stdout, stderr);
+        AeshRuntimeRunner runner = idleRunners.poll();
+        if (runner == null) {
+            runner = runnerFactory.get();
+        }
+        invocation.bind();
+        try {
+            return AeshRunner.execute(runner, request.getArguments().toArray(String[]::new));
+        } finally {
+            invocation.end();
+            idleRunners.add(runner);
+        }
+    }
+
+    private boolean isSameUser(SocketChannel client) throws IOException {
+        UnixDomainPrincipal peer;
+        try {
+            peer = client.getOption(ExtendedSocketOptions.SO_PEERCRED);
+        } catch (UnsupportedOperationException e) {
+            return true;
+        }
+        // The socket file is owned by the user running the daemon
+        return peer.user().getName().equals(Files.getOwner(socketPath).getName());
+    }
+}
@@ -0,0 +1,335 @@
+package io.quarkiverse.aesh.runtime.daemon;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * The standard streams of a running daemon. {@code System.in}, {@code System.out} and
+ * {@code System.err} are replaced once by streams that route each thread to the launcher of the
+ * invocation it executes, so that concurrent invocations each read and write their own launcher.
+ * <p>
+ * Threads started by a command inherit its invocation, and use the streams the daemon was
+ * started with once the invocation completed. Other threads always use those streams.
+ */
+final class AeshDaemonStreams {
+
+    private static final InheritableThreadLocal<Invocation> CURRENT = new InheritableThreadLocal<>();
+
+    private final InputStream previousIn;
+    private final PrintStream previousOut;
+    private final PrintStream previousErr;
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+
+    private AeshDaemonStreams() {
+        previousIn = System.in;
+        previousOut = System.out;
+        previousErr = System.err;
+        in = new Input(previousIn);
+        out = new Output(previousOut, invocation -> invocation.out);
+        err = new Output(previousErr, invocation -> invocation.err);
+    }
+
+    /**
+     * Replaces the standard streams until {@link #restore()}.
+     */
+    static AeshDaemonStreams install() {
+        AeshDaemonStreams streams = new AeshDaemonStreams();
+        System.setIn(streams.in);
+        System.setOut(streams.out);
+        System.setErr(streams.err);
+        return streams;
+    }
+
+    /**
+     * Restores the standard streams, unless they were replaced again since.
+     */
+    void restore() {
+        if (System.in == in) {
+            System.setIn(previousIn);
+        }
+        if (System.out == out) {
+            System.setOut(previousOut);
+        }
+        if (System.err == err) {
+            System.setErr(previousErr);
+        }
+    }
+
+    /**
+     * Returns the invocation executed by the current thread, or {@code null}.
+     */
+    static Invocation current() {
+        Invocation invocation = CURRENT.get();
+        return invocation != null && invocation.active ? invocation : null;
+    }
+
+    /**
+     * The request and the standard streams of an invocation.
+     */
+    static final class Invocation {
+
+        final AeshDaemonProtocol.Request request;
+        final InputStream in;
+        final PrintStream out;
+        final PrintStream err;
+        private volatile boolean active = true;
+
+        Invocation(AeshDaemonProtocol.Request request, InputStream in, PrintStream out, PrintStream err) {
+            this.request = request;
+            this.in = in;
+            this.out = out;
+            this.err = err;
+        }
+
+        /**
+         * Routes the standard streams of the current thread, and of the threads it starts, to
+         * the invocation until {@link #end()}.
+         */
+        void bind() {
+            CURRENT.set(this);
+        }
+
+        void end() {
+            active = false;
+            CURRENT.remove();
+            out.flush();
+            err.flush();
+        }
+    }
+
+    private static final class Input extends InputStream {
+
+        private final InputStream fallback;
+
+        Input(InputStream fallback) {
+            this.fallback = fallback;
+        }
+
+        private InputStream target() {
+            Invocation invocation = current();
+            return invocation != null ? invocation.in : fallback;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return target().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return target().read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return target().available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            Invocation invocation = current();
+            if (invocation != null) {
+                invocation.in.close();
+            }
+        }
+    }
+
+    /**
+     * Every method delegates without taking the lock of this stream, so a launcher that is slow
+     * to read its output only blocks the command writing to it.
+     */
+    private static final class Output extends PrintStream {
+
+        private final PrintStream fallback;
+        private final Function<Invocation, PrintStream> stream;
+
+        Output(PrintStream fallback, Function<Invocation, PrintStream> stream) {
+            super(fallback, true);
+            this.fallback = fallback;
+            this.stream = stream;
+        }
+
+        private PrintStream target() {
+            Invocation invocation = current();
+            return invocation != null ? stream.apply(invocation) : fallback;
+        }
+
+        @Override
+        public void write(int b) {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] buf, int off, int len) {
+            target().write(buf, off, len);
+        }
+
+        @Override
+        public void write(byte[] buf) throws IOException {
+            target().write(buf);
+        }
+
+        @Override
+        public void writeBytes(byte[] buf) {
+            target().writeBytes(buf);
+        }
+
+        @Override
+        public void flush() {
+            target().flush();
+        }
+
+        @Override
+        public void close() {
+            // Shared by all invocations: closing it would end the output of the others
+            target().flush();
+        }
+
+        @Override
+        public boolean checkError() {
+            return target().checkError();
+        }
+
+        @Override
+        public void print(boolean b) {
+            target().print(b);
+        }
+
+        @Override
+        public void print(char c) {
+            target().print(c);
+        }
+
+        @Override
+        public void print(int i) {
+            target().print(i);
+        }
+
+        @Override
+        public void print(long l) {
+            target().print(l);
+        }
+
+        @Override
+        public void print(float f) {
+            target().print(f);
+        }
+
+        @Override
+        public void print(double d) {
+            target().print(d);
+        }
+
+        @Override
+        public void print(char[] s) {
+            target().print(s);
+        }
+
+        @Override
+        public void print(String s) {
+            target().print(s);
+        }
+
+        @Override
+        public void print(Object obj) {
+            target().print(obj);
+        }
+
+        @Override
+        public void println() {
+            target().println();
+        }
+
+        @Override
+        public void println(boolean x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(char x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(int x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(long x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(float x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(double x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(char[] x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(String x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(Object x) {
+            target().println(x);
+        }
+
+        @Override
+        public PrintStream printf(String format, Object... args) {
+            target().printf(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream printf(Locale l, String format, Object... args) {
+            target().printf(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(String format, Object... args) {
+            target().format(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(Locale l, String format, Object... args) {
+            target().format(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(CharSequence csq) {
+            target().append(csq);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(CharSequence csq, int start, int end) {
+            target().append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(char c) {
+            target().append(c);
+            return this;
+        }
+    }
+}
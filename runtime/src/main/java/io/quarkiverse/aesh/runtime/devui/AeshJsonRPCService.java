@@ -9,7 +9,10 @@ import jakarta.enterprise.inject.Instance;
 
 import io.quarkiverse.aesh.runtime.AeshCommandMetadata;
 import io.quarkiverse.aesh.runtime.AeshContext;
+import io.quarkiverse.aesh.runtime.AeshOptionMetadata;
 import io.quarkiverse.aesh.runtime.AeshSessionEvent;
+import io.quarkiverse.aesh.runtime.AeshSessionStats;
+import io.quarkiverse.aesh.runtime.AeshTransportStats;
 import io.quarkiverse.aesh.runtime.SessionClosed;
 import io.quarkiverse.aesh.runtime.SessionOpened;
 import io.quarkiverse.aesh.runtime.TransportSessionInfo;
@@ -72,16 +75,43 @@ public class AeshJsonRPCService {
         JsonObject result = new JsonObject();
 
         JsonArray transportArray = new JsonArray();
+        JsonArray sessionArray = new JsonArray();
         if (transports.isResolvable()) {
             for (TransportSessionInfo transport : transports) {
-                transportArray.add(new JsonObject()
+                JsonObject transportJson = new JsonObject()
                         .put("name", transport.getTransportName())
                         .put("active", transport.getActiveSessionCount())
                         .put("max", transport.getMaxSessions())
-                        .put("running", transport.isRunning()));
+                        .put("running", transport.isRunning());
+                AeshTransportStats stats = transport.getStats();
+                if (stats != null) {
+                    transportJson
+                            .put("bytesIn", stats.getBytesIn())
+                            .put("bytesOut", stats.getBytesOut())
+                            .put("framesIn", stats.getFramesIn())
+                            .put("framesOut", stats.getFramesOut())
+                            .put("queueDepth", stats.getQueueDepth())
+                            .put("echoMeanMs", toMillis(stats.getEchoMeanNanos()))
+                            .put("echoMaxMs", toMillis(stats.getEchoMaxNanos()));
+                    for (AeshSessionStats session : stats.getSessions()) {
+                        sessionArray.add(new JsonObject()
+                                .put("sessionId", session.getSessionId())
+                                .put("transport", session.getTransport())
+                                .put("openedAt", session.getOpenedAt().toString())
+                                .put("bytesIn", session.getBytesIn())
+                                .put("bytesOut", session.getBytesOut())
+                                .put("framesIn", session.getFramesIn())
+                                .put("framesOut", session.getFramesOut())
+                                .put("queueDepth", session.getQueueDepth())
+                                .put("echoMeanMs", toMillis(session.getEchoMeanNanos()))
+                                .put("echoMaxMs", toMillis(session.getEchoMaxNanos())));
+                    }
+                }
+                transportArray.add(transportJson);
             }
         }
         result.put("transports", transportArray);
+        result.put("sessions", sessionArray);
 
         JsonArray logArray;
         synchronized (eventLog) {
@@ -92,6 +122,10 @@ public class AeshJsonRPCService {
         return result;
     }
 
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
     /**
      * Streams session lifecycle events in real-time.
      */
@@ -123,6 +157,20 @@ public class AeshJsonRPCService {
                     cmdJson.put("subCommands", new JsonArray(cmd.getSubCommandClassNames()));
                 }
 
+                if (cmd.getOptions() != null && !cmd.getOptions().isEmpty()) {
+                    JsonArray optionsArray = new JsonArray();
+                    for (AeshOptionMetadata option : cmd.getOptions()) {
+                        optionsArray.add(new JsonObject()
+                                .put("kind", option.getKind().name())
+                                .put("field", option.getFieldName())
+                                .put("name", option.getName())
+                                .put("shortName", option.getShortName())
+                                .put("description", option.getDescription())
+                                .put("required", option.isRequired()));
+                    }
+                    cmdJson.put("options", optionsArray);
+                }
+
                 commandsArray.add(cmdJson);
             }
             result.put("commands", commandsArray);
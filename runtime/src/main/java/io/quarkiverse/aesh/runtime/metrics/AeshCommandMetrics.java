@@ -0,0 +1,118 @@
+package io.quarkiverse.aesh.runtime.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkiverse.aesh.runtime.AeshCommandExecution;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Publishes command executions reported by {@link AeshCommandExecution} as Micrometer meters:
+ * <ul>
+ * <li>{@code aesh.command.duration} - timer with p50 and p99, tagged by {@code command},
+ * {@code transport} and {@code outcome}</li>
+ * <li>{@code aesh.command.executions} - counter tagged by {@code command}, {@code transport}
+ * and {@code outcome} ({@code success} or {@code failure})</li>
+ * <li>{@code aesh.command.parse.errors} - counter tagged by {@code transport}</li>
+ * <li>{@code aesh.command.throttled} - counter of executions refused by a rate limit, tagged by
+ * {@code command}, {@code transport} and {@code scope} ({@code session} or {@code principal})</li>
+ * <li>{@code aesh.command.timeouts} - counter of executions interrupted by a timeout, tagged by
+ * {@code command} and {@code transport}</li>
+ * </ul>
+ * Only registered when the micrometer extension is present.
+ */
+@ApplicationScoped
+public class AeshCommandMetrics implements AeshCommandExecution.Listener {
+
+    private static final String SUCCESS = "success";
+    private static final String FAILURE = "failure";
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> parseErrors = new ConcurrentHashMap<>();
+    private final Map<String, Counter> throttled = new ConcurrentHashMap<>();
+    private final Map<String, Counter> timeouts = new ConcurrentHashMap<>();
+
+    void onStart(@Observes StartupEvent event) {
+        AeshCommandExecution.setListener(this);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        AeshCommandExecution.setListener(null);
+    }
+
+    @Override
+    public void executed(String command, String transport, long durationNanos, boolean success) {
+        String outcome = success ? SUCCESS : FAILURE;
+        Meters m = meters.computeIfAbsent(command + '\0' + transport + '\0' + outcome,
+                k -> new Meters(registry, command, transport, outcome));
+        m.duration.record(durationNanos, TimeUnit.NANOSECONDS);
+        m.executions.increment();
+    }
+
+    @Override
+    public void parseFailed(String transport) {
+        parseErrors.computeIfAbsent(transport, t -> Counter.builder("aesh.command.parse.errors")
+                .description("Command lines that could not be parsed")
+                .tag("transport", t)
+                .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void throttled(String command, String transport, String scope) {
+        throttled.computeIfAbsent(command + '\0' + transport + '\0' + scope,
+                k -> Counter.builder("aesh.command.throttled")
+                        .description("Command executions refused by a rate limit")
+                        .tag("command", command)
+                        .tag("transport", transport)
+                        .tag("scope", scope)
+                        .register(registry))
+                .increment();
+    }
+
+    @Override
+    public void timedOut(String command, String transport) {
+        timeouts.computeIfAbsent(command + '\0' + transport,
+                k -> Counter.builder("aesh.command.timeouts")
+                        .description("Command executions interrupted by a timeout")
+                        .tag("command", command)
+                        .tag("transport", transport)
+                        .register(registry))
+                .increment();
+    }
+
+    private static final class Meters {
+
+        final Timer duration;
+        final Counter executions;
+
+        Meters(MeterRegistry registry, String command, String transport, String outcome) {
+            this.duration = Timer.builder("aesh.command.duration")
+                    .description("Execution time of aesh commands")
+                    .tag("command", command)
+                    .tag("transport", transport)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+            this.executions = Counter.builder("aesh.command.executions")
+                    .description("Executions of aesh commands")
+                    .tag("command", command)
+                    .tag("transport", transport)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
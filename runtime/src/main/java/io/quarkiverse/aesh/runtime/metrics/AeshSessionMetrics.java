@@ -0,0 +1,123 @@
+package io.quarkiverse.aesh.runtime.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.quarkiverse.aesh.runtime.AeshAdmissionController;
+import io.quarkiverse.aesh.runtime.AeshTransportStats;
+import io.quarkiverse.aesh.runtime.TransportSessionInfo;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Publishes the traffic statistics of the remote transports as Micrometer meters, all tagged
+ * by {@code transport}:
+ * <ul>
+ * <li>{@code aesh.session.active} - open sessions</li>
+ * <li>{@code aesh.session.bytes} / {@code aesh.session.frames} - traffic, tagged by
+ * {@code direction} ({@code in} or {@code out})</li>
+ * <li>{@code aesh.session.queue.depth} - bytes of output waiting to be sent</li>
+ * <li>{@code aesh.session.echo.latency.mean} / {@code .max} - time from client input to the
+ * first output written after it</li>
+ * </ul>
+ * Admission control is published without a transport tag:
+ * <ul>
+ * <li>{@code aesh.admission.queue.depth} - sessions waiting for a slot</li>
+ * <li>{@code aesh.admission.wait} - time spent in the queue by admitted sessions</li>
+ * <li>{@code aesh.admission.rejected} - rejected sessions, tagged by {@code reason}
+ * ({@code queue-full} or {@code timeout})</li>
+ * </ul>
+ * The meters read the statistics when they are scraped. Only registered when the micrometer
+ * extension is present.
+ */
+@ApplicationScoped
+public class AeshSessionMetrics {
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Instance<TransportSessionInfo> transports;
+
+    @Inject
+    Instance<AeshAdmissionController> admission;
+
+    void onStart(@Observes StartupEvent event) {
+        if (admission.isResolvable()) {
+            register(admission.get());
+        }
+        for (TransportSessionInfo transport : transports) {
+            AeshTransportStats stats = transport.getStats();
+            if (stats != null) {
+                register(transport, stats);
+            }
+        }
+    }
+
+    private void register(TransportSessionInfo transport, AeshTransportStats stats) {
+        String name = transport.getTransportName();
+        Gauge.builder("aesh.session.active", transport, TransportSessionInfo::getActiveSessionCount)
+                .description("Open remote sessions")
+                .tag("transport", name)
+                .register(registry);
+        FunctionCounter.builder("aesh.session.bytes", stats, AeshTransportStats::getBytesIn)
+                .description("Bytes received from and sent to remote terminals")
+                .baseUnit("bytes")
+                .tags("transport", name, "direction", "in")
+                .register(registry);
+        FunctionCounter.builder("aesh.session.bytes", stats, AeshTransportStats::getBytesOut)
+                .description("Bytes received from and sent to remote terminals")
+                .baseUnit("bytes")
+                .tags("transport", name, "direction", "out")
+                .register(registry);
+        FunctionCounter.builder("aesh.session.frames", stats, AeshTransportStats::getFramesIn)
+                .description("Frames received from and sent to remote terminals")
+                .tags("transport", name, "direction", "in")
+                .register(registry);
+        FunctionCounter.builder("aesh.session.frames", stats, AeshTransportStats::getFramesOut)
+                .description("Frames received from and sent to remote terminals")
+                .tags("transport", name, "direction", "out")
+                .register(registry);
+        Gauge.builder("aesh.session.queue.depth", stats, AeshTransportStats::getQueueDepth)
+                .description("Bytes of terminal output waiting to be sent")
+                .baseUnit("bytes")
+                .tag("transport", name)
+                .register(registry);
+        TimeGauge.builder("aesh.session.echo.latency.mean", stats, TimeUnit.NANOSECONDS,
+                AeshTransportStats::getEchoMeanNanos)
+                .description("Mean time from terminal input to the first output written after it")
+                .tag("transport", name)
+                .register(registry);
+        TimeGauge.builder("aesh.session.echo.latency.max", stats, TimeUnit.NANOSECONDS,
+                AeshTransportStats::getEchoMaxNanos)
+                .description("Maximum time from terminal input to the first output written after it")
+                .tag("transport", name)
+                .register(registry);
+    }
+
+    private void register(AeshAdmissionController controller) {
+        Gauge.builder("aesh.admission.queue.depth", controller, AeshAdmissionController::getQueueDepth)
+                .description("Remote sessions waiting for a free slot")
+                .register(registry);
+        FunctionTimer.builder("aesh.admission.wait", controller, AeshAdmissionController::getAdmittedAfterWait,
+                AeshAdmissionController::getTotalWaitNanos, TimeUnit.NANOSECONDS)
+                .description("Time remote sessions waited for a free slot before being admitted")
+                .register(registry);
+        FunctionCounter.builder("aesh.admission.rejected", controller, AeshAdmissionController::getRejectedQueueFull)
+                .description("Remote sessions rejected by admission control")
+                .tag("reason", AeshAdmissionController.QUEUE_FULL)
+                .register(registry);
+        FunctionCounter.builder("aesh.admission.rejected", controller, AeshAdmissionController::getRejectedTimeout)
+                .description("Remote sessions rejected by admission control")
+                .tag("reason", AeshAdmissionController.TIMEOUT)
+                .register(registry);
+    }
+}
@@ -21,7 +21,7 @@ class AeshSshProcessor {
 
     @BuildStep
     AeshRemoteTransportBuildItem remoteTransport() {
-        return new AeshRemoteTransportBuildItem("ssh");
+        return new AeshRemoteTransportBuildItem("ssh", "quarkus.aesh.ssh.max-connections");
     }
 
     @BuildStep
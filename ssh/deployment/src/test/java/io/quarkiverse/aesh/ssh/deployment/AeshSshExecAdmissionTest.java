@@ -0,0 +1,131 @@
+package io.quarkiverse.aesh.ssh.deployment;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.apache.sshd.client.SshClient;
+import org.apache.sshd.client.channel.ChannelExec;
+import org.apache.sshd.client.channel.ClientChannelEvent;
+import org.apache.sshd.client.session.ClientSession;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Verifies that SSH exec requests are admitted like interactive sessions: a request over
+ * {@code quarkus.aesh.ssh.max-connections} is rejected, and the slot of a completed request is
+ * released.
+ */
+public class AeshSshExecAdmissionTest {
+
+    private static final int SSH_PORT = 12231;
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(HelloCommand.class, BlockCommand.class))
+            .overrideConfigKey("quarkus.aesh.ssh.port", String.valueOf(SSH_PORT))
+            .overrideConfigKey("quarkus.aesh.ssh.exec.enabled", "true")
+            .overrideConfigKey("quarkus.aesh.ssh.max-connections", "1");
+
+    @Test
+    public void testExecCountsAgainstMaxConnections() throws Exception {
+        try (SshClient client = SshClient.setUpDefaultClient()) {
+            client.start();
+            try (ClientSession session = connect(client)) {
+                CompletableFuture<Result> blocking = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return exec(session, "block");
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                Assertions.assertThat(BlockCommand.STARTED.await(10, TimeUnit.SECONDS)).isTrue();
+
+                Result rejected = exec(session, "hello");
+                Assertions.assertThat(rejected.status).isEqualTo(1);
+                Assertions.assertThat(rejected.stderr).contains("maximum number of sessions");
+                Assertions.assertThat(rejected.stdout).doesNotContain("Hello");
+
+                BlockCommand.RELEASE.countDown();
+                Assertions.assertThat(blocking.get(10, TimeUnit.SECONDS).status).isZero();
+
+                Result admitted = exec(session, "hello");
+                Assertions.assertThat(admitted.status).isZero();
+                Assertions.assertThat(admitted.stdout).contains("Hello World!");
+            } finally {
+                client.stop();
+            }
+        }
+    }
+
+    private static ClientSession connect(SshClient client) throws Exception {
+        ClientSession session = client.connect("test", "localhost", SSH_PORT)
+                .verify(10_000).getClientSession();
+        session.addPasswordIdentity("any");
+        session.auth().verify(10_000);
+        return session;
+    }
+
+    private static Result exec(ClientSession session, String commandLine) throws Exception {
+        try (ChannelExec channel = session.createExecChannel(commandLine)) {
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+            channel.setOut(stdout);
+            channel.setErr(stderr);
+            channel.open().verify(10_000);
+            channel.waitFor(EnumSet.of(ClientChannelEvent.CLOSED), 10_000);
+            return new Result(channel.getExitStatus(), stdout.toString(StandardCharsets.UTF_8),
+                    stderr.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final class Result {
+
+        final Integer status;
+        final String stdout;
+        final String stderr;
+
+        Result(Integer status, String stdout, String stderr) {
+            this.status = status;
+            this.stdout = stdout;
+            this.stderr = stderr;
+        }
+    }
+
+    @CommandDefinition(name = "hello", description = "Say hello")
+    @CliCommand
+    public static class HelloCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("Hello World!");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "block", description = "Holds its session until released")
+    @CliCommand
+    public static class BlockCommand implements Command<CommandInvocation> {
+
+        static final CountDownLatch STARTED = new CountDownLatch(1);
+        static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) throws InterruptedException {
+            STARTED.countDown();
+            RELEASE.await(10, TimeUnit.SECONDS);
+            return CommandResult.SUCCESS;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.quarkiverse.aesh.ssh.deployment;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Option;
+import org.apache.sshd.client.SshClient;
+import org.apache.sshd.client.channel.ChannelExec;
+import org.apache.sshd.client.channel.ClientChannelEvent;
+import org.apache.sshd.client.session.ClientSession;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that SSH exec requests execute a single command without a terminal, with its output on
+ * the channel and its result as the exit status, including when several run concurrently, and
+ * that the reused command instances do not keep the options of a previous request.
+ */
+public class AeshSshExecTest {
+
+    private static final int SSH_PORT = 12230;
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(HelloCommand.class, FailCommand.class, KeyCommand.class))
+            .overrideConfigKey("quarkus.aesh.ssh.port", String.valueOf(SSH_PORT))
+            .overrideConfigKey("quarkus.aesh.ssh.exec.enabled", "true");
+
+    @Test
+    public void testExecStatusAndOutput() throws Exception {
+        try (SshClient client = SshClient.setUpDefaultClient()) {
+            client.start();
+            try (ClientSession session = connect(client)) {
+                Result hello = exec(session, "hello --name=exec");
+                Assertions.assertThat(hello.status).isZero();
+                Assertions.assertThat(hello.stdout).contains("Hello exec!");
+
+                Result failed = exec(session, "fail --status=3");
+                Assertions.assertThat(failed.status).isEqualTo(3);
+
+                Result unknown = exec(session, "no-such-command");
+                Assertions.assertThat(unknown.status).isEqualTo(1);
+                Assertions.assertThat(unknown.stderr).contains("Error:");
+                Assertions.assertThat(unknown.stdout).isEmpty();
+            } finally {
+                client.stop();
+            }
+        }
+    }
+
+    @Test
+    public void testSequentialExecsDoNotShareOptions() throws Exception {
+        try (SshClient client = SshClient.setUpDefaultClient()) {
+            client.start();
+            try (ClientSession session = connect(client)) {
+                Assertions.assertThat(exec(session, "hello --name=first").stdout).contains("Hello first!");
+                Result second = exec(session, "hello");
+                Assertions.assertThat(second.status).isZero();
+                Assertions.assertThat(second.stdout).contains("Hello World!").doesNotContain("first");
+
+                Result key = exec(session, "key");
+                Assertions.assertThat(key.status).isZero();
+                Assertions.assertThat(key.stdout).contains("No key");
+            } finally {
+                client.stop();
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentExecOutputIsIsolated() throws Exception {
+        try (SshClient client = SshClient.setUpDefaultClient()) {
+            client.start();
+            try (ClientSession session = connect(client)) {
+                List<CompletableFuture<Result>> results = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    String line = "hello --name=caller" + i + " --repeat=20";
+                    results.add(CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return exec(session, line);
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    }));
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    Result result = results.get(i).get(30, TimeUnit.SECONDS);
+                    Assertions.assertThat(result.status).isZero();
+                    String[] lines = result.stdout.trim().split("\\R");
+                    Assertions.assertThat(lines)
+                            .as("Output of exec request %d", i)
+                            .hasSize(20)
+                            .containsOnly("Hello caller" + i + "!");
+                }
+            } finally {
+                client.stop();
+            }
+        }
+    }
+
+    private static ClientSession connect(SshClient client) throws Exception {
+        ClientSession session = client.connect("test", "localhost", SSH_PORT)
+                .verify(10_000).getClientSession();
+        session.addPasswordIdentity("any");
+        session.auth().verify(10_000);
+        return session;
+    }
+
+    private static Result exec(ClientSession session, String commandLine) throws Exception {
+        try (ChannelExec channel = session.createExecChannel(commandLine)) {
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+            channel.setOut(stdout);
+            channel.setErr(stderr);
+            channel.open().verify(10_000);
+            channel.waitFor(EnumSet.of(ClientChannelEvent.CLOSED), 10_000);
+            return new Result(channel.getExitStatus(), stdout.toString(StandardCharsets.UTF_8),
+                    stderr.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final class Result {
+
+        final Integer status;
+        final String stdout;
+        final String stderr;
+
+        Result(Integer status, String stdout, String stderr) {
+            this.status = status;
+            this.stdout = stdout;
+            this.stderr = stderr;
+        }
+    }
+
+    @CommandDefinition(name = "hello", description = "Say hello")
+    @CliCommand
+    public static class HelloCommand implements Command<CommandInvocation> {
+
+        @Option(name = "name", defaultValue = "World")
+        private String name;
+
+        @Option(name = "repeat", defaultValue = "1")
+        private int repeat;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            for (int i = 0; i < repeat; i++) {
+                invocation.println("Hello " + name + "!");
+            }
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "fail", description = "Fails with a status")
+    @CliCommand
+    public static class FailCommand implements Command<CommandInvocation> {
+
+        @Option(name = "status", defaultValue = "0")
+        private int status;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.valueOf(status);
+        }
+    }
+
+    @CommandDefinition(name = "key", description = "Reads a key")
+    @CliCommand
+    public static class KeyCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) throws InterruptedException {
+            invocation.println(invocation.input() == null ? "No key" : "Key");
+            return CommandResult.SUCCESS;
+        }
+    }
+}
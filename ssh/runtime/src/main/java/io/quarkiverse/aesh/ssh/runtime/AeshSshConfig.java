@@ -8,6 +8,7 @@ import io.quarkus.runtime.annotations.ConfigPhase;
 import io.quarkus.runtime.annotations.ConfigRoot;
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
+import io.smallrye.config.WithName;
 
 /**
  * Configuration for the Aesh SSH terminal extension.
@@ -66,4 +67,14 @@ public interface AeshSshConfig {
      * remain idle indefinitely.
      */
     Optional<Duration> idleTimeout();
+
+    /**
+     * Whether SSH {@code exec} requests, e.g. {@code ssh -p 2222 localhost hello --name=x}, are
+     * supported. Each request executes one command without a terminal, writes its output to the
+     * channel and returns the exit status of the command. Requests count against
+     * {@code max-connections} like interactive sessions.
+     */
+    @WithName("exec.enabled")
+    @WithDefault("false")
+    boolean execEnabled();
 }
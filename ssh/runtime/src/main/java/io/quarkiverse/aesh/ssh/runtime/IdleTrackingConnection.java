@@ -10,6 +10,9 @@ import org.aesh.terminal.tty.Capability;
 import org.aesh.terminal.tty.Signal;
 import org.aesh.terminal.tty.Size;
 
+import io.quarkiverse.aesh.runtime.AeshRemoteSession;
+import io.quarkiverse.aesh.runtime.AeshSessionStats;
+
 /**
  * A {@link Connection} wrapper that tracks user input activity for idle timeout detection
  * and provides a close callback for connection lifecycle management.
@@ -17,18 +20,36 @@ import org.aesh.terminal.tty.Size;
  * Intercepts {@link #setStdinHandler(Consumer)} to wrap the handler with one that
  * updates {@link #lastActivityMs} on every keystroke. Intercepts {@link #setCloseHandler(Consumer)}
  * and {@link #close()} to ensure the {@code onClose} callback is always invoked exactly once.
- * All other methods delegate to the underlying connection.
+ * When created with {@link AeshSessionStats}, input and output passing through the connection
+ * are counted as well. When created with an {@link AeshRemoteSession}, signal handlers are
+ * wrapped so that Ctrl-C interrupts the command running in the session. All other methods
+ * delegate to the underlying connection.
  */
 public class IdleTrackingConnection implements Connection {
 
     private final Connection delegate;
     private final Runnable onClose;
+    private final AeshSessionStats stats;
+    private final AeshRemoteSession session;
     private volatile long lastActivityMs;
     private volatile boolean closed;
+    private volatile Consumer<int[]> countedStdout;
+    private volatile Consumer<int[]> countedStdoutDelegate;
 
     public IdleTrackingConnection(Connection delegate, Runnable onClose) {
+        this(delegate, onClose, null);
+    }
+
+    public IdleTrackingConnection(Connection delegate, Runnable onClose, AeshSessionStats stats) {
+        this(delegate, onClose, stats, null);
+    }
+
+    public IdleTrackingConnection(Connection delegate, Runnable onClose, AeshSessionStats stats,
+            AeshRemoteSession session) {
         this.delegate = delegate;
         this.onClose = onClose;
+        this.stats = stats;
+        this.session = session;
         this.lastActivityMs = System.currentTimeMillis();
     }
 
@@ -66,7 +87,7 @@ public class IdleTrackingConnection implements Connection {
 
     @Override
     public void setSignalHandler(Consumer<Signal> handler) {
-        delegate.setSignalHandler(handler);
+        delegate.setSignalHandler(session != null ? session.interceptSignals(handler) : handler);
     }
 
     @Override
@@ -81,6 +102,9 @@ public class IdleTrackingConnection implements Connection {
         } else {
             delegate.setStdinHandler(data -> {
                 lastActivityMs = System.currentTimeMillis();
+                if (stats != null) {
+                    stats.inputReceived(AeshSessionStats.utf8Length(data));
+                }
                 handler.accept(data);
             });
         }
@@ -88,7 +112,22 @@ public class IdleTrackingConnection implements Connection {
 
     @Override
     public Consumer<int[]> stdoutHandler() {
-        return delegate.stdoutHandler();
+        Consumer<int[]> stdout = delegate.stdoutHandler();
+        if (stats == null || stdout == null) {
+            return stdout;
+        }
+        // Reuse the counting wrapper as long as the delegate keeps the same handler
+        Consumer<int[]> counted = countedStdout;
+        if (counted == null || countedStdoutDelegate != stdout) {
+            counted = data -> {
+                stats.outputWritten();
+                stats.frameSent(AeshSessionStats.utf8Length(data));
+                stdout.accept(data);
+            };
+            countedStdoutDelegate = stdout;
+            countedStdout = counted;
+        }
+        return counted;
     }
 
     @Override
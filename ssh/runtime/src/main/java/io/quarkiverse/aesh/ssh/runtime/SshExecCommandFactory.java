@@ -0,0 +1,262 @@
+package io.quarkiverse.aesh.ssh.runtime;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aesh.command.AeshCommandRuntimeBuilder;
+import org.aesh.command.CommandNotFoundException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.CommandRuntime;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.parser.CommandLineParserException;
+import org.aesh.command.registry.CommandRegistry;
+import org.aesh.command.validator.OptionValidatorException;
+import org.apache.sshd.server.Environment;
+import org.apache.sshd.server.ExitCallback;
+import org.apache.sshd.server.channel.ChannelSession;
+import org.apache.sshd.server.command.Command;
+import org.apache.sshd.server.command.CommandFactory;
+import org.jboss.logging.Logger;
+
+import io.quarkiverse.aesh.runtime.AeshAdmissionController;
+import io.quarkiverse.aesh.runtime.AeshCommandExecution;
+import io.quarkiverse.aesh.runtime.AeshRemoteSession;
+import io.quarkiverse.aesh.runtime.AeshSessionStats;
+import io.quarkiverse.aesh.runtime.AeshTransportStats;
+import io.quarkiverse.aesh.runtime.CliCommandRegistryFactory;
+
+/**
+ * Executes the command line of SSH {@code exec} requests, e.g. {@code ssh host hello --name=x},
+ * without a terminal.
+ * <p>
+ * The command line is parsed against the application's command registry and executed once,
+ * without readline, prompt or terminal emulation: the output of the command is written to the
+ * stdout and stderr of the channel, and the exit status of the channel is the value of the
+ * {@link CommandResult}. Parse errors and unknown commands are reported on stderr with status 1.
+ * <p>
+ * Each request is admitted by the {@link AeshAdmissionController} like an interactive session,
+ * so it counts against {@code quarkus.aesh.ssh.max-connections}, and runs in its own
+ * {@link AeshRemoteSession} on a thread of a bounded pool. The commands print through an
+ * {@link SshExecShell} writing to the channel, and read lines from its stdin; the
+ * {@code System.out} and {@code System.err} of the JVM are left alone.
+ * <p>
+ * Command registries are not built per request: a registry whose request completed is reused by
+ * the next one, its commands bound to the session of that request. aesh sets the option fields
+ * of the command instances while parsing, so a registry executes one request at a time, and
+ * there are at most as many registries as requests running at once. Their {@code @Dependent}
+ * beans are destroyed when the factory is closed.
+ */
+class SshExecCommandFactory implements CommandFactory {
+
+    private static final Logger LOG = Logger.getLogger(SshExecCommandFactory.class);
+    private static final String TRANSPORT = "ssh";
+    // Threads of the pool when quarkus.aesh.ssh.max-connections does not bound the admitted requests
+    private static final int DEFAULT_MAX_THREADS = 16;
+    private static final String BUSY_MESSAGE = "Server is busy, try again later.";
+
+    private final CliCommandRegistryFactory registryFactory;
+    private final AeshAdmissionController admission;
+    private final AeshTransportStats stats;
+    private final AtomicInteger execIds = new AtomicInteger();
+    private final ThreadPoolExecutor executor;
+    private final Queue<CommandRegistry<CommandInvocation>> idleRegistries = new ConcurrentLinkedQueue<>();
+    // The sessions the registries were built for, which track the beans of their commands
+    private final Queue<AeshRemoteSession> registrySessions = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param maxConnections the value of {@code quarkus.aesh.ssh.max-connections}, which sizes
+     *        the pool, or 0 if it is not set
+     */
+    SshExecCommandFactory(CliCommandRegistryFactory registryFactory, AeshAdmissionController admission,
+            AeshTransportStats stats, int maxConnections) {
+        this.registryFactory = registryFactory;
+        this.admission = admission;
+        this.stats = stats;
+        int maxThreads = maxConnections > 0 ? maxConnections : DEFAULT_MAX_THREADS;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxThreads), r -> {
+                    Thread t = new Thread(r, "aesh-ssh-exec-" + threads.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public Command createCommand(ChannelSession channel, String commandLine) {
+        return new ExecCommand(commandLine);
+    }
+
+    /**
+     * Stops the running commands and destroys the beans of the command registries.
+     */
+    void close() {
+        executor.shutdownNow();
+        AeshRemoteSession session;
+        while ((session = registrySessions.poll()) != null) {
+            session.destroyBeans();
+        }
+    }
+
+    private CommandRegistry<CommandInvocation> acquireRegistry() throws Exception {
+        CommandRegistry<CommandInvocation> registry = idleRegistries.poll();
+        if (registry == null) {
+            AeshRemoteSession owner = new AeshRemoteSession(TRANSPORT, null);
+            registrySessions.add(owner);
+            registry = registryFactory.create(owner).create();
+        }
+        return registry;
+    }
+
+    static int exitStatus(CommandResult result) {
+        if (result == null) {
+            return 0;
+        }
+        int value = result.getResultValue();
+        // Exit statuses are unsigned bytes
+        return value >= 0 && value <= 255 ? value : 1;
+    }
+
+    private final class ExecCommand implements Command {
+
+        private final String commandLine;
+        private InputStream stdin;
+        private OutputStream stdout;
+        private OutputStream stderr;
+        private ExitCallback exitCallback;
+        private volatile AeshAdmissionController.Ticket ticket;
+        private volatile AeshRemoteSession session;
+
+        ExecCommand(String commandLine) {
+            this.commandLine = commandLine;
+        }
+
+        @Override
+        public void setInputStream(InputStream in) {
+            this.stdin = in;
+        }
+
+        @Override
+        public void setOutputStream(OutputStream out) {
+            this.stdout = out;
+        }
+
+        @Override
+        public void setErrorStream(OutputStream err) {
+            this.stderr = err;
+        }
+
+        @Override
+        public void setExitCallback(ExitCallback callback) {
+            this.exitCallback = callback;
+        }
+
+        @Override
+        public void start(ChannelSession channel, Environment env) {
+            String username = channel.getSession().getUsername();
+            PrintStream channelErr = new PrintStream(stderr, true, StandardCharsets.UTF_8);
+            ticket = admission.admit(TRANSPORT, new AeshAdmissionController.Callback() {
+                @Override
+                public void admitted(AeshAdmissionController.Slot slot) {
+                    submit(username, slot, channelErr);
+                }
+
+                @Override
+                public void waiting(int position) {
+                    channelErr.print(SshServerLifecycle.waitingMessage(position));
+                }
+
+                @Override
+                public void rejected(String reason) {
+                    LOG.warnf("Rejected SSH exec request: session limit reached (%s)", reason);
+                    channelErr.print(SshServerLifecycle.REJECTED_MESSAGE);
+                    exitCallback.onExit(1, "Session limit reached");
+                }
+            });
+        }
+
+        private void submit(String username, AeshAdmissionController.Slot slot, PrintStream channelErr) {
+            session = new AeshRemoteSession(TRANSPORT, username);
+            try {
+                executor.execute(() -> run(slot, channelErr));
+            } catch (RejectedExecutionException e) {
+                // Every thread is busy and the queue is full, or the application is stopping
+                slot.release();
+                session = null;
+                channelErr.println(BUSY_MESSAGE);
+                exitCallback.onExit(1, BUSY_MESSAGE);
+            }
+        }
+
+        private void run(AeshAdmissionController.Slot slot, PrintStream channelErr) {
+            AeshSessionStats execStats = stats.open(TRANSPORT + "-exec-" + execIds.incrementAndGet());
+            execStats.inputReceived(commandLine.length());
+            PrintStream channelOut = new PrintStream(stdout, true, StandardCharsets.UTF_8);
+            int status = 1;
+            try {
+                status = execute(channelOut, channelErr);
+            } finally {
+                session.destroyBeans();
+                channelOut.flush();
+                channelErr.flush();
+                stats.close(execStats);
+                slot.release();
+                exitCallback.onExit(status);
+            }
+        }
+
+        private int execute(PrintStream channelOut, PrintStream channelErr) {
+            CommandRegistry<CommandInvocation> registry = null;
+            try {
+                registry = acquireRegistry();
+                AeshCommandExecution.rebindSession(registry, session);
+                CommandRuntime<CommandInvocation> runtime = AeshCommandRuntimeBuilder.<CommandInvocation> builder()
+                        .commandRegistry(registry)
+                        .shell(new SshExecShell(channelOut, stdin))
+                        .build();
+                return exitStatus(runtime.executeCommand(commandLine));
+            } catch (InterruptedException e) {
+                channelErr.println("Interrupted");
+                // As a shell reports a command stopped by SIGINT
+                return 130;
+            } catch (Exception e) {
+                if (e instanceof CommandLineParserException || e instanceof OptionValidatorException
+                        || e instanceof CommandNotFoundException) {
+                    AeshCommandExecution.parseFailed(TRANSPORT);
+                } else {
+                    LOG.debugf(e, "SSH exec request failed: %s", commandLine);
+                }
+                channelErr.println("Error: " + e.getMessage());
+                return 1;
+            } finally {
+                if (registry != null) {
+                    idleRegistries.add(registry);
+                }
+            }
+        }
+
+        @Override
+        public void destroy(ChannelSession channel) {
+            AeshAdmissionController.Ticket pending = ticket;
+            if (pending != null) {
+                // The client closed the channel while the request was waiting for a slot
+                pending.cancel();
+            }
+            AeshRemoteSession current = session;
+            if (current != null) {
+                // The client closed the channel before the command completed
+                current.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.quarkiverse.aesh.ssh.runtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.aesh.command.shell.Shell;
+import org.aesh.readline.Prompt;
+import org.aesh.terminal.Key;
+import org.aesh.terminal.tty.Size;
+
+/**
+ * The {@link Shell} of an SSH {@code exec} request: the output of the command is written to the
+ * stdout of the channel, and lines are read from its stdin. There is no terminal, so reading a
+ * key returns {@code null}, the end of the input, and the screen buffers are not available.
+ */
+final class SshExecShell implements Shell {
+
+    // What a command laying out its output gets when there is no terminal to ask
+    private static final Size SIZE = new Size(80, 24);
+
+    private final PrintStream out;
+    private final BufferedReader in;
+
+    SshExecShell(PrintStream out, InputStream in) {
+        this.out = out;
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(String out, boolean paging) {
+        this.out.print(out);
+    }
+
+    @Override
+    public void writeln(String out, boolean paging) {
+        this.out.println(out);
+    }
+
+    @Override
+    public void write(int[] out) {
+        this.out.print(new String(out, 0, out.length));
+    }
+
+    @Override
+    public void write(char out) {
+        this.out.print(out);
+    }
+
+    @Override
+    public String readLine() {
+        try {
+            return in.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String readLine(Prompt prompt) {
+        return readLine();
+    }
+
+    @Override
+    public Key read() {
+        // No terminal to read keys from: the end of the input, as for a closed console
+        return null;
+    }
+
+    @Override
+    public Key read(long timeout, TimeUnit unit) {
+        return read();
+    }
+
+    @Override
+    public Key read(Prompt prompt) {
+        return read();
+    }
+
+    @Override
+    public boolean enableAlternateBuffer() {
+        return false;
+    }
+
+    @Override
+    public boolean enableMainBuffer() {
+        return false;
+    }
+
+    @Override
+    public Size size() {
+        return SIZE;
+    }
+
+    @Override
+    public void clear() {
+        // No terminal
+    }
+}
@@ -1,25 +1,31 @@
 package io.quarkiverse.aesh.ssh.runtime;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
 
 import org.aesh.terminal.Connection;
-import org.aesh.terminal.ssh.netty.NettySshTtyBootstrap;
+import org.aesh.terminal.ssh.TtyCommand;
+import org.apache.sshd.netty.NettyIoServiceFactoryFactory;
+import org.apache.sshd.server.SshServer;
 import org.apache.sshd.server.config.keys.AuthorizedKeysAuthenticator;
 import org.apache.sshd.server.keyprovider.AbstractGeneratorHostKeyProvider;
 import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
 import org.jboss.logging.Logger;
 
+import io.quarkiverse.aesh.runtime.AeshAdmissionController;
+import io.quarkiverse.aesh.runtime.AeshIdleSessionReaper;
 import io.quarkiverse.aesh.runtime.AeshRemoteConnectionHandler;
+import io.quarkiverse.aesh.runtime.AeshRemoteSession;
+import io.quarkiverse.aesh.runtime.AeshSessionStats;
+import io.quarkiverse.aesh.runtime.AeshTransportStats;
+import io.quarkiverse.aesh.runtime.CliCommandRegistryFactory;
 import io.quarkiverse.aesh.runtime.TransportSessionInfo;
 import io.quarkus.runtime.ShutdownEvent;
 import io.quarkus.runtime.StartupEvent;
@@ -27,20 +33,28 @@ import io.quarkus.runtime.StartupEvent;
 /**
  * Manages the lifecycle of the SSH server for aesh terminal access.
  * <p>
- * Uses {@link NettySshTtyBootstrap} from aesh-readline's terminal-ssh module
- * to start an SSH server. Each SSH connection is handled by
+ * Starts an Apache SSHD server on Netty whose shell channels are served by the
+ * {@link TtyCommand} of aesh-readline's terminal-ssh module. Each SSH connection is handled by
  * {@link AeshRemoteConnectionHandler}, which sets up a full aesh console
  * with the application's command registry.
  * <p>
  * Note: SSH connections are event-driven; the handler callback returns immediately
  * after setting up event handlers. Connection tracking uses close handlers
  * rather than blocking thread lifetime.
+ * <p>
+ * New connections are admitted by the shared {@link AeshAdmissionController}, which enforces
+ * {@code quarkus.aesh.ssh.max-connections} and may queue the connection until a slot is free.
+ * Sessions are bound to the user name the client authenticated with.
+ * <p>
+ * When {@code quarkus.aesh.ssh.exec.enabled} is set, {@code exec} requests, e.g.
+ * {@code ssh host hello --name=x}, execute a single command without a terminal; see
+ * {@link SshExecCommandFactory}.
  */
 @ApplicationScoped
 public class SshServerLifecycle implements TransportSessionInfo {
 
     private static final Logger LOG = Logger.getLogger(SshServerLifecycle.class);
-    private static final String REJECTED_MESSAGE = "Connection rejected: maximum number of sessions reached.\r\n";
+    static final String REJECTED_MESSAGE = "Connection rejected: maximum number of sessions reached.\r\n";
 
     @Inject
     AeshRemoteConnectionHandler connectionHandler;
@@ -48,9 +62,19 @@ public class SshServerLifecycle implements TransportSessionInfo {
     @Inject
     AeshSshConfig config;
 
-    private NettySshTtyBootstrap bootstrap;
-    private final AtomicInteger activeConnections = new AtomicInteger(0);
-    private volatile ScheduledExecutorService idleScheduler;
+    @Inject
+    AeshIdleSessionReaper idleReaper;
+
+    @Inject
+    AeshAdmissionController admission;
+
+    @Inject
+    CliCommandRegistryFactory registryFactory;
+
+    private SshServer server;
+    private SshExecCommandFactory execCommandFactory;
+    private final AtomicInteger sessionIds = new AtomicInteger();
+    private final AeshTransportStats stats = new AeshTransportStats("ssh");
 
     void onStart(@Observes StartupEvent event) throws Exception {
         if (!config.enabled()) {
@@ -62,19 +86,20 @@ public class SshServerLifecycle implements TransportSessionInfo {
                 new File(config.hostKeyFile()).toPath());
         keyProvider.setAlgorithm("RSA");
 
-        bootstrap = new NettySshTtyBootstrap()
-                .setHost(config.host())
-                .setPort(config.port())
-                .setKeyPairProvider(keyProvider);
+        SshServer sshServer = SshServer.setUpDefaultServer();
+        sshServer.setIoServiceFactoryFactory(new NettyIoServiceFactoryFactory());
+        sshServer.setHost(config.host());
+        sshServer.setPort(config.port());
+        sshServer.setKeyPairProvider(keyProvider);
 
         if (config.password().isPresent()) {
             String expectedPassword = config.password().get();
-            bootstrap.setPasswordAuthenticator(
+            sshServer.setPasswordAuthenticator(
                     (username, password, session) -> expectedPassword.equals(password));
         }
 
         if (config.authorizedKeysFile().isPresent()) {
-            bootstrap.setPublicKeyAuthenticator(
+            sshServer.setPublicKeyAuthenticator(
                     new AuthorizedKeysAuthenticator(Paths.get(config.authorizedKeysFile().get())));
             LOG.infof("SSH public key authentication enabled from %s", config.authorizedKeysFile().get());
         }
@@ -83,75 +108,99 @@ public class SshServerLifecycle implements TransportSessionInfo {
             LOG.warn("Aesh SSH server is running without authentication. " +
                     "Any password will be accepted. Set 'quarkus.aesh.ssh.password' or " +
                     "'quarkus.aesh.ssh.authorized-keys-file' to secure access.");
+            sshServer.setPasswordAuthenticator((username, password, session) -> true);
         }
 
-        int max = config.maxConnections().orElse(0);
         long idleTimeoutMs = config.idleTimeout().map(d -> d.toMillis()).orElse(0L);
 
-        if (idleTimeoutMs > 0) {
-            idleScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-                Thread t = new Thread(r, "aesh-ssh-idle-checker");
-                t.setDaemon(true);
-                return t;
-            });
+        sshServer.setShellFactory(channel -> {
+            String username = channel.getSession().getUsername();
+            return new TtyCommand(StandardCharsets.UTF_8,
+                    connection -> handleConnection(connection, username, idleTimeoutMs));
+        });
+
+        if (config.execEnabled()) {
+            execCommandFactory = new SshExecCommandFactory(registryFactory, admission, stats,
+                    config.maxConnections().orElse(0));
+            sshServer.setCommandFactory(execCommandFactory);
         }
 
-        bootstrap.start(connection -> handleConnection(connection, max, idleTimeoutMs))
-                .get(10, TimeUnit.SECONDS);
+        sshServer.start();
+        server = sshServer;
 
         LOG.infof("Aesh SSH server started on %s:%d", config.host(), config.port());
     }
 
-    private void handleConnection(Connection connection, int max, long idleTimeoutMs) {
-        // Max connections check with CAS loop
-        if (max > 0) {
-            int current;
-            do {
-                current = activeConnections.get();
-                if (current >= max) {
-                    LOG.warnf("Rejected SSH connection: limit of %d reached", max);
-                    connection.stdoutHandler().accept(REJECTED_MESSAGE.codePoints().toArray());
-                    connection.close();
-                    return;
-                }
-            } while (!activeConnections.compareAndSet(current, current + 1));
-        }
+    private void handleConnection(Connection connection, String username, long idleTimeoutMs) {
+        // Withdraw from the admission queue if the client disconnects while waiting.
+        // Once the session starts, the tracking connection chains onto this handler.
+        AtomicReference<AeshAdmissionController.Ticket> ticket = new AtomicReference<>();
+        connection.setCloseHandler(v -> {
+            AeshAdmissionController.Ticket pending = ticket.get();
+            if (pending != null) {
+                pending.cancel();
+            }
+        });
+        ticket.set(admission.admit("ssh", new AeshAdmissionController.Callback() {
+            @Override
+            public void admitted(AeshAdmissionController.Slot slot) {
+                startSession(connection, username, slot, idleTimeoutMs);
+            }
 
+            @Override
+            public void waiting(int position) {
+                connection.stdoutHandler().accept(waitingMessage(position).codePoints().toArray());
+            }
+
+            @Override
+            public void rejected(String reason) {
+                LOG.warnf("Rejected SSH connection: session limit reached (%s)", reason);
+                connection.stdoutHandler().accept(REJECTED_MESSAGE.codePoints().toArray());
+                connection.close();
+            }
+        }));
+    }
+
+    private void startSession(Connection connection, String username, AeshAdmissionController.Slot slot,
+            long idleTimeoutMs) {
         // Wrap the connection to track close events and idle activity.
         // SSH connections are event-driven (openBlocking() is a no-op), so we
         // cannot use thread lifetime for tracking. The close handler fires when
         // the user disconnects or the session is forcibly closed.
-        ScheduledFuture<?>[] idleCheckHolder = new ScheduledFuture<?>[1];
+        AeshIdleSessionReaper.Handle[] idleHandleHolder = new AeshIdleSessionReaper.Handle[1];
+        AeshSessionStats sessionStats = stats.open("ssh-" + sessionIds.incrementAndGet());
+        AeshRemoteSession session = new AeshRemoteSession("ssh", username);
         IdleTrackingConnection tracked = new IdleTrackingConnection(connection, () -> {
-            if (max > 0) {
-                activeConnections.decrementAndGet();
-            }
-            if (idleCheckHolder[0] != null) {
-                idleCheckHolder[0].cancel(false);
+            slot.release();
+            if (idleHandleHolder[0] != null) {
+                idleHandleHolder[0].cancel();
             }
-        });
+            stats.close(sessionStats);
+            session.destroyBeans();
+        }, sessionStats, session);
 
-        // Idle timeout setup
-        if (idleTimeoutMs > 0 && idleScheduler != null) {
-            long checkInterval = Math.max(idleTimeoutMs / 2, 500);
-            idleCheckHolder[0] = idleScheduler.scheduleAtFixedRate(() -> {
-                if (System.currentTimeMillis() - tracked.getLastActivityMs() > idleTimeoutMs) {
-                    LOG.infof("Closing idle SSH session (timeout: %dms)", idleTimeoutMs);
-                    tracked.close();
-                }
-            }, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+        // Idle timeout setup: the shared reaper reads the timestamp only when the deadline is reached
+        if (idleTimeoutMs > 0) {
+            idleHandleHolder[0] = idleReaper.track(tracked::getLastActivityMs, idleTimeoutMs, () -> {
+                LOG.infof("Closing idle SSH session (timeout: %dms)", idleTimeoutMs);
+                tracked.close();
+            });
         }
 
-        connectionHandler.handle(tracked, "ssh");
+        connectionHandler.handle(tracked, session);
+    }
+
+    static String waitingMessage(int position) {
+        return "All sessions are in use, waiting for a free slot (position " + position + ")...\r\n";
     }
 
     @Override
     public boolean isRunning() {
-        return bootstrap != null;
+        return server != null;
     }
 
     public int getActiveConnectionCount() {
-        return activeConnections.get();
+        return admission.getActiveSessions("ssh");
     }
 
     @Override
@@ -161,7 +210,7 @@ public class SshServerLifecycle implements TransportSessionInfo {
 
     @Override
     public int getActiveSessionCount() {
-        return activeConnections.get();
+        return admission.getActiveSessions("ssh");
     }
 
     @Override
@@ -169,12 +218,17 @@ public class SshServerLifecycle implements TransportSessionInfo {
         return config.maxConnections().orElse(-1);
     }
 
+    @Override
+    public AeshTransportStats getStats() {
+        return stats;
+    }
+
     void onStop(@Observes ShutdownEvent event) throws Exception {
-        if (idleScheduler != null) {
-            idleScheduler.shutdownNow();
-        }
-        if (bootstrap != null) {
-            bootstrap.stop().get(5, TimeUnit.SECONDS);
+        if (server != null) {
+            server.stop();
+            if (execCommandFactory != null) {
+                execCommandFactory.close();
+            }
             LOG.info("Aesh SSH server stopped");
         }
     }
@@ -0,0 +1,33 @@
+package io.quarkiverse.aesh.unixsocket.deployment;
+
+import io.quarkiverse.aesh.deployment.AeshRemoteTransportBuildItem;
+import io.quarkiverse.aesh.unixsocket.runtime.AeshUnixSocketServer;
+import io.quarkus.arc.deployment.AdditionalBeanBuildItem;
+import io.quarkus.deployment.annotations.BuildStep;
+import io.quarkus.deployment.builditem.FeatureBuildItem;
+import io.quarkus.smallrye.health.deployment.spi.HealthBuildItem;
+
+class AeshUnixSocketProcessor {
+
+    @BuildStep
+    FeatureBuildItem feature() {
+        return new FeatureBuildItem("aesh-unix-socket");
+    }
+
+    @BuildStep
+    AdditionalBeanBuildItem registerBeans() {
+        return AdditionalBeanBuildItem.unremovableOf(AeshUnixSocketServer.class);
+    }
+
+    @BuildStep
+    AeshRemoteTransportBuildItem remoteTransport() {
+        return new AeshRemoteTransportBuildItem("unix-socket", "quarkus.aesh.unix-socket.max-connections");
+    }
+
+    @BuildStep
+    HealthBuildItem addHealthCheck(AeshUnixSocketBuildTimeConfig buildTimeConfig) {
+        return new HealthBuildItem(
+                "io.quarkiverse.aesh.unixsocket.runtime.health.AeshUnixSocketHealthCheck",
+                buildTimeConfig.healthEnabled());
+    }
+}
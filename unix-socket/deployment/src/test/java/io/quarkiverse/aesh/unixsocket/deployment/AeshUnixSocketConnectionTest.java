@@ -0,0 +1,113 @@
+package io.quarkiverse.aesh.unixsocket.deployment;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Option;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkiverse.aesh.unixsocket.runtime.AeshUnixSocketServer;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * End-to-end test of the Unix domain socket terminal: connects to the socket, types a command
+ * as raw keystrokes and verifies the output, the session accounting and the permissions of the
+ * socket file.
+ */
+public class AeshUnixSocketConnectionTest {
+
+    private static final Path SOCKET = Path.of(System.getProperty("java.io.tmpdir"),
+            "aesh-unix-socket-test-" + ProcessHandle.current().pid() + ".sock");
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(HelloCommand.class))
+            .overrideConfigKey("quarkus.aesh.unix-socket.path", SOCKET.toString());
+
+    @Inject
+    AeshUnixSocketServer server;
+
+    @Test
+    public void testCommandOverSocket() throws Exception {
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(SOCKET));
+            channel.configureBlocking(false);
+            StringBuilder output = new StringBuilder();
+
+            // Sent in two writes, splitting the UTF-8 encoding of 'é'
+            byte[] input = "hello --name=Zoé\r".getBytes(StandardCharsets.UTF_8);
+            int split = input.length - 2;
+            channel.write(ByteBuffer.wrap(input, 0, split));
+            channel.write(ByteBuffer.wrap(input, split, input.length - split));
+
+            waitForOutput(channel, output, "Hello Zoé!");
+            Assertions.assertThat(output.toString()).contains("Hello Zoé!");
+            Assertions.assertThat(server.getActiveSessionCount()).isEqualTo(1);
+            Assertions.assertThat(server.getStats().getSessions()).hasSize(1);
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (server.getActiveSessionCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertThat(server.getActiveSessionCount())
+                .as("Closing the client ends the session")
+                .isZero();
+    }
+
+    @Test
+    public void testSocketIsOnlyAccessibleToOwner() throws Exception {
+        Assertions.assertThat(server.isRunning()).isTrue();
+        Assertions.assertThat(server.getTransportName()).isEqualTo("unix-socket");
+        Assertions.assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(SOCKET)))
+                .isEqualTo("rw-------");
+    }
+
+    private static void waitForOutput(SocketChannel channel, StringBuilder output, String expected)
+            throws IOException, InterruptedException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!output.toString().contains(expected) && System.currentTimeMillis() < deadline) {
+            int count = channel.read(buffer);
+            if (count > 0) {
+                buffer.flip();
+                output.append(StandardCharsets.UTF_8.decode(buffer));
+                buffer.clear();
+            } else if (count < 0) {
+                break;
+            } else {
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    @CommandDefinition(name = "hello", description = "Say hello")
+    @CliCommand
+    public static class HelloCommand implements Command<CommandInvocation> {
+
+        @Option(shortName = 'n', name = "name", defaultValue = "World")
+        private String name;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("Hello " + name + "!");
+            return CommandResult.SUCCESS;
+        }
+    }
+}
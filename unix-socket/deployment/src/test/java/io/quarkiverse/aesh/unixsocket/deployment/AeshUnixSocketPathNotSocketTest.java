@@ -0,0 +1,64 @@
+package io.quarkiverse.aesh.unixsocket.deployment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+
+/**
+ * Tests that the server refuses to start, and leaves the file alone, when the configured socket
+ * path is a regular file.
+ */
+public class AeshUnixSocketPathNotSocketTest {
+
+    private static final Path FILE = createFile();
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(HelloCommand.class))
+            .overrideConfigKey("quarkus.aesh.unix-socket.path", FILE.toString())
+            .assertException(t -> Assertions.assertThat(t).hasStackTraceContaining("is not a socket"));
+
+    @Test
+    public void testFileIsKept() throws IOException {
+        Assertions.assertThat(FILE).isRegularFile();
+        Assertions.assertThat(Files.readString(FILE)).isEqualTo("keep me");
+    }
+
+    @AfterAll
+    static void deleteFile() throws IOException {
+        Files.deleteIfExists(FILE);
+    }
+
+    private static Path createFile() {
+        try {
+            Path file = Files.createTempFile("aesh-unix-socket-not-socket", ".sock");
+            Files.writeString(file, "keep me");
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @CommandDefinition(name = "hello", description = "Says hello")
+    @CliCommand
+    public static class HelloCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.SUCCESS;
+        }
+    }
+}
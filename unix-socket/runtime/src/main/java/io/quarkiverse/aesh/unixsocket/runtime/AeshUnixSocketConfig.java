@@ -0,0 +1,52 @@
+package io.quarkiverse.aesh.unixsocket.runtime;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import io.quarkus.runtime.annotations.ConfigPhase;
+import io.quarkus.runtime.annotations.ConfigRoot;
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Configuration for the Aesh Unix domain socket terminal extension.
+ */
+@ConfigRoot(phase = ConfigPhase.RUN_TIME)
+@ConfigMapping(prefix = "quarkus.aesh.unix-socket")
+public interface AeshUnixSocketConfig {
+
+    /**
+     * Whether the Unix domain socket terminal server is enabled.
+     */
+    @WithDefault("true")
+    boolean enabled();
+
+    /**
+     * Path of the Unix domain socket.
+     * A socket file left behind by an application that did not stop cleanly is replaced.
+     */
+    @WithDefault("${java.io.tmpdir}/${quarkus.application.name:quarkus}-${user.name}.aesh-console.sock")
+    String path();
+
+    /**
+     * POSIX permissions of the socket file, which decide who can connect: connecting requires
+     * write permission. Grant it to the group, e.g. {@code rw-rw----}, to let a sidecar running
+     * as another user of the group connect. Ignored on file systems without POSIX permissions.
+     */
+    @WithDefault("rw-------")
+    String permissions();
+
+    /**
+     * Maximum number of concurrent sessions.
+     * If not set or &lt;= 0, there is no limit.
+     */
+    OptionalInt maxConnections();
+
+    /**
+     * Idle timeout for sessions. If a session has no input activity
+     * for this duration, it will be closed. If not set, sessions can
+     * remain idle indefinitely.
+     */
+    Optional<Duration> idleTimeout();
+}
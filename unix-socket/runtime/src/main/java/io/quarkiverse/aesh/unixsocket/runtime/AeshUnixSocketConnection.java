@@ -0,0 +1,216 @@
+package io.quarkiverse.aesh.unixsocket.runtime;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.aesh.terminal.http.HttpTtyConnection;
+import org.aesh.terminal.tty.Signal;
+import org.jboss.logging.Logger;
+
+import io.quarkiverse.aesh.runtime.AeshAdmissionController;
+import io.quarkiverse.aesh.runtime.AeshIdleSessionReaper;
+import io.quarkiverse.aesh.runtime.AeshRemoteSession;
+import io.quarkiverse.aesh.runtime.AeshSessionStats;
+import io.quarkiverse.aesh.runtime.AeshTerminalInput;
+
+/**
+ * Bridges a Unix domain {@link SocketChannel} to aesh-readline's {@link HttpTtyConnection}.
+ * <p>
+ * The socket carries the raw terminal streams, with no framing: keystrokes are decoded from the
+ * bytes read and delivered through {@link AeshTerminalInput}, and terminal output is written as
+ * is. Any client that puts the local terminal in raw mode works, for example
+ * {@code socat -,raw,echo=0 UNIX-CONNECT:<path>}. Since the stream carries no resize events, the
+ * terminal keeps the default size of {@link HttpTtyConnection}.
+ * <p>
+ * Input read before the session is {@linkplain #start started}, while it waits for an admission
+ * slot, is discarded. Closing the connection releases the slot, cancels the idle timeout and
+ * destroys the beans of the session.
+ */
+public class AeshUnixSocketConnection extends HttpTtyConnection {
+
+    private static final Logger LOG = Logger.getLogger(AeshUnixSocketConnection.class);
+    private static final int BUFFER_SIZE = 4096;
+
+    private final SocketChannel channel;
+    private final Runnable onClose;
+    private final AeshTerminalInput input = new AeshTerminalInput(this);
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    private volatile long lastActivityMs = System.currentTimeMillis();
+    private volatile AeshRemoteSession session;
+    private volatile AeshSessionStats stats;
+    private volatile AeshAdmissionController.Ticket ticket;
+    private volatile AeshAdmissionController.Slot admissionSlot;
+    volatile AeshIdleSessionReaper.Handle idleHandle;
+
+    /**
+     * @param channel the accepted client channel, in blocking mode
+     * @param onClose invoked once when the connection closes
+     */
+    public AeshUnixSocketConnection(SocketChannel channel, Runnable onClose) {
+        this.channel = channel;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Sets the admission ticket of the connection, cancelled if the client leaves while waiting
+     * for a slot.
+     */
+    void setTicket(AeshAdmissionController.Ticket ticket) {
+        this.ticket = ticket;
+        if (closed.get()) {
+            // The client left before the ticket was issued
+            ticket.cancel();
+        }
+    }
+
+    /**
+     * Starts delivering input to the session, once it has been admitted.
+     *
+     * @return {@code false} if the client left while the session was being admitted
+     */
+    boolean start(AeshRemoteSession session, AeshSessionStats stats, AeshAdmissionController.Slot slot) {
+        this.stats = stats;
+        this.admissionSlot = slot;
+        this.session = session;
+        if (closed.get()) {
+            // close() may have run before the slot was set: releasing twice is harmless
+            slot.release();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the input of the client until it disconnects, then closes the connection.
+     * Blocks the calling thread for the lifetime of the connection.
+     */
+    void readInput() {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        // A byte never decodes to more than one char
+        CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        try {
+            int count;
+            while ((count = channel.read(bytes)) != -1) {
+                lastActivityMs = System.currentTimeMillis();
+                AeshSessionStats current = stats;
+                if (current != null) {
+                    current.inputReceived(count);
+                }
+                bytes.flip();
+                // Keeps the bytes of a character split over two reads for the next one
+                decoder.decode(bytes, chars, false);
+                bytes.compact();
+                chars.flip();
+                if (session != null && chars.hasRemaining()) {
+                    input.accept(chars.codePoints().toArray());
+                }
+                chars.clear();
+            }
+        } catch (IOException e) {
+            if (!closed.get()) {
+                LOG.debugf(e, "Failed to read from Unix domain socket session");
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Writes a message to the client, outside of the terminal session.
+     */
+    void writeMessage(String message) {
+        writeFully(ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Returns the timestamp (in milliseconds) of the last client input.
+     */
+    public long getLastActivityMs() {
+        return lastActivityMs;
+    }
+
+    /**
+     * Returns the statistics of this session, or {@code null} if it has not started.
+     */
+    public AeshSessionStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public void setSignalHandler(Consumer<Signal> handler) {
+        AeshRemoteSession current = session;
+        super.setSignalHandler(current != null ? current.interceptSignals(handler) : handler);
+    }
+
+    @Override
+    public void setStdinHandler(Consumer<int[]> handler) {
+        super.setStdinHandler(handler);
+        input.drain();
+    }
+
+    @Override
+    protected void write(byte[] buffer) {
+        AeshSessionStats current = stats;
+        if (current != null) {
+            current.outputWritten();
+            current.frameSent(buffer.length);
+        }
+        writeFully(ByteBuffer.wrap(buffer));
+    }
+
+    private void writeFully(ByteBuffer buffer) {
+        synchronized (writeLock) {
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                if (!closed.get()) {
+                    LOG.debugf(e, "Failed to write to Unix domain socket session");
+                    close();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        AeshAdmissionController.Ticket pending = ticket;
+        if (pending != null) {
+            pending.cancel();
+        }
+        AeshIdleSessionReaper.Handle handle = idleHandle;
+        if (handle != null) {
+            handle.cancel();
+        }
+        AeshAdmissionController.Slot slot = admissionSlot;
+        if (slot != null) {
+            slot.release();
+        }
+        super.close();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.debugf(e, "Failed to close Unix domain socket session");
+        }
+        AeshRemoteSession current = session;
+        if (current != null) {
+            current.destroyBeans();
+        }
+        onClose.run();
+    }
+}
@@ -0,0 +1,304 @@
+package io.quarkiverse.aesh.unixsocket.runtime;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import org.jboss.logging.Logger;
+
+import io.quarkiverse.aesh.runtime.AeshAdmissionController;
+import io.quarkiverse.aesh.runtime.AeshIdleSessionReaper;
+import io.quarkiverse.aesh.runtime.AeshRemoteConnectionHandler;
+import io.quarkiverse.aesh.runtime.AeshRemoteSession;
+import io.quarkiverse.aesh.runtime.AeshSessionStats;
+import io.quarkiverse.aesh.runtime.AeshTransportStats;
+import io.quarkiverse.aesh.runtime.TransportSessionInfo;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jdk.net.ExtendedSocketOptions;
+import jdk.net.UnixDomainPrincipal;
+
+/**
+ * Manages the lifecycle of the Unix domain socket server for local aesh terminal access.
+ * <p>
+ * Local operators and sidecars reach the console without the key exchange and encryption of
+ * SSH or the HTTP upgrade of WebSocket: each connection is an {@link AeshUnixSocketConnection}
+ * carrying the raw terminal streams, handled by {@link AeshRemoteConnectionHandler} like the
+ * other transports.
+ * <p>
+ * Access is controlled by the permissions of the socket file, {@code rw-------} by default. The
+ * socket is bound in a private directory and moved into place once its permissions are set, so
+ * that no other user can connect in between. Where the platform reports the credentials of the
+ * peer, the session principal is the name of the connecting user.
+ * <p>
+ * Each session uses two threads: one runs its console, which blocks until the session ends,
+ * and one reads the input of the client. New connections are admitted by the shared
+ * {@link AeshAdmissionController}, which enforces {@code quarkus.aesh.unix-socket.max-connections}
+ * and may queue the connection until a slot is free.
+ */
+@ApplicationScoped
+public class AeshUnixSocketServer implements TransportSessionInfo {
+
+    private static final Logger LOG = Logger.getLogger(AeshUnixSocketServer.class);
+    private static final String TRANSPORT = "unix-socket";
+    private static final String REJECTED_MESSAGE = "Connection rejected: maximum number of sessions reached.\r\n";
+
+    @Inject
+    AeshRemoteConnectionHandler connectionHandler;
+
+    @Inject
+    AeshUnixSocketConfig config;
+
+    @Inject
+    AeshIdleSessionReaper idleReaper;
+
+    @Inject
+    AeshAdmissionController admission;
+
+    private final Set<AeshUnixSocketConnection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sessionIds = new AtomicInteger();
+    private final AeshTransportStats stats = new AeshTransportStats(TRANSPORT);
+
+    private volatile ServerSocketChannel server;
+    private Path socketPath;
+    private ExecutorService executor;
+
+    void onStart(@Observes StartupEvent event) throws IOException {
+        if (!config.enabled()) {
+            LOG.info("Aesh Unix domain socket server is disabled");
+            return;
+        }
+        socketPath = Path.of(config.path()).toAbsolutePath();
+        removeStaleSocket();
+        ServerSocketChannel channel = bind();
+
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "aesh-unix-socket-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server = channel;
+        Thread acceptor = new Thread(() -> acceptConnections(channel), "aesh-unix-socket-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        LOG.infof("Aesh Unix domain socket server listening on %s", socketPath);
+    }
+
+    private void removeStaleSocket() throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(socketPath, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        if (!attributes.isOther()) {
+            // Never delete a regular file, directory or link configured by mistake
+            throw new IOException("The path of the aesh Unix domain socket exists and is not a socket: " + socketPath);
+        }
+        try (SocketChannel probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            probe.connect(UnixDomainSocketAddress.of(socketPath));
+            throw new IllegalStateException("Another process is listening on the aesh Unix domain socket "
+                    + socketPath);
+        } catch (IOException e) {
+            // Left behind by an application that did not stop cleanly
+            Files.delete(socketPath);
+        }
+    }
+
+    private ServerSocketChannel bind() throws IOException {
+        Path parent = socketPath.getParent();
+        Files.createDirectories(parent);
+        ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                channel.bind(UnixDomainSocketAddress.of(socketPath));
+                return channel;
+            }
+            // Bound where only this user can connect until the permissions are set
+            Path privateDirectory = Files.createTempDirectory(parent, ".aesh-",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            try {
+                Path boundPath = privateDirectory.resolve("socket");
+                channel.bind(UnixDomainSocketAddress.of(boundPath));
+                Files.setPosixFilePermissions(boundPath, PosixFilePermissions.fromString(config.permissions()));
+                Files.move(boundPath, socketPath, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(privateDirectory.resolve("socket"));
+                Files.delete(privateDirectory);
+            }
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void acceptConnections(ServerSocketChannel channel) {
+        while (true) {
+            SocketChannel client;
+            try {
+                client = channel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                LOG.warnf(e, "Failed to accept Unix domain socket connection, stopping the server");
+                return;
+            }
+            handleConnection(client);
+        }
+    }
+
+    private void handleConnection(SocketChannel client) {
+        String principal = peerName(client);
+        AeshUnixSocketConnection[] holder = new AeshUnixSocketConnection[1];
+        AeshUnixSocketConnection conn = new AeshUnixSocketConnection(client, () -> {
+            connections.remove(holder[0]);
+            stats.close(holder[0].getStats());
+        });
+        holder[0] = conn;
+        connections.add(conn);
+        try {
+            executor.submit(conn::readInput);
+        } catch (RejectedExecutionException e) {
+            // The application is stopping
+            conn.close();
+            return;
+        }
+        conn.setTicket(admission.admit(TRANSPORT, new AeshAdmissionController.Callback() {
+            @Override
+            public void admitted(AeshAdmissionController.Slot slot) {
+                startSession(conn, principal, slot);
+            }
+
+            @Override
+            public void waiting(int position) {
+                conn.writeMessage(waitingMessage(position));
+            }
+
+            @Override
+            public void rejected(String reason) {
+                LOG.warnf("Rejected Unix domain socket connection: session limit reached (%s)", reason);
+                conn.writeMessage(REJECTED_MESSAGE);
+                conn.close();
+            }
+        }));
+    }
+
+    private void startSession(AeshUnixSocketConnection conn, String principal, AeshAdmissionController.Slot slot) {
+        AeshSessionStats sessionStats = stats.open(TRANSPORT + "-" + sessionIds.incrementAndGet());
+        AeshRemoteSession session = new AeshRemoteSession(TRANSPORT, principal);
+
+        // Tracked before starting, so that a close racing with the start either cancels the
+        // handle or makes the start fail, which cancels it here
+        long idleTimeoutMs = config.idleTimeout().map(d -> d.toMillis()).orElse(0L);
+        if (idleTimeoutMs > 0) {
+            conn.idleHandle = idleReaper.track(conn::getLastActivityMs, idleTimeoutMs, () -> {
+                LOG.infof("Closing idle Unix domain socket session (timeout: %dms)", idleTimeoutMs);
+                conn.close();
+            });
+        }
+        if (!conn.start(session, sessionStats, slot)) {
+            AeshIdleSessionReaper.Handle handle = conn.idleHandle;
+            if (handle != null) {
+                handle.cancel();
+            }
+            stats.close(sessionStats);
+            return;
+        }
+
+        // AeshConsoleRunner.start() calls openBlocking(), which blocks until close
+        try {
+            executor.submit(() -> connectionHandler.handle(conn, session));
+        } catch (RejectedExecutionException e) {
+            conn.close();
+        }
+    }
+
+    private static String peerName(SocketChannel client) {
+        try {
+            UnixDomainPrincipal peer = client.getOption(ExtendedSocketOptions.SO_PEERCRED);
+            return peer.user().getName();
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    static String waitingMessage(int position) {
+        return "All sessions are in use, waiting for a free slot (position " + position + ")...\r\n";
+    }
+
+    /**
+     * Returns the path of the socket, or {@code null} if the server is disabled.
+     */
+    public Path getSocketPath() {
+        return socketPath;
+    }
+
+    @Override
+    public boolean isRunning() {
+        ServerSocketChannel channel = server;
+        return channel != null && channel.isOpen();
+    }
+
+    public int getActiveConnectionCount() {
+        return admission.getActiveSessions(TRANSPORT);
+    }
+
+    @Override
+    public String getTransportName() {
+        return TRANSPORT;
+    }
+
+    @Override
+    public int getActiveSessionCount() {
+        return admission.getActiveSessions(TRANSPORT);
+    }
+
+    @Override
+    public int getMaxSessions() {
+        return config.maxConnections().orElse(-1);
+    }
+
+    @Override
+    public AeshTransportStats getStats() {
+        return stats;
+    }
+
+    void onStop(@Observes ShutdownEvent event) throws IOException {
+        ServerSocketChannel channel = server;
+        if (channel == null) {
+            return;
+        }
+        server = null;
+        channel.close();
+        Files.deleteIfExists(socketPath);
+        for (AeshUnixSocketConnection conn : connections) {
+            conn.close();
+        }
+        executor.shutdownNow();
+        LOG.info("Aesh Unix domain socket server stopped");
+    }
+}
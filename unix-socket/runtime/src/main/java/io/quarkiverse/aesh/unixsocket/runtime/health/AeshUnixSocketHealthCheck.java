@@ -0,0 +1,44 @@
+package io.quarkiverse.aesh.unixsocket.runtime.health;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+
+import io.quarkiverse.aesh.unixsocket.runtime.AeshUnixSocketConfig;
+import io.quarkiverse.aesh.unixsocket.runtime.AeshUnixSocketServer;
+
+@Readiness
+@ApplicationScoped
+public class AeshUnixSocketHealthCheck implements HealthCheck {
+
+    @Inject
+    AeshUnixSocketServer unixSocketServer;
+
+    @Inject
+    AeshUnixSocketConfig config;
+
+    @Override
+    public HealthCheckResponse call() {
+        HealthCheckResponseBuilder builder = HealthCheckResponse
+                .named("Aesh Unix domain socket server health check");
+
+        if (!config.enabled()) {
+            return builder.up().withData("server", "disabled").build();
+        }
+
+        if (unixSocketServer.isRunning()) {
+            return builder.up()
+                    .withData("path", unixSocketServer.getSocketPath().toString())
+                    .withData("activeConnections", unixSocketServer.getActiveConnectionCount())
+                    .build();
+        } else {
+            return builder.down()
+                    .withData("reason", "Unix domain socket server is not running")
+                    .build();
+        }
+    }
+}
@@ -56,7 +56,7 @@ class AeshWebSocketProcessor {
     void remoteTransport(AeshWebSocketConfig config,
             BuildProducer<AeshRemoteTransportBuildItem> producer) {
         if (config.enabled()) {
-            producer.produce(new AeshRemoteTransportBuildItem("websocket"));
+            producer.produce(new AeshRemoteTransportBuildItem("websocket", "quarkus.aesh.websocket.max-connections"));
         }
     }
 
@@ -0,0 +1,136 @@
+package io.quarkiverse.aesh.websocket.deployment;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.AeshAdmissionController;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebSocketClient;
+import io.vertx.core.http.WebSocketConnectOptions;
+
+/**
+ * Verifies that sessions over the limit wait in the admission queue, are told their position,
+ * start when a slot is released, and are rejected when the queue is full.
+ */
+public class AeshWebSocketAdmissionQueueTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(HelloCommand.class))
+            .overrideConfigKey("quarkus.aesh.websocket.max-connections", "1")
+            .overrideConfigKey("quarkus.aesh.sessions.queue-size", "1");
+
+    @TestHTTPResource("/aesh/terminal")
+    URI wsUri;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    AeshAdmissionController admission;
+
+    @Test
+    public void testQueuedSessionIsAdmittedWhenSlotIsReleased() throws Exception {
+        Session first = open();
+        first.sendHello();
+        Assertions.assertThat(first.hello.await(10, TimeUnit.SECONDS))
+                .as("First session should run")
+                .isTrue();
+
+        Session second = open();
+        Assertions.assertThat(second.waiting.await(10, TimeUnit.SECONDS))
+                .as("Second session should be told it is waiting")
+                .isTrue();
+        Assertions.assertThat(second.output()).contains("position 1");
+        Assertions.assertThat(admission.getQueueDepth()).isEqualTo(1);
+
+        Session third = open();
+        Assertions.assertThat(third.closed.await(10, TimeUnit.SECONDS))
+                .as("Third session should be rejected because the queue is full")
+                .isTrue();
+        Assertions.assertThat(third.output()).contains("Connection rejected");
+
+        first.socket.close();
+        second.sendHello();
+        Assertions.assertThat(second.hello.await(10, TimeUnit.SECONDS))
+                .as("Second session should run once the first one closed. Got: %s", second.output())
+                .isTrue();
+        Assertions.assertThat(admission.getQueueDepth()).isZero();
+        Assertions.assertThat(admission.getAdmittedAfterWait()).isEqualTo(1);
+        Assertions.assertThat(admission.getRejectedQueueFull()).isEqualTo(1);
+        second.socket.close();
+    }
+
+    private Session open() throws Exception {
+        Session session = new Session();
+        CountDownLatch connected = new CountDownLatch(1);
+        WebSocketClient client = vertx.createWebSocketClient();
+        client.connect(new WebSocketConnectOptions()
+                .setHost(wsUri.getHost())
+                .setPort(wsUri.getPort())
+                .setURI(wsUri.getPath())).onComplete(ar -> {
+                    Assertions.assertThat(ar.succeeded()).isTrue();
+                    session.socket = ar.result();
+                    session.socket.textMessageHandler(session::received);
+                    session.socket.closeHandler(v -> session.closed.countDown());
+                    session.socket.writeTextMessage("{\"action\":\"init\",\"cols\":80,\"rows\":24}");
+                    connected.countDown();
+                });
+        Assertions.assertThat(connected.await(10, TimeUnit.SECONDS)).isTrue();
+        return session;
+    }
+
+    private final class Session {
+
+        final StringBuilder output = new StringBuilder();
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final CountDownLatch hello = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        volatile WebSocket socket;
+
+        synchronized void received(String message) {
+            output.append(message);
+            if (message.contains("waiting for a free slot")) {
+                waiting.countDown();
+            }
+            if (output.toString().contains("Hello!")) {
+                hello.countDown();
+            }
+        }
+
+        synchronized String output() {
+            return output.toString();
+        }
+
+        void sendHello() {
+            // Give the console time to start before typing
+            vertx.setTimer(500, id -> socket.writeTextMessage("{\"action\":\"read\",\"data\":\"hello\\r\"}"));
+        }
+    }
+
+    @CommandDefinition(name = "hello", description = "Say hello")
+    @CliCommand
+    public static class HelloCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("Hello!");
+            return CommandResult.SUCCESS;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package io.quarkiverse.aesh.websocket.deployment;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkiverse.aesh.runtime.AsyncCommand;
+import io.quarkiverse.aesh.runtime.CompletionStageCommand;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkiverse.aesh.runtime.annotations.CommandTimeout;
+import io.quarkus.test.QuarkusUnitTest;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebSocketClient;
+import io.vertx.core.http.WebSocketConnectOptions;
+
+/**
+ * Verifies that {@link AsyncCommand} and {@link CompletionStageCommand} executions report the
+ * result of their {@code Uni} or stage, that a failed one is recorded as a failure, and that
+ * Ctrl-C and command timeouts cancel the pending work.
+ */
+public class AeshWebSocketAsyncCommandTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(UniOkCommand.class, UniFailCommand.class,
+                    UniWaitCommand.class, StageOkCommand.class, StageFailCommand.class, StageWaitCommand.class));
+
+    @TestHTTPResource("/aesh/terminal")
+    URI wsUri;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    public void testAsyncCommands() throws Exception {
+        CountDownLatch timedOut = new CountDownLatch(1);
+        StringBuilder output = new StringBuilder();
+        WebSocket[] socket = new WebSocket[1];
+        WebSocketClient client = vertx.createWebSocketClient();
+        client.connect(new WebSocketConnectOptions()
+                .setHost(wsUri.getHost())
+                .setPort(wsUri.getPort())
+                .setURI(wsUri.getPath())).onComplete(ar -> {
+                    Assertions.assertThat(ar.succeeded()).isTrue();
+                    socket[0] = ar.result();
+                    socket[0].textMessageHandler(msg -> {
+                        synchronized (output) {
+                            output.append(msg);
+                            if (output.toString().contains("timed out after 1s")) {
+                                timedOut.countDown();
+                            }
+                        }
+                    });
+                    socket[0].writeTextMessage("{\"action\":\"init\",\"cols\":80,\"rows\":24}");
+                    vertx.setTimer(500, id -> {
+                        read(socket[0], "uni-ok\\r");
+                        read(socket[0], "stage-ok\\r");
+                        read(socket[0], "uni-fail\\r");
+                        read(socket[0], "stage-fail\\r");
+                    });
+                });
+
+        Assertions.assertThat(awaitCounter("uni-ok", "success").count()).isEqualTo(1.0);
+        Assertions.assertThat(awaitCounter("stage-ok", "success").count()).isEqualTo(1.0);
+        Assertions.assertThat(awaitCounter("uni-fail", "failure").count()).isEqualTo(1.0);
+        Assertions.assertThat(awaitCounter("stage-fail", "failure").count()).isEqualTo(1.0);
+        synchronized (output) {
+            Assertions.assertThat(output.toString()).contains("Uni done", "Stage done");
+        }
+
+        // Ctrl-C cancels the subscription to the Uni
+        read(socket[0], "uni-wait\\r");
+        Assertions.assertThat(UniWaitCommand.SUBSCRIBED.await(10, TimeUnit.SECONDS)).isTrue();
+        read(socket[0], "\\u0003");
+        Assertions.assertThat(UniWaitCommand.CANCELLED.await(10, TimeUnit.SECONDS))
+                .as("Ctrl-C must cancel the Uni")
+                .isTrue();
+        awaitCounter("uni-wait", "failure");
+
+        // The command timeout cancels the stage
+        read(socket[0], "stage-wait\\r");
+        Assertions.assertThat(timedOut.await(10, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(StageWaitCommand.STAGE.get().isCancelled())
+                .as("The timeout must cancel the stage")
+                .isTrue();
+        socket[0].close();
+    }
+
+    private static void read(WebSocket socket, String data) {
+        socket.writeTextMessage("{\"action\":\"read\",\"data\":\"" + data + "\"}");
+    }
+
+    private Counter awaitCounter(String command, String outcome) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Counter counter = registry.find("aesh.command.executions")
+                    .tags("command", command, "transport", "websocket", "outcome", outcome)
+                    .counter();
+            if (counter != null && counter.count() > 0) {
+                return counter;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No " + outcome + " execution recorded for command " + command);
+    }
+
+    @CommandDefinition(name = "uni-ok", description = "Completes a Uni later")
+    @CliCommand
+    public static class UniOkCommand implements AsyncCommand<CommandInvocation> {
+
+        @Override
+        public Uni<CommandResult> executeAsync(CommandInvocation invocation) {
+            return Uni.createFrom().item(CommandResult.SUCCESS)
+                    .onItem().delayIt().by(Duration.ofMillis(100))
+                    .invoke(() -> invocation.println("Uni done"));
+        }
+    }
+
+    @CommandDefinition(name = "uni-fail", description = "Fails a Uni")
+    @CliCommand
+    public static class UniFailCommand implements AsyncCommand<CommandInvocation> {
+
+        @Override
+        public Uni<CommandResult> executeAsync(CommandInvocation invocation) {
+            return Uni.createFrom().failure(new CommandException("Uni failed"));
+        }
+    }
+
+    @CommandDefinition(name = "uni-wait", description = "Returns a Uni that never completes")
+    @CliCommand
+    public static class UniWaitCommand implements AsyncCommand<CommandInvocation> {
+
+        static final CountDownLatch SUBSCRIBED = new CountDownLatch(1);
+        static final CountDownLatch CANCELLED = new CountDownLatch(1);
+
+        @Override
+        public Uni<CommandResult> executeAsync(CommandInvocation invocation) {
+            return Uni.createFrom().<CommandResult> nothing()
+                    .onSubscription().invoke(SUBSCRIBED::countDown)
+                    .onCancellation().invoke(CANCELLED::countDown);
+        }
+    }
+
+    @CommandDefinition(name = "stage-ok", description = "Completes a stage later")
+    @CliCommand
+    public static class StageOkCommand implements CompletionStageCommand<CommandInvocation> {
+
+        @Override
+        public CompletionStage<CommandResult> executeAsync(CommandInvocation invocation) {
+            return CompletableFuture.supplyAsync(() -> {
+                invocation.println("Stage done");
+                return CommandResult.SUCCESS;
+            }, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @CommandDefinition(name = "stage-fail", description = "Fails a stage")
+    @CliCommand
+    public static class StageFailCommand implements CompletionStageCommand<CommandInvocation> {
+
+        @Override
+        public CompletionStage<CommandResult> executeAsync(CommandInvocation invocation) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Stage failed"));
+        }
+    }
+
+    @CommandDefinition(name = "stage-wait", description = "Returns a stage that never completes")
+    @CliCommand
+    @CommandTimeout(1)
+    public static class StageWaitCommand implements CompletionStageCommand<CommandInvocation> {
+
+        static final AtomicReference<CompletableFuture<CommandResult>> STAGE = new AtomicReference<>();
+
+        @Override
+        public CompletionStage<CommandResult> executeAsync(CommandInvocation invocation) {
+            CompletableFuture<CommandResult> stage = new CompletableFuture<>();
+            STAGE.set(stage);
+            return stage;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package io.quarkiverse.aesh.websocket.deployment;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.aesh.command.option.Option;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.AeshTerminalInput;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkiverse.aesh.websocket.runtime.AeshWebSocketBinaryProtocol;
+import io.quarkus.test.QuarkusUnitTest;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.WebSocketClient;
+import io.vertx.core.http.WebSocketConnectOptions;
+
+/**
+ * Verifies that a client can switch a session to the binary frame protocol and run commands
+ * with opcode-prefixed input and output frames, including interrupting them with Ctrl-C.
+ */
+public class AeshWebSocketBinaryProtocolTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(HelloCommand.class, WaitCommand.class))
+            .overrideConfigKey("quarkus.aesh.websocket.binary-protocol.enabled", "true");
+
+    @TestHTTPResource("/aesh/terminal")
+    URI wsUri;
+
+    @Inject
+    Vertx vertx;
+
+    @Test
+    public void testBinaryProtocol() throws Exception {
+        AtomicBoolean textFrameAfterAccept = new AtomicBoolean();
+        AtomicBoolean accepted = new AtomicBoolean();
+        StringBuilder output = new StringBuilder();
+        CountDownLatch done = new CountDownLatch(1);
+
+        WebSocketClient client = vertx.createWebSocketClient();
+        client.connect(new WebSocketConnectOptions()
+                .setHost(wsUri.getHost())
+                .setPort(wsUri.getPort())
+                .setURI(wsUri.getPath())).onComplete(ar -> {
+                    Assertions.assertThat(ar.succeeded()).isTrue();
+                    var ws = ar.result();
+                    ws.textMessageHandler(msg -> {
+                        if (accepted.get()) {
+                            textFrameAfterAccept.set(true);
+                        }
+                    });
+                    ws.binaryMessageHandler(frame -> {
+                        byte opcode = frame.getByte(0);
+                        if (!accepted.get()) {
+                            Assertions.assertThat(opcode).isEqualTo(AeshWebSocketBinaryProtocol.ACCEPT);
+                            accepted.set(true);
+                            ws.writeBinaryMessage(Buffer.buffer()
+                                    .appendByte(AeshWebSocketBinaryProtocol.INPUT)
+                                    .appendString("hello --name=Binary\r", StandardCharsets.UTF_8.name()));
+                            return;
+                        }
+                        Assertions.assertThat(opcode).isEqualTo(AeshWebSocketBinaryProtocol.OUTPUT);
+                        synchronized (output) {
+                            output.append(frame.getString(1, frame.length(), StandardCharsets.UTF_8.name()));
+                            if (output.toString().contains("Hello Binary!")) {
+                                done.countDown();
+                            }
+                        }
+                    });
+                    ws.writeTextMessage("{\"action\":\"init\",\"cols\":80,\"rows\":24,\"binary\":true}");
+                });
+
+        Assertions.assertThat(done.await(15, TimeUnit.SECONDS))
+                .as("Expected command output in binary frames. Got: %s", output)
+                .isTrue();
+        Assertions.assertThat(textFrameAfterAccept.get())
+                .as("No text frames should be sent once the binary protocol is accepted")
+                .isFalse();
+    }
+
+    @Test
+    public void testCtrlCInterruptsCommand() throws Exception {
+        AtomicBoolean accepted = new AtomicBoolean();
+        AtomicBoolean interruptSent = new AtomicBoolean();
+        StringBuilder output = new StringBuilder();
+        CountDownLatch done = new CountDownLatch(1);
+
+        WebSocketClient client = vertx.createWebSocketClient();
+        client.connect(new WebSocketConnectOptions()
+                .setHost(wsUri.getHost())
+                .setPort(wsUri.getPort())
+                .setURI(wsUri.getPath())).onComplete(ar -> {
+                    Assertions.assertThat(ar.succeeded()).isTrue();
+                    var ws = ar.result();
+                    ws.binaryMessageHandler(frame -> {
+                        if (!accepted.getAndSet(true)) {
+                            ws.writeBinaryMessage(input("wait\r"));
+                            return;
+                        }
+                        synchronized (output) {
+                            output.append(frame.getString(1, frame.length(), StandardCharsets.UTF_8.name()));
+                            if (output.toString().contains("Waiting") && !interruptSent.getAndSet(true)) {
+                                ws.writeBinaryMessage(input("\u0003"));
+                            }
+                            if (output.toString().contains("Interrupted")) {
+                                done.countDown();
+                            }
+                        }
+                    });
+                    ws.writeTextMessage("{\"action\":\"init\",\"cols\":80,\"rows\":24,\"binary\":true}");
+                });
+
+        Assertions.assertThat(done.await(15, TimeUnit.SECONDS))
+                .as("Expected Ctrl-C in a binary frame to interrupt the command. Got: %s", output)
+                .isTrue();
+    }
+
+    @Test
+    public void testDecodeUtf8() {
+        byte[] bytes = "a\u00e9\u20ac\ud83d\ude00".getBytes(StandardCharsets.UTF_8);
+        Assertions.assertThat(AeshTerminalInput.decodeUtf8(ByteBuffer.wrap(bytes)))
+                .containsExactly('a', 0xE9, 0x20AC, 0x1F600);
+        // A truncated sequence followed by ASCII, and a lone continuation byte
+        Assertions.assertThat(AeshTerminalInput.decodeUtf8(ByteBuffer.wrap(new byte[] { (byte) 0xE2, (byte) 0x82, 'x',
+                (byte) 0x80 })))
+                .containsExactly(0xFFFD, 'x', 0xFFFD);
+    }
+
+    private static Buffer input(String keys) {
+        return Buffer.buffer()
+                .appendByte(AeshWebSocketBinaryProtocol.INPUT)
+                .appendString(keys, StandardCharsets.UTF_8.name());
+    }
+
+    @CommandDefinition(name = "hello", description = "Say hello")
+    @CliCommand
+    public static class HelloCommand implements Command<CommandInvocation> {
+
+        @Option(shortName = 'n', name = "name", defaultValue = "World")
+        private String name;
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("Hello " + name + "!");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "wait", description = "Wait until interrupted")
+    @CliCommand
+    public static class WaitCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("Waiting");
+            try {
+                Thread.sleep(30_000);
+            } catch (InterruptedException e) {
+                invocation.println("Interrupted");
+                return CommandResult.FAILURE;
+            }
+            return CommandResult.SUCCESS;
+        }
+    }
+}
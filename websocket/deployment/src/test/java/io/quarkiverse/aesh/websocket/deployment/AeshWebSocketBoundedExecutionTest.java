@@ -0,0 +1,102 @@
+package io.quarkiverse.aesh.websocket.deployment;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebSocketClient;
+import io.vertx.core.http.WebSocketConnectOptions;
+
+/**
+ * Verifies that the {@code bounded} execution model runs sessions on its own pool and
+ * closes sessions opened while every thread of the pool is busy.
+ */
+public class AeshWebSocketBoundedExecutionTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(ThreadCommand.class))
+            .overrideConfigKey("quarkus.aesh.websocket.execution-model", "bounded")
+            .overrideConfigKey("quarkus.aesh.websocket.bounded-pool-size", "1");
+
+    @TestHTTPResource("/aesh/terminal")
+    URI wsUri;
+
+    @Inject
+    Vertx vertx;
+
+    @Test
+    public void testSessionsBeyondPoolSizeAreRejected() throws Exception {
+        CountDownLatch firstReady = new CountDownLatch(1);
+        StringBuilder firstOutput = new StringBuilder();
+
+        connect().onComplete(ar -> {
+            Assertions.assertThat(ar.succeeded()).isTrue();
+            var ws = ar.result();
+            ws.textMessageHandler(msg -> {
+                synchronized (firstOutput) {
+                    firstOutput.append(msg);
+                    if (firstOutput.toString().contains("thread=aesh-ws-")) {
+                        firstReady.countDown();
+                    }
+                }
+            });
+            ws.writeTextMessage("{\"action\":\"init\",\"cols\":80,\"rows\":24}");
+            vertx.setTimer(500, id -> ws.writeTextMessage("{\"action\":\"read\",\"data\":\"thread\\r\"}"));
+        });
+
+        Assertions.assertThat(firstReady.await(15, TimeUnit.SECONDS))
+                .as("The first session should run on the bounded pool. Got: %s", firstOutput)
+                .isTrue();
+
+        CountDownLatch secondClosed = new CountDownLatch(1);
+        connect().onComplete(ar -> {
+            if (ar.failed()) {
+                secondClosed.countDown();
+                return;
+            }
+            var ws = ar.result();
+            ws.closeHandler(v -> secondClosed.countDown());
+            ws.writeTextMessage("{\"action\":\"init\",\"cols\":80,\"rows\":24}");
+        });
+
+        Assertions.assertThat(secondClosed.await(10, TimeUnit.SECONDS))
+                .as("A session opened while the pool is full should be closed by the server")
+                .isTrue();
+    }
+
+    private Future<WebSocket> connect() {
+        WebSocketClient client = vertx.createWebSocketClient();
+        return client.connect(new WebSocketConnectOptions()
+                .setHost(wsUri.getHost())
+                .setPort(wsUri.getPort())
+                .setURI(wsUri.getPath()));
+    }
+
+    @CommandDefinition(name = "thread", description = "Print the current thread name")
+    @CliCommand
+    public static class ThreadCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("thread=" + Thread.currentThread().getName());
+            return CommandResult.SUCCESS;
+        }
+    }
+}
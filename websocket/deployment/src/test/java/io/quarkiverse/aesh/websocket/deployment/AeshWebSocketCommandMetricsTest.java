@@ -0,0 +1,106 @@
+package io.quarkiverse.aesh.websocket.deployment;
+
+import java.net.URI;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.WebSocketClient;
+import io.vertx.core.http.WebSocketConnectOptions;
+
+/**
+ * Verifies that commands run over WebSocket are recorded as Micrometer meters tagged with
+ * the command name, the transport and the outcome.
+ */
+public class AeshWebSocketCommandMetricsTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(HelloCommand.class, FailCommand.class));
+
+    @TestHTTPResource("/aesh/terminal")
+    URI wsUri;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    public void testCommandMetrics() throws Exception {
+        WebSocketClient client = vertx.createWebSocketClient();
+        client.connect(new WebSocketConnectOptions()
+                .setHost(wsUri.getHost())
+                .setPort(wsUri.getPort())
+                .setURI(wsUri.getPath())).onComplete(ar -> {
+                    Assertions.assertThat(ar.succeeded()).isTrue();
+                    var ws = ar.result();
+                    ws.writeTextMessage("{\"action\":\"init\",\"cols\":80,\"rows\":24}");
+                    vertx.setTimer(500, id -> {
+                        ws.writeTextMessage("{\"action\":\"read\",\"data\":\"hello\\r\"}");
+                        ws.writeTextMessage("{\"action\":\"read\",\"data\":\"fail\\r\"}");
+                    });
+                });
+
+        Counter success = awaitCounter("hello", "success");
+        Counter failure = awaitCounter("fail", "failure");
+        Assertions.assertThat(success.count()).isEqualTo(1.0);
+        Assertions.assertThat(failure.count()).isEqualTo(1.0);
+
+        Timer timer = registry.find("aesh.command.duration")
+                .tags("command", "hello", "transport", "websocket", "outcome", "success")
+                .timer();
+        Assertions.assertThat(timer).isNotNull();
+        Assertions.assertThat(timer.count()).isEqualTo(1L);
+    }
+
+    private Counter awaitCounter(String command, String outcome) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Counter counter = registry.find("aesh.command.executions")
+                    .tags("command", command, "transport", "websocket", "outcome", outcome)
+                    .counter();
+            if (counter != null && counter.count() > 0) {
+                return counter;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No " + outcome + " execution recorded for command " + command);
+    }
+
+    @CommandDefinition(name = "hello", description = "Say hello")
+    @CliCommand
+    public static class HelloCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("Hello!");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "fail", description = "Always fails")
+    @CliCommand
+    public static class FailCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            return CommandResult.FAILURE;
+        }
+    }
+}
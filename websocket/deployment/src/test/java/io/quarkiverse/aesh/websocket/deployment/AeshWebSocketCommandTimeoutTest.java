@@ -0,0 +1,112 @@
+package io.quarkiverse.aesh.websocket.deployment;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkiverse.aesh.runtime.annotations.CommandTimeout;
+import io.quarkus.test.QuarkusUnitTest;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebSocketClient;
+import io.vertx.core.http.WebSocketConnectOptions;
+
+/**
+ * Verifies that a command running past its {@link CommandTimeout} is interrupted, that the user
+ * is told so, and that the session keeps accepting commands afterwards.
+ */
+public class AeshWebSocketCommandTimeoutTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(SlowCommand.class, PingCommand.class));
+
+    @TestHTTPResource("/aesh/terminal")
+    URI wsUri;
+
+    @Inject
+    Vertx vertx;
+
+    @Test
+    public void testSlowCommandIsInterrupted() throws Exception {
+        CountDownLatch timedOut = new CountDownLatch(1);
+        CountDownLatch pong = new CountDownLatch(1);
+        StringBuilder output = new StringBuilder();
+        WebSocket[] socket = new WebSocket[1];
+        WebSocketClient client = vertx.createWebSocketClient();
+        client.connect(new WebSocketConnectOptions()
+                .setHost(wsUri.getHost())
+                .setPort(wsUri.getPort())
+                .setURI(wsUri.getPath())).onComplete(ar -> {
+                    Assertions.assertThat(ar.succeeded()).isTrue();
+                    socket[0] = ar.result();
+                    socket[0].textMessageHandler(msg -> {
+                        synchronized (output) {
+                            output.append(msg);
+                            if (timedOut.getCount() > 0 && output.toString().contains("timed out after 1s")) {
+                                timedOut.countDown();
+                                socket[0].writeTextMessage("{\"action\":\"read\",\"data\":\"ping\\r\"}");
+                            }
+                            if (output.toString().contains("pong")) {
+                                pong.countDown();
+                            }
+                        }
+                    });
+                    socket[0].writeTextMessage("{\"action\":\"init\",\"cols\":80,\"rows\":24}");
+                    vertx.setTimer(500, id -> socket[0].writeTextMessage(
+                            "{\"action\":\"read\",\"data\":\"slow\\r\"}"));
+                });
+
+        Assertions.assertThat(timedOut.await(10, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(SlowCommand.INTERRUPTED.get())
+                .as("The command thread must be interrupted")
+                .isTrue();
+        Assertions.assertThat(pong.await(10, TimeUnit.SECONDS))
+                .as("The session must remain usable")
+                .isTrue();
+        socket[0].close();
+    }
+
+    @CommandDefinition(name = "slow", description = "A command that never finishes on its own")
+    @CliCommand
+    @CommandTimeout(1)
+    public static class SlowCommand implements Command<CommandInvocation> {
+
+        static final AtomicBoolean INTERRUPTED = new AtomicBoolean();
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) throws InterruptedException {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                INTERRUPTED.set(true);
+                throw e;
+            }
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "ping", description = "Answers pong")
+    @CliCommand
+    public static class PingCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("pong");
+            return CommandResult.SUCCESS;
+        }
+    }
+}
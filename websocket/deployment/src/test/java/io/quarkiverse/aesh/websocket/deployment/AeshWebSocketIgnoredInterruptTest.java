@@ -0,0 +1,116 @@
+package io.quarkiverse.aesh.websocket.deployment;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebSocketClient;
+import io.vertx.core.http.WebSocketConnectOptions;
+
+/**
+ * Verifies that the interrupt of a Ctrl-C the command ignored is cleared when it returns, so
+ * that it does not leak into the prompt nor into the next command of the session.
+ */
+public class AeshWebSocketIgnoredInterruptTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(SpinCommand.class, CheckCommand.class));
+
+    @TestHTTPResource("/aesh/terminal")
+    URI wsUri;
+
+    @Inject
+    Vertx vertx;
+
+    @Test
+    public void testIgnoredInterruptIsCleared() throws Exception {
+        CountDownLatch checked = new CountDownLatch(1);
+        AtomicBoolean interruptSent = new AtomicBoolean();
+        AtomicBoolean checkSent = new AtomicBoolean();
+        StringBuilder output = new StringBuilder();
+        WebSocket[] socket = new WebSocket[1];
+        WebSocketClient client = vertx.createWebSocketClient();
+        client.connect(new WebSocketConnectOptions()
+                .setHost(wsUri.getHost())
+                .setPort(wsUri.getPort())
+                .setURI(wsUri.getPath())).onComplete(ar -> {
+                    Assertions.assertThat(ar.succeeded()).isTrue();
+                    socket[0] = ar.result();
+                    socket[0].textMessageHandler(msg -> {
+                        synchronized (output) {
+                            output.append(msg);
+                            String text = output.toString();
+                            if (text.contains("Spinning") && interruptSent.compareAndSet(false, true)) {
+                                socket[0].writeTextMessage("{\"action\":\"read\",\"data\":\"\\u0003\"}");
+                            }
+                            if (text.contains("Spun") && checkSent.compareAndSet(false, true)) {
+                                socket[0].writeTextMessage("{\"action\":\"read\",\"data\":\"check\\r\"}");
+                            }
+                            if (text.contains("interrupted=")) {
+                                checked.countDown();
+                            }
+                        }
+                    });
+                    socket[0].writeTextMessage("{\"action\":\"init\",\"cols\":80,\"rows\":24}");
+                    vertx.setTimer(500, id -> socket[0].writeTextMessage(
+                            "{\"action\":\"read\",\"data\":\"spin\\r\"}"));
+                });
+
+        Assertions.assertThat(checked.await(10, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(SpinCommand.INTERRUPTED.get())
+                .as("Ctrl-C must interrupt the command thread")
+                .isTrue();
+        synchronized (output) {
+            Assertions.assertThat(output.toString()).contains("interrupted=false");
+        }
+        socket[0].close();
+    }
+
+    @CommandDefinition(name = "spin", description = "Runs for a while without checking interrupts")
+    @CliCommand
+    public static class SpinCommand implements Command<CommandInvocation> {
+
+        static final AtomicBoolean INTERRUPTED = new AtomicBoolean();
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("Spinning");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (System.nanoTime() - deadline < 0 && !Thread.currentThread().isInterrupted()) {
+                Thread.onSpinWait();
+            }
+            // Leaves the interrupt set, as a command catching and ignoring it would
+            INTERRUPTED.set(Thread.currentThread().isInterrupted());
+            invocation.println("Spun");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "check", description = "Reports whether its thread is interrupted")
+    @CliCommand
+    public static class CheckCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("interrupted=" + Thread.currentThread().isInterrupted());
+            return CommandResult.SUCCESS;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.quarkiverse.aesh.websocket.deployment;
+
+import java.net.URI;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandException;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.WebSocketClient;
+import io.vertx.core.http.WebSocketConnectOptions;
+
+/**
+ * Verifies that commands inheriting {@code execute}, from an abstract class that is not a
+ * command or from another command, are recorded once under their own name.
+ */
+public class AeshWebSocketInheritedExecuteMetricsTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(AbstractGreeting.class, GreetCommand.class,
+                    LoudGreetCommand.class, PoliteGreetCommand.class));
+
+    @TestHTTPResource("/aesh/terminal")
+    URI wsUri;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    public void testInheritedExecuteIsRecordedPerCommand() throws Exception {
+        WebSocketClient client = vertx.createWebSocketClient();
+        client.connect(new WebSocketConnectOptions()
+                .setHost(wsUri.getHost())
+                .setPort(wsUri.getPort())
+                .setURI(wsUri.getPath())).onComplete(ar -> {
+                    Assertions.assertThat(ar.succeeded()).isTrue();
+                    var ws = ar.result();
+                    ws.writeTextMessage("{\"action\":\"init\",\"cols\":80,\"rows\":24}");
+                    vertx.setTimer(500, id -> {
+                        ws.writeTextMessage("{\"action\":\"read\",\"data\":\"greet\\r\"}");
+                        ws.writeTextMessage("{\"action\":\"read\",\"data\":\"loud-greet\\r\"}");
+                        ws.writeTextMessage("{\"action\":\"read\",\"data\":\"polite-greet\\r\"}");
+                    });
+                });
+
+        Counter greet = awaitCounter("greet");
+        Counter loud = awaitCounter("loud-greet");
+        Counter polite = awaitCounter("polite-greet");
+        Assertions.assertThat(greet.count()).isEqualTo(1.0);
+        Assertions.assertThat(loud.count()).isEqualTo(1.0);
+        Assertions.assertThat(polite.count())
+                .as("super.execute of a command must not be recorded again")
+                .isEqualTo(1.0);
+    }
+
+    private Counter awaitCounter(String command) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            Counter counter = registry.find("aesh.command.executions")
+                    .tags("command", command, "transport", "websocket", "outcome", "success")
+                    .counter();
+            if (counter != null && counter.count() > 0) {
+                return counter;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No execution recorded for command " + command);
+    }
+
+    public abstract static class AbstractGreeting implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) throws CommandException, InterruptedException {
+            invocation.println(greeting());
+            return CommandResult.SUCCESS;
+        }
+
+        protected abstract String greeting();
+    }
+
+    @CommandDefinition(name = "greet", description = "Greets")
+    @CliCommand
+    public static class GreetCommand extends AbstractGreeting {
+
+        @Override
+        protected String greeting() {
+            return "Hello!";
+        }
+    }
+
+    @CommandDefinition(name = "loud-greet", description = "Greets loudly")
+    @CliCommand
+    public static class LoudGreetCommand extends GreetCommand {
+
+        @Override
+        protected String greeting() {
+            return "HELLO!";
+        }
+    }
+
+    @CommandDefinition(name = "polite-greet", description = "Greets politely")
+    @CliCommand
+    public static class PoliteGreetCommand extends GreetCommand {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) throws CommandException, InterruptedException {
+            invocation.println("Good day.");
+            return super.execute(invocation);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.quarkiverse.aesh.websocket.deployment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.websocket.runtime.AeshWebSocketOutputBuffer;
+import io.quarkus.test.QuarkusUnitTest;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Vertx;
+
+/**
+ * Tests the coalescing and back-pressure behaviour of {@link AeshWebSocketOutputBuffer}.
+ */
+public class AeshWebSocketOutputBufferTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest();
+
+    @Inject
+    Vertx vertx;
+
+    @Test
+    public void testSmallWritesAreCoalesced() throws Exception {
+        List<String> frames = new CopyOnWriteArrayList<>();
+        CountDownLatch sent = new CountDownLatch(1);
+        AeshWebSocketOutputBuffer output = new AeshWebSocketOutputBuffer(vertx, (data, length) -> {
+            frames.add(new String(data, 0, length, StandardCharsets.UTF_8));
+            sent.countDown();
+            return Uni.createFrom().voidItem();
+        }, 50, 1024, 4096);
+
+        for (int i = 0; i < 10; i++) {
+            output.write(("chunk" + i + ";").getBytes(StandardCharsets.UTF_8));
+        }
+
+        Assertions.assertThat(sent.await(5, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(frames).hasSize(1);
+        Assertions.assertThat(frames.get(0)).startsWith("chunk0;").endsWith("chunk9;");
+    }
+
+    @Test
+    public void testFlushSizeSendsImmediately() {
+        List<Integer> frameSizes = new CopyOnWriteArrayList<>();
+        AeshWebSocketOutputBuffer output = new AeshWebSocketOutputBuffer(vertx, (data, length) -> {
+            frameSizes.add(length);
+            return Uni.createFrom().voidItem();
+        }, 60_000, 100, 4096);
+
+        output.write(new byte[60]);
+        Assertions.assertThat(frameSizes).isEmpty();
+        output.write(new byte[60]);
+        Assertions.assertThat(frameSizes).containsExactly(120);
+    }
+
+    @Test
+    public void testWriterBlocksWhilePendingLimitIsReached() throws Exception {
+        CompletableFuture<Void> network = new CompletableFuture<>();
+        AeshWebSocketOutputBuffer output = new AeshWebSocketOutputBuffer(vertx,
+                (data, length) -> Uni.createFrom().completionStage(network), 0, 100, 100);
+
+        output.write(new byte[100]);
+        Assertions.assertThat(output.pendingBytes()).isEqualTo(100);
+
+        CountDownLatch secondWriteDone = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            output.write(new byte[10]);
+            secondWriteDone.countDown();
+        });
+        writer.start();
+
+        Assertions.assertThat(secondWriteDone.await(300, TimeUnit.MILLISECONDS))
+                .as("The writer should wait while the pending limit is reached")
+                .isFalse();
+
+        network.complete(null);
+        Assertions.assertThat(secondWriteDone.await(5, TimeUnit.SECONDS))
+                .as("The writer should resume once the pending frame has been sent")
+                .isTrue();
+        writer.join();
+    }
+}
@@ -0,0 +1,104 @@
+package io.quarkiverse.aesh.websocket.deployment;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkiverse.aesh.runtime.annotations.RateLimited;
+import io.quarkus.test.QuarkusUnitTest;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebSocketClient;
+import io.vertx.core.http.WebSocketConnectOptions;
+
+/**
+ * Verifies that a command annotated with {@link RateLimited} is refused with the configured
+ * message once its limit is used up, while other commands keep running.
+ */
+public class AeshWebSocketRateLimitTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(ExpensiveCommand.class, CheapCommand.class))
+            .overrideConfigKey("quarkus.aesh.rate-limit.message", "Slow down!");
+
+    @TestHTTPResource("/aesh/terminal")
+    URI wsUri;
+
+    @Inject
+    Vertx vertx;
+
+    @Test
+    public void testRateLimitedCommandIsThrottled() throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        StringBuilder output = new StringBuilder();
+        WebSocket[] socket = new WebSocket[1];
+        WebSocketClient client = vertx.createWebSocketClient();
+        client.connect(new WebSocketConnectOptions()
+                .setHost(wsUri.getHost())
+                .setPort(wsUri.getPort())
+                .setURI(wsUri.getPath())).onComplete(ar -> {
+                    Assertions.assertThat(ar.succeeded()).isTrue();
+                    socket[0] = ar.result();
+                    socket[0].textMessageHandler(msg -> {
+                        synchronized (output) {
+                            output.append(msg);
+                            if (output.toString().contains("Cheap!")) {
+                                done.countDown();
+                            }
+                        }
+                    });
+                    socket[0].writeTextMessage("{\"action\":\"init\",\"cols\":80,\"rows\":24}");
+                    vertx.setTimer(500, id -> socket[0].writeTextMessage(
+                            "{\"action\":\"read\",\"data\":\"expensive\\rexpensive\\rcheap\\r\"}"));
+                });
+
+        Assertions.assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        synchronized (output) {
+            Assertions.assertThat(output.toString()).contains("Slow down!");
+        }
+        Assertions.assertThat(ExpensiveCommand.EXECUTIONS.get())
+                .as("The second execution must be refused")
+                .isEqualTo(1);
+        socket[0].close();
+    }
+
+    @CommandDefinition(name = "expensive", description = "An expensive command")
+    @CliCommand
+    @RateLimited(permitsPerSecond = 0.01, burst = 1)
+    public static class ExpensiveCommand implements Command<CommandInvocation> {
+
+        static final AtomicInteger EXECUTIONS = new AtomicInteger();
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            EXECUTIONS.incrementAndGet();
+            invocation.println("Expensive!");
+            return CommandResult.SUCCESS;
+        }
+    }
+
+    @CommandDefinition(name = "cheap", description = "A cheap command")
+    @CliCommand
+    public static class CheapCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("Cheap!");
+            return CommandResult.SUCCESS;
+        }
+    }
+}
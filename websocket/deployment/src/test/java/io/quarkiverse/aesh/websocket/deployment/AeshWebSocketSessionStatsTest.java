@@ -0,0 +1,113 @@
+package io.quarkiverse.aesh.websocket.deployment;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.aesh.command.Command;
+import org.aesh.command.CommandDefinition;
+import org.aesh.command.CommandResult;
+import org.aesh.command.invocation.CommandInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import io.quarkiverse.aesh.runtime.AeshSessionStats;
+import io.quarkiverse.aesh.runtime.AeshTransportStats;
+import io.quarkiverse.aesh.runtime.TransportSessionInfo;
+import io.quarkiverse.aesh.runtime.annotations.CliCommand;
+import io.quarkus.test.QuarkusUnitTest;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.http.WebSocketClient;
+import io.vertx.core.http.WebSocketConnectOptions;
+
+/**
+ * Verifies that the WebSocket transport counts the traffic and echo latency of its sessions,
+ * and keeps the traffic of closed sessions in its totals.
+ */
+public class AeshWebSocketSessionStatsTest {
+
+    @RegisterExtension
+    static final QuarkusUnitTest config = new QuarkusUnitTest()
+            .withApplicationRoot(jar -> jar.addClasses(HelloCommand.class));
+
+    @TestHTTPResource("/aesh/terminal")
+    URI wsUri;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    Instance<TransportSessionInfo> transports;
+
+    @Test
+    public void testSessionStats() throws Exception {
+        AeshTransportStats stats = null;
+        for (TransportSessionInfo transport : transports) {
+            if (transport.getTransportName().equals("websocket")) {
+                stats = transport.getStats();
+            }
+        }
+        Assertions.assertThat(stats).isNotNull();
+
+        CountDownLatch done = new CountDownLatch(1);
+        WebSocket[] socket = new WebSocket[1];
+        StringBuilder output = new StringBuilder();
+        WebSocketClient client = vertx.createWebSocketClient();
+        client.connect(new WebSocketConnectOptions()
+                .setHost(wsUri.getHost())
+                .setPort(wsUri.getPort())
+                .setURI(wsUri.getPath())).onComplete(ar -> {
+                    Assertions.assertThat(ar.succeeded()).isTrue();
+                    socket[0] = ar.result();
+                    socket[0].textMessageHandler(msg -> {
+                        synchronized (output) {
+                            output.append(msg);
+                            if (output.toString().contains("Hello!")) {
+                                done.countDown();
+                            }
+                        }
+                    });
+                    socket[0].writeTextMessage("{\"action\":\"init\",\"cols\":80,\"rows\":24}");
+                    vertx.setTimer(500, id -> socket[0].writeTextMessage("{\"action\":\"read\",\"data\":\"hello\\r\"}"));
+                });
+        Assertions.assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+
+        Assertions.assertThat(stats.getSessions()).hasSize(1);
+        AeshSessionStats session = stats.getSessions().iterator().next();
+        Assertions.assertThat(session.getTransport()).isEqualTo("websocket");
+        Assertions.assertThat(session.getFramesIn()).isGreaterThanOrEqualTo(2);
+        Assertions.assertThat(session.getBytesIn()).isPositive();
+        Assertions.assertThat(session.getFramesOut()).isPositive();
+        Assertions.assertThat(session.getBytesOut()).isPositive();
+        Assertions.assertThat(session.getEchoCount()).isPositive();
+        Assertions.assertThat(session.getEchoMaxNanos()).isPositive();
+
+        long bytesIn = session.getBytesIn();
+        socket[0].close();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!stats.getSessions().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertThat(stats.getSessions()).isEmpty();
+        Assertions.assertThat(stats.getBytesIn())
+                .as("Traffic of closed sessions must be kept in the totals")
+                .isGreaterThanOrEqualTo(bytesIn);
+    }
+
+    @CommandDefinition(name = "hello", description = "Say hello")
+    @CliCommand
+    public static class HelloCommand implements Command<CommandInvocation> {
+
+        @Override
+        public CommandResult execute(CommandInvocation invocation) {
+            invocation.println("Hello!");
+            return CommandResult.SUCCESS;
+        }
+    }
+}
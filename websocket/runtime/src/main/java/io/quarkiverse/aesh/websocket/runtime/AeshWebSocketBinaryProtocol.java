@@ -0,0 +1,53 @@
+package io.quarkiverse.aesh.websocket.runtime;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Compact binary frame protocol for WebSocket terminal sessions.
+ * <p>
+ * Every binary frame starts with a one-byte opcode followed by its payload. Each opcode has a
+ * single meaning, whatever the direction of the frame:
+ * <ul>
+ * <li>Client to server: {@link #INPUT} with UTF-8 encoded keystrokes, {@link #RESIZE} with the
+ * new column and row counts as two unsigned big-endian 16-bit integers.</li>
+ * <li>Server to client: {@link #ACCEPT} without payload, confirming the switch to the binary
+ * protocol, and {@link #OUTPUT} with UTF-8 encoded terminal output.</li>
+ * </ul>
+ * <p>
+ * A session always starts with the JSON {@code init} message. A client that supports this
+ * protocol adds {@code "binary": true} to it; if the server has the binary protocol enabled, it
+ * replies with an {@link #ACCEPT} frame, after which the client sends binary frames and the
+ * server sends its output as {@link #OUTPUT} frames. Otherwise the session keeps using the JSON
+ * protocol.
+ */
+public final class AeshWebSocketBinaryProtocol {
+
+    public static final byte ACCEPT = 0x00;
+    public static final byte INPUT = 0x01;
+    public static final byte RESIZE = 0x02;
+    public static final byte OUTPUT = 0x03;
+
+    private AeshWebSocketBinaryProtocol() {
+    }
+
+    /**
+     * Encodes the first {@code length} bytes of UTF-8 terminal output as an {@link #OUTPUT} frame.
+     */
+    public static Buffer output(byte[] data, int length) {
+        return Buffer.buffer(length + 1).appendByte(OUTPUT).appendBytes(data, 0, length);
+    }
+
+    /**
+     * Converts a {@link #RESIZE} frame into the equivalent JSON {@code resize} message.
+     * Resizing is rare, so it reuses the JSON handling of the connection.
+     *
+     * @return the JSON message, or {@code null} if the frame is too short
+     */
+    public static String resizeMessage(Buffer frame) {
+        if (frame.length() < 5) {
+            return null;
+        }
+        return "{\"action\":\"resize\",\"cols\":" + frame.getUnsignedShort(1)
+                + ",\"rows\":" + frame.getUnsignedShort(3) + "}";
+    }
+}
@@ -1,8 +1,19 @@
 package io.quarkiverse.aesh.websocket.runtime;
 
+import java.util.function.Consumer;
+
 import org.aesh.terminal.http.HttpTtyConnection;
+import org.aesh.terminal.tty.Signal;
+import org.jboss.logging.Logger;
 
+import io.quarkiverse.aesh.runtime.AeshAdmissionController;
+import io.quarkiverse.aesh.runtime.AeshIdleSessionReaper;
+import io.quarkiverse.aesh.runtime.AeshRemoteSession;
+import io.quarkiverse.aesh.runtime.AeshSessionStats;
+import io.quarkiverse.aesh.runtime.AeshTerminalInput;
 import io.quarkus.websockets.next.WebSocketConnection;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 
 /**
  * Bridges a Quarkus {@link WebSocketConnection} to aesh-readline's {@link HttpTtyConnection}.
@@ -11,23 +22,197 @@ import io.quarkus.websockets.next.WebSocketConnection;
  * ({@code init}, {@code read}, {@code resize} actions), terminal capability detection,
  * terminal size management, and input decoding. Only overrides {@link #write(byte[])}
  * to send terminal output through the Quarkus WebSocket connection.
+ * <p>
+ * When created with an {@link AeshWebSocketOutputBuffer} configuration, output is coalesced
+ * into frames that are sent asynchronously; otherwise every chunk is sent as its own frame
+ * and the writer waits for it to be written.
+ * <p>
+ * Sessions can switch to the {@link AeshWebSocketBinaryProtocol binary protocol}, in which
+ * keystrokes are decoded straight from the frame bytes instead of going through the JSON parser,
+ * with the same handling of control keys.
+ * <p>
+ * When created with {@link AeshSessionStats}, received and sent frames are counted.
+ * <p>
+ * Once bound to an {@link AeshRemoteSession}, signal handlers are wrapped so that Ctrl-C
+ * interrupts the command running in the session, and closing the connection destroys the
+ * beans of the session.
  */
 public class AeshWebSocketConnection extends HttpTtyConnection {
 
+    private static final Logger LOG = Logger.getLogger(AeshWebSocketConnection.class);
+
     private final WebSocketConnection ws;
+    private final AeshWebSocketOutputBuffer output;
+    private final AeshTerminalInput input = new AeshTerminalInput(this);
+    // Orders the frames sent without an output buffer
+    private final Object sendLock = new Object();
+    private volatile boolean binary;
+    volatile AeshIdleSessionReaper.Handle idleHandle;
+    volatile AeshAdmissionController.Slot admissionSlot;
+    volatile AeshRemoteSession session;
+    private final AeshSessionStats stats;
+    private volatile long lastActivityMs = System.currentTimeMillis();
 
     public AeshWebSocketConnection(WebSocketConnection ws) {
         this.ws = ws;
+        this.output = null;
+        this.stats = null;
+    }
+
+    public AeshWebSocketConnection(WebSocketConnection ws, Vertx vertx, AeshWebSocketRuntimeConfig config) {
+        this(ws, vertx, config, null);
+    }
+
+    public AeshWebSocketConnection(WebSocketConnection ws, Vertx vertx, AeshWebSocketRuntimeConfig config,
+            AeshSessionStats stats) {
+        this.ws = ws;
+        this.stats = stats;
+        this.output = new AeshWebSocketOutputBuffer(vertx,
+                (data, length) -> {
+                    if (binary) {
+                        Buffer frame = AeshWebSocketBinaryProtocol.output(data, length);
+                        countFrameSent(frame.length());
+                        return ws.sendBinary(frame);
+                    }
+                    countFrameSent(length);
+                    return ws.sendText(new String(data, 0, length, outputEncoding()));
+                },
+                config.outputFlushInterval().toMillis(),
+                config.outputFlushSize(),
+                config.outputMaxPendingBytes());
+        if (stats != null) {
+            stats.setQueueDepth(output::pendingBytes);
+        }
+    }
+
+    @Override
+    public void setSignalHandler(Consumer<Signal> handler) {
+        AeshRemoteSession current = session;
+        super.setSignalHandler(current != null ? current.interceptSignals(handler) : handler);
+    }
+
+    /**
+     * Records a client message of the given size, for idle timeout detection and statistics.
+     * Called for every message, so it only updates primitive counters.
+     */
+    public void recordInput(int bytes) {
+        lastActivityMs = System.currentTimeMillis();
+        if (stats != null) {
+            stats.inputReceived(bytes);
+        }
+    }
+
+    /**
+     * Returns the statistics of this session, or {@code null} if they are not collected.
+     */
+    public AeshSessionStats getStats() {
+        return stats;
+    }
+
+    private void countFrameSent(int bytes) {
+        if (stats != null) {
+            stats.frameSent(bytes);
+        }
+    }
+
+    /**
+     * Returns the timestamp (in milliseconds) of the last client input.
+     */
+    public long getLastActivityMs() {
+        return lastActivityMs;
+    }
+
+    /**
+     * Switches the session to the binary protocol and confirms it to the client. The
+     * confirmation is sent after the output written so far, as text frames, and before any
+     * output frame.
+     */
+    public void enableBinaryProtocol() {
+        Buffer accept = Buffer.buffer(1).appendByte(AeshWebSocketBinaryProtocol.ACCEPT);
+        if (output == null) {
+            synchronized (sendLock) {
+                binary = true;
+                ws.sendBinaryAndAwait(accept);
+            }
+            return;
+        }
+        output.flushAndRun(() -> {
+            binary = true;
+            ws.sendBinary(accept).subscribe().with(v -> {
+            }, t -> LOG.debugf(t, "Failed to confirm the binary protocol to WebSocket session %s", ws.id()));
+        });
+    }
+
+    public boolean isBinaryProtocol() {
+        return binary;
+    }
+
+    /**
+     * Handles a frame of the binary protocol.
+     */
+    public void writeBinaryFrame(Buffer frame) {
+        if (frame.length() == 0) {
+            return;
+        }
+        switch (frame.getByte(0)) {
+            case AeshWebSocketBinaryProtocol.INPUT:
+                input.accept(AeshTerminalInput.decodeUtf8(frame.getByteBuf().nioBuffer(1, frame.length() - 1)));
+                break;
+            case AeshWebSocketBinaryProtocol.RESIZE:
+                String resize = AeshWebSocketBinaryProtocol.resizeMessage(frame);
+                if (resize != null) {
+                    writeToDecoder(resize);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void setStdinHandler(Consumer<int[]> handler) {
+        super.setStdinHandler(handler);
+        input.drain();
     }
 
     @Override
     protected void write(byte[] buffer) {
-        ws.sendTextAndAwait(new String(buffer, outputEncoding()));
+        if (stats != null) {
+            stats.outputWritten();
+        }
+        if (output != null) {
+            output.write(buffer);
+        } else {
+            synchronized (sendLock) {
+                if (binary) {
+                    countFrameSent(buffer.length + 1);
+                    ws.sendBinaryAndAwait(AeshWebSocketBinaryProtocol.output(buffer, buffer.length));
+                } else {
+                    countFrameSent(buffer.length);
+                    ws.sendTextAndAwait(new String(buffer, outputEncoding()));
+                }
+            }
+        }
     }
 
     @Override
     public void close() {
+        AeshIdleSessionReaper.Handle handle = idleHandle;
+        if (handle != null) {
+            handle.cancel();
+        }
+        AeshAdmissionController.Slot slot = admissionSlot;
+        if (slot != null) {
+            slot.release();
+        }
+        if (output != null) {
+            output.close();
+        }
         super.close();
+        AeshRemoteSession current = session;
+        if (current != null) {
+            current.destroyBeans();
+        }
         if (ws.isOpen()) {
             ws.closeAndAwait();
         }
@@ -1,23 +1,38 @@
 package io.quarkiverse.aesh.websocket.runtime;
 
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 
+import io.quarkiverse.aesh.runtime.AeshAdmissionController;
+import io.quarkiverse.aesh.runtime.AeshIdleSessionReaper;
 import io.quarkiverse.aesh.runtime.AeshRemoteConnectionHandler;
+import io.quarkiverse.aesh.runtime.AeshRemoteSession;
+import io.quarkiverse.aesh.runtime.AeshTransportStats;
 import io.quarkiverse.aesh.runtime.TransportSessionInfo;
+import io.quarkus.security.identity.SecurityIdentity;
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.quarkus.websockets.next.OnBinaryMessage;
 import io.quarkus.websockets.next.OnClose;
 import io.quarkus.websockets.next.OnOpen;
 import io.quarkus.websockets.next.OnTextMessage;
 import io.quarkus.websockets.next.WebSocket;
 import io.quarkus.websockets.next.WebSocketConnection;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
 
 /**
  * WebSocket endpoint that provides browser-based terminal access to aesh CLI applications.
@@ -29,8 +44,18 @@ import io.quarkus.websockets.next.WebSocketConnection;
  * <li>{@code resize} - Terminal size changes</li>
  * </ul>
  * <p>
+ * When enabled, clients can switch a session to the {@link AeshWebSocketBinaryProtocol binary
+ * protocol} from the {@code init} message.
+ * <p>
  * Each WebSocket connection gets its own aesh console runner with independent
  * readline state, while sharing CDI-managed command implementations.
+ * <p>
+ * The console runner blocks its thread for the lifetime of the session, so the thread
+ * that runs it is chosen by {@link AeshWebSocketRuntimeConfig#executionModel()}.
+ * <p>
+ * A session starts when the shared {@link AeshAdmissionController} grants it a slot, which
+ * may require waiting in its queue when {@code quarkus.aesh.websocket.max-connections} or the
+ * global session limit is reached.
  */
 @WebSocket(path = "/aesh/terminal")
 public class AeshWebSocketEndpoint implements TransportSessionInfo {
@@ -43,17 +68,73 @@ public class AeshWebSocketEndpoint implements TransportSessionInfo {
     @Inject
     AeshWebSocketRuntimeConfig runtimeConfig;
 
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    AeshIdleSessionReaper idleReaper;
+
+    @Inject
+    AeshAdmissionController admission;
+
+    @Inject
+    SecurityIdentity identity;
+
+    @Inject
+    @VirtualThreads
+    Instance<ExecutorService> virtualThreadExecutor;
+
+    private static final String REJECTED_MESSAGE = "Connection rejected: maximum number of sessions reached.\r\n";
+    private static final AeshAdmissionController.Ticket NO_TICKET = () -> {
+    };
+
     private final ConcurrentHashMap<String, AeshWebSocketConnection> connections = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Long> lastActivity = new ConcurrentHashMap<>();
+    // Sessions waiting for an admission slot
+    private final ConcurrentHashMap<String, AeshAdmissionController.Ticket> pending = new ConcurrentHashMap<>();
+    private final AeshTransportStats stats = new AeshTransportStats("websocket");
+
+    private ExecutorService executor;
+    private boolean ownsExecutor;
 
-    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
-        Thread t = new Thread(r);
-        t.setDaemon(true);
-        t.setName("aesh-ws");
-        return t;
-    });
+    @PostConstruct
+    void init() {
+        switch (runtimeConfig.executionModel()) {
+            case VIRTUAL_THREADS:
+                if (Runtime.version().feature() >= 21) {
+                    executor = virtualThreadExecutor.get();
+                    ownsExecutor = false;
+                    break;
+                }
+                // The Quarkus executor would fall back to the worker pool, which the blocked
+                // console loops would exhaust
+                LOG.warnf("Virtual threads require Java 21 or later (running on Java %d), WebSocket"
+                        + " sessions use one platform thread each", Runtime.version().feature());
+                executor = Executors.newCachedThreadPool(sessionThreadFactory());
+                ownsExecutor = true;
+                break;
+            case BOUNDED:
+                int poolSize = Math.max(1, runtimeConfig.boundedPoolSize());
+                executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                        new SynchronousQueue<>(), sessionThreadFactory());
+                ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+                ownsExecutor = true;
+                break;
+            default:
+                executor = Executors.newCachedThreadPool(sessionThreadFactory());
+                ownsExecutor = true;
+                break;
+        }
+    }
 
-    private volatile ScheduledExecutorService idleScheduler;
+    private static ThreadFactory sessionThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r);
+            t.setDaemon(true);
+            t.setName("aesh-ws-" + counter.incrementAndGet());
+            return t;
+        };
+    }
 
     public int getActiveConnectionCount() {
         return connections.size();
@@ -79,6 +160,11 @@ public class AeshWebSocketEndpoint implements TransportSessionInfo {
         return true;
     }
 
+    @Override
+    public AeshTransportStats getStats() {
+        return stats;
+    }
+
     @OnOpen
     void onOpen(WebSocketConnection ws) {
         // Connection will be fully initialized on first "init" message from xterm.js client
@@ -87,85 +173,158 @@ public class AeshWebSocketEndpoint implements TransportSessionInfo {
     @OnTextMessage
     void onMessage(String message, WebSocketConnection ws) {
         AeshWebSocketConnection conn = connections.get(ws.id());
-        if (conn == null) {
-            // Max connections check
-            int max = runtimeConfig.maxConnections().orElse(0);
-            if (max > 0 && connections.size() >= max) {
-                LOG.warnf("Rejected WebSocket connection: limit of %d reached", max);
-                ws.closeAndAwait();
-                return;
+        if (conn != null) {
+            conn.recordInput(message.length());
+            conn.writeToDecoder(message);
+        } else if (pending.putIfAbsent(ws.id(), NO_TICKET) == null) {
+            // First message should be "init" -- the session starts with it once admitted
+            AeshAdmissionController.Ticket ticket = admission.admit("websocket",
+                    new AdmissionCallback(ws, message, principalName()));
+            if (!pending.replace(ws.id(), NO_TICKET, ticket)) {
+                // Already admitted, rejected or closed; cancelling only matters in the last case
+                ticket.cancel();
             }
+        }
+        // Input received while waiting for a slot is discarded
+    }
 
-            // First message should be "init" -- create the aesh connection
-            conn = new AeshWebSocketConnection(ws);
-            connections.put(ws.id(), conn);
-            lastActivity.put(ws.id(), System.currentTimeMillis());
-            conn.writeToDecoder(message);
+    private String principalName() {
+        // The identity is only available on the thread of the endpoint callback
+        return identity.isAnonymous() ? null : identity.getPrincipal().getName();
+    }
+
+    private void startSession(WebSocketConnection ws, String initMessage, String principal,
+            AeshAdmissionController.Slot slot) {
+        AeshWebSocketConnection conn = new AeshWebSocketConnection(ws, vertx, runtimeConfig, stats.open(ws.id()));
+        conn.admissionSlot = slot;
+        AeshRemoteSession session = new AeshRemoteSession("websocket", principal);
+        conn.session = session;
+        conn.recordInput(initMessage.length());
+        conn.writeToDecoder(initMessage);
+        if (runtimeConfig.binaryProtocolEnabled() && requestsBinaryProtocol(initMessage)) {
+            conn.enableBinaryProtocol();
+        }
+        // Registered before the session leaves the pending map, so that a message received in
+        // between is never taken for the first message of another session
+        connections.put(ws.id(), conn);
+        if (!ws.isOpen() && connections.remove(ws.id(), conn)) {
+            // Closed before it was registered, so onClose did not see it
+            stats.close(conn.getStats());
+            conn.close();
+            return;
+        }
 
-            ensureIdleSchedulerStarted();
-
-            // Start command processing on a dedicated thread
-            // (AeshConsoleRunner.start() calls openBlocking() which blocks until close)
-            AeshWebSocketConnection finalConn = conn;
-            try {
-                executor.submit(() -> connectionHandler.handle(finalConn, "websocket"));
-            } catch (RejectedExecutionException e) {
-                LOG.warn("WebSocket executor has been shut down, rejecting new connection");
-                connections.remove(ws.id());
-                lastActivity.remove(ws.id());
-                finalConn.close();
+        trackIdleTimeout(ws.id(), conn);
+
+        // Start command processing on a dedicated thread
+        // (AeshConsoleRunner.start() calls openBlocking() which blocks until close)
+        try {
+            executor.submit(() -> connectionHandler.handle(conn, session));
+        } catch (RejectedExecutionException e) {
+            LOG.warn("No WebSocket session thread available, rejecting new connection");
+            connections.remove(ws.id());
+            stats.close(conn.getStats());
+            conn.close();
+        }
+    }
+
+    static String waitingMessage(int position) {
+        return "All sessions are in use, waiting for a free slot (position " + position + ")...\r\n";
+    }
+
+    private final class AdmissionCallback implements AeshAdmissionController.Callback {
+
+        private final WebSocketConnection ws;
+        private final String initMessage;
+        private final String principal;
+
+        AdmissionCallback(WebSocketConnection ws, String initMessage, String principal) {
+            this.ws = ws;
+            this.initMessage = initMessage;
+            this.principal = principal;
+        }
+
+        @Override
+        public void admitted(AeshAdmissionController.Slot slot) {
+            if (!ws.isOpen()) {
+                pending.remove(ws.id());
+                slot.release();
+                return;
             }
-        } else {
-            lastActivity.put(ws.id(), System.currentTimeMillis());
-            conn.writeToDecoder(message);
+            startSession(ws, initMessage, principal, slot);
+            pending.remove(ws.id());
+        }
+
+        @Override
+        public void waiting(int position) {
+            ws.sendText(waitingMessage(position)).subscribe().with(v -> {
+            }, t -> LOG.debugf(t, "Failed to notify WebSocket session %s of its queue position", ws.id()));
+        }
+
+        @Override
+        public void rejected(String reason) {
+            pending.remove(ws.id());
+            LOG.warnf("Rejected WebSocket connection: session limit reached (%s)", reason);
+            ws.sendText(REJECTED_MESSAGE).chain(() -> ws.close()).subscribe().with(v -> {
+            }, t -> LOG.debugf(t, "Failed to close rejected WebSocket session %s", ws.id()));
+        }
+    }
+
+    @OnBinaryMessage
+    void onBinaryMessage(Buffer message, WebSocketConnection ws) {
+        AeshWebSocketConnection conn = connections.get(ws.id());
+        if (conn == null || !conn.isBinaryProtocol()) {
+            // Binary frames are only valid once the init message has switched the session
+            LOG.debugf("Closing WebSocket session %s: unexpected binary frame", ws.id());
+            ws.closeAndAwait();
+            return;
+        }
+        conn.recordInput(message.length());
+        conn.writeBinaryFrame(message);
+    }
+
+    private static boolean requestsBinaryProtocol(String initMessage) {
+        try {
+            return new JsonObject(initMessage).getBoolean("binary", false);
+        } catch (DecodeException | ClassCastException e) {
+            return false;
         }
     }
 
     @OnClose
     void onClose(WebSocketConnection ws) {
-        lastActivity.remove(ws.id());
+        AeshAdmissionController.Ticket ticket = pending.remove(ws.id());
+        if (ticket != null) {
+            ticket.cancel();
+        }
         AeshWebSocketConnection conn = connections.remove(ws.id());
         if (conn != null) {
+            stats.close(conn.getStats());
             conn.close();
         }
     }
 
-    private void ensureIdleSchedulerStarted() {
+    private void trackIdleTimeout(String id, AeshWebSocketConnection conn) {
         long idleTimeoutMs = runtimeConfig.idleTimeout().map(d -> d.toMillis()).orElse(0L);
-        if (idleTimeoutMs <= 0 || idleScheduler != null) {
+        if (idleTimeoutMs <= 0) {
             return;
         }
-        synchronized (this) {
-            if (idleScheduler != null) {
-                return;
-            }
-            idleScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-                Thread t = new Thread(r, "aesh-ws-idle-checker");
-                t.setDaemon(true);
-                return t;
-            });
-            long checkInterval = Math.max(idleTimeoutMs / 2, 500);
-            idleScheduler.scheduleAtFixedRate(() -> {
-                long now = System.currentTimeMillis();
-                for (Map.Entry<String, Long> entry : lastActivity.entrySet()) {
-                    if (now - entry.getValue() > idleTimeoutMs) {
-                        String id = entry.getKey();
-                        LOG.infof("Closing idle WebSocket session %s (timeout: %dms)", id, idleTimeoutMs);
-                        AeshWebSocketConnection conn = connections.get(id);
-                        if (conn != null) {
-                            conn.close();
-                        }
-                    }
-                }
-            }, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
-        }
+        conn.idleHandle = idleReaper.track(conn::getLastActivityMs, idleTimeoutMs, () -> {
+            LOG.infof("Closing idle WebSocket session %s (timeout: %dms)", id, idleTimeoutMs);
+            conn.close();
+        });
     }
 
     @PreDestroy
     void shutdown() {
-        if (idleScheduler != null) {
-            idleScheduler.shutdownNow();
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        } else {
+            // The shared virtual thread executor is managed by Quarkus, so end the
+            // sessions explicitly to release their blocked console loops
+            for (AeshWebSocketConnection conn : connections.values()) {
+                conn.close();
+            }
         }
-        executor.shutdownNow();
     }
 }
@@ -0,0 +1,26 @@
+package io.quarkiverse.aesh.websocket.runtime;
+
+/**
+ * Threading model used to run WebSocket terminal sessions.
+ * <p>
+ * Each session runs an aesh console whose read loop blocks until the session is closed,
+ * and commands are executed on that same thread.
+ */
+public enum AeshWebSocketExecutionModel {
+    /**
+     * One platform thread per session, taken from an unbounded cached pool.
+     */
+    PLATFORM,
+
+    /**
+     * One virtual thread per session, using the Quarkus virtual thread executor.
+     * Falls back to {@link #PLATFORM} on JVMs without virtual thread support.
+     */
+    VIRTUAL_THREADS,
+
+    /**
+     * A fixed-size pool of platform threads. New sessions are rejected and closed
+     * when all threads are busy.
+     */
+    BOUNDED
+}
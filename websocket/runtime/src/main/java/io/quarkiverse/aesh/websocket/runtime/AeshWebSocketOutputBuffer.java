@@ -0,0 +1,217 @@
+package io.quarkiverse.aesh.websocket.runtime;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.jboss.logging.Logger;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+
+/**
+ * Coalesces terminal output into WebSocket frames and sends them asynchronously.
+ * <p>
+ * aesh emits output in many small chunks (a readline redraw alone is often several writes).
+ * Chunks written within {@code flushIntervalMs} of each other are merged into a single frame;
+ * a frame is sent as soon as the buffered output reaches {@code flushSize} bytes.
+ * Frames are handed to the {@link FrameSink} without waiting for the network.
+ * <p>
+ * The number of bytes that are buffered or in flight is bounded by {@code maxPendingBytes}.
+ * When the limit is reached, {@link #write(byte[])} blocks until frames have been sent,
+ * unless it is called on an event loop thread, which must never block.
+ * <p>
+ * Chunks are never split, so a frame always ends on a chunk boundary and never cuts a
+ * multi-byte character in half.
+ */
+public final class AeshWebSocketOutputBuffer {
+
+    private static final Logger LOG = Logger.getLogger(AeshWebSocketOutputBuffer.class);
+
+    /**
+     * Sends one frame of terminal output.
+     */
+    @FunctionalInterface
+    public interface FrameSink {
+
+        /**
+         * Sends the first {@code length} bytes of {@code data}. The array is owned by the
+         * sink once this method is called.
+         */
+        Uni<Void> send(byte[] data, int length);
+    }
+
+    private final Vertx vertx;
+    private final FrameSink sink;
+    private final long flushIntervalMs;
+    private final int flushSize;
+    private final long maxPendingBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition drained = lock.newCondition();
+
+    private byte[] buffer;
+    private int count;
+    private long inFlightBytes;
+    private boolean flushScheduled;
+    private boolean closed;
+
+    public AeshWebSocketOutputBuffer(Vertx vertx, FrameSink sink, long flushIntervalMs, int flushSize,
+            long maxPendingBytes) {
+        this.vertx = vertx;
+        this.sink = sink;
+        this.flushIntervalMs = Math.max(0, flushIntervalMs);
+        this.flushSize = Math.max(1, flushSize);
+        this.maxPendingBytes = Math.max(this.flushSize, maxPendingBytes);
+        this.buffer = new byte[Math.min(this.flushSize, 4096)];
+    }
+
+    /**
+     * Buffers a chunk of output, blocking the caller while too much output is pending.
+     */
+    public void write(byte[] data) {
+        if (data.length == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            awaitCapacity();
+            if (closed) {
+                return;
+            }
+            append(data);
+            if (count >= flushSize || flushIntervalMs == 0) {
+                sendBuffered();
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                vertx.setTimer(flushIntervalMs, id -> onTimer());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sends any buffered output immediately.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            sendBuffered();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sends any buffered output, then runs the given action before any later output is sent.
+     * Frames the action sends are therefore ordered with the output frames.
+     */
+    public void flushAndRun(Runnable action) {
+        lock.lock();
+        try {
+            sendBuffered();
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sends any buffered output, discards later writes and releases blocked writers.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            sendBuffered();
+            closed = true;
+            drained.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes buffered or handed to the sink but not yet sent.
+     */
+    public long pendingBytes() {
+        lock.lock();
+        try {
+            return count + inFlightBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitCapacity() {
+        if (Context.isOnEventLoopThread()) {
+            return;
+        }
+        while (!closed && count + inFlightBytes >= maxPendingBytes) {
+            try {
+                if (!drained.await(1, TimeUnit.SECONDS)) {
+                    LOG.tracef("Waiting for %d pending bytes of WebSocket output to be sent", count + inFlightBytes);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void append(byte[] data) {
+        if (count + data.length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + data.length));
+        }
+        System.arraycopy(data, 0, buffer, count, data.length);
+        count += data.length;
+    }
+
+    private void onTimer() {
+        lock.lock();
+        try {
+            flushScheduled = false;
+            sendBuffered();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held, so that frames reach the sink in the order they were written
+    private void sendBuffered() {
+        if (count == 0 || closed) {
+            return;
+        }
+        byte[] frame = buffer;
+        int length = count;
+        buffer = new byte[Math.min(flushSize, 4096)];
+        count = 0;
+        inFlightBytes += length;
+        Uni<Void> sent;
+        try {
+            sent = sink.send(frame, length);
+        } catch (RuntimeException e) {
+            onSent(length, e);
+            return;
+        }
+        sent.subscribe().with(ignored -> onSent(length, null), failure -> onSent(length, failure));
+    }
+
+    private void onSent(int length, Throwable failure) {
+        if (failure != null) {
+            LOG.debugf(failure, "Failed to send WebSocket output frame");
+        }
+        lock.lock();
+        try {
+            inFlightBytes -= length;
+            drained.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
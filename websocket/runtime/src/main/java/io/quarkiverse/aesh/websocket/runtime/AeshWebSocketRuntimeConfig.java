@@ -7,6 +7,8 @@ import java.util.OptionalInt;
 import io.quarkus.runtime.annotations.ConfigPhase;
 import io.quarkus.runtime.annotations.ConfigRoot;
 import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import io.smallrye.config.WithName;
 
 /**
  * Runtime configuration for the Aesh WebSocket terminal extension.
@@ -29,4 +31,57 @@ public interface AeshWebSocketRuntimeConfig {
      * sessions can remain idle indefinitely.
      */
     Optional<Duration> idleTimeout();
+
+    /**
+     * The threading model used to run terminal sessions and the commands they execute.
+     * <p>
+     * - `platform` - One platform thread per session from an unbounded pool.
+     * - `virtual-threads` - One virtual thread per session. Requires a JVM with virtual thread support,
+     * otherwise one platform thread per session is used, as with `platform`.
+     * - `bounded` - A fixed pool of `bounded-pool-size` platform threads. Sessions opened while all threads are
+     * busy are closed immediately.
+     */
+    @WithDefault("platform")
+    AeshWebSocketExecutionModel executionModel();
+
+    /**
+     * Number of threads, and therefore concurrent sessions, of the session pool when
+     * execution-model is set to `bounded`.
+     */
+    @WithDefault("200")
+    int boundedPoolSize();
+
+    /**
+     * How long terminal output is buffered before it is sent, so that the many small writes
+     * of a single screen update are sent as one WebSocket frame. Set to `0` to send every
+     * write as soon as it is made.
+     */
+    @WithName("output.flush-interval")
+    @WithDefault("5ms")
+    Duration outputFlushInterval();
+
+    /**
+     * Number of buffered output bytes that triggers sending a frame before the
+     * flush interval has elapsed.
+     */
+    @WithName("output.flush-size")
+    @WithDefault("16384")
+    int outputFlushSize();
+
+    /**
+     * Maximum number of output bytes per session that are buffered or being sent. When it is
+     * reached, the command writing the output waits until the client has caught up.
+     */
+    @WithName("output.max-pending-bytes")
+    @WithDefault("1048576")
+    long outputMaxPendingBytes();
+
+    /**
+     * Whether clients may switch a session to the compact binary frame protocol, which sends
+     * keystrokes and output as raw UTF-8 instead of JSON and text frames. Clients that do not
+     * ask for it keep using the JSON protocol.
+     */
+    @WithName("binary-protocol.enabled")
+    @WithDefault("false")
+    boolean binaryProtocolEnabled();
 }